@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.async;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.sampler.Sampler;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.cloud.sleuth.SpanName;
+import org.springframework.cloud.sleuth.SpanNamer;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.async.TraceRunnable;
+import org.springframework.cloud.sleuth.internal.DefaultSpanNamer;
+import org.springframework.core.annotation.AnnotationUtils;
+
+/**
+ * Overhead of submitting a lambda to an executor with and without tracing. The executor
+ * runs the tasks on the calling thread, so that only the cost of the instrumentation is
+ * measured. The {@code legacy_*} benchmark names the spans the way it was done before the
+ * names were resolved once per class, as a baseline.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class ExecutorSubmitBenchmarksTests {
+
+	@Benchmark
+	public void untraced_submit(BenchmarkContext context, Blackhole blackhole) {
+		context.executor.execute(() -> blackhole.consume(context));
+	}
+
+	@Benchmark
+	public void traced_submit(BenchmarkContext context, Blackhole blackhole) {
+		context.executor
+				.execute(new TraceRunnable(context.tracer, context.spanNamer, () -> blackhole.consume(context)));
+	}
+
+	@Benchmark
+	public void legacy_traced_submit(BenchmarkContext context, Blackhole blackhole) {
+		context.executor
+				.execute(new TraceRunnable(context.tracer, context.legacySpanNamer, () -> blackhole.consume(context)));
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		Executor executor = Runnable::run;
+
+		Tracing tracing;
+
+		Tracer tracer;
+
+		SpanNamer spanNamer = new DefaultSpanNamer();
+
+		SpanNamer legacySpanNamer = new LegacySpanNamer();
+
+		@Setup
+		public void setup() {
+			this.tracing = Tracing.newBuilder().sampler(Sampler.ALWAYS_SAMPLE).addSpanHandler(new SpanHandler() {
+			}).build();
+			CurrentTraceContext currentTraceContext = new BraveCurrentTraceContext(this.tracing.currentTraceContext());
+			this.tracer = new BraveTracer(this.tracing.tracer(), currentTraceContext, new BraveBaggageManager());
+		}
+
+		@TearDown(Level.Trial)
+		public void close() {
+			this.tracing.close();
+		}
+
+	}
+
+	/**
+	 * Copy of the previous naming, looking up the annotation and calling
+	 * {@code toString()} for each task.
+	 */
+	static class LegacySpanNamer implements SpanNamer {
+
+		@Override
+		public String name(Object object, String defaultValue) {
+			SpanName annotation = object instanceof Method
+					? AnnotationUtils.findAnnotation((Method) object, SpanName.class)
+					: AnnotationUtils.findAnnotation(object.getClass(), SpanName.class);
+			String spanName = annotation != null ? annotation.value() : object.toString();
+			if ((object.getClass().getName() + "@" + Integer.toHexString(object.hashCode())).equals(spanName)) {
+				return defaultValue;
+			}
+			return spanName;
+		}
+
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.async;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.sampler.Sampler;
+import jmh.mbr.junit5.Microbenchmark;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.aop.framework.ProxyFactoryBean;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.cloud.sleuth.SpanNamer;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.async.ExecutorInstrumentor;
+import org.springframework.cloud.sleuth.instrument.async.TraceableExecutorService;
+import org.springframework.cloud.sleuth.internal.DefaultSpanNamer;
+import org.springframework.cloud.sleuth.internal.SleuthContextListener;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Overhead of submitting a task to a traced platform thread pool and to a traced virtual
+ * thread per task executor, with the task awaited on the calling thread. The executors
+ * are instrumented the way Sleuth instruments executor beans. The
+ * {@code legacy_traced_submit} benchmark proxies the executor and looks up the traced
+ * method on each call, the way a virtual thread per task executor used to be
+ * instrumented, as a baseline. The {@code virtual} executor requires JDK 21+.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class ThreadPerTaskExecutorBenchmarksTests {
+
+	@Benchmark
+	public Object untraced_submit(BenchmarkContext context) throws Exception {
+		return context.untraced.submit(context.task).get();
+	}
+
+	@Benchmark
+	public Object traced_submit(BenchmarkContext context) throws Exception {
+		return context.traced.submit(context.task).get();
+	}
+
+	@Benchmark
+	public Object legacy_traced_submit(BenchmarkContext context) throws Exception {
+		return context.legacyTraced.submit(context.task).get();
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		@Param({ "platform", "virtual" })
+		String threads;
+
+		Runnable task = () -> {
+		};
+
+		Tracing tracing;
+
+		GenericApplicationContext applicationContext;
+
+		ExecutorService untraced;
+
+		ExecutorService traced;
+
+		ExecutorService legacyTraced;
+
+		@Setup
+		public void setup() {
+			this.tracing = Tracing.newBuilder().sampler(Sampler.ALWAYS_SAMPLE).addSpanHandler(new SpanHandler() {
+			}).build();
+			CurrentTraceContext currentTraceContext = new BraveCurrentTraceContext(this.tracing.currentTraceContext());
+			Tracer tracer = new BraveTracer(this.tracing.tracer(), currentTraceContext, new BraveBaggageManager());
+			this.applicationContext = new GenericApplicationContext();
+			this.applicationContext.registerBean(Tracer.class, () -> tracer);
+			this.applicationContext.registerBean(SpanNamer.class, DefaultSpanNamer::new);
+			this.applicationContext.addApplicationListener(new SleuthContextListener());
+			this.applicationContext.refresh();
+			this.untraced = "virtual".equals(this.threads) ? virtualThreadPerTaskExecutor()
+					: Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+			this.traced = (ExecutorService) new ExecutorInstrumentor(Collections::emptyList, this.applicationContext)
+					.instrument(this.untraced, "executor");
+			this.legacyTraced = legacyProxy(this.applicationContext, this.untraced);
+		}
+
+		@TearDown(Level.Trial)
+		public void close() {
+			this.untraced.shutdown();
+			this.applicationContext.close();
+			this.tracing.close();
+		}
+
+		private static ExecutorService virtualThreadPerTaskExecutor() {
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			}
+			catch (ReflectiveOperationException ex) {
+				throw new IllegalStateException("Virtual threads require JDK 21+", ex);
+			}
+		}
+
+		/**
+		 * Copy of the previous instrumentation of a final executor, a JDK proxy that
+		 * looks up the method of the traced executor on each call.
+		 */
+		private static ExecutorService legacyProxy(BeanFactory beanFactory, ExecutorService executor) {
+			ExecutorService tracedExecutor = TraceableExecutorService.wrap(beanFactory, executor, "executor");
+			ProxyFactoryBean factory = new ProxyFactoryBean();
+			factory.setProxyTargetClass(false);
+			factory.setInterfaces(ExecutorService.class);
+			factory.addAdvice((MethodInterceptor) invocation -> invoke(invocation, tracedExecutor));
+			factory.setTarget(executor);
+			return (ExecutorService) factory.getObject();
+		}
+
+		private static Object invoke(MethodInvocation invocation, Object executor) throws Throwable {
+			Method method = invocation.getMethod();
+			Method methodOnTracedBean = ReflectionUtils.findMethod(executor.getClass(), method.getName(),
+					method.getParameterTypes());
+			if (methodOnTracedBean != null) {
+				try {
+					return methodOnTracedBean.invoke(executor, invocation.getArguments());
+				}
+				catch (InvocationTargetException ex) {
+					Throwable cause = ex.getCause();
+					throw (cause != null) ? cause : ex;
+				}
+			}
+			return invocation.proceed();
+		}
+
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.bridge;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.brave.bridge.BraveFinishedSpan;
+import org.springframework.cloud.sleuth.brave.bridge.CompositeSpanHandler;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.cloud.sleuth.exporter.SpanFilter;
+import org.springframework.cloud.sleuth.exporter.SpanIgnoringSpanFilter;
+import org.springframework.cloud.sleuth.exporter.SpanReporter;
+
+/**
+ * Cost of finishing a span that goes through three {@link SpanFilter}s and two
+ * {@link SpanReporter}s. Meant to be run with {@code -prof gc}. The
+ * {@code legacy_finish_span} benchmark is a copy of the previous handler, that wrapped
+ * the span once per filter and per reporter, with a filter that reads the map of tags, as
+ * a baseline.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class CompositeSpanHandlerBenchmarksTests {
+
+	@Benchmark
+	public boolean finish_span(BenchmarkContext context) {
+		return context.handler.end(context.context, context.span, SpanHandler.Cause.FINISHED);
+	}
+
+	@Benchmark
+	public boolean legacy_finish_span(BenchmarkContext context) {
+		return context.legacyHandler.end(context.context, context.span, SpanHandler.Cause.FINISHED);
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		TraceContext context = TraceContext.newBuilder().traceId(1L).spanId(2L).sampled(true).build();
+
+		MutableSpan span = new MutableSpan(this.context, null);
+
+		SpanHandler handler;
+
+		SpanHandler legacyHandler;
+
+		@Setup
+		public void setup() {
+			this.span.name("get /api/orders");
+			this.span.tag("http.method", "GET");
+			this.span.tag("http.path", "/api/orders");
+			this.span.tag("http.status_code", "200");
+			this.span.tag("mvc.controller.class", "OrderController");
+			this.span.tag("mvc.controller.method", "orders");
+			this.span.annotate(1L, "wr");
+			this.span.startTimestamp(1L);
+			this.span.finishTimestamp(2L);
+			SpanFilter spanIgnoringFilter = new SpanIgnoringSpanFilter(
+					Collections.singletonList("^catalogWatchTaskScheduler$"), Collections.emptyList());
+			SpanFilter indexedTagFilter = span -> {
+				for (int i = 0; i < span.getTagCount(); i++) {
+					if ("http.path".equals(span.getTagKey(i)) && "/health".equals(span.getTagValue(i))) {
+						return false;
+					}
+				}
+				return true;
+			};
+			SpanFilter tagFilter = span -> !"/health".equals(span.getTags().get("http.path"));
+			SpanFilter errorFilter = span -> span.getError() == null;
+			List<SpanReporter> reporters = Arrays.asList(span -> {
+			}, span -> {
+			});
+			this.handler = new CompositeSpanHandler(Arrays.asList(spanIgnoringFilter, indexedTagFilter, errorFilter),
+					reporters);
+			this.legacyHandler = new LegacyCompositeSpanHandler(
+					Arrays.asList(spanIgnoringFilter, tagFilter, errorFilter), reporters);
+		}
+
+	}
+
+	/**
+	 * Copy of the previous {@link CompositeSpanHandler}.
+	 */
+	static class LegacyCompositeSpanHandler extends SpanHandler {
+
+		private final List<SpanFilter> filters;
+
+		private final List<SpanReporter> reporters;
+
+		LegacyCompositeSpanHandler(List<SpanFilter> filters, List<SpanReporter> reporters) {
+			this.filters = filters;
+			this.reporters = reporters;
+		}
+
+		@Override
+		public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+			if (cause != Cause.FINISHED) {
+				return true;
+			}
+			boolean shouldProcess = shouldProcess(span);
+			if (!shouldProcess) {
+				return false;
+			}
+			shouldProcess = super.end(context, span, cause);
+			if (!shouldProcess) {
+				return false;
+			}
+			this.reporters.forEach(r -> r.report(BraveFinishedSpan.fromBrave(span)));
+			return true;
+		}
+
+		private boolean shouldProcess(MutableSpan span) {
+			for (SpanFilter exporter : this.filters) {
+				FinishedSpan finishedSpan = BraveFinishedSpan.fromBrave(span);
+				if (!exporter.isExportable(finishedSpan)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
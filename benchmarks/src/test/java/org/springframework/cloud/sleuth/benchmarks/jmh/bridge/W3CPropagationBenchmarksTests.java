@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.bridge;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import brave.propagation.Propagation;
+import brave.propagation.TraceContext;
+import brave.propagation.TraceContextOrSamplingFlags;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.sleuth.brave.bridge.CompositePropagationFactorySupplier;
+import org.springframework.cloud.sleuth.brave.propagation.PropagationType;
+import org.springframework.cloud.sleuth.internal.EncodingUtils;
+
+/**
+ * Throughput of extracting and injecting the W3C {@code traceparent} and
+ * {@code baggage} headers. The {@code substring_*} benchmark parses the header the way
+ * it was done before ids were read in place, as a baseline.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Microbenchmark
+public class W3CPropagationBenchmarksTests {
+
+	private static final String TRACE_PARENT = "00-67891233abcdef012345678912345678-463ac35c9f6413ad-01";
+
+	@Benchmark
+	public TraceContextOrSamplingFlags extract_traceparent(BenchmarkContext context) {
+		return context.extractor.extract(context.traceParentHeaders);
+	}
+
+	@Benchmark
+	public TraceContextOrSamplingFlags extract_traceparent_and_baggage(BenchmarkContext context) {
+		return context.extractor.extract(context.baggageHeaders);
+	}
+
+	@Benchmark
+	public TraceContext substring_traceparent(BenchmarkContext context) {
+		return substringParse(context.traceParentHeaders.get("traceparent"));
+	}
+
+	@Benchmark
+	public Map<String, String> inject_traceparent(BenchmarkContext context) {
+		Map<String, String> carrier = new HashMap<>(4);
+		context.injector.inject(context.context, carrier);
+		return carrier;
+	}
+
+	/**
+	 * Copy of the previous parsing, creating a substring per id.
+	 */
+	private static TraceContext substringParse(String traceparent) {
+		String traceId = traceparent.substring(3, 35);
+		String spanId = traceparent.substring(36, 52);
+		if (!EncodingUtils.isValidBase16String(traceId) || !EncodingUtils.isValidBase16String(spanId)) {
+			return null;
+		}
+		String traceIdHigh = traceId.substring(0, 16);
+		String traceIdLow = traceId.substring(16);
+		byte flags = EncodingUtils.byteFromBase16String(traceparent, 53);
+		return TraceContext.newBuilder().shared(true).traceIdHigh(EncodingUtils.longFromBase16String(traceIdHigh))
+				.traceId(EncodingUtils.longFromBase16String(traceIdLow))
+				.spanId(EncodingUtils.longFromBase16String(spanId)).sampled(flags == 1).build();
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		TraceContext.Extractor<Map<String, String>> extractor;
+
+		TraceContext.Injector<Map<String, String>> injector;
+
+		Map<String, String> traceParentHeaders;
+
+		Map<String, String> baggageHeaders;
+
+		TraceContext context;
+
+		@Setup
+		public void setup() {
+			Propagation<String> propagation = new CompositePropagationFactorySupplier(
+					new DefaultListableBeanFactory(), Collections.emptyList(),
+					Collections.singletonList(PropagationType.W3C)).get().get();
+			this.extractor = propagation.extractor(Map::get);
+			this.injector = propagation.injector(Map::put);
+			this.traceParentHeaders = Collections.singletonMap("traceparent", TRACE_PARENT);
+			this.baggageHeaders = new HashMap<>();
+			this.baggageHeaders.put("traceparent", TRACE_PARENT);
+			this.baggageHeaders.put("baggage", "user-id=12345;metadata, country = PL,session=abc");
+			this.context = this.extractor.extract(this.traceParentHeaders).context();
+		}
+
+	}
+
+}
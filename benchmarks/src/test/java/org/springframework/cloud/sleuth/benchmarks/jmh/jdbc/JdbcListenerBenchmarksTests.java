@@ -0,0 +1,268 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.jdbc;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.sampler.Sampler;
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import jmh.mbr.junit5.Microbenchmark;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.jdbc.DataSourceNameResolver;
+import org.springframework.cloud.sleuth.instrument.jdbc.TraceJdbcEventListener;
+import org.springframework.cloud.sleuth.instrument.jdbc.TraceQueryExecutionListener;
+import org.springframework.cloud.sleuth.instrument.jdbc.TraceType;
+
+/**
+ * Drives {@link TraceQueryExecutionListener} (datasource-proxy) and
+ * {@link TraceJdbcEventListener} (P6Spy) through a whole statement lifecycle - getting a
+ * connection, executing a query, iterating and closing the result set, closing the
+ * statement and the connection - while a pool of other connections stays open.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Microbenchmark
+public class JdbcListenerBenchmarksTests {
+
+	private static final String SQL = "SELECT id, name FROM person WHERE id = ?";
+
+	@Benchmark
+	public void datasourceProxy_statementLifecycle(BenchmarkContext context) {
+		String connectionId = context.nextConnectionId();
+		TraceQueryExecutionListener listener = context.queryExecutionListener;
+		ConnectionInfo connectionInfo = new ConnectionInfo();
+		connectionInfo.setConnectionId(connectionId);
+		listener.beforeMethod(context.methodContext(context.dataSource, BenchmarkContext.GET_CONNECTION,
+				connectionInfo, null));
+		listener.afterMethod(context.methodContext(context.dataSource, BenchmarkContext.GET_CONNECTION,
+				connectionInfo, context.connection));
+		ExecutionInfo executionInfo = new ExecutionInfo();
+		executionInfo.setConnectionId(connectionId);
+		executionInfo.setStatement(context.statement);
+		executionInfo.setMethod(BenchmarkContext.EXECUTE_QUERY);
+		listener.beforeQuery(executionInfo, context.queries);
+		listener.afterQuery(executionInfo, context.queries);
+		listener.beforeMethod(context.methodContext(context.resultSet, BenchmarkContext.NEXT, connectionInfo, null));
+		listener.afterMethod(context.methodContext(context.resultSet, BenchmarkContext.CLOSE_RESULT_SET,
+				connectionInfo, null));
+		listener.afterMethod(context.methodContext(context.statement, BenchmarkContext.CLOSE_STATEMENT,
+				connectionInfo, null));
+		listener.afterMethod(context.methodContext(context.connection, BenchmarkContext.CLOSE_CONNECTION,
+				connectionInfo, null));
+	}
+
+	@Benchmark
+	public void p6spy_statementLifecycle(BenchmarkContext context) {
+		TraceJdbcEventListener listener = context.jdbcEventListener;
+		ConnectionInformation connectionInformation = ConnectionInformation.fromDataSource(context.dataSource);
+		listener.onBeforeGetConnection(connectionInformation);
+		connectionInformation.setConnection(context.connection);
+		listener.onAfterGetConnection(connectionInformation, null);
+		StatementInformation statementInformation = new StatementInformation(connectionInformation);
+		statementInformation.setStatementQuery(SQL);
+		listener.onBeforeAnyExecute(statementInformation);
+		listener.onAfterAnyExecute(statementInformation, 0L, null);
+		ResultSetInformation resultSetInformation = new ResultSetInformation(statementInformation);
+		listener.onBeforeResultSetNext(resultSetInformation);
+		listener.onAfterResultSetClose(resultSetInformation, null);
+		listener.onAfterStatementClose(statementInformation, null);
+		listener.onAfterConnectionClose(connectionInformation, null);
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		static final Method GET_CONNECTION = method(DataSource.class, "getConnection");
+
+		static final Method EXECUTE_QUERY = method(Statement.class, "executeQuery", String.class);
+
+		static final Method NEXT = method(ResultSet.class, "next");
+
+		static final Method CLOSE_RESULT_SET = method(ResultSet.class, "close");
+
+		static final Method CLOSE_STATEMENT = method(Statement.class, "close");
+
+		static final Method CLOSE_CONNECTION = method(Connection.class, "close");
+
+		/**
+		 * Number of connections that stay open while the benchmarked one is used.
+		 */
+		@Param({ "1", "200" })
+		int openConnections;
+
+		Tracing tracing;
+
+		TraceQueryExecutionListener queryExecutionListener;
+
+		TraceJdbcEventListener jdbcEventListener;
+
+		DataSource dataSource;
+
+		Connection connection;
+
+		Statement statement;
+
+		ResultSet resultSet;
+
+		ProxyConfig proxyConfig = ProxyConfig.Builder.create().dataSourceName("dataSource").build();
+
+		List<QueryInfo> queries = Collections.singletonList(new QueryInfo(SQL));
+
+		private int connectionId;
+
+		@Setup
+		public void setup() throws InterruptedException {
+			// no application context configures logging here
+			LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.INFO);
+			this.tracing = Tracing.newBuilder().sampler(Sampler.ALWAYS_SAMPLE).addSpanHandler(new SpanHandler() {
+			}).build();
+			Tracer tracer = new BraveTracer(this.tracing.tracer(),
+					new BraveCurrentTraceContext(this.tracing.currentTraceContext()), new BraveBaggageManager());
+			List<TraceType> traceTypes = Arrays.asList(TraceType.CONNECTION, TraceType.QUERY, TraceType.FETCH);
+			this.queryExecutionListener = new TraceQueryExecutionListener(tracer, traceTypes,
+					Collections.emptyList());
+			this.jdbcEventListener = new TraceJdbcEventListener(tracer, new DataSourceNameResolver(), traceTypes,
+					false, Collections.emptyList());
+			DatabaseMetaData metaData = stub(DatabaseMetaData.class, null);
+			this.connection = stub(Connection.class, metaData);
+			this.statement = stub(Statement.class, this.connection);
+			this.resultSet = stub(ResultSet.class, this.statement);
+			this.dataSource = stub(DataSource.class, this.connection);
+			// opened in another thread, so that none of them is the current connection of
+			// the benchmark thread
+			Thread pool = new Thread(() -> {
+				for (int i = 0; i < this.openConnections - 1; i++) {
+					openPooledConnection();
+				}
+			});
+			pool.start();
+			pool.join();
+		}
+
+		@TearDown(Level.Trial)
+		public void close() {
+			this.tracing.close();
+		}
+
+		String nextConnectionId() {
+			return Integer.toString(this.connectionId++);
+		}
+
+		MethodExecutionContext methodContext(Object target, Method method, ConnectionInfo connectionInfo,
+				Object result) {
+			return MethodExecutionContext.Builder.create().target(target).method(method)
+					.connectionInfo(connectionInfo).proxyConfig(this.proxyConfig).result(result).build();
+		}
+
+		private void openPooledConnection() {
+			ConnectionInfo connectionInfo = new ConnectionInfo();
+			connectionInfo.setConnectionId(nextConnectionId());
+			this.queryExecutionListener
+					.beforeMethod(methodContext(this.dataSource, GET_CONNECTION, connectionInfo, null));
+			this.queryExecutionListener
+					.afterMethod(methodContext(this.dataSource, GET_CONNECTION, connectionInfo, this.connection));
+			ConnectionInformation connectionInformation = ConnectionInformation.fromDataSource(this.dataSource);
+			this.jdbcEventListener.onBeforeGetConnection(connectionInformation);
+			connectionInformation.setConnection(this.connection);
+			this.jdbcEventListener.onAfterGetConnection(connectionInformation, null);
+		}
+
+		private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+			try {
+				return type.getMethod(name, parameterTypes);
+			}
+			catch (NoSuchMethodException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		/**
+		 * JDBC resource returning the given parent from its getters (e.g.
+		 * {@link ResultSet#getStatement()}) and a fixed URL and catalog.
+		 */
+		@SuppressWarnings("unchecked")
+		private static <T> T stub(Class<T> type, Object parent) {
+			return (T) Proxy.newProxyInstance(BenchmarkContext.class.getClassLoader(), new Class<?>[] { type },
+					(proxy, method, args) -> {
+						switch (method.getName()) {
+						case "getURL":
+							return "jdbc:h2:mem:test";
+						case "getCatalog":
+							return "test";
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "equals":
+							return proxy == args[0];
+						case "toString":
+							return type.getSimpleName();
+						default:
+							if (method.getReturnType() == boolean.class) {
+								return false;
+							}
+							if (method.getReturnType() == int.class) {
+								return 0;
+							}
+							return method.getReturnType().isInstance(parent) ? parent : null;
+						}
+					});
+		}
+
+	}
+
+}
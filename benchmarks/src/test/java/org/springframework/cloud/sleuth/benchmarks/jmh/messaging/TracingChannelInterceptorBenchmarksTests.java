@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.messaging;
+
+import java.util.concurrent.TimeUnit;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.sampler.Sampler;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BravePropagator;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.messaging.DefaultMessageSpanCustomizer;
+import org.springframework.cloud.sleuth.instrument.messaging.MessageHeaderPropagatorGetter;
+import org.springframework.cloud.sleuth.instrument.messaging.MessageHeaderPropagatorSetter;
+import org.springframework.cloud.sleuth.instrument.messaging.TracingChannelInterceptor;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+/**
+ * Cost of tracing a message that crosses a channel. Meant to be run with {@code -prof gc}
+ * to compare the allocation per message, most of which comes from copying the headers of
+ * the message.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class TracingChannelInterceptorBenchmarksTests {
+
+	@Benchmark
+	public Message<?> send_message(BenchmarkContext context) {
+		Message<?> message = context.interceptor.preSend(context.message, context.queueChannel);
+		context.interceptor.afterSendCompletion(message, context.queueChannel, true, null);
+		return message;
+	}
+
+	@Benchmark
+	public Message<?> send_message_with_mutable_headers(BenchmarkContext context) {
+		MessageHeaderAccessor accessor = new MessageHeaderAccessor();
+		accessor.copyHeaders(context.message.getHeaders());
+		accessor.setLeaveMutable(true);
+		Message<?> message = context.interceptor.preSend(
+				MessageBuilder.createMessage(context.message.getPayload(), accessor.getMessageHeaders()),
+				context.queueChannel);
+		context.interceptor.afterSendCompletion(message, context.queueChannel, true, null);
+		return message;
+	}
+
+	@Benchmark
+	public Message<?> send_message_to_direct_channel(BenchmarkContext context) {
+		Message<?> message = context.interceptor.preSend(context.message, context.directChannel);
+		context.interceptor.afterSendCompletion(message, context.directChannel, true, null);
+		return message;
+	}
+
+	@Benchmark
+	public Message<?> handle_message(BenchmarkContext context) {
+		Message<?> message = context.interceptor.beforeHandle(context.sentMessage, context.queueChannel, null);
+		context.interceptor.afterMessageHandled(message, context.queueChannel, null, null);
+		return message;
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		Tracing tracing;
+
+		TracingChannelInterceptor interceptor;
+
+		QueueChannel queueChannel = new QueueChannel();
+
+		DirectChannel directChannel = new DirectChannel();
+
+		Message<?> message = MessageBuilder.withPayload("hello").setHeader("contentType", "text/plain")
+				.setHeader("correlationId", "7d4e36f0").setHeader("sequenceNumber", 1).build();
+
+		Message<?> sentMessage;
+
+		@Setup
+		public void setup() {
+			// no Spring Boot application configures the logging here
+			LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.INFO);
+			this.tracing = Tracing.newBuilder().sampler(Sampler.ALWAYS_SAMPLE).addSpanHandler(new SpanHandler() {
+			}).build();
+			CurrentTraceContext currentTraceContext = new BraveCurrentTraceContext(this.tracing.currentTraceContext());
+			Tracer tracer = new BraveTracer(this.tracing.tracer(), currentTraceContext, new BraveBaggageManager());
+			this.interceptor = new TracingChannelInterceptor(tracer, new BravePropagator(this.tracing),
+					new MessageHeaderPropagatorSetter(), new MessageHeaderPropagatorGetter(), s -> null,
+					new DefaultMessageSpanCustomizer());
+			this.sentMessage = this.interceptor.preSend(this.message, this.queueChannel);
+			this.interceptor.afterSendCompletion(this.sentMessage, this.queueChannel, true, null);
+		}
+
+		@TearDown(Level.Trial)
+		public void close() {
+			this.tracing.close();
+		}
+
+	}
+
+}
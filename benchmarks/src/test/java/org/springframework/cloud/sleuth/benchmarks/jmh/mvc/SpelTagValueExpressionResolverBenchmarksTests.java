@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.mvc;
+
+import java.util.concurrent.TimeUnit;
+
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.instrument.annotation.SpelTagValueExpressionResolver;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+
+/**
+ * Compares resolving a {@code @SpanTag} expression by parsing it on each call (the
+ * behaviour before expressions were cached) against the cached resolver.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(Threads.MAX)
+@Microbenchmark
+public class SpelTagValueExpressionResolverBenchmarksTests {
+
+	private static final String EXPRESSION = "name + ' world'";
+
+	@Benchmark
+	public String parseOnEachCall(BenchmarkContext context) {
+		SimpleEvaluationContext evaluationContext = SimpleEvaluationContext.forReadOnlyDataBinding().build();
+		Expression expression = new SpelExpressionParser().parseExpression(EXPRESSION);
+		return expression.getValue(evaluationContext, context.parameter, String.class);
+	}
+
+	@Benchmark
+	public String cachedExpression(BenchmarkContext context) {
+		return context.resolver.resolve(EXPRESSION, context.parameter);
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		final SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver();
+
+		final Parameter parameter = new Parameter();
+
+	}
+
+	public static class Parameter {
+
+		public String name = "hello";
+
+	}
+
+}
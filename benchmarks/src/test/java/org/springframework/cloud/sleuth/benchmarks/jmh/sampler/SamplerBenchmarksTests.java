@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.sampler;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import brave.sampler.CountingSampler;
+import brave.sampler.Sampler;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.brave.sampler.ProbabilityBasedSampler;
+import org.springframework.cloud.sleuth.brave.sampler.TraceIdRatioBasedSampler;
+
+/**
+ * Throughput of probability samplers when many threads start traces at once. The counting
+ * samplers share a counter between all the threads, the trace id ratio sampler doesn't
+ * share any mutable state.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@Threads(16)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Microbenchmark
+public class SamplerBenchmarksTests {
+
+	@Benchmark
+	public boolean probability_based_sampler(BenchmarkContext context) {
+		return context.probabilityBasedSampler.isSampled(ThreadLocalRandom.current().nextLong());
+	}
+
+	@Benchmark
+	public boolean counting_sampler(BenchmarkContext context) {
+		return context.countingSampler.isSampled(ThreadLocalRandom.current().nextLong());
+	}
+
+	@Benchmark
+	public boolean trace_id_ratio_based_sampler(BenchmarkContext context) {
+		return context.traceIdRatioBasedSampler.isSampled(ThreadLocalRandom.current().nextLong());
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		// boxed once, like a probability read from the sampler properties
+		Float probability = 0.1f;
+
+		Sampler probabilityBasedSampler = new ProbabilityBasedSampler(() -> this.probability);
+
+		Sampler countingSampler = CountingSampler.create(this.probability);
+
+		Sampler traceIdRatioBasedSampler = new TraceIdRatioBasedSampler(() -> this.probability);
+
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.sleuth.instrument.web.SkipPatternMatcher;
+
+/**
+ * Compares the skip pattern decision made with {@link java.util.regex.Matcher#matches()}
+ * against {@link SkipPatternMatcher} for the default skip pattern combined with an
+ * actuator pattern.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(Threads.MAX)
+@Microbenchmark
+public class SkipPatternMatcherBenchmarksTests {
+
+	@Benchmark
+	public boolean regex(BenchmarkContext context) {
+		return context.pattern.matcher(context.path).matches();
+	}
+
+	@Benchmark
+	public boolean skipPatternMatcher(BenchmarkContext context) {
+		return context.matcher.matches(context.path);
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		private static final String SKIP_PATTERN = "/api-docs.*|/swagger.*|"
+				+ ".*\\.png|.*\\.css|.*\\.js|.*\\.html|/favicon.ico|/hystrix.stream|"
+				+ "/(actuator|actuator/.*|health|health/.*|info|info/.*|metrics|metrics/.*|prometheus|prometheus/.*)";
+
+		@Param({ "/users/123/orders", "/swagger-ui/index.html", "/actuator/health", "/static/images/logo.png" })
+		String path;
+
+		volatile Pattern pattern;
+
+		volatile SkipPatternMatcher matcher;
+
+		@Setup
+		public void setup() {
+			this.pattern = Pattern.compile(SKIP_PATTERN);
+			this.matcher = SkipPatternMatcher.compile(this.pattern);
+		}
+
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.webflux;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import brave.Tracing;
+import brave.handler.SpanHandler;
+import brave.sampler.Sampler;
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.TraceContext;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.brave.bridge.BraveBaggageManager;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
+import org.springframework.cloud.sleuth.instrument.reactor.ReactorSleuth;
+import org.springframework.cloud.sleuth.instrument.reactor.ReactorTracingBeans;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Cost of decorating a Reactor pipeline with the scope passing operator and of the
+ * Reactor context entries it adds. Meant to be run with {@code -prof gc} to compare the
+ * allocation per subscription. The {@code legacy_*} benchmark puts each tracing bean
+ * under its own key, the way it was done before the beans were bundled, as a baseline.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Microbenchmark
+public class ReactorContextBenchmarksTests {
+
+	@Benchmark
+	public ContextView scope_passing_pipeline(BenchmarkContext context) {
+		try (CurrentTraceContext.Scope scope = context.currentTraceContext.maybeScope(context.traceContext)) {
+			return context.pipeline.block();
+		}
+	}
+
+	@Benchmark
+	public Context holder_context_entries(BenchmarkContext context) {
+		return context.requestContext.put(ReactorTracingBeans.class, context.beans).put(TraceContext.class,
+				context.traceContext);
+	}
+
+	@Benchmark
+	public Context legacy_context_entries(BenchmarkContext context) {
+		return context.requestContext.put(Tracer.class, context.tracer)
+				.put(CurrentTraceContext.class, context.currentTraceContext)
+				.put(TraceContext.class, context.traceContext);
+	}
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+
+		Tracing tracing;
+
+		GenericApplicationContext springContext;
+
+		Tracer tracer;
+
+		CurrentTraceContext currentTraceContext;
+
+		ReactorTracingBeans beans;
+
+		TraceContext traceContext;
+
+		Context requestContext;
+
+		Mono<ContextView> pipeline;
+
+		@Setup
+		public void setup() {
+			// no application context configures logging here
+			LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.INFO);
+			this.tracing = Tracing.newBuilder().sampler(Sampler.ALWAYS_SAMPLE).addSpanHandler(new SpanHandler() {
+			}).build();
+			this.currentTraceContext = new BraveCurrentTraceContext(this.tracing.currentTraceContext());
+			this.tracer = new BraveTracer(this.tracing.tracer(), this.currentTraceContext, new BraveBaggageManager());
+			this.beans = ReactorTracingBeans.of(this.tracer, this.currentTraceContext);
+			this.springContext = new GenericApplicationContext();
+			this.springContext.registerBean(Tracer.class, () -> this.tracer);
+			this.springContext.registerBean(CurrentTraceContext.class, () -> this.currentTraceContext);
+			this.springContext.refresh();
+			Span span = this.tracer.nextSpan().start();
+			this.traceContext = span.context();
+			span.end();
+			// entries a WebFlux request typically has before Sleuth adds its own
+			this.requestContext = Context.of("org.springframework.web.server.ServerWebExchange", new Object(),
+					"reactor.onDiscard.local", new Object());
+			Function<? super Publisher<ContextView>, ? extends Publisher<ContextView>> operator = ReactorSleuth
+					.scopePassingSpanOperator(this.springContext);
+			Mono<ContextView> source = Mono.from(operator.apply(Mono.deferContextual(Mono::just).hide()));
+			this.pipeline = Mono
+					.from(operator.apply(source.map(contextView -> contextView).filter(contextView -> true)))
+					.contextWrite(this.requestContext);
+		}
+
+		@TearDown(Level.Trial)
+		public void close() {
+			this.springContext.close();
+			this.tracing.close();
+		}
+
+	}
+
+}
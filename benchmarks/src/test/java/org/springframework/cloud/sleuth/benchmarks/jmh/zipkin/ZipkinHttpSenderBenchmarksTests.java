@@ -0,0 +1,254 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.benchmarks.jmh.zipkin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jmh.mbr.junit5.Microbenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import zipkin2.Endpoint;
+import zipkin2.Span;
+import zipkin2.codec.Encoding;
+import zipkin2.codec.SpanBytesEncoder;
+import zipkin2.reporter.BytesMessageEncoder;
+
+import org.springframework.cloud.sleuth.zipkin2.DefaultZipkinRestTemplateCustomizer;
+import org.springframework.cloud.sleuth.zipkin2.RestTemplateSender;
+import org.springframework.cloud.sleuth.zipkin2.ZipkinProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Cost of sending a message of 1000 spans with the {@link RestTemplateSender} to a Zipkin
+ * that discards the request body. Meant to be run with {@code -prof gc} to compare the
+ * allocation per message. The {@code buffered_*} benchmark concatenates the spans into an
+ * array and gzips it in an interceptor, the way it was done before the spans were
+ * streamed to the request body, as a baseline. The bytes written to the wire per message
+ * are printed at the end of each trial.
+ */
+@Measurement(iterations = 5, time = 1)
+@Warmup(iterations = 5, time = 1)
+@Fork(2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Microbenchmark
+public class ZipkinHttpSenderBenchmarksTests {
+
+	private static final String URL = "http://localhost:9411/api/v2/spans";
+
+	@Benchmark
+	public void streaming_message(StreamingContext context) throws IOException {
+		context.sender.sendSpans(context.encodedSpans).execute();
+	}
+
+	@Benchmark
+	public void buffered_message(BufferedContext context) {
+		bufferedPost(context.restTemplate, BytesMessageEncoder.JSON.encode(context.encodedSpans));
+	}
+
+	/**
+	 * Copy of the previous sending, concatenating the spans into an array first.
+	 */
+	private static void bufferedPost(RestTemplate restTemplate, byte[] message) {
+		HttpHeaders httpHeaders = new HttpHeaders();
+		httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+		RequestEntity<byte[]> requestEntity = new RequestEntity<>(message, httpHeaders, HttpMethod.POST,
+				URI.create(URL));
+		restTemplate.exchange(requestEntity, String.class);
+	}
+
+	static List<byte[]> encodedSpans() {
+		List<byte[]> encodedSpans = new ArrayList<>(1000);
+		Endpoint endpoint = Endpoint.newBuilder().serviceName("backend").ip("192.168.99.101").port(9000).build();
+		for (int i = 1; i <= 1000; i++) {
+			Span span = Span.newBuilder().traceId(i, i * 31L).parentId(i).id(i * 17L).name("get /backend")
+					.kind(Span.Kind.SERVER).localEndpoint(endpoint).timestamp(1472470996250000L + i)
+					.duration(100000L + i).putTag("http.method", "GET").putTag("http.path", "/backend/" + (i % 10))
+					.build();
+			encodedSpans.add(SpanBytesEncoder.JSON_V2.encode(span));
+		}
+		return encodedSpans;
+	}
+
+	static RestTemplate restTemplate(ZipkinProperties zipkinProperties, DiscardingRequestFactory requestFactory) {
+		RestTemplate restTemplate = new RestTemplate(requestFactory);
+		return new DefaultZipkinRestTemplateCustomizer(zipkinProperties).customizeTemplate(restTemplate);
+	}
+
+	@State(Scope.Benchmark)
+	public static class StreamingContext {
+
+		@Param({ "none", "gzip", "gzip-1", "zstd" })
+		String compression;
+
+		DiscardingRequestFactory requestFactory = new DiscardingRequestFactory();
+
+		List<byte[]> encodedSpans;
+
+		RestTemplateSender sender;
+
+		@Setup
+		public void setup() {
+			ZipkinProperties zipkinProperties = new ZipkinProperties();
+			ZipkinProperties.Compression compression = zipkinProperties.getCompression();
+			compression.setEnabled(!"none".equals(this.compression));
+			if ("zstd".equals(this.compression)) {
+				compression.setType(ZipkinProperties.Compression.Type.ZSTD);
+			}
+			else if ("gzip-1".equals(this.compression)) {
+				compression.setLevel(1);
+			}
+			this.encodedSpans = encodedSpans();
+			this.sender = new RestTemplateSender(restTemplate(zipkinProperties, this.requestFactory), URL, "",
+					SpanBytesEncoder.JSON_V2, Integer.MAX_VALUE, compression);
+		}
+
+		@TearDown(Level.Trial)
+		public void printBytesOnWire() {
+			System.out.println("\nstreaming [" + this.compression + "], bytes on wire per message: "
+					+ this.requestFactory.bytesPerRequest() + " of "
+					+ Encoding.JSON.listSizeInBytes(this.encodedSpans));
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class BufferedContext {
+
+		@Param({ "none", "gzip" })
+		String compression;
+
+		DiscardingRequestFactory requestFactory = new DiscardingRequestFactory();
+
+		List<byte[]> encodedSpans;
+
+		RestTemplate restTemplate;
+
+		@Setup
+		public void setup() {
+			ZipkinProperties zipkinProperties = new ZipkinProperties();
+			zipkinProperties.getCompression().setEnabled("gzip".equals(this.compression));
+			this.encodedSpans = encodedSpans();
+			this.restTemplate = restTemplate(zipkinProperties, this.requestFactory);
+		}
+
+		@TearDown(Level.Trial)
+		public void printBytesOnWire() {
+			System.out.println("\nbuffered [" + this.compression + "], bytes on wire per message: "
+					+ this.requestFactory.bytesPerRequest() + " of "
+					+ Encoding.JSON.listSizeInBytes(this.encodedSpans));
+		}
+
+	}
+
+	/**
+	 * Counts the bytes of the request bodies and discards them.
+	 */
+	static class DiscardingRequestFactory implements ClientHttpRequestFactory {
+
+		long requests;
+
+		long bytes;
+
+		long bytesPerRequest() {
+			return this.requests == 0 ? 0 : this.bytes / this.requests;
+		}
+
+		@Override
+		public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+			this.requests++;
+			return new DiscardingRequest(uri, httpMethod);
+		}
+
+		private final class DiscardingRequest extends OutputStream implements ClientHttpRequest {
+
+			private final URI uri;
+
+			private final HttpMethod method;
+
+			private final HttpHeaders headers = new HttpHeaders();
+
+			private DiscardingRequest(URI uri, HttpMethod method) {
+				this.uri = uri;
+				this.method = method;
+			}
+
+			@Override
+			public void write(int b) {
+				DiscardingRequestFactory.this.bytes++;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				DiscardingRequestFactory.this.bytes += len;
+			}
+
+			@Override
+			public ClientHttpResponse execute() {
+				return new MockClientHttpResponse(new byte[0], HttpStatus.ACCEPTED);
+			}
+
+			@Override
+			public OutputStream getBody() {
+				return this;
+			}
+
+			@Override
+			public String getMethodValue() {
+				return this.method.name();
+			}
+
+			@Override
+			public URI getURI() {
+				return this.uri;
+			}
+
+			@Override
+			public HttpHeaders getHeaders() {
+				return this.headers;
+			}
+
+		}
+
+	}
+
+}
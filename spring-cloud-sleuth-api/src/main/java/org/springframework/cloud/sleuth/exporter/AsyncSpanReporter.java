@@ -0,0 +1,220 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.exporter;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * {@link SpanReporter} that queues finished spans and reports them in batches to the
+ * given reporters via {@link SpanReporter#report(List)}, from a dedicated thread. The
+ * thread that ends a span only pays for adding it to a bounded queue. What happens when
+ * the queue is full is driven by the {@link OverflowPolicy}.
+ *
+ * The spans are reported as they were handed over. A span must not be modified once it
+ * was reported.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+public class AsyncSpanReporter implements SpanReporter, Closeable {
+
+	private static final Log log = LogFactory.getLog(AsyncSpanReporter.class);
+
+	private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+	private final List<SpanReporter> reporters;
+
+	private final BlockingQueue<FinishedSpan> queue;
+
+	private final int batchSize;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final Duration closeTimeout;
+
+	private final AtomicLong droppedSpans = new AtomicLong();
+
+	private final Thread thread;
+
+	private volatile boolean closed;
+
+	/**
+	 * @param reporters reporters to report the batches of spans to
+	 * @param queueSize maximum number of spans waiting to be reported
+	 * @param batchSize maximum number of spans reported at once
+	 * @param overflowPolicy what to do with a span when the queue is full
+	 * @param closeTimeout how long to wait for the queued spans to be reported on close
+	 */
+	public AsyncSpanReporter(List<SpanReporter> reporters, int queueSize, int batchSize, OverflowPolicy overflowPolicy,
+			Duration closeTimeout) {
+		this.reporters = reporters;
+		this.queue = new ArrayBlockingQueue<>(queueSize);
+		this.batchSize = batchSize;
+		this.overflowPolicy = overflowPolicy;
+		this.closeTimeout = closeTimeout;
+		this.thread = new Thread(this::reportQueuedSpans, "sleuth-async-span-reporter");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	@Override
+	public void report(FinishedSpan span) {
+		if (this.closed) {
+			dropped(span);
+			return;
+		}
+		switch (this.overflowPolicy) {
+		case DROP_OLDEST:
+			while (!this.queue.offer(span)) {
+				FinishedSpan oldest = this.queue.poll();
+				if (oldest != null) {
+					dropped(oldest);
+				}
+			}
+			break;
+		case BLOCK:
+			try {
+				while (!this.queue.offer(span, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+					if (this.closed) {
+						dropped(span);
+						return;
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				dropped(span);
+			}
+			break;
+		default:
+			if (!this.queue.offer(span)) {
+				dropped(span);
+			}
+		}
+	}
+
+	private void dropped(FinishedSpan span) {
+		this.droppedSpans.incrementAndGet();
+		if (log.isDebugEnabled()) {
+			log.debug("Dropped span [" + span + "]");
+		}
+	}
+
+	private void reportQueuedSpans() {
+		while (!this.closed) {
+			try {
+				FinishedSpan span = this.queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if (span != null) {
+					List<FinishedSpan> batch = new ArrayList<>(this.batchSize);
+					batch.add(span);
+					this.queue.drainTo(batch, this.batchSize - 1);
+					reportBatch(batch);
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		List<FinishedSpan> batch = new ArrayList<>(this.batchSize);
+		while (this.queue.drainTo(batch, this.batchSize) > 0) {
+			reportBatch(batch);
+			batch = new ArrayList<>(this.batchSize);
+		}
+	}
+
+	private void reportBatch(List<FinishedSpan> spans) {
+		List<FinishedSpan> batch = Collections.unmodifiableList(spans);
+		for (SpanReporter reporter : this.reporters) {
+			try {
+				reporter.report(batch);
+			}
+			catch (RuntimeException ex) {
+				log.warn("Exception occurred while reporting spans with [" + reporter + "]", ex);
+			}
+		}
+	}
+
+	/**
+	 * @return number of spans waiting to be reported
+	 */
+	public int getQueuedSpans() {
+		return this.queue.size();
+	}
+
+	/**
+	 * @return number of spans that were dropped because the queue was full or the
+	 * reporter was closed
+	 */
+	public long getDroppedSpans() {
+		return this.droppedSpans.get();
+	}
+
+	/**
+	 * Reports the queued spans, waiting up to the close timeout. Spans reported
+	 * afterwards are dropped.
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		try {
+			this.thread.join(this.closeTimeout.toMillis());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		if (this.thread.isAlive()) {
+			log.warn("Timed out after [" + this.closeTimeout + "] while reporting the queued spans");
+			this.thread.interrupt();
+		}
+	}
+
+	/**
+	 * What to do with a span when the queue is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Drops the span that is being reported.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Drops the span that has been queued for the longest time to make room for the
+		 * span that is being reported.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Blocks the thread that reports the span until there's room in the queue.
+		 */
+		BLOCK
+
+	}
+
+}
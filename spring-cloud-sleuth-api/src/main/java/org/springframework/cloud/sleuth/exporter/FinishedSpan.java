@@ -17,6 +17,7 @@
 package org.springframework.cloud.sleuth.exporter;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 
 import org.springframework.cloud.sleuth.Span;
@@ -54,11 +55,83 @@ public interface FinishedSpan {
 	 */
 	Map<String, String> getTags();
 
+	/**
+	 * Number of span's tags, to be read with {@link #getTagKey(int)} and
+	 * {@link #getTagValue(int)} without creating the map of {@link #getTags()}. The
+	 * default implementations walk {@link #getTags()} up to the index, implementations
+	 * that store tags by index should override them.
+	 * @return span's tag count
+	 */
+	default int getTagCount() {
+		return getTags().size();
+	}
+
+	/**
+	 * @param index index of the tag, from {@code 0} to {@link #getTagCount()} exclusive
+	 * @return key of the tag at the given index
+	 */
+	default String getTagKey(int index) {
+		Iterator<String> keys = getTags().keySet().iterator();
+		for (int i = 0; i < index; i++) {
+			keys.next();
+		}
+		return keys.next();
+	}
+
+	/**
+	 * @param index index of the tag, from {@code 0} to {@link #getTagCount()} exclusive
+	 * @return value of the tag at the given index
+	 */
+	default String getTagValue(int index) {
+		Iterator<String> values = getTags().values().iterator();
+		for (int i = 0; i < index; i++) {
+			values.next();
+		}
+		return values.next();
+	}
+
 	/**
 	 * @return span's events as timestamp to value mapping
 	 */
 	Collection<Map.Entry<Long, String>> getEvents();
 
+	/**
+	 * Number of span's events, to be read with {@link #getEventTimestamp(int)} and
+	 * {@link #getEventValue(int)} without creating the collection of
+	 * {@link #getEvents()}. The default implementations walk {@link #getEvents()} up to
+	 * the index, implementations that store events by index should override them.
+	 * @return span's event count
+	 */
+	default int getEventCount() {
+		return getEvents().size();
+	}
+
+	/**
+	 * @param index index of the event, from {@code 0} to {@link #getEventCount()}
+	 * exclusive
+	 * @return timestamp of the event at the given index
+	 */
+	default long getEventTimestamp(int index) {
+		Iterator<Map.Entry<Long, String>> events = getEvents().iterator();
+		for (int i = 0; i < index; i++) {
+			events.next();
+		}
+		return events.next().getKey();
+	}
+
+	/**
+	 * @param index index of the event, from {@code 0} to {@link #getEventCount()}
+	 * exclusive
+	 * @return value of the event at the given index
+	 */
+	default String getEventValue(int index) {
+		Iterator<Map.Entry<Long, String>> events = getEvents().iterator();
+		for (int i = 0; i < index; i++) {
+			events.next();
+		}
+		return events.next().getValue();
+	}
+
 	/**
 	 * @return span's span id
 	 */
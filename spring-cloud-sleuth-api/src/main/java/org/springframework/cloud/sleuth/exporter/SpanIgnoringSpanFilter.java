@@ -17,8 +17,10 @@
 package org.springframework.cloud.sleuth.exporter;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -29,7 +31,10 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.util.StringUtils;
 
 /**
- * {@link SpanFilter} that ignores spans via names.
+ * {@link SpanFilter} that ignores spans via names. The patterns are compiled once.
+ * Patterns without any regular expression syntax are matched by a lookup of the span
+ * name, the remaining ones are combined into a single pattern. Since there are usually
+ * few distinct span names, the decision is cached per span name.
  *
  * @author Marcin Grzejszczak
  * @since 3.0.0
@@ -38,40 +43,94 @@ public class SpanIgnoringSpanFilter implements SpanFilter {
 
 	private static final Log log = LogFactory.getLog(SpanIgnoringSpanFilter.class);
 
-	private final List<String> spanNamePatternsToSkip;
+	/**
+	 * Maximum number of span names for which the decision is cached. The cache is cleared
+	 * once it's full.
+	 */
+	static final int MAX_CACHED_SPAN_NAMES = 1024;
 
-	private final List<String> additionalSpanNamePatternsToIgnore;
+	// matches the characters that have a special meaning in a pattern
+	private static final Pattern REGEX_SYNTAX = Pattern.compile("[\\\\\\[\\](){}.*+?^$|]");
 
-	static final Map<String, Pattern> cache = new ConcurrentHashMap<>();
+	// back references and named groups would clash once the patterns are combined
+	private static final Pattern GROUP_REFERENCE = Pattern.compile("\\\\[1-9]|\\\\k<|\\(\\?<[a-zA-Z]");
+
+	private final Set<String> spanNamesToIgnore = new HashSet<>();
+
+	private final List<Pattern> spanNamePatternsToIgnore = new ArrayList<>();
+
+	final Map<String, Boolean> exportableSpanNames = new ConcurrentHashMap<>();
 
 	public SpanIgnoringSpanFilter(List<String> spanNamePatternsToSkip,
 			List<String> additionalSpanNamePatternsToIgnore) {
-		this.spanNamePatternsToSkip = spanNamePatternsToSkip;
-		this.additionalSpanNamePatternsToIgnore = additionalSpanNamePatternsToIgnore;
+		List<String> combinablePatterns = new ArrayList<>();
+		addPatterns(spanNamePatternsToSkip, combinablePatterns);
+		addPatterns(additionalSpanNamePatternsToIgnore, combinablePatterns);
+		if (!combinablePatterns.isEmpty()) {
+			this.spanNamePatternsToIgnore.add(Pattern.compile(
+					combinablePatterns.stream().map(regex -> "(?:" + regex + ")").collect(Collectors.joining("|"))));
+		}
 	}
 
-	private List<Pattern> spanNamesToIgnore() {
-		return spanNames().stream().map(regex -> cache.computeIfAbsent(regex, Pattern::compile))
-				.collect(Collectors.toList());
+	private void addPatterns(List<String> patterns, List<String> combinablePatterns) {
+		for (String pattern : patterns) {
+			String literal = literal(pattern);
+			if (literal != null) {
+				this.spanNamesToIgnore.add(literal);
+			}
+			else if (GROUP_REFERENCE.matcher(pattern).find()) {
+				this.spanNamePatternsToIgnore.add(Pattern.compile(pattern));
+			}
+			else {
+				// fail for an invalid pattern on its own, not when combined
+				Pattern.compile(pattern);
+				combinablePatterns.add(pattern);
+			}
+		}
 	}
 
-	private List<String> spanNames() {
-		List<String> spanNamesToIgnore = new ArrayList<>(this.spanNamePatternsToSkip);
-		spanNamesToIgnore.addAll(this.additionalSpanNamePatternsToIgnore);
-		return spanNamesToIgnore;
+	/**
+	 * @param pattern pattern of span names
+	 * @return the only span name the pattern matches or {@code null} if it can match
+	 * different names
+	 */
+	private static String literal(String pattern) {
+		int start = pattern.startsWith("^") ? 1 : 0;
+		int end = pattern.endsWith("$") && pattern.length() > start ? pattern.length() - 1 : pattern.length();
+		String literal = pattern.substring(start, end);
+		return REGEX_SYNTAX.matcher(literal).find() ? null : literal;
 	}
 
 	@Override
 	public boolean isExportable(FinishedSpan span) {
-		List<Pattern> spanNamesToIgnore = spanNamesToIgnore();
 		String name = span.getName();
-		if (StringUtils.hasText(name) && spanNamesToIgnore.stream().anyMatch(p -> p.matcher(name).matches())) {
-			if (log.isDebugEnabled()) {
-				log.debug("Will ignore a span with name [" + name + "]");
+		if (!StringUtils.hasText(name)) {
+			return true;
+		}
+		Boolean exportable = this.exportableSpanNames.get(name);
+		if (exportable == null) {
+			exportable = !matches(name);
+			if (this.exportableSpanNames.size() >= MAX_CACHED_SPAN_NAMES) {
+				this.exportableSpanNames.clear();
+			}
+			this.exportableSpanNames.put(name, exportable);
+		}
+		if (!exportable && log.isDebugEnabled()) {
+			log.debug("Will ignore a span with name [" + name + "]");
+		}
+		return exportable;
+	}
+
+	private boolean matches(String name) {
+		if (this.spanNamesToIgnore.contains(name)) {
+			return true;
+		}
+		for (Pattern pattern : this.spanNamePatternsToIgnore) {
+			if (pattern.matcher(name).matches()) {
+				return true;
 			}
-			return false;
 		}
-		return true;
+		return false;
 	}
 
 }
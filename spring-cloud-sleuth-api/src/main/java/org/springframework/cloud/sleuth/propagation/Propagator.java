@@ -69,6 +69,23 @@ public interface Propagator {
 	 */
 	<C> Span.Builder extract(C carrier, Getter<C> getter);
 
+	/**
+	 * Extracts the context of the upstream span without creating a span, for example to
+	 * reuse it as the parent of several spans. Returns {@code null} when the carrier
+	 * doesn't contain a full context or when the implementation doesn't support it, in
+	 * which case {@link #extract(Object, Getter)} should be used instead.
+	 * @param carrier holds propagation fields. For example, an incoming message or http
+	 * request.
+	 * @param getter invoked for each propagation key to get.
+	 * @param <C> carrier of propagation fields, such as an http request.
+	 * @return the extracted context or {@code null}
+	 * @since 3.1.2
+	 */
+	@Nullable
+	default <C> TraceContext extractContext(C carrier, Getter<C> getter) {
+		return null;
+	}
+
 	/**
 	 * Class that allows a {@code TextMapPropagator} to set propagated fields into a
 	 * carrier.
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.exporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.awaitility.Awaitility.await;
+
+class AsyncSpanReporterTests {
+
+	BlockingSpanReporter delegate = new BlockingSpanReporter();
+
+	@Test
+	void should_report_spans_in_batches_from_another_thread() {
+		AsyncSpanReporter reporter = reporter(10, 2, AsyncSpanReporter.OverflowPolicy.DROP_NEWEST);
+		FinishedSpan first = span();
+		FinishedSpan second = span();
+		FinishedSpan third = span();
+
+		reporter.report(first);
+		await().until(() -> this.delegate.batches.size() == 1);
+		reporter.report(second);
+		reporter.report(third);
+		this.delegate.unblock();
+		reporter.close();
+
+		then(this.delegate.batches).containsExactly(Collections.singletonList(first), Arrays.asList(second, third));
+		then(this.delegate.threads).doesNotContain(Thread.currentThread());
+		then(reporter.getDroppedSpans()).isZero();
+	}
+
+	@Test
+	void should_drop_newest_span_when_queue_is_full() {
+		AsyncSpanReporter reporter = reporter(1, 1, AsyncSpanReporter.OverflowPolicy.DROP_NEWEST);
+		FinishedSpan first = span();
+		FinishedSpan second = span();
+		FinishedSpan third = span();
+
+		reporter.report(first);
+		await().until(() -> this.delegate.batches.size() == 1);
+		reporter.report(second);
+		reporter.report(third);
+
+		then(reporter.getQueuedSpans()).isEqualTo(1);
+		then(reporter.getDroppedSpans()).isEqualTo(1);
+		this.delegate.unblock();
+		reporter.close();
+		then(this.delegate.batches).containsExactly(Collections.singletonList(first),
+				Collections.singletonList(second));
+	}
+
+	@Test
+	void should_drop_oldest_span_when_queue_is_full() {
+		AsyncSpanReporter reporter = reporter(1, 1, AsyncSpanReporter.OverflowPolicy.DROP_OLDEST);
+		FinishedSpan first = span();
+		FinishedSpan second = span();
+		FinishedSpan third = span();
+
+		reporter.report(first);
+		await().until(() -> this.delegate.batches.size() == 1);
+		reporter.report(second);
+		reporter.report(third);
+
+		then(reporter.getDroppedSpans()).isEqualTo(1);
+		this.delegate.unblock();
+		reporter.close();
+		then(this.delegate.batches).containsExactly(Collections.singletonList(first), Collections.singletonList(third));
+	}
+
+	@Test
+	void should_block_until_there_is_room_in_the_queue() throws Exception {
+		AsyncSpanReporter reporter = reporter(1, 1, AsyncSpanReporter.OverflowPolicy.BLOCK);
+		FinishedSpan first = span();
+		FinishedSpan second = span();
+		FinishedSpan third = span();
+		reporter.report(first);
+		await().until(() -> this.delegate.batches.size() == 1);
+		reporter.report(second);
+
+		CountDownLatch reported = new CountDownLatch(1);
+		Thread thread = new Thread(() -> {
+			reporter.report(third);
+			reported.countDown();
+		});
+		thread.start();
+
+		then(reported.await(200, TimeUnit.MILLISECONDS)).isFalse();
+		this.delegate.unblock();
+		then(reported.await(5, TimeUnit.SECONDS)).isTrue();
+		reporter.close();
+		then(this.delegate.batches).containsExactly(Collections.singletonList(first), Collections.singletonList(second),
+				Collections.singletonList(third));
+		then(reporter.getDroppedSpans()).isZero();
+	}
+
+	@Test
+	void should_keep_reporting_when_a_reporter_throws_an_exception() {
+		AsyncSpanReporter reporter = new AsyncSpanReporter(Collections.singletonList(span -> {
+			throw new IllegalStateException("boom");
+		}), 10, 10, AsyncSpanReporter.OverflowPolicy.DROP_NEWEST, Duration.ofSeconds(5));
+		List<FinishedSpan> reported = Collections.synchronizedList(new ArrayList<>());
+		AsyncSpanReporter other = new AsyncSpanReporter(Collections.singletonList(reported::add), 10, 10,
+				AsyncSpanReporter.OverflowPolicy.DROP_NEWEST, Duration.ofSeconds(5));
+
+		reporter.report(span());
+		other.report(span());
+		reporter.close();
+		other.close();
+
+		then(reported).hasSize(1);
+	}
+
+	@Test
+	void should_drop_spans_reported_after_close() {
+		AsyncSpanReporter reporter = reporter(10, 10, AsyncSpanReporter.OverflowPolicy.BLOCK);
+		this.delegate.unblock();
+		reporter.close();
+
+		reporter.report(span());
+
+		then(reporter.getDroppedSpans()).isEqualTo(1);
+		then(this.delegate.batches).isEmpty();
+	}
+
+	private AsyncSpanReporter reporter(int queueSize, int batchSize, AsyncSpanReporter.OverflowPolicy policy) {
+		return new AsyncSpanReporter(Collections.singletonList(this.delegate), queueSize, batchSize, policy,
+				Duration.ofSeconds(5));
+	}
+
+	private static FinishedSpan span() {
+		return BDDMockito.mock(FinishedSpan.class);
+	}
+
+	/**
+	 * Blocks on the first batch until unblocked.
+	 */
+	static class BlockingSpanReporter implements SpanReporter {
+
+		final List<List<FinishedSpan>> batches = Collections.synchronizedList(new ArrayList<>());
+
+		final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		@Override
+		public void report(FinishedSpan span) {
+			throw new AssertionError("Should report spans in batches");
+		}
+
+		@Override
+		public void report(List<FinishedSpan> spans) {
+			this.batches.add(new ArrayList<>(spans));
+			this.threads.add(Thread.currentThread());
+			try {
+				this.latch.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		void unblock() {
+			this.latch.countDown();
+		}
+
+	}
+
+}
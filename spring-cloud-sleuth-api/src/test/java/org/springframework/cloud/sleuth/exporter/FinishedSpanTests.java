@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.exporter;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class FinishedSpanTests {
+
+	@Test
+	void should_read_tags_and_events_by_index() {
+		FinishedSpan span = BDDMockito.mock(FinishedSpan.class, Mockito.CALLS_REAL_METHODS);
+		Map<String, String> tags = new LinkedHashMap<>();
+		tags.put("a", "1");
+		tags.put("b", "2");
+		tags.put("c", "3");
+		BDDMockito.doReturn(tags).when(span).getTags();
+		BDDMockito.doReturn(Arrays.asList(new AbstractMap.SimpleEntry<>(10L, "first"),
+				new AbstractMap.SimpleEntry<>(20L, "second"))).when(span).getEvents();
+
+		then(span.getTagCount()).isEqualTo(3);
+		then(span.getTagKey(0)).isEqualTo("a");
+		then(span.getTagKey(2)).isEqualTo("c");
+		then(span.getTagValue(1)).isEqualTo("2");
+		then(span.getEventCount()).isEqualTo(2);
+		then(span.getEventTimestamp(1)).isEqualTo(20L);
+		then(span.getEventValue(0)).isEqualTo("first");
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.sleuth.exporter;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import org.junit.jupiter.api.Test;
@@ -26,8 +27,12 @@ import static org.assertj.core.api.BDDAssertions.then;
 class SpanIgnoringSpanFilterTests {
 
 	private FinishedSpan namedSpan() {
+		return namedSpan("someName");
+	}
+
+	private FinishedSpan namedSpan(String name) {
 		FinishedSpan span = BDDMockito.mock(FinishedSpan.class);
-		BDDMockito.given(span.getName()).willReturn("someName");
+		BDDMockito.given(span.getName()).willReturn(name);
 		return span;
 	}
 
@@ -48,27 +53,40 @@ class SpanIgnoringSpanFilterTests {
 	}
 
 	@Test
-	void should_use_cached_entry_for_same_patterns() {
-		export(handler("someOtherName"));
-		export(handler("someOtherName"));
-		export(handler("someOtherName"));
+	void should_not_handle_span_when_matching_any_of_the_patterns() {
+		SpanIgnoringSpanFilter handler = new SpanIgnoringSpanFilter(
+				Arrays.asList("^catalogWatchTaskScheduler$", "foo.*"), Arrays.asList("^some[A-Z]\\w+$", "(b)\\1"));
 
-		then(SpanIgnoringSpanFilter.cache).containsKey("someOtherName");
+		then(handler.isExportable(namedSpan())).isFalse();
+		then(handler.isExportable(namedSpan("catalogWatchTaskScheduler"))).isFalse();
+		then(handler.isExportable(namedSpan("foobar"))).isFalse();
+		then(handler.isExportable(namedSpan("bb"))).isFalse();
+		then(handler.isExportable(namedSpan("somename"))).isTrue();
+		then(handler.isExportable(namedSpan("catalogWatchTaskScheduler2"))).isTrue();
+	}
 
-		export(handler("a"));
-		export(handler("b"));
-		export(handler("c"));
+	@Test
+	void should_cache_decision_per_span_name() {
+		SpanIgnoringSpanFilter handler = new SpanIgnoringSpanFilter(Collections.emptyList(),
+				Collections.singletonList("some.*"));
 
-		then(SpanIgnoringSpanFilter.cache).containsKey("someOtherName").containsKey("a").containsKey("b")
-				.containsKey("c");
-	}
+		then(handler.isExportable(namedSpan())).isFalse();
+		then(handler.isExportable(namedSpan("other"))).isTrue();
 
-	private void export(SpanIgnoringSpanFilter handler) {
-		handler.isExportable(namedSpan());
+		then(handler.exportableSpanNames).containsEntry("someName", false).containsEntry("other", true);
 	}
 
-	private SpanIgnoringSpanFilter handler(String name) {
-		return new SpanIgnoringSpanFilter(Collections.emptyList(), Collections.singletonList(name));
+	@Test
+	void should_bound_the_number_of_cached_span_names() {
+		SpanIgnoringSpanFilter handler = new SpanIgnoringSpanFilter(Collections.emptyList(),
+				Collections.singletonList("some.*"));
+
+		for (int i = 0; i <= SpanIgnoringSpanFilter.MAX_CACHED_SPAN_NAMES; i++) {
+			handler.isExportable(namedSpan("name" + i));
+		}
+
+		then(handler.exportableSpanNames).hasSizeLessThanOrEqualTo(SpanIgnoringSpanFilter.MAX_CACHED_SPAN_NAMES);
+		then(handler.isExportable(namedSpan())).isFalse();
 	}
 
 }
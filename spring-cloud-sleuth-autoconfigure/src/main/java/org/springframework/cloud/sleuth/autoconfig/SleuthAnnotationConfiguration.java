@@ -16,6 +16,11 @@
 
 package org.springframework.cloud.sleuth.autoconfig;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -89,4 +94,35 @@ public class SleuthAnnotationConfiguration {
 		return new NonReactorSleuthMethodInvocationProcessor();
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterBinder.class)
+	static class SleuthAnnotationMetricsConfiguration {
+
+		@Bean
+		MeterBinder sleuthSpelTagValueExpressionResolverMeterBinder(
+				ObjectProvider<TagValueExpressionResolver> tagValueExpressionResolver) {
+			return registry -> {
+				TagValueExpressionResolver resolver = tagValueExpressionResolver.getIfAvailable();
+				if (!(resolver instanceof SpelTagValueExpressionResolver)) {
+					return;
+				}
+				SpelTagValueExpressionResolver spel = (SpelTagValueExpressionResolver) resolver;
+				FunctionCounter
+						.builder("spring.sleuth.annotation.expression.cache", spel,
+								SpelTagValueExpressionResolver::getCacheHits)
+						.tag("result", "hit").description("Number of SPEL tag expressions served from the cache")
+						.register(registry);
+				FunctionCounter
+						.builder("spring.sleuth.annotation.expression.cache", spel,
+								SpelTagValueExpressionResolver::getCacheMisses)
+						.tag("result", "miss").description("Number of SPEL tag expressions that had to be parsed")
+						.register(registry);
+				Gauge.builder("spring.sleuth.annotation.expression.cache.size", spel,
+						SpelTagValueExpressionResolver::getCacheSize)
+						.description("Number of cached SPEL tag expressions").register(registry);
+			};
+		}
+
+	}
+
 }
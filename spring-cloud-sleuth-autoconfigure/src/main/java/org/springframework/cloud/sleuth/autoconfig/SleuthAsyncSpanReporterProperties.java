@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
+
+/**
+ * Sleuth settings for reporting finished spans asynchronously.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+@ConfigurationProperties("spring.sleuth.span-reporter.async")
+public class SleuthAsyncSpanReporterProperties {
+
+	/**
+	 * Will report finished spans in batches from a dedicated thread instead of the thread
+	 * that ended them.
+	 */
+	private boolean enabled;
+
+	/**
+	 * Maximum number of finished spans waiting to be reported.
+	 */
+	private int queueSize = 1000;
+
+	/**
+	 * Maximum number of finished spans reported at once.
+	 */
+	private int batchSize = 100;
+
+	/**
+	 * What to do with a finished span when the queue is full.
+	 */
+	private AsyncSpanReporter.OverflowPolicy overflowPolicy = AsyncSpanReporter.OverflowPolicy.DROP_NEWEST;
+
+	/**
+	 * How long to wait for the queued spans to be reported when the application is shut
+	 * down.
+	 */
+	private Duration closeTimeout = Duration.ofSeconds(1);
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getQueueSize() {
+		return this.queueSize;
+	}
+
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public AsyncSpanReporter.OverflowPolicy getOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+	public void setOverflowPolicy(AsyncSpanReporter.OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	public Duration getCloseTimeout() {
+		return this.closeTimeout;
+	}
+
+	public void setCloseTimeout(Duration closeTimeout) {
+		this.closeTimeout = closeTimeout;
+	}
+
+}
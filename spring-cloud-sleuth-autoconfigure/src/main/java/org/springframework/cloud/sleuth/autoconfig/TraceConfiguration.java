@@ -16,12 +16,23 @@
 
 package org.springframework.cloud.sleuth.autoconfig;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.SpanNamer;
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
 import org.springframework.cloud.sleuth.exporter.SpanFilter;
 import org.springframework.cloud.sleuth.exporter.SpanIgnoringSpanFilter;
+import org.springframework.cloud.sleuth.exporter.SpanReporter;
 import org.springframework.cloud.sleuth.internal.DefaultSpanNamer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,7 +49,7 @@ import org.springframework.context.annotation.Configuration;
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnProperty(value = "spring.sleuth.enabled", matchIfMissing = true)
 @EnableConfigurationProperties({ SleuthSpanFilterProperties.class, SleuthBaggageProperties.class,
-		SleuthTracerProperties.class })
+		SleuthTracerProperties.class, SleuthAsyncSpanReporterProperties.class })
 public class TraceConfiguration {
 
 	@Bean
@@ -54,4 +65,40 @@ public class TraceConfiguration {
 				sleuthSpanFilterProperties.getAdditionalSpanNamePatternsToIgnore());
 	}
 
+	/**
+	 * Reports finished spans to all the other {@link SpanReporter} beans from a dedicated
+	 * thread. Picked by the tracer bridge instead of those beans when present.
+	 * @param reporters reporters to report the batches of spans to
+	 * @param properties async reporter properties
+	 * @return async span reporter
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty("spring.sleuth.span-reporter.async.enabled")
+	AsyncSpanReporter asyncSpanReporter(ObjectProvider<List<SpanReporter>> reporters,
+			SleuthAsyncSpanReporterProperties properties) {
+		return new AsyncSpanReporter(reporters.getIfAvailable(ArrayList::new), properties.getQueueSize(),
+				properties.getBatchSize(), properties.getOverflowPolicy(), properties.getCloseTimeout());
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterBinder.class)
+	@ConditionalOnProperty("spring.sleuth.span-reporter.async.enabled")
+	static class AsyncSpanReporterMetricsConfiguration {
+
+		@Bean
+		MeterBinder sleuthAsyncSpanReporterMeterBinder(AsyncSpanReporter asyncSpanReporter) {
+			return registry -> {
+				FunctionCounter
+						.builder("spring.sleuth.span-reporter.async.dropped", asyncSpanReporter,
+								AsyncSpanReporter::getDroppedSpans)
+						.description("Number of finished spans that were dropped before being reported")
+						.register(registry);
+				Gauge.builder("spring.sleuth.span-reporter.async.queue.size", asyncSpanReporter,
+						AsyncSpanReporter::getQueuedSpans)
+						.description("Number of finished spans waiting to be reported").register(registry);
+			};
+		}
+
+	}
+
 }
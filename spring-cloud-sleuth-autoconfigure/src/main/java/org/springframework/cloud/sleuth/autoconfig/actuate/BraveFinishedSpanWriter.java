@@ -16,10 +16,12 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import brave.Tags;
+import brave.handler.MutableSpan;
 import brave.handler.MutableSpanBytesEncoder;
 
 import org.springframework.cloud.sleuth.brave.bridge.BraveFinishedSpan;
@@ -34,13 +36,56 @@ import org.springframework.cloud.sleuth.exporter.SpanReporter;
  */
 class BraveFinishedSpanWriter implements FinishedSpanWriter<String> {
 
+	private static final MutableSpanBytesEncoder ZIPKIN_JSON_V2 = MutableSpanBytesEncoder.zipkinJsonV2(Tags.ERROR);
+
 	@Override
 	public String write(TextOutputFormat format, List<FinishedSpan> spans) {
 		if (format == TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2) {
-			return new String(MutableSpanBytesEncoder.zipkinJsonV2(Tags.ERROR)
+			return new String(ZIPKIN_JSON_V2
 					.encodeList(spans.stream().map(BraveFinishedSpan::toBrave).collect(Collectors.toList())));
 		}
 		return null;
 	}
 
+	@Override
+	public FinishedSpanEncoder encoder(TextOutputFormat format) {
+		if (format == TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2) {
+			return ZipkinJsonV2Encoder.INSTANCE;
+		}
+		return null;
+	}
+
+	private static final class ZipkinJsonV2Encoder implements FinishedSpanEncoder {
+
+		private static final ZipkinJsonV2Encoder INSTANCE = new ZipkinJsonV2Encoder();
+
+		private static final byte[] PREFIX = "[".getBytes(StandardCharsets.UTF_8);
+
+		private static final byte[] DELIMITER = ",".getBytes(StandardCharsets.UTF_8);
+
+		private static final byte[] SUFFIX = "]".getBytes(StandardCharsets.UTF_8);
+
+		@Override
+		public byte[] listPrefix() {
+			return PREFIX;
+		}
+
+		@Override
+		public byte[] listDelimiter() {
+			return DELIMITER;
+		}
+
+		@Override
+		public byte[] listSuffix() {
+			return SUFFIX;
+		}
+
+		@Override
+		public byte[] encode(FinishedSpan span) {
+			MutableSpan mutableSpan = BraveFinishedSpan.toBrave(span);
+			return ZIPKIN_JSON_V2.encode(mutableSpan);
+		}
+
+	}
+
 }
@@ -17,10 +17,11 @@
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.boot.context.metrics.buffering.StartupTimeline;
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
@@ -29,19 +30,56 @@ import org.springframework.cloud.sleuth.exporter.SpanReporter;
 /**
  * A {@link SpanReporter} that buffers finished spans.
  *
+ * Spans are stored in a fixed-capacity, pre-allocated ring buffer that overwrites the
+ * oldest span once full. Each reported span gets a sequence number that is stored next to
+ * it. Reporters claim a slot with a single atomic increment and never wait for readers.
+ * Readers only accept a slot if its sequence did not change while the span was read, and
+ * drains mark the slots they took as consumed, so that every span is either drained once
+ * or counted as dropped.
+ *
  * @author Marcin Grzejszczak
  * @since 3.1.0
  */
 public class BufferingSpanReporter implements SpanReporter {
 
+	private static final long EMPTY = -1L;
+
+	private static final long WRITING = -2L;
+
 	private final int capacity;
 
-	private final AtomicInteger estimatedSize = new AtomicInteger();
+	private final AtomicReferenceArray<FinishedSpan> spans;
+
+	/**
+	 * State of each slot. Either {@link #EMPTY}, {@link #WRITING}, the sequence of the
+	 * buffered span or the {@link #consumed(long) consumed} sequence of a drained span.
+	 */
+	private final AtomicLongArray states;
+
+	/**
+	 * Sequence of the next reported span.
+	 */
+	private final AtomicLong head = new AtomicLong();
 
-	final ConcurrentLinkedQueue<FinishedSpan> spans = new ConcurrentLinkedQueue<>();
+	/**
+	 * All spans before this sequence were either drained or overwritten.
+	 */
+	private final AtomicLong drainedUpTo = new AtomicLong();
+
+	private final LongAdder drained = new LongAdder();
+
+	private final LongAdder dropped = new LongAdder();
 
 	public BufferingSpanReporter(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be greater than 0 but was [" + capacity + "]");
+		}
 		this.capacity = capacity;
+		this.spans = new AtomicReferenceArray<>(capacity);
+		this.states = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			this.states.set(i, EMPTY);
+		}
 	}
 
 	/**
@@ -52,7 +90,24 @@ public class BufferingSpanReporter implements SpanReporter {
 	 * @return a snapshot of currently buffered spans.
 	 */
 	public List<FinishedSpan> getFinishedSpans() {
-		return new ArrayList<>(this.spans);
+		List<FinishedSpan> events = new ArrayList<>();
+		read(this.drainedUpTo.get(), this.head.get(), Integer.MAX_VALUE, events, false);
+		return events;
+	}
+
+	/**
+	 * Copies buffered spans, oldest first, starting at the given sequence. Spans that
+	 * were already drained or overwritten are skipped.
+	 * <p>
+	 * This will not remove spans from the buffer.
+	 * @param since sequence of the first span to copy
+	 * @param limit maximum number of spans to copy
+	 * @param spans list to copy the spans to
+	 * @return sequence to pass as {@code since} to continue after the copied spans
+	 * @since 3.1.2
+	 */
+	public long getFinishedSpans(long since, int limit, List<FinishedSpan> spans) {
+		return read(since, this.head.get(), limit, spans, false);
 	}
 
 	/**
@@ -63,27 +118,121 @@ public class BufferingSpanReporter implements SpanReporter {
 	 * @return buffered steps drained from the buffer.
 	 */
 	public List<FinishedSpan> drainFinishedSpans() {
+		return drainFinishedSpans(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Pulls at most {@code limit} of the oldest spans from the buffer.
+	 * @param limit maximum number of spans to drain
+	 * @return buffered spans drained from the buffer
+	 * @since 3.1.2
+	 */
+	public List<FinishedSpan> drainFinishedSpans(int limit) {
 		List<FinishedSpan> events = new ArrayList<>();
-		Iterator<FinishedSpan> iterator = this.spans.iterator();
-		while (iterator.hasNext()) {
-			events.add(iterator.next());
-			iterator.remove();
-		}
-		this.estimatedSize.set(0);
+		long next = read(this.drainedUpTo.get(), this.head.get(), limit, events, true);
+		this.drainedUpTo.accumulateAndGet(next, Math::max);
+		this.drained.add(events.size());
 		return events;
 	}
 
+	/**
+	 * Reads spans with sequences from {@code from} (inclusive) to {@code to} (exclusive).
+	 * Spans that were already overwritten or drained are skipped. Reading stops at the
+	 * first span that is still being written or once {@code limit} spans were read.
+	 * @return sequence of the first span that was not read
+	 */
+	private long read(long from, long to, int limit, List<FinishedSpan> events, boolean drain) {
+		long sequence = Math.max(from, to - this.capacity);
+		int count = 0;
+		for (; sequence < to && count < limit; sequence++) {
+			int index = index(sequence);
+			long state = this.states.get(index);
+			if (state == WRITING || sequence(state) < sequence) {
+				return sequence;
+			}
+			if (sequence(state) > sequence || state != sequence) {
+				// overwritten by a newer span or already drained
+				continue;
+			}
+			FinishedSpan span = this.spans.get(index);
+			// the span belongs to the sequence only if the slot did not change meanwhile
+			if (drain ? this.states.compareAndSet(index, sequence, consumed(sequence))
+					: this.states.get(index) == sequence) {
+				events.add(span);
+				count++;
+			}
+		}
+		return sequence;
+	}
+
 	@Override
 	public void report(FinishedSpan span) {
-		if (this.estimatedSize.get() < this.capacity) {
-			this.estimatedSize.incrementAndGet();
-			this.spans.add(span);
+		long sequence = this.head.getAndIncrement();
+		int index = index(sequence);
+		long previous;
+		do {
+			previous = this.states.get(index);
+			if (previous == WRITING) {
+				// only possible when the buffer wrapped around while another reporter is
+				// in the middle of its two writes to the same slot
+				Thread.yield();
+				continue;
+			}
+			if (sequence(previous) > sequence) {
+				// a newer span is already in the slot
+				this.dropped.increment();
+				return;
+			}
 		}
-		else {
-			this.spans.poll();
-			this.estimatedSize.decrementAndGet();
-			report(span);
+		while (previous == WRITING || !this.states.compareAndSet(index, previous, WRITING));
+		if (previous >= 0) {
+			// overwriting a span that was not drained
+			this.dropped.increment();
 		}
+		this.spans.set(index, span);
+		this.states.set(index, sequence);
+	}
+
+	private int index(long sequence) {
+		return (int) (sequence % this.capacity);
+	}
+
+	private static long consumed(long sequence) {
+		return -sequence - 3;
+	}
+
+	private static long sequence(long state) {
+		return state >= EMPTY ? state : -state - 3;
+	}
+
+	/**
+	 * @return sequence that the next reported span will get
+	 * @since 3.1.2
+	 */
+	public long getNextSequence() {
+		return this.head.get();
+	}
+
+	/**
+	 * @return number of spans that were overwritten or dropped before being drained
+	 */
+	public long getDroppedSpans() {
+		return this.dropped.sum();
+	}
+
+	/**
+	 * @return estimated number of spans that are currently buffered
+	 */
+	public int getBufferedSpans() {
+		long buffered = this.head.get() - this.drained.sum() - this.dropped.sum();
+		return (int) Math.max(0, Math.min(buffered, this.capacity));
+	}
+
+	/**
+	 * @return the capacity of the buffer
+	 */
+	public int getCapacity() {
+		return this.capacity;
 	}
 
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.actuate;
+
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+
+/**
+ * Encodes finished spans one by one, so that a list of spans can be streamed without
+ * materializing the whole list in memory.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+public interface FinishedSpanEncoder {
+
+	/**
+	 * @return bytes that start a list of spans
+	 */
+	byte[] listPrefix();
+
+	/**
+	 * @return bytes that separate two spans of a list
+	 */
+	byte[] listDelimiter();
+
+	/**
+	 * @return bytes that end a list of spans
+	 */
+	byte[] listSuffix();
+
+	/**
+	 * Encodes a single span.
+	 * @param span span to encode
+	 * @return encoded span
+	 */
+	byte[] encode(FinishedSpan span);
+
+}
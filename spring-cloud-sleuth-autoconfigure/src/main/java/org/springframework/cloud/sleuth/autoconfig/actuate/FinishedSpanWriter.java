@@ -19,6 +19,7 @@ package org.springframework.cloud.sleuth.autoconfig.actuate;
 import java.util.List;
 
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.lang.Nullable;
 
 /**
  * Writes finished spans in a provided format.
@@ -37,4 +38,17 @@ public interface FinishedSpanWriter<T> {
 	 */
 	T write(TextOutputFormat format, List<FinishedSpan> spans);
 
+	/**
+	 * Returns an encoder of single spans in a given format. When available, spans are
+	 * streamed to the response instead of being written at once.
+	 * @param format format in which spans should be stored
+	 * @return encoder or {@code null} if {@link TextOutputFormat} is not supported or
+	 * spans can't be encoded one by one
+	 * @since 3.1.2
+	 */
+	@Nullable
+	default FinishedSpanEncoder encoder(TextOutputFormat format) {
+		return null;
+	}
+
 }
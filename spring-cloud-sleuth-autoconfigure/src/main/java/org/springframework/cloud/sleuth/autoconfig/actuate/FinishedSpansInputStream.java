@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.actuate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+
+/**
+ * {@link InputStream} of a list of encoded spans. Spans are pulled from a
+ * {@link SpanSource} and encoded chunk by chunk while the stream is read, so that only a
+ * single chunk of encoded spans is kept in memory.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+class FinishedSpansInputStream extends InputStream {
+
+	static final int CHUNK_SIZE = 128;
+
+	private final FinishedSpanEncoder encoder;
+
+	private final SpanSource source;
+
+	private final Supplier<byte[]> suffix;
+
+	private final List<FinishedSpan> spans = new ArrayList<>(CHUNK_SIZE);
+
+	private final Chunk chunk = new Chunk();
+
+	private int position;
+
+	private boolean empty = true;
+
+	private boolean finished;
+
+	/**
+	 * @param encoder encoder of spans
+	 * @param source source of spans
+	 * @param prefix bytes to write before the list of spans
+	 * @param suffix bytes to write after the list of spans, resolved once all spans were
+	 * pulled from the source
+	 */
+	FinishedSpansInputStream(FinishedSpanEncoder encoder, SpanSource source, byte[] prefix, Supplier<byte[]> suffix) {
+		this.encoder = encoder;
+		this.source = source;
+		this.suffix = suffix;
+		this.chunk.write(prefix);
+		this.chunk.write(encoder.listPrefix());
+	}
+
+	@Override
+	public int read() {
+		if (!hasRemaining()) {
+			return -1;
+		}
+		return this.chunk.buffer()[this.position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length) {
+		if (length == 0) {
+			return 0;
+		}
+		if (!hasRemaining()) {
+			return -1;
+		}
+		int read = Math.min(length, this.chunk.size() - this.position);
+		System.arraycopy(this.chunk.buffer(), this.position, bytes, offset, read);
+		this.position += read;
+		return read;
+	}
+
+	@Override
+	public int available() {
+		return this.chunk.size() - this.position;
+	}
+
+	private boolean hasRemaining() {
+		while (this.position >= this.chunk.size()) {
+			if (this.finished) {
+				return false;
+			}
+			nextChunk();
+		}
+		return true;
+	}
+
+	private void nextChunk() {
+		this.chunk.reset();
+		this.position = 0;
+		this.spans.clear();
+		this.source.pull(this.spans, CHUNK_SIZE);
+		for (FinishedSpan span : this.spans) {
+			if (!this.empty) {
+				this.chunk.write(this.encoder.listDelimiter());
+			}
+			this.chunk.write(this.encoder.encode(span));
+			this.empty = false;
+		}
+		if (this.spans.isEmpty()) {
+			this.chunk.write(this.encoder.listSuffix());
+			this.chunk.write(this.suffix.get());
+			this.finished = true;
+		}
+		// the spans were encoded, no need to keep references to them
+		this.spans.clear();
+	}
+
+	/**
+	 * Source of spans to stream.
+	 */
+	interface SpanSource {
+
+		/**
+		 * Adds at most {@code max} spans to the list. Adding no spans ends the stream.
+		 * @param spans list to add the spans to
+		 * @param max maximum number of spans to add
+		 */
+		void pull(List<FinishedSpan> spans, int max);
+
+	}
+
+	private static final class Chunk extends ByteArrayOutputStream {
+
+		Chunk() {
+			super(8192);
+		}
+
+		byte[] buffer() {
+			return this.buf;
+		}
+
+		@Override
+		public void write(byte[] bytes) {
+			write(bytes, 0, bytes.length);
+		}
+
+	}
+
+}
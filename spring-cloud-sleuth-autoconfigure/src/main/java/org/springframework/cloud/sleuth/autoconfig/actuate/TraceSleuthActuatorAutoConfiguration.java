@@ -17,6 +17,9 @@
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
 import brave.handler.SpanHandler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.actuate.endpoint.Producible;
@@ -58,6 +61,26 @@ public class TraceSleuthActuatorAutoConfiguration {
 		return new TracesScrapeEndpoint(bufferingSpanReporter, finishedSpanWriter);
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterBinder.class)
+	static class BufferingSpanReporterMetricsConfiguration {
+
+		@Bean
+		MeterBinder sleuthBufferingSpanReporterMeterBinder(BufferingSpanReporter bufferingSpanReporter) {
+			return registry -> {
+				FunctionCounter
+						.builder("spring.sleuth.traces.buffer.dropped", bufferingSpanReporter,
+								BufferingSpanReporter::getDroppedSpans)
+						.description("Number of spans that were overwritten or dropped before being drained")
+						.register(registry);
+				Gauge.builder("spring.sleuth.traces.buffer.size", bufferingSpanReporter,
+						BufferingSpanReporter::getBufferedSpans).description("Number of buffered spans")
+						.register(registry);
+			};
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(brave.Tracer.class)
 	@ConditionalOnBraveEnabled
@@ -16,27 +16,45 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
 import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
 import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.cloud.sleuth.autoconfig.actuate.FinishedSpansInputStream.SpanSource;
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 /**
  * {@link Endpoint @Endpoint} that outputs spans in a format that can be scraped by a
  * collector.
  *
+ * When the {@link FinishedSpanWriter} provides a {@link FinishedSpanEncoder} for the
+ * requested format, spans are streamed to the response while they are read from the
+ * buffer. Otherwise, all spans are written at once.
+ *
+ * Reading spans supports cursor based pagination. With {@code ?since=<sequence>} the
+ * spans starting at the given sequence are returned in a JSON object together with the
+ * sequence to pass as {@code since} with the next request, e.g.
+ * <code>{"spans":[...],"next":42}</code>. The number of returned spans can be limited
+ * with {@code ?limit=<number>}.
+ *
  * @author Marcin Grzejszczak
  * @since 3.1.0
  */
 @WebEndpoint(id = "traces")
 public class TracesScrapeEndpoint {
 
+	private static final byte[] PAGE_PREFIX = "{\"spans\":".getBytes(StandardCharsets.UTF_8);
+
 	private final BufferingSpanReporter bufferingSpanReporter;
 
 	private final FinishedSpanWriter finishedSpanWriter;
@@ -46,26 +64,134 @@ public class TracesScrapeEndpoint {
 		this.finishedSpanWriter = finishedSpanWriter;
 	}
 
-	@ReadOperation(producesFrom = TextOutputFormat.class)
 	public WebEndpointResponse<Object> spansSnapshot(TextOutputFormat format) {
-		List<FinishedSpan> finishedSpans = this.bufferingSpanReporter.getFinishedSpans();
-		return response(format, finishedSpans);
+		return spansSnapshot(format, null, null);
+	}
+
+	/**
+	 * Returns buffered spans without removing them from the buffer.
+	 * @param format format of the spans
+	 * @param since sequence of the first span to return, when set the spans are returned
+	 * together with the sequence to continue from
+	 * @param limit maximum number of spans to return
+	 * @return response with the spans
+	 * @since 3.1.2
+	 */
+	@ReadOperation(producesFrom = TextOutputFormat.class)
+	public WebEndpointResponse<Object> spansSnapshot(TextOutputFormat format, @Nullable Long since,
+			@Nullable Integer limit) {
+		if ((since != null && since < 0) || (limit != null && limit <= 0)) {
+			return new WebEndpointResponse<>("The [since] parameter must not be negative and [limit] must be positive",
+					HttpStatus.BAD_REQUEST.value());
+		}
+		int maxSpans = limit != null ? limit : this.bufferingSpanReporter.getCapacity();
+		FinishedSpanEncoder encoder = this.finishedSpanWriter.encoder(format);
+		if (since != null) {
+			if (encoder == null || format != TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2) {
+				return notAcceptable(format);
+			}
+			Cursor cursor = new Cursor(since, maxSpans);
+			return stream(format, encoder, cursor, PAGE_PREFIX,
+					() -> (",\"next\":" + cursor.next + "}").getBytes(StandardCharsets.UTF_8));
+		}
+		if (encoder == null) {
+			List<FinishedSpan> finishedSpans = new ArrayList<>();
+			this.bufferingSpanReporter.getFinishedSpans(0, maxSpans, finishedSpans);
+			return response(format, finishedSpans);
+		}
+		return stream(format, encoder, new Cursor(0, maxSpans), new byte[0], () -> new byte[0]);
 	}
 
 	@NonNull
 	private WebEndpointResponse<Object> response(TextOutputFormat format, List<FinishedSpan> finishedSpans) {
 		Object spans = this.finishedSpanWriter.write(format, finishedSpans);
 		if (spans == null) {
-			return new WebEndpointResponse<>("The format [" + format.getProducedMimeType() + " ] is not supported",
-					HttpStatus.NOT_ACCEPTABLE.value());
+			return notAcceptable(format);
 		}
 		return new WebEndpointResponse<>(spans, format);
 	}
 
-	@WriteOperation(producesFrom = TextOutputFormat.class)
+	private WebEndpointResponse<Object> stream(TextOutputFormat format, FinishedSpanEncoder encoder, SpanSource source,
+			byte[] prefix, Supplier<byte[]> suffix) {
+		FinishedSpansInputStream stream = new FinishedSpansInputStream(encoder, source, prefix, suffix);
+		return new WebEndpointResponse<>(new InputStreamResource(stream), format);
+	}
+
+	private WebEndpointResponse<Object> notAcceptable(TextOutputFormat format) {
+		return new WebEndpointResponse<>("The format [" + format.getProducedMimeType() + " ] is not supported",
+				HttpStatus.NOT_ACCEPTABLE.value());
+	}
+
 	public WebEndpointResponse<Object> spans(TextOutputFormat format) {
-		List<FinishedSpan> finishedSpans = this.bufferingSpanReporter.drainFinishedSpans();
-		return response(format, finishedSpans);
+		return spans(format, null);
+	}
+
+	/**
+	 * Returns buffered spans and removes them from the buffer. When streamed, spans are
+	 * removed from the buffer chunk by chunk while the response is written.
+	 * @param format format of the spans
+	 * @param limit maximum number of spans to return
+	 * @return response with the spans
+	 * @since 3.1.2
+	 */
+	@WriteOperation(producesFrom = TextOutputFormat.class)
+	public WebEndpointResponse<Object> spans(TextOutputFormat format, @Nullable Integer limit) {
+		if (limit != null && limit <= 0) {
+			return new WebEndpointResponse<>("The [limit] parameter must be positive", HttpStatus.BAD_REQUEST.value());
+		}
+		int maxSpans = limit != null ? limit : this.bufferingSpanReporter.getCapacity();
+		FinishedSpanEncoder encoder = this.finishedSpanWriter.encoder(format);
+		if (encoder == null) {
+			return response(format, this.bufferingSpanReporter.drainFinishedSpans(maxSpans));
+		}
+		return stream(format, encoder, new Drain(maxSpans), new byte[0], () -> new byte[0]);
+	}
+
+	/**
+	 * Reads spans starting at a sequence, without removing them from the buffer.
+	 */
+	private final class Cursor implements SpanSource {
+
+		private long next;
+
+		private int remaining;
+
+		private Cursor(long since, int limit) {
+			this.next = since;
+			this.remaining = limit;
+		}
+
+		@Override
+		public void pull(List<FinishedSpan> spans, int max) {
+			if (this.remaining > 0) {
+				this.next = TracesScrapeEndpoint.this.bufferingSpanReporter.getFinishedSpans(this.next,
+						Math.min(max, this.remaining), spans);
+				this.remaining -= spans.size();
+			}
+		}
+
+	}
+
+	/**
+	 * Removes spans from the buffer.
+	 */
+	private final class Drain implements SpanSource {
+
+		private int remaining;
+
+		private Drain(int limit) {
+			this.remaining = limit;
+		}
+
+		@Override
+		public void pull(List<FinishedSpan> spans, int max) {
+			if (this.remaining > 0) {
+				spans.addAll(TracesScrapeEndpoint.this.bufferingSpanReporter
+						.drainFinishedSpans(Math.min(max, this.remaining)));
+				this.remaining -= spans.size();
+			}
+		}
+
 	}
 
 }
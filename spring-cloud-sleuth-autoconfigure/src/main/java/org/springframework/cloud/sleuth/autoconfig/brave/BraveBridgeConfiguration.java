@@ -19,6 +19,7 @@ package org.springframework.cloud.sleuth.autoconfig.brave;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
@@ -47,6 +48,7 @@ import org.springframework.cloud.sleuth.brave.bridge.BraveTracer;
 import org.springframework.cloud.sleuth.brave.bridge.CompositePropagationFactorySupplier;
 import org.springframework.cloud.sleuth.brave.bridge.CompositeSpanHandler;
 import org.springframework.cloud.sleuth.brave.propagation.PropagationFactorySupplier;
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
 import org.springframework.cloud.sleuth.exporter.SpanFilter;
 import org.springframework.cloud.sleuth.exporter.SpanReporter;
 import org.springframework.cloud.sleuth.instrument.reactor.ReactorSleuth;
@@ -91,9 +93,11 @@ class BraveBridgeConfiguration {
 	// Name is important for sampling conditions
 	@Bean(name = "traceCompositeSpanHandler")
 	SpanHandler compositeSpanHandler(ObjectProvider<List<SpanFilter>> exporters,
-			ObjectProvider<List<SpanReporter>> reporters) {
+			ObjectProvider<List<SpanReporter>> reporters, ObjectProvider<AsyncSpanReporter> asyncReporter) {
+		// the async reporter hands the spans over to all the other reporters
+		AsyncSpanReporter async = asyncReporter.getIfAvailable();
 		return new CompositeSpanHandler(exporters.getIfAvailable(ArrayList::new),
-				reporters.getIfAvailable(ArrayList::new));
+				async != null ? Collections.singletonList(async) : reporters.getIfAvailable(ArrayList::new));
 	}
 
 	@Bean
@@ -26,6 +26,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.cloud.sleuth.brave.sampler.ProbabilityBasedSampler;
 import org.springframework.cloud.sleuth.brave.sampler.RateLimitingSampler;
+import org.springframework.cloud.sleuth.brave.sampler.TraceIdRatioBasedSampler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
@@ -51,6 +52,9 @@ class BraveSamplerConfiguration {
 	// that
 	static Sampler samplerFromProps(SamplerProperties config) {
 		if (config.getProbability() != null) {
+			if (config.getProbabilitySampler() == SamplerProperties.ProbabilitySampler.TRACE_ID_RATIO) {
+				return new TraceIdRatioBasedSampler(config::getProbability);
+			}
 			return CountingSampler.create(config.getProbability());
 		}
 		return brave.sampler.RateLimitingSampler.create(config.getRate());
@@ -80,6 +84,9 @@ class BraveSamplerConfiguration {
 			// TODO: Rewrite: refresh should replace the sampler, not change its state
 			// internally
 			if (config.getProbability() != null) {
+				if (config.getProbabilitySampler() == SamplerProperties.ProbabilitySampler.TRACE_ID_RATIO) {
+					return new TraceIdRatioBasedSampler(config::getProbability);
+				}
 				return new ProbabilityBasedSampler(config::getProbability);
 			}
 			return new RateLimitingSampler(config::getRate);
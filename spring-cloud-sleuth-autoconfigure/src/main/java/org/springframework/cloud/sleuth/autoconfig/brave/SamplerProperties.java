@@ -31,10 +31,18 @@ public class SamplerProperties {
 	/**
 	 * Probability of requests that should be sampled. E.g. 1.0 - 100% requests should be
 	 * sampled. The precision is whole-numbers only (i.e. there's no support for 0.1% of
-	 * the traces).
+	 * the traces) unless the trace id ratio sampler is used.
 	 */
 	private Float probability;
 
+	/**
+	 * Sampler to use when the probability is set. The counting sampler samples exactly
+	 * the given percentage of the traces of this application. The trace id ratio sampler
+	 * decides from the trace id, which gives the same decision for a trace in every
+	 * application using it, without any contention between threads.
+	 */
+	private ProbabilitySampler probabilitySampler = ProbabilitySampler.COUNTING;
+
 	/**
 	 * A rate per second can be a nice choice for low-traffic endpoints as it allows you
 	 * surge protection. For example, you may never expect the endpoint to get more than
@@ -47,6 +55,11 @@ public class SamplerProperties {
 	 */
 	private Integer rate = 10;
 
+	/**
+	 * Per route rate limited sampling of HTTP server requests.
+	 */
+	private final PerRoute perRoute = new PerRoute();
+
 	public Float getProbability() {
 		return this.probability;
 	}
@@ -55,6 +68,14 @@ public class SamplerProperties {
 		this.probability = probability;
 	}
 
+	public ProbabilitySampler getProbabilitySampler() {
+		return this.probabilitySampler;
+	}
+
+	public void setProbabilitySampler(ProbabilitySampler probabilitySampler) {
+		this.probabilitySampler = probabilitySampler;
+	}
+
 	public Integer getRate() {
 		return this.rate;
 	}
@@ -63,4 +84,60 @@ public class SamplerProperties {
 		this.rate = rate;
 	}
 
+	public PerRoute getPerRoute() {
+		return this.perRoute;
+	}
+
+	/**
+	 * Sampler used to sample a probability of the requests.
+	 */
+	public enum ProbabilitySampler {
+
+		/**
+		 * Counts how many out of 100 traces should be sampled.
+		 */
+		COUNTING,
+
+		/**
+		 * Compares the trace id to a threshold computed from the probability.
+		 */
+		TRACE_ID_RATIO
+
+	}
+
+	/**
+	 * Per route rate limited sampling of HTTP server requests.
+	 */
+	public static class PerRoute {
+
+		/**
+		 * Will share the rate between the routes of the HTTP server requests, so that a
+		 * few hot routes can't take the whole rate and rare routes get sampled too.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Maximum number of routes to keep the state of. The least recently used routes
+		 * are forgotten first.
+		 */
+		private int maxRoutes = 1000;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxRoutes() {
+			return this.maxRoutes;
+		}
+
+		public void setMaxRoutes(int maxRoutes) {
+			this.maxRoutes = maxRoutes;
+		}
+
+	}
+
 }
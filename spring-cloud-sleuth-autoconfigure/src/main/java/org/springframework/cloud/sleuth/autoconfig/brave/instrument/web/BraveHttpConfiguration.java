@@ -34,7 +34,9 @@ import reactor.util.context.Context;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.sleuth.autoconfig.brave.SamplerProperties;
 import org.springframework.cloud.sleuth.autoconfig.instrument.web.ConditionalOnSleuthHttp;
 import org.springframework.cloud.sleuth.autoconfig.instrument.web.SleuthHttpProperties;
 import org.springframework.cloud.sleuth.autoconfig.instrument.web.SleuthWebProperties;
@@ -43,6 +45,7 @@ import org.springframework.cloud.sleuth.brave.bridge.BraveHttpResponseParser;
 import org.springframework.cloud.sleuth.brave.bridge.BraveSamplerFunction;
 import org.springframework.cloud.sleuth.brave.instrument.web.BraveSpanFromContextRetriever;
 import org.springframework.cloud.sleuth.brave.instrument.web.CompositeHttpSampler;
+import org.springframework.cloud.sleuth.brave.instrument.web.PerRouteRateLimitingHttpServerSampler;
 import org.springframework.cloud.sleuth.brave.instrument.web.SkipPatternHttpClientSampler;
 import org.springframework.cloud.sleuth.brave.instrument.web.SkipPatternHttpServerSampler;
 import org.springframework.cloud.sleuth.http.HttpRequestParser;
@@ -70,7 +73,7 @@ import org.springframework.lang.Nullable;
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnSleuthHttp
 @ConditionalOnClass(HttpTracing.class)
-@EnableConfigurationProperties({ SleuthWebProperties.class, SleuthHttpProperties.class })
+@EnableConfigurationProperties({ SleuthWebProperties.class, SleuthHttpProperties.class, SamplerProperties.class })
 @Import(BraveHttpBridgeConfiguration.class)
 public class BraveHttpConfiguration {
 
@@ -122,6 +125,15 @@ public class BraveHttpConfiguration {
 		return builder.build();
 	}
 
+	// Combined with the skip pattern sampler like any other server sampler
+	@Bean(name = HttpServerSampler.NAME)
+	@ConditionalOnMissingBean(name = HttpServerSampler.NAME)
+	@ConditionalOnProperty("spring.sleuth.sampler.per-route.enabled")
+	SamplerFunction<HttpRequest> perRouteRateLimitingHttpServerSampler(SamplerProperties samplerProperties) {
+		return new PerRouteRateLimitingHttpServerSampler(samplerProperties::getRate,
+				samplerProperties.getPerRoute().getMaxRoutes());
+	}
+
 	private brave.http.HttpRequestParser httpRequestParser(BeanFactory beanFactory, String name) {
 		return beanFactory.containsBean(name) ? toBraveHttpRequestParser(beanFactory, name) : null;
 	}
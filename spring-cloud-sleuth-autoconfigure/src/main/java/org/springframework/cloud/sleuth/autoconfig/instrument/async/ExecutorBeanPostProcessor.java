@@ -58,8 +58,8 @@ public class ExecutorBeanPostProcessor implements BeanPostProcessor {
 		if (!ExecutorInstrumentor.isApplicableForInstrumentation(bean)) {
 			return bean;
 		}
-		return new ExecutorInstrumentor(() -> sleuthAsyncProperties().getIgnoredBeans(), this.beanFactory)
-				.instrument(bean, beanName);
+		return new ExecutorInstrumentor(() -> sleuthAsyncProperties().getIgnoredBeans(),
+				() -> sleuthAsyncProperties().getPropagationOnlyBeans(), this.beanFactory).instrument(bean, beanName);
 	}
 
 	private SleuthAsyncProperties sleuthAsyncProperties() {
@@ -57,4 +57,19 @@ public class SleuthAsyncProperties {
 		this.ignoredBeans = ignoredBeans;
 	}
 
+	/**
+	 * List of {@link java.util.concurrent.Executor} bean names whose tasks should only
+	 * continue the span that was current when they were submitted, without creating a
+	 * span of their own.
+	 */
+	private List<String> propagationOnlyBeans = Collections.emptyList();
+
+	public List<String> getPropagationOnlyBeans() {
+		return this.propagationOnlyBeans;
+	}
+
+	public void setPropagationOnlyBeans(List<String> propagationOnlyBeans) {
+		this.propagationOnlyBeans = propagationOnlyBeans;
+	}
+
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.instrument.kafka;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.sleuth.instrument.kafka.KafkaConsumerSpanMode;
+
+/**
+ * Sleuth Kafka settings.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+@ConfigurationProperties("spring.sleuth.kafka")
+public class SleuthKafkaProperties {
+
+	private final Consumer consumer = new Consumer();
+
+	public Consumer getConsumer() {
+		return this.consumer;
+	}
+
+	/**
+	 * Kafka consumer settings.
+	 */
+	public static class Consumer {
+
+		/**
+		 * Which spans to create for polled records. With `poll` or `partition` a single
+		 * span is created for a whole poll or for each of its partitions. Such a span
+		 * starts a new trace unless all its records come from the same trace.
+		 */
+		private KafkaConsumerSpanMode spanMode = KafkaConsumerSpanMode.RECORD;
+
+		public KafkaConsumerSpanMode getSpanMode() {
+			return this.spanMode;
+		}
+
+		public void setSpanMode(KafkaConsumerSpanMode spanMode) {
+			this.spanMode = spanMode;
+		}
+
+	}
+
+}
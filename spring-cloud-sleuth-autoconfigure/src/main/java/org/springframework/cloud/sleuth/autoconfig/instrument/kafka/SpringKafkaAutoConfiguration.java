@@ -24,6 +24,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.autoconfig.brave.BraveAutoConfiguration;
 import org.springframework.cloud.sleuth.instrument.kafka.TracingKafkaAspect;
@@ -46,6 +47,7 @@ import org.springframework.kafka.core.ProducerFactory;
 @ConditionalOnBean(Tracer.class)
 @AutoConfigureAfter(BraveAutoConfiguration.class)
 @ConditionalOnProperty(value = "spring.sleuth.kafka.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(SleuthKafkaProperties.class)
 public class SpringKafkaAutoConfiguration {
 
 	@Bean
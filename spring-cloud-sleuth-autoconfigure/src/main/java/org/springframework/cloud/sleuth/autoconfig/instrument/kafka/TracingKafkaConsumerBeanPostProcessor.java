@@ -21,6 +21,7 @@ import org.apache.kafka.clients.consumer.Consumer;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.sleuth.instrument.kafka.KafkaConsumerSpanMode;
 import org.springframework.cloud.sleuth.instrument.kafka.TracingKafkaConsumer;
 
 /**
@@ -34,6 +35,8 @@ public class TracingKafkaConsumerBeanPostProcessor implements BeanPostProcessor
 
 	private final BeanFactory beanFactory;
 
+	private KafkaConsumerSpanMode spanMode;
+
 	public TracingKafkaConsumerBeanPostProcessor(BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
 	}
@@ -41,9 +44,17 @@ public class TracingKafkaConsumerBeanPostProcessor implements BeanPostProcessor
 	@Override
 	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
 		if (bean instanceof Consumer && !(bean instanceof TracingKafkaConsumer)) {
-			return new TracingKafkaConsumer<>((Consumer) bean, beanFactory);
+			return new TracingKafkaConsumer<>((Consumer) bean, this.beanFactory, spanMode());
 		}
 		return bean;
 	}
 
+	private KafkaConsumerSpanMode spanMode() {
+		if (this.spanMode == null) {
+			this.spanMode = this.beanFactory.getBeanProvider(SleuthKafkaProperties.class)
+					.getIfAvailable(SleuthKafkaProperties::new).getConsumer().getSpanMode();
+		}
+		return this.spanMode;
+	}
+
 }
@@ -24,6 +24,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.autoconfig.brave.BraveAutoConfiguration;
 import org.springframework.cloud.sleuth.instrument.kafka.TracingKafkaConsumerFactory;
@@ -44,6 +45,7 @@ import org.springframework.context.annotation.Configuration;
 @ConditionalOnBean(Tracer.class)
 @AutoConfigureAfter(BraveAutoConfiguration.class)
 @ConditionalOnProperty(value = "spring.sleuth.kafka.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(SleuthKafkaProperties.class)
 public class TracingReactorKafkaAutoConfiguration {
 
 	@Bean
@@ -54,8 +56,9 @@ public class TracingReactorKafkaAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	TracingKafkaConsumerFactory tracingKafkaConsumerFactory(BeanFactory beanFactory) {
-		return new TracingKafkaConsumerFactory(beanFactory);
+	TracingKafkaConsumerFactory tracingKafkaConsumerFactory(BeanFactory beanFactory,
+			SleuthKafkaProperties sleuthKafkaProperties) {
+		return new TracingKafkaConsumerFactory(beanFactory, sleuthKafkaProperties.getConsumer().getSpanMode());
 	}
 
 }
@@ -47,6 +47,7 @@ import org.springframework.cloud.sleuth.TraceContext;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.autoconfig.brave.BraveAutoConfiguration;
 import org.springframework.cloud.sleuth.instrument.reactor.ReactorSleuth;
+import org.springframework.cloud.sleuth.instrument.reactor.SpringContextState;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ApplicationListener;
@@ -260,7 +261,8 @@ class HookRegisteringBeanFactoryPostProcessor implements BeanFactoryPostProcesso
 		if (log.isTraceEnabled()) {
 			log.trace("Decorating queues");
 		}
-		Hooks.addQueueWrapper(SLEUTH_TRACE_REACTOR_KEY, queue -> traceQueue(springContext, queue));
+		SpringContextState springContextState = SpringContextState.of(springContext);
+		Hooks.addQueueWrapper(SLEUTH_TRACE_REACTOR_KEY, queue -> traceQueue(springContext, springContextState, queue));
 	}
 
 	@Override
@@ -274,8 +276,9 @@ class HookRegisteringBeanFactoryPostProcessor implements BeanFactoryPostProcesso
 		Schedulers.resetOnScheduleHook(TraceReactorAutoConfiguration.SLEUTH_REACTOR_EXECUTOR_SERVICE_KEY);
 	}
 
-	private static Queue<?> traceQueue(ConfigurableApplicationContext springContext, Queue<?> queue) {
-		if (!springContext.isActive()) {
+	private static Queue<?> traceQueue(ConfigurableApplicationContext springContext,
+			SpringContextState springContextState, Queue<?> queue) {
+		if (!springContextState.isActive()) {
 			return queue;
 		}
 		CurrentTraceContext currentTraceContext = springContext.getBean(CurrentTraceContext.class);
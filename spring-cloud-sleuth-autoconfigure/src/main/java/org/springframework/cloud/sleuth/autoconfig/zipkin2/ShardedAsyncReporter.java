@@ -0,0 +1,174 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.zipkin2;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+
+import zipkin2.CheckResult;
+import zipkin2.Span;
+import zipkin2.reporter.AsyncReporter;
+import zipkin2.reporter.ReporterMetrics;
+
+/**
+ * {@link AsyncReporter} that splits the spans by their trace id among several
+ * {@link AsyncReporter}s, each with its own queue and flush thread. The queue depth
+ * reported to the {@link ReporterMetrics} is the sum of the depths of all the shards.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+final class ShardedAsyncReporter extends AsyncReporter<Span> {
+
+	private final AsyncReporter<Span>[] shards;
+
+	@SuppressWarnings("unchecked")
+	ShardedAsyncReporter(int shards, ReporterMetrics metrics,
+			Function<ReporterMetrics, AsyncReporter<Span>> shardFactory) {
+		QueueMetrics queueMetrics = new QueueMetrics(shards, metrics);
+		this.shards = new AsyncReporter[shards];
+		for (int i = 0; i < shards; i++) {
+			this.shards[i] = shardFactory.apply(new ShardMetrics(i, queueMetrics));
+		}
+	}
+
+	@Override
+	public void report(Span span) {
+		int shard = (span.traceId().hashCode() & Integer.MAX_VALUE) % this.shards.length;
+		this.shards[shard].report(span);
+	}
+
+	@Override
+	public void flush() {
+		for (AsyncReporter<Span> shard : this.shards) {
+			shard.flush();
+		}
+	}
+
+	@Override
+	public CheckResult check() {
+		// all the shards use the same sender
+		return this.shards[0].check();
+	}
+
+	@Override
+	public void close() {
+		for (AsyncReporter<Span> shard : this.shards) {
+			shard.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ShardedAsyncReporter{" + Arrays.toString(this.shards) + "}";
+	}
+
+	/**
+	 * Sums up the queue depths of the shards.
+	 */
+	private static final class QueueMetrics {
+
+		private final ReporterMetrics delegate;
+
+		private final AtomicIntegerArray queuedSpans;
+
+		private final AtomicIntegerArray queuedBytes;
+
+		private QueueMetrics(int shards, ReporterMetrics delegate) {
+			this.delegate = delegate;
+			this.queuedSpans = new AtomicIntegerArray(shards);
+			this.queuedBytes = new AtomicIntegerArray(shards);
+		}
+
+		void updateQueuedSpans(int shard, int update) {
+			this.queuedSpans.set(shard, update);
+			this.delegate.updateQueuedSpans(sum(this.queuedSpans));
+		}
+
+		void updateQueuedBytes(int shard, int update) {
+			this.queuedBytes.set(shard, update);
+			this.delegate.updateQueuedBytes(sum(this.queuedBytes));
+		}
+
+		private static int sum(AtomicIntegerArray values) {
+			int sum = 0;
+			for (int i = 0; i < values.length(); i++) {
+				sum += values.get(i);
+			}
+			return sum;
+		}
+
+	}
+
+	private static final class ShardMetrics implements ReporterMetrics {
+
+		private final int shard;
+
+		private final QueueMetrics queueMetrics;
+
+		private final ReporterMetrics delegate;
+
+		private ShardMetrics(int shard, QueueMetrics queueMetrics) {
+			this.shard = shard;
+			this.queueMetrics = queueMetrics;
+			this.delegate = queueMetrics.delegate;
+		}
+
+		@Override
+		public void incrementMessages() {
+			this.delegate.incrementMessages();
+		}
+
+		@Override
+		public void incrementMessagesDropped(Throwable cause) {
+			this.delegate.incrementMessagesDropped(cause);
+		}
+
+		@Override
+		public void incrementSpans(int quantity) {
+			this.delegate.incrementSpans(quantity);
+		}
+
+		@Override
+		public void incrementSpanBytes(int quantity) {
+			this.delegate.incrementSpanBytes(quantity);
+		}
+
+		@Override
+		public void incrementMessageBytes(int quantity) {
+			this.delegate.incrementMessageBytes(quantity);
+		}
+
+		@Override
+		public void incrementSpansDropped(int quantity) {
+			this.delegate.incrementSpansDropped(quantity);
+		}
+
+		@Override
+		public void updateQueuedSpans(int update) {
+			this.queueMetrics.updateQueuedSpans(this.shard, update);
+		}
+
+		@Override
+		public void updateQueuedBytes(int update) {
+			this.queueMetrics.updateQueuedBytes(this.shard, update);
+		}
+
+	}
+
+}
@@ -128,10 +128,7 @@ public class ZipkinAutoConfiguration {
 		CheckResult checkResult = checkResult(zipkinExecutor, sender, 1_000L);
 		logCheckResult(sender, checkResult);
 
-		// historical constraint. Note: AsyncReporter supports memory bounds
-		AsyncReporter<Span> asyncReporter = AsyncReporter.builder(sender).queuedMaxSpans(1000)
-				.messageTimeout(zipkin.getMessageTimeout(), TimeUnit.SECONDS).metrics(reporterMetrics)
-				.build(zipkin.getEncoder());
+		AsyncReporter<Span> asyncReporter = asyncReporter(reporterMetrics, zipkin, sender);
 
 		Runtime.getRuntime().addShutdownHook(new Thread() {
 			@Override
@@ -152,6 +149,39 @@ public class ZipkinAutoConfiguration {
 		return asyncReporter;
 	}
 
+	static AsyncReporter<Span> asyncReporter(ReporterMetrics reporterMetrics, ZipkinProperties zipkin, Sender sender) {
+		int flushThreads = Math.max(1, zipkin.getFlushThreads());
+		if (flushThreads == 1) {
+			return asyncReporterBuilder(zipkin, sender, 1).metrics(reporterMetrics).build(zipkin.getEncoder());
+		}
+		return new ShardedAsyncReporter(flushThreads, reporterMetrics,
+				shardMetrics -> asyncReporterBuilder(zipkin, sender, flushThreads).metrics(shardMetrics)
+						.build(zipkin.getEncoder()));
+	}
+
+	/**
+	 * Divides the queue limits among the shards, so that the memory bounds hold for all
+	 * of them together.
+	 */
+	private static AsyncReporter.Builder asyncReporterBuilder(ZipkinProperties zipkin, Sender sender, int shards) {
+		AsyncReporter.Builder builder = AsyncReporter.builder(sender)
+				.queuedMaxSpans(Math.max(1, zipkin.getQueuedMaxSpans() / shards))
+				.messageTimeout(zipkin.getMessageTimeout(), TimeUnit.SECONDS)
+				.closeTimeout(zipkin.getCloseTimeout(), TimeUnit.SECONDS);
+		if (zipkin.getMessageMaxBytes() != null) {
+			builder.messageMaxBytes(zipkin.getMessageMaxBytes());
+		}
+		if (zipkin.getQueuedMaxBytes() != null) {
+			builder.queuedMaxBytes(Math.max(1, zipkin.getQueuedMaxBytes() / shards));
+		}
+		else if (shards > 1) {
+			// same default as the AsyncReporter, 1% of the heap
+			long onePercentOfMemory = Runtime.getRuntime().totalMemory() / 100;
+			builder.queuedMaxBytes((int) Math.max(1, Math.min(Integer.MAX_VALUE, onePercentOfMemory) / shards));
+		}
+		return builder;
+	}
+
 	private void logCheckResult(Sender sender, CheckResult checkResult) {
 		if (log.isDebugEnabled() && checkResult != null && checkResult.ok()) {
 			log.debug("Check result of the [" + sender.toString() + "] is [" + checkResult + "]");
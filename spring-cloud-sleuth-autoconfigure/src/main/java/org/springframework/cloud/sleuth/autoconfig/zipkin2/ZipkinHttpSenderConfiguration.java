@@ -29,6 +29,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.cloud.sleuth.zipkin2.CachingZipkinUrlExtractor;
+import org.springframework.cloud.sleuth.zipkin2.DefaultZipkinRestTemplateCustomizer;
 import org.springframework.cloud.sleuth.zipkin2.LoadBalancerClientZipkinLoadBalancer;
 import org.springframework.cloud.sleuth.zipkin2.RestTemplateSender;
 import org.springframework.cloud.sleuth.zipkin2.StaticInstanceZipkinLoadBalancer;
@@ -61,7 +62,11 @@ class ZipkinHttpSenderConfiguration {
 				ZipkinRestTemplateProvider zipkinRestTemplateProvider) {
 			RestTemplate restTemplate = zipkinRestTemplateProvider.zipkinRestTemplate();
 			restTemplate = zipkinRestTemplateCustomizer.customizeTemplate(restTemplate);
-			return new RestTemplateSender(restTemplate, zipkin.getBaseUrl(), zipkin.getApiPath(), zipkin.getEncoder());
+			// custom customizers compress the request body themselves
+			ZipkinProperties.Compression compression = zipkinRestTemplateCustomizer instanceof DefaultZipkinRestTemplateCustomizer
+					? zipkin.getCompression() : null;
+			return new RestTemplateSender(restTemplate, zipkin.getBaseUrl(), zipkin.getApiPath(), zipkin.getEncoder(),
+					zipkin.getHttp().getMaxInFlightRequests(), compression);
 		}
 
 		@Bean
@@ -84,8 +89,10 @@ class ZipkinHttpSenderConfiguration {
 		@Bean(ZipkinAutoConfiguration.SENDER_BEAN_NAME)
 		Sender webClientSender(ZipkinProperties zipkin, ZipkinWebClientBuilderProvider zipkinWebClientBuilderProvider) {
 			WebClient.Builder webClientBuilder = zipkinWebClientBuilderProvider.zipkinWebClientBuilder();
+			ZipkinProperties.Http http = zipkin.getHttp();
 			return new WebClientSender(webClientBuilder.build(), zipkin.getBaseUrl(), zipkin.getApiPath(),
-					zipkin.getEncoder());
+					zipkin.getEncoder(), http.getConnectTimeout() + http.getReadTimeout(),
+					http.getMaxInFlightRequests());
 		}
 
 		@Bean
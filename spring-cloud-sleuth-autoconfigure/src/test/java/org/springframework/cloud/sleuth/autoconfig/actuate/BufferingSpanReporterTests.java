@@ -16,6 +16,13 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.assertj.core.api.BDDAssertions;
 import org.junit.jupiter.api.Test;
 
@@ -36,7 +43,85 @@ class BufferingSpanReporterTests {
 		reporter.report(second);
 		reporter.report(youngest);
 
-		BDDAssertions.then(reporter.spans).containsExactly(second, youngest);
+		BDDAssertions.then(reporter.getFinishedSpans()).containsExactly(second, youngest);
+		BDDAssertions.then(reporter.getDroppedSpans()).isEqualTo(1);
+	}
+
+	@Test
+	void should_not_return_drained_spans() {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(3);
+		FinishedSpan first = mock(FinishedSpan.class, "first");
+		FinishedSpan second = mock(FinishedSpan.class, "second");
+		FinishedSpan third = mock(FinishedSpan.class, "third");
+
+		reporter.report(first);
+		reporter.report(second);
+
+		BDDAssertions.then(reporter.drainFinishedSpans()).containsExactly(first, second);
+		BDDAssertions.then(reporter.getFinishedSpans()).isEmpty();
+		BDDAssertions.then(reporter.getBufferedSpans()).isZero();
+
+		reporter.report(third);
+		reporter.report(first);
+
+		BDDAssertions.then(reporter.getFinishedSpans()).containsExactly(third, first);
+		BDDAssertions.then(reporter.drainFinishedSpans()).containsExactly(third, first);
+		BDDAssertions.then(reporter.getDroppedSpans()).as("drained spans are not counted as dropped").isZero();
+	}
+
+	@Test
+	void should_read_spans_since_a_sequence() {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(3);
+		FinishedSpan first = mock(FinishedSpan.class, "first");
+		FinishedSpan second = mock(FinishedSpan.class, "second");
+		FinishedSpan third = mock(FinishedSpan.class, "third");
+		FinishedSpan fourth = mock(FinishedSpan.class, "fourth");
+		reporter.report(first);
+		reporter.report(second);
+		reporter.report(third);
+		List<FinishedSpan> spans = new ArrayList<>();
+
+		BDDAssertions.then(reporter.getFinishedSpans(1, 1, spans)).isEqualTo(2);
+		BDDAssertions.then(spans).containsExactly(second);
+
+		reporter.report(fourth);
+		spans.clear();
+
+		BDDAssertions.then(reporter.getFinishedSpans(0, 10, spans)).isEqualTo(4);
+		BDDAssertions.then(spans).as("the first span was overwritten").containsExactly(second, third, fourth);
+		BDDAssertions.then(reporter.getNextSequence()).isEqualTo(4);
+	}
+
+	@Test
+	void should_keep_at_most_capacity_spans_when_reporting_concurrently() throws Exception {
+		int threads = 8;
+		int spansPerThread = 10_000;
+		BufferingSpanReporter reporter = new BufferingSpanReporter(100);
+		FinishedSpan span = mock(FinishedSpan.class);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch latch = new CountDownLatch(threads);
+		List<FinishedSpan> drained = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				executor.execute(() -> {
+					for (int j = 0; j < spansPerThread; j++) {
+						reporter.report(span);
+					}
+					latch.countDown();
+				});
+			}
+			while (latch.getCount() > 0) {
+				drained.addAll(reporter.drainFinishedSpans());
+			}
+			BDDAssertions.then(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		drained.addAll(reporter.drainFinishedSpans());
+
+		BDDAssertions.then(reporter.getFinishedSpans()).isEmpty();
+		BDDAssertions.then(drained.size() + reporter.getDroppedSpans()).isEqualTo(threads * spansPerThread);
 	}
 
 }
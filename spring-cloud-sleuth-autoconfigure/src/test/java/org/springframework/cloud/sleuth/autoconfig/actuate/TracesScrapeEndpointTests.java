@@ -16,17 +16,25 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
 import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
 import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
+import org.springframework.util.StreamUtils;
 
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
 
 class TracesScrapeEndpointTests {
 
@@ -41,6 +49,81 @@ class TracesScrapeEndpointTests {
 		then(response.getStatus()).isEqualTo(HttpStatus.NOT_ACCEPTABLE.value());
 	}
 
+	@Test
+	void should_stream_all_buffered_spans_in_chunks() throws IOException {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(1000);
+		int spans = FinishedSpansInputStream.CHUNK_SIZE * 2 + 1;
+		report(reporter, 0, spans);
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(reporter, new NameWriter());
+
+		WebEndpointResponse<Object> response = tracesScrapeEndpoint
+				.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2);
+
+		then(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+		then(body(response)).isEqualTo(names(0, spans));
+		then(reporter.getFinishedSpans()).hasSize(spans);
+	}
+
+	@Test
+	void should_return_pages_of_spans_with_the_next_sequence() throws IOException {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(10);
+		report(reporter, 0, 5);
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(reporter, new NameWriter());
+
+		then(body(tracesScrapeEndpoint.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, 0L, 3)))
+				.isEqualTo("{\"spans\":" + names(0, 3) + ",\"next\":3}");
+		then(body(tracesScrapeEndpoint.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, 3L, 3)))
+				.isEqualTo("{\"spans\":" + names(3, 5) + ",\"next\":5}");
+		then(body(tracesScrapeEndpoint.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, 5L, 3)))
+				.isEqualTo("{\"spans\":[],\"next\":5}");
+
+		report(reporter, 5, 15);
+
+		then(body(tracesScrapeEndpoint.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, 5L, null)))
+				.as("overwritten spans are skipped").isEqualTo("{\"spans\":" + names(5, 15) + ",\"next\":15}");
+	}
+
+	@Test
+	void should_drain_spans_while_streaming() throws IOException {
+		BufferingSpanReporter reporter = new BufferingSpanReporter(1000);
+		report(reporter, 0, 300);
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(reporter, new NameWriter());
+
+		then(body(tracesScrapeEndpoint.spans(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, 200)))
+				.isEqualTo(names(0, 200));
+		then(reporter.getFinishedSpans()).hasSize(100);
+		then(body(tracesScrapeEndpoint.spans(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2)))
+				.isEqualTo(names(200, 300));
+		then(reporter.getFinishedSpans()).isEmpty();
+	}
+
+	@Test
+	void should_return_bad_request_for_invalid_pagination_parameters() {
+		TracesScrapeEndpoint tracesScrapeEndpoint = new TracesScrapeEndpoint(new BufferingSpanReporter(1),
+				new NameWriter());
+
+		then(tracesScrapeEndpoint.spansSnapshot(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, -1L, null)
+				.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+		then(tracesScrapeEndpoint.spans(TextOutputFormat.CONTENT_TYPE_OPENZIPKIN_JSON_V2, 0).getStatus())
+				.isEqualTo(HttpStatus.BAD_REQUEST.value());
+	}
+
+	private static void report(BufferingSpanReporter reporter, int from, int to) {
+		for (int i = from; i < to; i++) {
+			FinishedSpan span = mock(FinishedSpan.class);
+			given(span.getName()).willReturn("s" + i);
+			reporter.report(span);
+		}
+	}
+
+	private static String names(int from, int to) {
+		return IntStream.range(from, to).mapToObj(i -> "\"s" + i + "\"").collect(Collectors.joining(",", "[", "]"));
+	}
+
+	private static String body(WebEndpointResponse<Object> response) throws IOException {
+		return StreamUtils.copyToString(((Resource) response.getBody()).getInputStream(), StandardCharsets.UTF_8);
+	}
+
 	@NonNull
 	private BufferingSpanReporter bufferingSpanReporter() {
 		return new BufferingSpanReporter(1) {
@@ -51,4 +134,41 @@ class TracesScrapeEndpointTests {
 		};
 	}
 
+	/**
+	 * Writes span names as a JSON array.
+	 */
+	static class NameWriter implements FinishedSpanWriter<String> {
+
+		@Override
+		public String write(TextOutputFormat format, List<FinishedSpan> spans) {
+			return spans.stream().map(span -> "\"" + span.getName() + "\"").collect(Collectors.joining(",", "[", "]"));
+		}
+
+		@Override
+		public FinishedSpanEncoder encoder(TextOutputFormat format) {
+			return new FinishedSpanEncoder() {
+				@Override
+				public byte[] listPrefix() {
+					return "[".getBytes(StandardCharsets.UTF_8);
+				}
+
+				@Override
+				public byte[] listDelimiter() {
+					return ",".getBytes(StandardCharsets.UTF_8);
+				}
+
+				@Override
+				public byte[] listSuffix() {
+					return "]".getBytes(StandardCharsets.UTF_8);
+				}
+
+				@Override
+				public byte[] encode(FinishedSpan span) {
+					return ("\"" + span.getName() + "\"").getBytes(StandardCharsets.UTF_8);
+				}
+			};
+		}
+
+	}
+
 }
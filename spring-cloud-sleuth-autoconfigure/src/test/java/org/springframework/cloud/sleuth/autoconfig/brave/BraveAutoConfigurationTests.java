@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.sleuth.autoconfig.brave;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import brave.Tracing;
@@ -39,6 +41,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.sleuth.exporter.AsyncSpanReporter;
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.cloud.sleuth.exporter.SpanReporter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -83,6 +88,21 @@ public class BraveAutoConfigurationTests {
 		}));
 	}
 
+	@Test
+	void should_report_spans_asynchronously_when_enabled() {
+		this.contextRunner.withPropertyValues("spring.sleuth.span-reporter.async.enabled=true")
+				.withUserConfiguration(WithSampler.class, WithSpanReporter.class).run((context -> {
+					AsyncSpanReporter asyncSpanReporter = context.getBean(AsyncSpanReporter.class);
+					List<FinishedSpan> spans = context.getBean(WithSpanReporter.class).spans;
+
+					context.getBean(org.springframework.cloud.sleuth.Tracer.class).nextSpan().name("async").start()
+							.end();
+					asyncSpanReporter.close();
+
+					BDDAssertions.then(spans).extracting(FinishedSpan::getName).containsExactly("async");
+				}));
+	}
+
 	@Test
 	void should_use_B3Propagation_factory_by_default() {
 		this.contextRunner.run((context -> {
@@ -184,6 +204,18 @@ public class BraveAutoConfigurationTests {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	static class WithSpanReporter {
+
+		final List<FinishedSpan> spans = Collections.synchronizedList(new ArrayList<>());
+
+		@Bean
+		SpanReporter listSpanReporter() {
+			return this.spans::add;
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class WithLocalKeys {
 
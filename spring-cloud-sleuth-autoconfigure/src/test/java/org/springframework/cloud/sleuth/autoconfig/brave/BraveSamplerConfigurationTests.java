@@ -29,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.cloud.sleuth.brave.sampler.TraceIdRatioBasedSampler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -87,6 +88,18 @@ public class BraveSamplerConfigurationTests {
 				}));
 	}
 
+	@Test
+	void should_use_refresh_scope_trace_id_ratio_sampler_when_selected() {
+		this.contextRunner.withUserConfiguration(WithTracingCustomizer.class, WithRefreshScope.class)
+				.withPropertyValues("spring.sleuth.sampler.probability=0.001",
+						"spring.sleuth.sampler.probability-sampler=trace-id-ratio")
+				.run((context -> {
+					BDDAssertions.then(context.getBean("scopedTarget.defaultTraceSampler"))
+							.isInstanceOf(TraceIdRatioBasedSampler.class);
+					BDDAssertions.then(context.getBean(Sampler.class).isSampled(1L)).isTrue();
+				}));
+	}
+
 	@Test
 	void samplerFromProps_probability() {
 		SamplerProperties properties = new SamplerProperties();
@@ -97,6 +110,17 @@ public class BraveSamplerConfigurationTests {
 		BDDAssertions.then(sampler).isInstanceOf(brave.sampler.CountingSampler.class);
 	}
 
+	@Test
+	void samplerFromProps_traceIdRatio() {
+		SamplerProperties properties = new SamplerProperties();
+		properties.setProbability(0.001f);
+		properties.setProbabilitySampler(SamplerProperties.ProbabilitySampler.TRACE_ID_RATIO);
+
+		Sampler sampler = BraveSamplerConfiguration.samplerFromProps(properties);
+
+		BDDAssertions.then(sampler).isInstanceOf(TraceIdRatioBasedSampler.class);
+	}
+
 	@Test
 	void samplerFromProps_rateLimit() {
 		SamplerProperties properties = new SamplerProperties();
@@ -98,6 +98,27 @@ public class BraveHttpConfigurationTests {
 		});
 	}
 
+	@Test
+	public void configuresPerRouteServerSamplerAfterSkipPattern() {
+		contextRunner().withPropertyValues("spring.sleuth.web.skip-pattern=foo.*", "spring.sleuth.sampler.rate=1",
+				"spring.sleuth.sampler.per-route.enabled=true").run((context) -> {
+					SamplerFunction<HttpRequest> serverSampler = context.getBean(HttpTracing.class)
+							.serverRequestSampler();
+
+					then(serverSampler.trySample(mockHttpRequestForPath("foo"))).isFalse();
+					then(serverSampler.trySample(mockHttpRequestForPath("baz"))).isTrue();
+					then(serverSampler.trySample(mockHttpRequestForPath("baz"))).isFalse();
+				});
+	}
+
+	@Test
+	public void prefersUserProvidedHttpServerSamplerOverPerRouteServerSampler() {
+		contextRunner().withPropertyValues("spring.sleuth.sampler.per-route.enabled=true")
+				.withUserConfiguration(HttpServerSamplerConfig.class).run((context) -> {
+					then(context.getBean(HttpServerSampler.NAME)).isSameAs(HttpServerSamplerConfig.INSTANCE);
+				});
+	}
+
 	@Test
 	public void defaultHttpClientParser() {
 		contextRunner().run((context) -> {
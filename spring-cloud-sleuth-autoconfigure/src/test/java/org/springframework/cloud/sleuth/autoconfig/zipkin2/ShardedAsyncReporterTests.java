@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.autoconfig.zipkin2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import zipkin2.Call;
+import zipkin2.Span;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.AsyncReporter;
+import zipkin2.reporter.InMemoryReporterMetrics;
+import zipkin2.reporter.ReporterMetrics;
+import zipkin2.reporter.Sender;
+
+import org.springframework.cloud.sleuth.zipkin2.ZipkinProperties;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class ShardedAsyncReporterTests {
+
+	List<List<byte[]>> messages = new CopyOnWriteArrayList<>();
+
+	Sender sender = new Sender() {
+		@Override
+		public Encoding encoding() {
+			return Encoding.JSON;
+		}
+
+		@Override
+		public int messageMaxBytes() {
+			return 1024 * 1024;
+		}
+
+		@Override
+		public int messageSizeInBytes(List<byte[]> encodedSpans) {
+			return Encoding.JSON.listSizeInBytes(encodedSpans);
+		}
+
+		@Override
+		public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+			messages.add(encodedSpans);
+			return Call.create(null);
+		}
+	};
+
+	@Test
+	void should_send_spans_of_all_shards_on_flush() {
+		InMemoryReporterMetrics metrics = new InMemoryReporterMetrics();
+		ZipkinProperties zipkin = new ZipkinProperties();
+		zipkin.setFlushThreads(4);
+		// no flush threads, so that spans stay queued until flushed
+		zipkin.setMessageTimeout(0);
+
+		try (ShardedAsyncReporter reporter = (ShardedAsyncReporter) ZipkinAutoConfiguration.asyncReporter(metrics,
+				zipkin, this.sender)) {
+			for (int i = 1; i <= 20; i++) {
+				reporter.report(Span.newBuilder().traceId(i, i).id(i).name("span-" + i).build());
+			}
+
+			reporter.flush();
+
+			then(metrics.spans()).isEqualTo(20);
+			then(this.messages.stream().mapToInt(List::size).sum()).isEqualTo(20);
+			then(this.messages.size()).isGreaterThan(1);
+		}
+	}
+
+	@Test
+	void should_divide_queue_limits_among_shards() {
+		InMemoryReporterMetrics metrics = new InMemoryReporterMetrics();
+		ZipkinProperties zipkin = new ZipkinProperties();
+		zipkin.setFlushThreads(2);
+		zipkin.setQueuedMaxSpans(2);
+		zipkin.setMessageTimeout(0);
+
+		try (ShardedAsyncReporter reporter = (ShardedAsyncReporter) ZipkinAutoConfiguration.asyncReporter(metrics,
+				zipkin, this.sender)) {
+			for (int i = 1; i <= 20; i++) {
+				reporter.report(Span.newBuilder().traceId(i, i).id(i).name("span-" + i).build());
+			}
+			reporter.flush();
+
+			// each shard queues a single span, whichever way the trace ids are spread
+			int sent = this.messages.stream().mapToInt(List::size).sum();
+			then(sent).isBetween(1, 2);
+			then(metrics.spansDropped()).isEqualTo(20 - sent);
+		}
+	}
+
+	@Test
+	void should_report_queue_depth_of_all_shards() {
+		InMemoryReporterMetrics metrics = new InMemoryReporterMetrics();
+		List<ReporterMetrics> shardMetrics = new ArrayList<>();
+
+		try (ShardedAsyncReporter reporter = new ShardedAsyncReporter(3, metrics, shard -> {
+			shardMetrics.add(shard);
+			return AsyncReporter.builder(this.sender).messageTimeout(0, TimeUnit.SECONDS).build();
+		})) {
+			shardMetrics.get(0).updateQueuedSpans(5);
+			shardMetrics.get(1).updateQueuedSpans(7);
+			shardMetrics.get(2).updateQueuedBytes(100);
+			shardMetrics.get(0).updateQueuedSpans(1);
+
+			then(metrics.queuedSpans()).isEqualTo(8);
+			then(metrics.queuedBytes()).isEqualTo(100);
+		}
+	}
+
+}
@@ -58,11 +58,41 @@ public class BraveFinishedSpan implements FinishedSpan {
 		return this.mutableSpan.tags();
 	}
 
+	@Override
+	public int getTagCount() {
+		return this.mutableSpan.tagCount();
+	}
+
+	@Override
+	public String getTagKey(int index) {
+		return this.mutableSpan.tagKeyAt(index);
+	}
+
+	@Override
+	public String getTagValue(int index) {
+		return this.mutableSpan.tagValueAt(index);
+	}
+
 	@Override
 	public Collection<Map.Entry<Long, String>> getEvents() {
 		return this.mutableSpan.annotations();
 	}
 
+	@Override
+	public int getEventCount() {
+		return this.mutableSpan.annotationCount();
+	}
+
+	@Override
+	public long getEventTimestamp(int index) {
+		return this.mutableSpan.annotationTimestampAt(index);
+	}
+
+	@Override
+	public String getEventValue(int index) {
+		return this.mutableSpan.annotationValueAt(index);
+	}
+
 	@Override
 	public String getSpanId() {
 		return this.mutableSpan.id();
@@ -59,4 +59,11 @@ public class BravePropagator implements Propagator {
 		return BraveSpanBuilder.toBuilder(this.tracing.tracer(), extract);
 	}
 
+	@Override
+	public <C> TraceContext extractContext(C carrier, Getter<C> getter) {
+		brave.propagation.TraceContext context = this.tracing.propagation().extractor(getter::get).extract(carrier)
+				.context();
+		return context != null ? BraveTraceContext.fromBrave(context) : null;
+	}
+
 }
@@ -23,6 +23,7 @@ import brave.handler.MutableSpan;
 import brave.handler.SpanHandler;
 import brave.propagation.TraceContext;
 
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
 import org.springframework.cloud.sleuth.exporter.SpanFilter;
 import org.springframework.cloud.sleuth.exporter.SpanReporter;
 
@@ -48,7 +49,10 @@ public class CompositeSpanHandler extends SpanHandler {
 		if (cause != Cause.FINISHED) {
 			return true;
 		}
-		boolean shouldProcess = shouldProcess(span);
+		// a single view of the span is shared by all filters and reporters
+		FinishedSpan finishedSpan = this.filters.isEmpty() && this.reporters.isEmpty() ? null
+				: BraveFinishedSpan.fromBrave(span);
+		boolean shouldProcess = shouldProcess(finishedSpan);
 		if (!shouldProcess) {
 			return false;
 		}
@@ -56,13 +60,15 @@ public class CompositeSpanHandler extends SpanHandler {
 		if (!shouldProcess) {
 			return false;
 		}
-		this.reporters.forEach(r -> r.report(BraveFinishedSpan.fromBrave(span)));
+		for (SpanReporter reporter : this.reporters) {
+			reporter.report(finishedSpan);
+		}
 		return true;
 	}
 
-	private boolean shouldProcess(MutableSpan span) {
+	private boolean shouldProcess(FinishedSpan span) {
 		for (SpanFilter exporter : this.filters) {
-			if (!exporter.isExportable(BraveFinishedSpan.fromBrave(span))) {
+			if (!exporter.isExportable(span)) {
 				return false;
 			}
 		}
@@ -20,7 +20,6 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -96,29 +95,8 @@ class W3CPropagation extends Propagation.Factory implements Propagation<String>
 
 	private static final int TRACEPARENT_HEADER_SIZE = TRACE_OPTION_OFFSET + TRACE_OPTION_HEX_SIZE;
 
-	private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
-
-	private static final String INVALID_SPAN_ID = "0000000000000000";
-
 	// private static final char TRACESTATE_ENTRY_DELIMITER = ',';
 
-	private static final Set<String> VALID_VERSIONS;
-
-	private static final String VERSION_00 = "00";
-
-	static {
-		// A valid version is 1 byte representing an 8-bit unsigned integer, version ff is
-		// invalid.
-		VALID_VERSIONS = new HashSet<>();
-		for (int i = 0; i < 255; i++) {
-			String version = Long.toHexString(i);
-			if (version.length() < 2) {
-				version = '0' + version;
-			}
-			VALID_VERSIONS.add(version);
-		}
-	}
-
 	private final W3CBaggagePropagator baggagePropagator;
 
 	private final BraveBaggageManager braveBaggageManager;
@@ -140,30 +118,34 @@ class W3CPropagation extends Propagation.Factory implements Propagation<String>
 
 	@Override
 	public <R> TraceContext.Injector<R> injector(Setter<R, String> setter) {
+		Objects.requireNonNull(setter, "setter");
+		TraceContext.Injector<R> baggageInjector = this.baggagePropagator.injector(setter);
 		return (context, carrier) -> {
 			Objects.requireNonNull(context, "context");
-			Objects.requireNonNull(setter, "setter");
-			char[] chars = TemporaryBuffers.chars(TRACEPARENT_HEADER_SIZE);
-			chars[0] = VERSION.charAt(0);
-			chars[1] = VERSION.charAt(1);
-			chars[2] = TRACEPARENT_DELIMITER;
-			String traceId = padLeftWithZeros(context.traceIdString(), TRACE_ID_HEX_SIZE);
-			for (int i = 0; i < traceId.length(); i++) {
-				chars[TRACE_ID_OFFSET + i] = traceId.charAt(i);
-			}
-			chars[SPAN_ID_OFFSET - 1] = TRACEPARENT_DELIMITER;
-			String spanId = context.spanIdString();
-			for (int i = 0; i < spanId.length(); i++) {
-				chars[SPAN_ID_OFFSET + i] = spanId.charAt(i);
-			}
-			chars[TRACE_OPTION_OFFSET - 1] = TRACEPARENT_DELIMITER;
-			copyTraceFlagsHexTo(chars, TRACE_OPTION_OFFSET, context);
-			setter.put(carrier, TRACE_PARENT, new String(chars, 0, TRACEPARENT_HEADER_SIZE));
+			setter.put(carrier, TRACE_PARENT, traceParent(context));
 			addTraceState(setter, context, carrier);
-			this.baggagePropagator.injector(setter).inject(context, carrier);
+			baggageInjector.inject(context, carrier);
 		};
 	}
 
+	/**
+	 * Writes the trace and span ids straight into a reusable buffer. The trace id is
+	 * always written as 32 characters, so a 64-bit trace id gets left padded with zeros.
+	 */
+	private String traceParent(TraceContext context) {
+		char[] chars = TemporaryBuffers.chars(TRACEPARENT_HEADER_SIZE);
+		chars[0] = VERSION.charAt(0);
+		chars[1] = VERSION.charAt(1);
+		chars[2] = TRACEPARENT_DELIMITER;
+		EncodingUtils.longToBase16String(context.traceIdHigh(), chars, TRACE_ID_OFFSET);
+		EncodingUtils.longToBase16String(context.traceId(), chars, TRACE_ID_OFFSET + LONG_BASE16);
+		chars[SPAN_ID_OFFSET - 1] = TRACEPARENT_DELIMITER;
+		EncodingUtils.longToBase16String(context.spanId(), chars, SPAN_ID_OFFSET);
+		chars[TRACE_OPTION_OFFSET - 1] = TRACEPARENT_DELIMITER;
+		copyTraceFlagsHexTo(chars, TRACE_OPTION_OFFSET, context);
+		return new String(chars, 0, TRACEPARENT_HEADER_SIZE);
+	}
+
 	private <R> void addTraceState(Setter<R, String> setter, TraceContext context, R carrier) {
 		if (carrier != null) {
 			BaggageInScope baggage = this.braveBaggageManager.getBaggage(BraveTraceContext.fromBrave(context),
@@ -178,20 +160,6 @@ class W3CPropagation extends Propagation.Factory implements Propagation<String>
 		}
 	}
 
-	private String padLeftWithZeros(String string, int length) {
-		if (string.length() >= length) {
-			return string;
-		}
-		else {
-			StringBuilder sb = new StringBuilder(length);
-			for (int i = string.length(); i < length; i++) {
-				sb.append('0');
-			}
-
-			return sb.append(string).toString();
-		}
-	}
-
 	void copyTraceFlagsHexTo(char[] dest, int destOffset, TraceContext context) {
 		dest[destOffset] = '0';
 		dest[destOffset + 1] = Boolean.TRUE.equals(context.sampled()) ? '1' : '0';
@@ -239,17 +207,11 @@ class W3CPropagation extends Propagation.Factory implements Propagation<String>
 		}
 	}
 
-	private static boolean isTraceIdValid(CharSequence traceId) {
-		return (traceId.length() == TRACE_ID_HEX_SIZE) && !INVALID_TRACE_ID.contentEquals(traceId)
-				&& EncodingUtils.isValidBase16String(traceId);
-	}
-
-	private static boolean isSpanIdValid(String spanId) {
-		return (spanId.length() == SPAN_ID_HEX_SIZE) && !INVALID_SPAN_ID.equals(spanId)
-				&& EncodingUtils.isValidBase16String(spanId);
-	}
-
-	private static TraceContext extractContextFromTraceParent(String traceparent) {
+	/**
+	 * Parses the header without copying any part of it. All the ids are read as hex longs
+	 * at their fixed offsets.
+	 */
+	private static TraceContext extractContextFromTraceParent(CharSequence traceparent) {
 		// TODO(bdrutu): Do we need to verify that version is hex and that
 		// for the version the length is the expected one?
 		boolean isValid = (traceparent.length() == TRACEPARENT_HEADER_SIZE
@@ -264,27 +226,26 @@ class W3CPropagation extends Propagation.Factory implements Propagation<String>
 		}
 
 		try {
-			String version = traceparent.substring(0, 2);
-			if (!VALID_VERSIONS.contains(version)) {
+			if (!isVersionValid(traceparent)) {
 				return null;
 			}
-			if (version.equals(VERSION_00) && traceparent.length() > TRACEPARENT_HEADER_SIZE) {
+			if (isVersion00(traceparent) && traceparent.length() > TRACEPARENT_HEADER_SIZE) {
 				return null;
 			}
-
-			String traceId = traceparent.substring(TRACE_ID_OFFSET, TRACE_ID_OFFSET + TRACE_ID_HEX_SIZE);
-			String spanId = traceparent.substring(SPAN_ID_OFFSET, SPAN_ID_OFFSET + SPAN_ID_HEX_SIZE);
-			if (isTraceIdValid(traceId) && isSpanIdValid(spanId)) {
-				String traceIdHigh = traceId.substring(0, traceId.length() / 2);
-				String traceIdLow = traceId.substring(traceId.length() / 2);
-				byte isSampled = TraceFlags.byteFromHex(traceparent, TRACE_OPTION_OFFSET);
-				return TraceContext.newBuilder().shared(true)
-						.traceIdHigh(EncodingUtils.longFromBase16String(traceIdHigh))
-						.traceId(EncodingUtils.longFromBase16String(traceIdLow))
-						.spanId(EncodingUtils.longFromBase16String(spanId)).sampled(isSampled == TraceFlags.IS_SAMPLED)
-						.build();
+			if (!EncodingUtils.isValidBase16String(traceparent, TRACE_ID_OFFSET, TRACE_ID_HEX_SIZE)
+					|| !EncodingUtils.isValidBase16String(traceparent, SPAN_ID_OFFSET, SPAN_ID_HEX_SIZE)) {
+				return null;
 			}
-			return null;
+			long traceIdHigh = EncodingUtils.longFromBase16String(traceparent, TRACE_ID_OFFSET);
+			long traceId = EncodingUtils.longFromBase16String(traceparent, TRACE_ID_OFFSET + LONG_BASE16);
+			long spanId = EncodingUtils.longFromBase16String(traceparent, SPAN_ID_OFFSET);
+			// all zeros trace and span ids are invalid
+			if ((traceIdHigh == 0L && traceId == 0L) || spanId == 0L) {
+				return null;
+			}
+			byte isSampled = TraceFlags.byteFromHex(traceparent, TRACE_OPTION_OFFSET);
+			return TraceContext.newBuilder().shared(true).traceIdHigh(traceIdHigh).traceId(traceId).spanId(spanId)
+					.sampled(isSampled == TraceFlags.IS_SAMPLED).build();
 		}
 		catch (IllegalArgumentException e) {
 			logger.info("Unparseable traceparent header. Returning INVALID span context.");
@@ -292,6 +253,19 @@ class W3CPropagation extends Propagation.Factory implements Propagation<String>
 		}
 	}
 
+	/**
+	 * A valid version is 1 byte representing an 8-bit unsigned integer, version ff is
+	 * invalid.
+	 */
+	private static boolean isVersionValid(CharSequence traceparent) {
+		return EncodingUtils.isValidBase16String(traceparent, 0, VERSION_SIZE)
+				&& !(traceparent.charAt(0) == 'f' && traceparent.charAt(1) == 'f');
+	}
+
+	private static boolean isVersion00(CharSequence traceparent) {
+		return traceparent.charAt(0) == '0' && traceparent.charAt(1) == '0';
+	}
+
 }
 
 /**
@@ -311,11 +285,11 @@ class W3CBaggagePropagator {
 
 	private final BraveBaggageManager braveBaggageManager;
 
-	private final List<String> localFields;
+	private final String[] localFields;
 
 	W3CBaggagePropagator(BraveBaggageManager braveBaggageManager, List<String> localFields) {
 		this.braveBaggageManager = braveBaggageManager;
-		this.localFields = localFields;
+		this.localFields = localFields.toArray(new String[0]);
 	}
 
 	private BaggagePropagation.FactoryBuilder factory() {
@@ -339,8 +313,7 @@ class W3CBaggagePropagator {
 			}
 			StringBuilder headerContent = new StringBuilder();
 			// We ignore local keys - they won't get propagated
-			String[] strings = this.localFields.toArray(new String[0]);
-			Map<String, String> filtered = extra.toMapFilteringFieldNames(strings);
+			Map<String, String> filtered = extra.toMapFilteringFieldNames(this.localFields);
 			for (Map.Entry<String, String> entry : filtered.entrySet()) {
 				if (TRACE_STATE.equalsIgnoreCase(entry.getKey())) {
 					continue;
@@ -389,33 +362,72 @@ class W3CBaggagePropagator {
 		return TraceContextOrSamplingFlags.create(decoratedContext);
 	}
 
+	/**
+	 * Tokenizes the {@code key=value[;metadata]} entries of the header in place, without
+	 * regular expressions or intermediate arrays. Metadata is ignored and entries that
+	 * are not a key value pair are skipped.
+	 */
 	List<AbstractMap.SimpleEntry<BaggageInScope, String>> addBaggageToContext(String baggageHeader) {
 		List<AbstractMap.SimpleEntry<BaggageInScope, String>> pairs = new ArrayList<>();
-		String[] entries = baggageHeader.split(",");
-		for (String entry : entries) {
-			int beginningOfMetadata = entry.indexOf(";");
-			if (beginningOfMetadata > 0) {
-				entry = entry.substring(0, beginningOfMetadata);
-			}
-			String[] keyAndValue = entry.split("=");
-			for (int i = 0; i < keyAndValue.length; i += 2) {
-				try {
-					String key = keyAndValue[i].trim();
-					String value = keyAndValue[i + 1].trim();
-					BaggageInScope baggage = this.braveBaggageManager.createBaggage(key);
-					pairs.add(new AbstractMap.SimpleEntry<>(baggage, value));
-				}
-				catch (Exception e) {
-					if (log.isDebugEnabled()) {
-						log.debug("Exception occurred while trying to parse baggage with key value ["
-								+ Arrays.toString(keyAndValue) + "]. Will ignore that entry.", e);
-					}
-				}
+		int length = baggageHeader.length();
+		int entryStart = 0;
+		while (entryStart < length) {
+			int entryEnd = baggageHeader.indexOf(',', entryStart);
+			if (entryEnd == -1) {
+				entryEnd = length;
 			}
+			int beginningOfMetadata = indexOf(baggageHeader, ';', entryStart, entryEnd);
+			int end = beginningOfMetadata > entryStart ? beginningOfMetadata : entryEnd;
+			addBaggageEntry(pairs, baggageHeader, entryStart, end);
+			entryStart = entryEnd + 1;
 		}
 		return pairs;
 	}
 
+	private void addBaggageEntry(List<AbstractMap.SimpleEntry<BaggageInScope, String>> pairs, String header, int start,
+			int end) {
+		int keyEnd = indexOf(header, '=', start, end);
+		int valueEnd = keyEnd == -1 ? -1 : indexOf(header, '=', keyEnd + 1, end);
+		String value = keyEnd == -1 ? "" : trimmed(header, keyEnd + 1, valueEnd == -1 ? end : valueEnd);
+		if (value.isEmpty()) {
+			if (log.isDebugEnabled()) {
+				log.debug("Baggage entry [" + header.substring(start, end)
+						+ "] is not a key value pair. Will ignore that entry.");
+			}
+			return;
+		}
+		String key = trimmed(header, start, keyEnd);
+		try {
+			BaggageInScope baggage = this.braveBaggageManager.createBaggage(key);
+			pairs.add(new AbstractMap.SimpleEntry<>(baggage, value));
+		}
+		catch (Exception e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Exception occurred while trying to parse baggage with key value ["
+						+ header.substring(start, end) + "]. Will ignore that entry.", e);
+			}
+		}
+	}
+
+	private static int indexOf(String string, char c, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (string.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String trimmed(String string, int start, int end) {
+		while (start < end && string.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && string.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return string.substring(start, end);
+	}
+
 }
 
 /**
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.instrument.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import brave.http.HttpRequest;
+import brave.sampler.SamplerFunction;
+
+import org.springframework.util.Assert;
+
+/**
+ * Http server sampler that gives each route its own share of a global rate of traces per
+ * second, so that a few hot routes can't take the whole budget. Routes are taken from
+ * {@link HttpRequest#route()} and from {@link HttpRequest#path()} when the route is not
+ * known yet. Requests without either are not decided upon.
+ *
+ * Every second the shares are rebalanced from the number of requests each route got
+ * during the previous second. Routes needing less than an even share keep what they need
+ * and the budget they leave unused is split between the busier routes. The global rate is
+ * never exceeded.
+ *
+ * The state of at most {@code maxRoutes} routes is kept, in maps split into stripes that
+ * evict their least recently used route, so paths with a high cardinality can't exhaust
+ * the memory.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+public class PerRouteRateLimitingHttpServerSampler implements SamplerFunction<HttpRequest> {
+
+	private static final int STRIPES = 16;
+
+	private final Supplier<Integer> rate;
+
+	private final long intervalNanos;
+
+	private final LongSupplier nanoTime;
+
+	private final Stripe[] stripes = new Stripe[STRIPES];
+
+	private final AtomicLong nextInterval;
+
+	private final AtomicInteger remaining = new AtomicInteger();
+
+	private volatile int share;
+
+	/**
+	 * @param rate global number of traces per second, read again every second
+	 * @param maxRoutes maximum number of routes to keep the state of
+	 */
+	public PerRouteRateLimitingHttpServerSampler(Supplier<Integer> rate, int maxRoutes) {
+		this(rate, maxRoutes, TimeUnit.SECONDS.toNanos(1), System::nanoTime);
+	}
+
+	PerRouteRateLimitingHttpServerSampler(Supplier<Integer> rate, int maxRoutes, long intervalNanos,
+			LongSupplier nanoTime) {
+		Assert.notNull(rate, "rate property is required for PerRouteRateLimitingHttpServerSampler");
+		Assert.isTrue(maxRoutes > 0, "maxRoutes should be positive");
+		this.rate = rate;
+		this.intervalNanos = intervalNanos;
+		this.nanoTime = nanoTime;
+		int routesPerStripe = (maxRoutes + STRIPES - 1) / STRIPES;
+		for (int i = 0; i < STRIPES; i++) {
+			this.stripes[i] = new Stripe(routesPerStripe);
+		}
+		this.share = rate();
+		this.remaining.set(this.share);
+		this.nextInterval = new AtomicLong(nanoTime.getAsLong() + intervalNanos);
+	}
+
+	@Override
+	public Boolean trySample(HttpRequest request) {
+		String route = request.route();
+		if (route == null || route.isEmpty()) {
+			route = request.path();
+		}
+		if (route == null) {
+			return null;
+		}
+		long now = this.nanoTime.getAsLong();
+		long nextInterval = this.nextInterval.get();
+		if (now - nextInterval >= 0 && this.nextInterval.compareAndSet(nextInterval, now + this.intervalNanos)) {
+			rebalance();
+		}
+		RouteBudget budget = stripe(route).budget(route, this.share);
+		if (budget.requests.incrementAndGet() > budget.share) {
+			return false;
+		}
+		return this.remaining.getAndDecrement() > 0;
+	}
+
+	private Stripe stripe(String route) {
+		int hash = route.hashCode();
+		return this.stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+	}
+
+	void rebalance() {
+		List<RouteBudget> budgets = new ArrayList<>();
+		for (Stripe stripe : this.stripes) {
+			stripe.collect(budgets);
+		}
+		int[] requests = new int[budgets.size()];
+		for (int i = 0; i < requests.length; i++) {
+			requests[i] = budgets.get(i).requests.get();
+		}
+		int rate = rate();
+		int share = share(requests, rate);
+		this.share = share;
+		for (RouteBudget budget : budgets) {
+			budget.share = share;
+			budget.requests.set(0);
+		}
+		this.remaining.set(rate);
+	}
+
+	int routes() {
+		int routes = 0;
+		for (Stripe stripe : this.stripes) {
+			routes += stripe.size();
+		}
+		return routes;
+	}
+
+	/**
+	 * Max-min fair share of the rate for routes that got the given number of requests.
+	 * @param requests number of requests per route
+	 * @param rate global rate
+	 * @return number of traces each route can sample
+	 */
+	static int share(int[] requests, int rate) {
+		int[] sorted = requests.clone();
+		Arrays.sort(sorted);
+		int remaining = rate;
+		for (int i = 0; i < sorted.length; i++) {
+			int share = remaining / (sorted.length - i);
+			if (sorted[i] > share) {
+				return Math.max(1, share);
+			}
+			remaining -= sorted[i];
+		}
+		// every route got what it needed, the rest is up for grabs
+		return rate;
+	}
+
+	private int rate() {
+		Integer rate = this.rate.get();
+		return rate != null ? rate : 0;
+	}
+
+	/**
+	 * Requests a route got during the current second and the number of them that can be
+	 * sampled.
+	 */
+	private static final class RouteBudget {
+
+		private final AtomicInteger requests = new AtomicInteger();
+
+		private volatile int share;
+
+		private RouteBudget(int share) {
+			this.share = share;
+		}
+
+	}
+
+	/**
+	 * Bounded map of routes evicting the least recently used one.
+	 */
+	private static final class Stripe {
+
+		private final Map<String, RouteBudget> budgets;
+
+		private Stripe(int maxRoutes) {
+			this.budgets = new LinkedHashMap<String, RouteBudget>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, RouteBudget> eldest) {
+					return size() > maxRoutes;
+				}
+			};
+		}
+
+		synchronized RouteBudget budget(String route, int share) {
+			RouteBudget budget = this.budgets.get(route);
+			if (budget == null) {
+				budget = new RouteBudget(share);
+				this.budgets.put(route, budget);
+			}
+			return budget;
+		}
+
+		synchronized int size() {
+			return this.budgets.size();
+		}
+
+		synchronized void collect(List<RouteBudget> budgets) {
+			budgets.addAll(this.budgets.values());
+		}
+
+	}
+
+}
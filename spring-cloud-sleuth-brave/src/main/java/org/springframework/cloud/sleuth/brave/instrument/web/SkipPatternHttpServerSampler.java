@@ -18,6 +18,7 @@ package org.springframework.cloud.sleuth.brave.instrument.web;
 
 import java.util.regex.Pattern;
 
+import org.springframework.cloud.sleuth.instrument.web.SkipPatternMatcher;
 import org.springframework.cloud.sleuth.instrument.web.SkipPatternProvider;
 
 /**
@@ -39,4 +40,9 @@ public class SkipPatternHttpServerSampler extends SkipPatternSampler {
 		return this.provider.skipPattern();
 	}
 
+	@Override
+	SkipPatternMatcher getMatcher() {
+		return this.provider.skipPatternMatcher();
+	}
+
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.sampler;
+
+import java.util.function.Supplier;
+
+import brave.sampler.Sampler;
+
+import org.springframework.util.Assert;
+
+/**
+ * This sampler decides from the trace id alone, so the decision is idempotent (consistent
+ * based on trace id) across threads and services and no state is shared between sampling
+ * decisions. It is appropriate for high-traffic instrumentation provisioning random trace
+ * ids.
+ *
+ * Implementation
+ *
+ * <p>
+ * The probability is turned into an upper bound for the absolute value of the lower 64
+ * bits of the trace id, like OpenTelemetry's {@code TraceIdRatioBased} sampler does. The
+ * bound is only recomputed when the probability changes (e.g. on refresh). Unlike with
+ * {@link ProbabilityBasedSampler}, the precision is not limited to whole percents.
+ * </p>
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+public class TraceIdRatioBasedSampler extends Sampler {
+
+	private final Supplier<Float> probability;
+
+	private volatile Threshold threshold;
+
+	public TraceIdRatioBasedSampler(Supplier<Float> probability) {
+		Assert.notNull(probability, "probability property is required for TraceIdRatioBasedSampler");
+		this.probability = probability;
+		this.threshold = new Threshold(probability.get());
+	}
+
+	@Override
+	public boolean isSampled(long traceId) {
+		long idUpperBound = threshold().idUpperBound;
+		// Math.abs(Long.MIN_VALUE) is negative, Long.MAX_VALUE is only sampled with 1.0
+		return idUpperBound == Long.MAX_VALUE || Math.abs(traceId) < idUpperBound;
+	}
+
+	private Threshold threshold() {
+		Threshold threshold = this.threshold;
+		Float probability = this.probability.get();
+		if (probability == null || threshold.probability != probability) {
+			// racing threads compute the same bound
+			threshold = new Threshold(probability);
+			this.threshold = threshold;
+		}
+		return threshold;
+	}
+
+	/**
+	 * Upper bound computed for a given probability.
+	 */
+	private static final class Threshold {
+
+		private final float probability;
+
+		private final long idUpperBound;
+
+		private Threshold(Float probability) {
+			Assert.notNull(probability, "probability property is required for TraceIdRatioBasedSampler");
+			Assert.isTrue(probability >= 0.0f && probability <= 1.0f, "probability should be between 0.0 and 1.0");
+			this.probability = probability;
+			if (probability == 0.0f) {
+				this.idUpperBound = Long.MIN_VALUE;
+			}
+			else if (probability == 1.0f) {
+				this.idUpperBound = Long.MAX_VALUE;
+			}
+			else {
+				this.idUpperBound = (long) (probability * (double) Long.MAX_VALUE);
+			}
+		}
+
+	}
+
+}
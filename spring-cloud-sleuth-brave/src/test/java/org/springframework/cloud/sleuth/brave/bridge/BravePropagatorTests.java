@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.bridge;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import brave.Tracing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.sleuth.TraceContext;
+import org.springframework.cloud.sleuth.propagation.Propagator;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class BravePropagatorTests {
+
+	Tracing tracing = Tracing.newBuilder().build();
+
+	Propagator propagator = new BravePropagator(this.tracing);
+
+	@AfterEach
+	void close() {
+		this.tracing.close();
+	}
+
+	@Test
+	void should_extract_the_context_without_creating_a_span() {
+		Map<String, String> carrier = new HashMap<>();
+		carrier.put("b3", "596e1787feb11040-caff89f7f0f229dd-1");
+
+		TraceContext context = this.propagator.extractContext(carrier, Map::get);
+
+		then(context).isNotNull();
+		then(context.traceId()).isEqualTo("596e1787feb11040");
+		then(context.spanId()).isEqualTo("caff89f7f0f229dd");
+		then(context.sampled()).isTrue();
+	}
+
+	@Test
+	void should_not_extract_a_context_from_a_carrier_without_one() {
+		Map<String, String> carrier = new HashMap<>();
+		carrier.put("b3", "1");
+
+		then(this.propagator.extractContext(carrier, Map::get)).isNull();
+		then(this.propagator.extractContext(new HashMap<String, String>(), Map::get)).isNull();
+	}
+
+}
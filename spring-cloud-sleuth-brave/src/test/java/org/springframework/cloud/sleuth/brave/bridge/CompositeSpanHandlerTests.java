@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.bridge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.sleuth.exporter.FinishedSpan;
+import org.springframework.cloud.sleuth.exporter.SpanFilter;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class CompositeSpanHandlerTests {
+
+	TraceContext context = TraceContext.newBuilder().traceId(1L).spanId(2L).build();
+
+	@Test
+	void should_pass_the_same_finished_span_to_filters_and_reporters() {
+		List<FinishedSpan> seen = new ArrayList<>();
+		SpanFilter filter = span -> seen.add(span);
+		CompositeSpanHandler handler = new CompositeSpanHandler(Arrays.asList(filter, filter),
+				Collections.singletonList(seen::add));
+
+		then(handler.end(this.context, mutableSpan(), SpanHandler.Cause.FINISHED)).isTrue();
+
+		then(seen).hasSize(3);
+		then(seen.get(1)).isSameAs(seen.get(0));
+		then(seen.get(2)).isSameAs(seen.get(0));
+	}
+
+	@Test
+	void should_not_report_span_when_a_filter_rejects_it() {
+		List<FinishedSpan> reported = new ArrayList<>();
+		CompositeSpanHandler handler = new CompositeSpanHandler(
+				Collections.singletonList(span -> !"ignored".equals(span.getTagValue(0))),
+				Collections.singletonList(reported::add));
+		MutableSpan span = mutableSpan();
+		span.tag("a", "ignored");
+
+		then(handler.end(this.context, span, SpanHandler.Cause.FINISHED)).isFalse();
+
+		then(reported).isEmpty();
+	}
+
+	@Test
+	void should_read_tags_and_events_by_index() {
+		MutableSpan span = mutableSpan();
+		span.tag("a", "1");
+		span.tag("b", "2");
+		span.annotate(10L, "event");
+
+		FinishedSpan finishedSpan = BraveFinishedSpan.fromBrave(span);
+
+		then(finishedSpan.getTagCount()).isEqualTo(2);
+		then(finishedSpan.getTagKey(1)).isEqualTo("b");
+		then(finishedSpan.getTagValue(1)).isEqualTo("2");
+		then(finishedSpan.getEventCount()).isEqualTo(1);
+		then(finishedSpan.getEventTimestamp(0)).isEqualTo(10L);
+		then(finishedSpan.getEventValue(0)).isEqualTo("event");
+	}
+
+	private MutableSpan mutableSpan() {
+		MutableSpan span = new MutableSpan(this.context, null);
+		span.name("span");
+		return span;
+	}
+
+}
@@ -306,6 +306,57 @@ class W3CPropagationTest {
 				.isEqualTo(sharedTraceContext().build());
 	}
 
+	@Test
+	void extract_InvalidTraceId_AllZeros() {
+		Map<String, String> invalidHeaders = new HashMap<>();
+		invalidHeaders.put(TRACE_PARENT, "00-" + "00000000000000000000000000000000" + "-" + SPAN_ID_BASE16 + "-01");
+		assertThat(w3CPropagation.extractor(getter).extract(invalidHeaders))
+				.isSameAs(TraceContextOrSamplingFlags.EMPTY);
+	}
+
+	@Test
+	void extract_InvalidSpanId_AllZeros() {
+		Map<String, String> invalidHeaders = new HashMap<>();
+		invalidHeaders.put(TRACE_PARENT, "00-" + TRACE_ID_BASE16 + "-" + "0000000000000000" + "-01");
+		assertThat(w3CPropagation.extractor(getter).extract(invalidHeaders))
+				.isSameAs(TraceContextOrSamplingFlags.EMPTY);
+	}
+
+	@Test
+	void extract_InvalidTraceId_UpperCase() {
+		Map<String, String> invalidHeaders = new HashMap<>();
+		invalidHeaders.put(TRACE_PARENT, "00-" + TRACE_ID_BASE16.toUpperCase() + "-" + SPAN_ID_BASE16 + "-01");
+		assertThat(w3CPropagation.extractor(getter).extract(invalidHeaders))
+				.isSameAs(TraceContextOrSamplingFlags.EMPTY);
+	}
+
+	@Test
+	void extract_traceIdWithZeroHighBits() {
+		Map<String, String> carrier = new HashMap<>();
+		carrier.put(TRACE_PARENT, "00-0000000000000000123456789abcdef0-123456789abcdef1-01");
+
+		TraceContext context = w3CPropagation.extractor(getter).extract(carrier).context();
+
+		assertThat(context.traceIdHigh()).isZero();
+		assertThat(context.traceIdString()).isEqualTo("123456789abcdef0");
+		assertThat(context.spanIdString()).isEqualTo("123456789abcdef1");
+		assertThat(context.sampled()).isTrue();
+	}
+
+	@Test
+	void extract_baggage_ignoresMetadataWhitespacesAndInvalidEntries() {
+		Map<String, String> carrier = new HashMap<>();
+		carrier.put(TRACE_PARENT, TRACEPARENT_HEADER_SAMPLED);
+		carrier.put("baggage", " foo = bar ;meta=data,invalid,empty=,=novalue,, baz=qux");
+
+		TraceContext context = w3CPropagation.extractor(getter).extract(carrier).context();
+
+		assertThat(BaggageField.getByName(context, "foo").getValue(context)).isEqualTo("bar");
+		assertThat(BaggageField.getByName(context, "baz").getValue(context)).isEqualTo("qux");
+		assertThat(BaggageField.getByName(context, "invalid")).isNull();
+		assertThat(BaggageField.getByName(context, "empty")).isNull();
+	}
+
 	@Test
 	void fieldsList() {
 		assertThat(w3CPropagation.keys()).containsExactly(TRACE_PARENT, TRACE_STATE);
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.instrument.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import brave.http.HttpRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class PerRouteRateLimitingHttpServerSamplerTests {
+
+	@Test
+	void should_not_decide_when_there_is_no_route_nor_path() {
+		PerRouteRateLimitingHttpServerSampler sampler = sampler(() -> 10, 100);
+
+		then(sampler.trySample(request(null, null))).isNull();
+		then(sampler.routes()).isZero();
+	}
+
+	@Test
+	void should_prefer_route_over_path() {
+		PerRouteRateLimitingHttpServerSampler sampler = sampler(() -> 10, 100);
+
+		sampler.trySample(request("/users/{id}", "/users/1"));
+		sampler.trySample(request("/users/{id}", "/users/2"));
+		sampler.trySample(request(null, "/health"));
+
+		then(sampler.routes()).isEqualTo(2);
+	}
+
+	@Test
+	void should_not_sample_more_than_the_global_rate() {
+		PerRouteRateLimitingHttpServerSampler sampler = sampler(() -> 10, 100);
+
+		int sampled = 0;
+		for (int i = 0; i < 100; i++) {
+			sampled += Boolean.TRUE.equals(sampler.trySample(request(null, "/route-" + (i % 5)))) ? 1 : 0;
+		}
+
+		then(sampled).isEqualTo(10);
+	}
+
+	@Test
+	void should_give_rare_routes_their_share_of_the_rate_after_rebalancing() {
+		PerRouteRateLimitingHttpServerSampler sampler = sampler(() -> 10, 100);
+		HttpRequest hot = request(null, "/hot");
+		HttpRequest rare = request(null, "/rare");
+		HttpRequest otherRare = request(null, "/other-rare");
+		sampleTimes(sampler, hot, 100);
+		then(sampler.trySample(rare)).as("hot route took the whole rate").isFalse();
+		sampler.trySample(otherRare);
+
+		sampler.rebalance();
+
+		then(sampleTimes(sampler, hot, 100)).as("rare routes keep 1 trace each").isEqualTo(8);
+		then(sampler.trySample(rare)).isTrue();
+		then(sampler.trySample(otherRare)).isTrue();
+	}
+
+	@Test
+	void should_follow_changes_of_the_rate() {
+		AtomicInteger rate = new AtomicInteger(0);
+		PerRouteRateLimitingHttpServerSampler sampler = sampler(rate::get, 100);
+		then(sampler.trySample(request(null, "/route"))).isFalse();
+
+		rate.set(1);
+		sampler.rebalance();
+
+		then(sampler.trySample(request(null, "/route"))).isTrue();
+	}
+
+	@Test
+	void should_keep_a_bounded_number_of_routes() {
+		PerRouteRateLimitingHttpServerSampler sampler = sampler(() -> 10, 32);
+
+		for (int i = 0; i < 10_000; i++) {
+			sampler.trySample(request(null, "/users/" + i));
+		}
+
+		then(sampler.routes()).isLessThanOrEqualTo(32);
+	}
+
+	@Test
+	void should_compute_max_min_fair_share() {
+		then(PerRouteRateLimitingHttpServerSampler.share(new int[0], 10)).isEqualTo(10);
+		then(PerRouteRateLimitingHttpServerSampler.share(new int[] { 1, 2, 3 }, 10)).isEqualTo(10);
+		then(PerRouteRateLimitingHttpServerSampler.share(new int[] { 100, 1, 1 }, 10)).isEqualTo(8);
+		then(PerRouteRateLimitingHttpServerSampler.share(new int[] { 100, 100, 2 }, 10)).isEqualTo(4);
+		then(PerRouteRateLimitingHttpServerSampler.share(new int[] { 100, 100, 100 }, 2)).isEqualTo(1);
+	}
+
+	@Test
+	void should_fail_given_no_rate() {
+		assertThatThrownBy(() -> new PerRouteRateLimitingHttpServerSampler(null, 100))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("rate property is required for PerRouteRateLimitingHttpServerSampler");
+	}
+
+	@Test
+	void should_rebalance_every_interval() {
+		AtomicLong nanoTime = new AtomicLong();
+		PerRouteRateLimitingHttpServerSampler sampler = new PerRouteRateLimitingHttpServerSampler(() -> 1, 100,
+				TimeUnit.SECONDS.toNanos(1), nanoTime::get);
+		then(sampler.trySample(request(null, "/route"))).isTrue();
+		then(sampler.trySample(request(null, "/route"))).isFalse();
+
+		nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+
+		then(sampler.trySample(request(null, "/route"))).as("interval not elapsed yet").isFalse();
+
+		nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+
+		then(sampler.trySample(request(null, "/route"))).isTrue();
+	}
+
+	// rebalanced by the tests only
+	private static PerRouteRateLimitingHttpServerSampler sampler(Supplier<Integer> rate, int maxRoutes) {
+		return new PerRouteRateLimitingHttpServerSampler(rate, maxRoutes, TimeUnit.SECONDS.toNanos(1), () -> 0L);
+	}
+
+	private static int sampleTimes(PerRouteRateLimitingHttpServerSampler sampler, HttpRequest request, int times) {
+		int sampled = 0;
+		for (int i = 0; i < times; i++) {
+			sampled += Boolean.TRUE.equals(sampler.trySample(request)) ? 1 : 0;
+		}
+		return sampled;
+	}
+
+	private static HttpRequest request(String route, String path) {
+		HttpRequest request = BDDMockito.mock(HttpRequest.class);
+		BDDMockito.given(request.route()).willReturn(route);
+		BDDMockito.given(request.path()).willReturn(path);
+		return request;
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.brave.sampler;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import brave.sampler.Sampler;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class TraceIdRatioBasedSamplerTests {
+
+	private static final Random RANDOM = new Random();
+
+	@Test
+	void should_pass_all_samples_when_config_has_1_probability() {
+		Sampler sampler = new TraceIdRatioBasedSampler(() -> 1f);
+
+		then(sampler.isSampled(Long.MIN_VALUE)).isTrue();
+		then(sampler.isSampled(Long.MAX_VALUE)).isTrue();
+		for (int i = 0; i < 10; i++) {
+			then(sampler.isSampled(RANDOM.nextLong())).isTrue();
+		}
+	}
+
+	@Test
+	void should_reject_all_samples_when_config_has_0_probability() {
+		Sampler sampler = new TraceIdRatioBasedSampler(() -> 0f);
+
+		then(sampler.isSampled(Long.MIN_VALUE)).isFalse();
+		then(sampler.isSampled(0L)).isFalse();
+		for (int i = 0; i < 10; i++) {
+			then(sampler.isSampled(RANDOM.nextLong())).isFalse();
+		}
+	}
+
+	@Test
+	void should_pass_given_fraction_of_samples_below_one_percent() {
+		int numberOfIterations = 1_000_000;
+		Sampler sampler = new TraceIdRatioBasedSampler(() -> 0.001f);
+
+		int passedCounter = 0;
+		for (int i = 0; i < numberOfIterations; i++) {
+			passedCounter += sampler.isSampled(RANDOM.nextLong()) ? 1 : 0;
+		}
+
+		then(passedCounter).isBetween(800, 1200);
+	}
+
+	@Test
+	void should_give_the_same_decision_for_the_same_trace_id() {
+		Sampler sampler = new TraceIdRatioBasedSampler(() -> 0.5f);
+		Sampler otherSampler = new TraceIdRatioBasedSampler(() -> 0.5f);
+
+		for (int i = 0; i < 100; i++) {
+			long traceId = RANDOM.nextLong();
+			then(sampler.isSampled(traceId)).isEqualTo(otherSampler.isSampled(traceId))
+					.isEqualTo(sampler.isSampled(traceId));
+		}
+		then(sampler.isSampled(Long.MAX_VALUE / 4)).isTrue();
+		then(sampler.isSampled(-Long.MAX_VALUE / 4)).isTrue();
+		then(sampler.isSampled(Long.MAX_VALUE / 4 * 3)).isFalse();
+	}
+
+	@Test
+	void should_follow_changes_of_the_probability() {
+		AtomicReference<Float> probability = new AtomicReference<>(0f);
+		Sampler sampler = new TraceIdRatioBasedSampler(probability::get);
+		then(sampler.isSampled(1L)).isFalse();
+
+		probability.set(1f);
+
+		then(sampler.isSampled(1L)).isTrue();
+	}
+
+	@Test
+	void should_fail_given_no_probability() {
+		assertThatThrownBy(() -> new TraceIdRatioBasedSampler(null)).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("probability property is required for TraceIdRatioBasedSampler");
+	}
+
+	@Test
+	void should_fail_given_probability_out_of_range() {
+		assertThatThrownBy(() -> new TraceIdRatioBasedSampler(() -> 1.5f)).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("probability should be between 0.0 and 1.0");
+	}
+
+}
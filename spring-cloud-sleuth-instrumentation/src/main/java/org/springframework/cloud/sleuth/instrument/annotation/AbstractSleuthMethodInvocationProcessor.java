@@ -16,6 +16,13 @@
 
 package org.springframework.cloud.sleuth.instrument.annotation;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -27,8 +34,11 @@ import org.springframework.cloud.sleuth.CurrentTraceContext;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.annotation.ContinueSpan;
+import org.springframework.cloud.sleuth.annotation.NewSpan;
 import org.springframework.cloud.sleuth.annotation.NewSpanParser;
 import org.springframework.cloud.sleuth.annotation.SleuthMethodInvocationProcessor;
+import org.springframework.core.MethodClassKey;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Sleuth annotation processor.
@@ -39,6 +49,11 @@ abstract class AbstractSleuthMethodInvocationProcessor implements SleuthMethodIn
 
 	private static final Log logger = LogFactory.getLog(AbstractSleuthMethodInvocationProcessor.class);
 
+	// by name, so that the reactor processor is not loaded without reactor
+	private static final Set<String> BUILT_IN_PROCESSORS = new HashSet<>(Arrays.asList(
+			"org.springframework.cloud.sleuth.instrument.annotation.NonReactorSleuthMethodInvocationProcessor",
+			"org.springframework.cloud.sleuth.instrument.annotation.ReactorSleuthMethodInvocationProcessor"));
+
 	BeanFactory beanFactory;
 
 	private NewSpanParser newSpanParser;
@@ -49,12 +64,74 @@ abstract class AbstractSleuthMethodInvocationProcessor implements SleuthMethodIn
 
 	private SpanTagAnnotationHandler spanTagAnnotationHandler;
 
-	void before(MethodInvocation invocation, Span span, String log, boolean hasLog) {
-		if (hasLog) {
-			logEvent(span, log + ".before");
+	private final Map<MethodClassKey, SleuthMethodDescriptor> descriptors = new ConcurrentHashMap<>();
+
+	private final boolean processOverridden = processOverridden(getClass());
+
+	private static boolean processOverridden(Class<?> processorClass) {
+		Method process = ReflectionUtils.findMethod(processorClass, "process", MethodInvocation.class, NewSpan.class,
+				ContinueSpan.class);
+		return process == null || !BUILT_IN_PROCESSORS.contains(process.getDeclaringClass().getName());
+	}
+
+	/**
+	 * Whether a subclass overrides
+	 * {@link #process(MethodInvocation, NewSpan, ContinueSpan)}. If it doesn't, the
+	 * annotation metadata can be passed to
+	 * {@link #proceed(MethodInvocation, SleuthMethodDescriptor)} directly.
+	 * @return {@code true} when {@code process} has to be called
+	 */
+	boolean isProcessOverridden() {
+		return this.processOverridden;
+	}
+
+	/**
+	 * Proceeds with the invocation of a method annotated with Sleuth annotations.
+	 * @param invocation method invocation
+	 * @param descriptor precomputed annotation metadata of the invoked method
+	 * @return result of the invocation
+	 * @throws Throwable exception thrown by the invocation
+	 */
+	abstract Object proceed(MethodInvocation invocation, SleuthMethodDescriptor descriptor) throws Throwable;
+
+	/**
+	 * Returns the annotation metadata of the invoked method. The metadata is computed
+	 * once per method and target class.
+	 * @param invocation method invocation
+	 * @return annotation metadata of the invoked method
+	 */
+	SleuthMethodDescriptor descriptor(MethodInvocation invocation) {
+		Class<?> targetClass = invocation.getThis().getClass();
+		MethodClassKey key = new MethodClassKey(invocation.getMethod(), targetClass);
+		SleuthMethodDescriptor descriptor = this.descriptors.get(key);
+		if (descriptor == null) {
+			descriptor = this.descriptors.computeIfAbsent(key,
+					k -> SleuthMethodDescriptor.of(invocation.getMethod(), targetClass, spanTagAnnotationHandler()));
+		}
+		return descriptor;
+	}
+
+	SleuthMethodDescriptor descriptor(MethodInvocation invocation, NewSpan newSpan, ContinueSpan continueSpan) {
+		return descriptor(invocation).withAnnotations(newSpan, continueSpan);
+	}
+
+	void before(MethodInvocation invocation, SleuthMethodDescriptor descriptor, Span span) {
+		if (descriptor.hasLog) {
+			logEvent(span, descriptor.log + ".before");
+		}
+		spanTagAnnotationHandler().addAnnotatedParameters(invocation, descriptor);
+		addTags(descriptor, span);
+	}
+
+	void parseNewSpan(MethodInvocation invocation, SleuthMethodDescriptor descriptor, Span span) {
+		NewSpanParser parser = newSpanParser();
+		if (parser.getClass() == DefaultSpanCreator.class) {
+			// the default parser only sets the name that we have already computed
+			span.name(descriptor.spanName);
+		}
+		else {
+			parser.parse(invocation, descriptor.newSpan, span);
 		}
-		spanTagAnnotationHandler().addAnnotatedParameters(invocation);
-		addTags(invocation, span);
 	}
 
 	void after(Span span, boolean isNewSpan, String log, boolean hasLog) {
@@ -76,10 +153,10 @@ abstract class AbstractSleuthMethodInvocationProcessor implements SleuthMethodIn
 		span.error(e);
 	}
 
-	void addTags(MethodInvocation invocation, Span span) {
+	void addTags(SleuthMethodDescriptor descriptor, Span span) {
 		SleuthAnnotationSpan.ANNOTATION_NEW_OR_CONTINUE_SPAN.wrap(span)
-				.tag(SleuthAnnotationSpan.Tags.CLASS, invocation.getThis().getClass().getSimpleName())
-				.tag(SleuthAnnotationSpan.Tags.METHOD, invocation.getMethod().getName());
+				.tag(SleuthAnnotationSpan.Tags.CLASS, descriptor.className)
+				.tag(SleuthAnnotationSpan.Tags.METHOD, descriptor.methodName);
 	}
 
 	void logEvent(Span span, String name) {
@@ -92,13 +169,6 @@ abstract class AbstractSleuthMethodInvocationProcessor implements SleuthMethodIn
 		SleuthAnnotationSpan.ANNOTATION_NEW_OR_CONTINUE_SPAN.wrap(span).event(name);
 	}
 
-	String log(ContinueSpan continueSpan) {
-		if (continueSpan != null) {
-			return continueSpan.log();
-		}
-		return "";
-	}
-
 	Tracer tracer() {
 		if (this.tracer == null) {
 			this.tracer = this.beanFactory.getBean(Tracer.class);
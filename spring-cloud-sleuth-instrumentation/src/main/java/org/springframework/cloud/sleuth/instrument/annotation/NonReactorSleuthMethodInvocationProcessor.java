@@ -22,7 +22,6 @@ import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.annotation.ContinueSpan;
 import org.springframework.cloud.sleuth.annotation.NewSpan;
-import org.springframework.util.StringUtils;
 
 /**
  * Method Invocation processor for non reactor apps.
@@ -34,24 +33,29 @@ public class NonReactorSleuthMethodInvocationProcessor extends AbstractSleuthMet
 
 	@Override
 	public Object process(MethodInvocation invocation, NewSpan newSpan, ContinueSpan continueSpan) throws Throwable {
-		return proceedUnderSynchronousSpan(invocation, newSpan, continueSpan);
+		return proceed(invocation, descriptor(invocation, newSpan, continueSpan));
 	}
 
-	private Object proceedUnderSynchronousSpan(MethodInvocation invocation, NewSpan newSpan, ContinueSpan continueSpan)
+	@Override
+	Object proceed(MethodInvocation invocation, SleuthMethodDescriptor descriptor) throws Throwable {
+		return proceedUnderSynchronousSpan(invocation, descriptor);
+	}
+
+	private Object proceedUnderSynchronousSpan(MethodInvocation invocation, SleuthMethodDescriptor descriptor)
 			throws Throwable {
 		Span span = tracer().currentSpan();
 		// in case of @ContinueSpan and no span in tracer we start new span and should
 		// close it on completion
-		boolean startNewSpan = newSpan != null || span == null;
+		boolean startNewSpan = descriptor.newSpan != null || span == null;
 		if (startNewSpan) {
 			span = SleuthAnnotationSpan.ANNOTATION_NEW_OR_CONTINUE_SPAN.wrap(tracer().nextSpan());
-			newSpanParser().parse(invocation, newSpan, span);
+			parseNewSpan(invocation, descriptor, span);
 			span.start();
 		}
-		String log = log(continueSpan);
-		boolean hasLog = StringUtils.hasText(log);
+		String log = descriptor.log;
+		boolean hasLog = descriptor.hasLog;
 		try (Tracer.SpanInScope scope = tracer().withSpan(span)) {
-			before(invocation, span, log, hasLog);
+			before(invocation, descriptor, span);
 			return invocation.proceed();
 		}
 		catch (Exception ex) {
@@ -38,7 +38,6 @@ import org.springframework.cloud.sleuth.annotation.ContinueSpan;
 import org.springframework.cloud.sleuth.annotation.NewSpan;
 import org.springframework.cloud.sleuth.instrument.reactor.ReactorSleuth;
 import org.springframework.cloud.sleuth.instrument.reactor.TraceContextPropagator;
-import org.springframework.util.StringUtils;
 
 /**
  * Method Invocation Processor for Reactor.
@@ -52,37 +51,41 @@ public class ReactorSleuthMethodInvocationProcessor extends AbstractSleuthMethod
 
 	@Override
 	public Object process(MethodInvocation invocation, NewSpan newSpan, ContinueSpan continueSpan) throws Throwable {
+		return proceed(invocation, descriptor(invocation, newSpan, continueSpan));
+	}
+
+	@Override
+	Object proceed(MethodInvocation invocation, SleuthMethodDescriptor descriptor) throws Throwable {
 		Method method = invocation.getMethod();
 		if (isReactorReturnType(method.getReturnType())) {
-			return proceedUnderReactorSpan(invocation, newSpan, continueSpan);
+			return proceedUnderReactorSpan(invocation, descriptor);
 		}
 		else {
-			return nonReactorSleuthMethodInvocationProcessor().process(invocation, newSpan, continueSpan);
+			return nonReactorSleuthMethodInvocationProcessor().proceed(invocation, descriptor);
 		}
 	}
 
 	@SuppressWarnings("unchecked")
-	private Object proceedUnderReactorSpan(MethodInvocation invocation, NewSpan newSpan, ContinueSpan continueSpan)
+	private Object proceedUnderReactorSpan(MethodInvocation invocation, SleuthMethodDescriptor descriptor)
 			throws Throwable {
 		Span spanPrevious = tracer().currentSpan();
 		// in case of @ContinueSpan and no span in tracer we start new span and should
 		// close it on completion
 		Span span;
-		if (newSpan != null || spanPrevious == null) {
+		if (descriptor.newSpan != null || spanPrevious == null) {
 			span = null;
 		}
 		else {
 			span = spanPrevious;
 		}
 
-		String log = log(continueSpan);
 		Publisher<?> publisher = (Publisher) invocation.proceed();
 
 		if (publisher instanceof Mono) {
-			return new MonoSpan((Mono<Object>) publisher, this, newSpan, span, invocation, log);
+			return new MonoSpan((Mono<Object>) publisher, this, descriptor, span, invocation);
 		}
 		else if (publisher instanceof Flux) {
-			return new FluxSpan((Flux<Object>) publisher, this, newSpan, span, invocation, log);
+			return new FluxSpan((Flux<Object>) publisher, this, descriptor, span, invocation);
 		}
 		else {
 			throw new IllegalArgumentException("Unexpected type of publisher: " + publisher.getClass());
@@ -107,22 +110,16 @@ public class ReactorSleuthMethodInvocationProcessor extends AbstractSleuthMethod
 
 		final MethodInvocation invocation;
 
-		final String log;
-
-		final boolean hasLog;
-
 		final ReactorSleuthMethodInvocationProcessor processor;
 
-		final NewSpan newSpan;
+		final SleuthMethodDescriptor descriptor;
 
-		FluxSpan(Flux<Object> source, ReactorSleuthMethodInvocationProcessor processor, NewSpan newSpan,
-				@Nullable Span span, MethodInvocation invocation, String log) {
+		FluxSpan(Flux<Object> source, ReactorSleuthMethodInvocationProcessor processor,
+				SleuthMethodDescriptor descriptor, @Nullable Span span, MethodInvocation invocation) {
 			super(source);
 			this.span = span;
-			this.newSpan = newSpan;
+			this.descriptor = descriptor;
 			this.invocation = invocation;
-			this.log = log;
-			this.hasLog = StringUtils.hasText(log);
 			this.processor = processor;
 		}
 
@@ -134,15 +131,15 @@ public class ReactorSleuthMethodInvocationProcessor extends AbstractSleuthMethod
 				// If we aren't continuing a trace from this flow, use nextSpan so that it
 				// can consider the "current span" (typically, backed by a thread-local)
 				span = SleuthAnnotationSpan.ANNOTATION_NEW_OR_CONTINUE_SPAN.wrap(tracer.nextSpan());
-				this.processor.newSpanParser().parse(this.invocation, this.newSpan, span);
+				this.processor.parseNewSpan(this.invocation, this.descriptor, span);
 				span.start();
 			}
 			else {
 				span = this.span;
 			}
 			try (CurrentTraceContext.Scope ws = this.processor.currentTraceContext().maybeScope(span.context())) {
-				this.source.subscribe(new SpanSubscriber(actual, this.processor, this.invocation, this.span == null,
-						span, this.log, this.hasLog));
+				this.source.subscribe(new SpanSubscriber(actual, this.processor, this.invocation, this.descriptor,
+						this.span == null, span));
 			}
 		}
 
@@ -154,23 +151,17 @@ public class ReactorSleuthMethodInvocationProcessor extends AbstractSleuthMethod
 
 		final MethodInvocation invocation;
 
-		final String log;
-
-		final boolean hasLog;
-
 		final ReactorSleuthMethodInvocationProcessor processor;
 
-		final NewSpan newSpan;
+		final SleuthMethodDescriptor descriptor;
 
-		MonoSpan(Mono<Object> source, ReactorSleuthMethodInvocationProcessor processor, NewSpan newSpan,
-				@Nullable Span span, MethodInvocation invocation, String log) {
+		MonoSpan(Mono<Object> source, ReactorSleuthMethodInvocationProcessor processor,
+				SleuthMethodDescriptor descriptor, @Nullable Span span, MethodInvocation invocation) {
 			super(source);
 			this.processor = processor;
-			this.newSpan = newSpan;
+			this.descriptor = descriptor;
 			this.span = span;
 			this.invocation = invocation;
-			this.log = log;
-			this.hasLog = StringUtils.hasText(log);
 		}
 
 		@Override
@@ -179,15 +170,15 @@ public class ReactorSleuthMethodInvocationProcessor extends AbstractSleuthMethod
 			Tracer tracer = this.processor.tracer();
 			if (this.span == null) {
 				span = SleuthAnnotationSpan.ANNOTATION_NEW_OR_CONTINUE_SPAN.wrap(tracer.nextSpan());
-				this.processor.newSpanParser().parse(this.invocation, this.newSpan, span);
+				this.processor.parseNewSpan(this.invocation, this.descriptor, span);
 				span.start();
 			}
 			else {
 				span = this.span;
 			}
 			try (CurrentTraceContext.Scope ws = this.processor.currentTraceContext().maybeScope(span.context())) {
-				this.source.subscribe(new SpanSubscriber(actual, this.processor, this.invocation, this.span == null,
-						span, this.log, this.hasLog));
+				this.source.subscribe(new SpanSubscriber(actual, this.processor, this.invocation, this.descriptor,
+						this.span == null, span));
 			}
 		}
 
@@ -222,17 +213,17 @@ public class ReactorSleuthMethodInvocationProcessor extends AbstractSleuthMethod
 		Subscription parent;
 
 		SpanSubscriber(CoreSubscriber<? super Object> actual, ReactorSleuthMethodInvocationProcessor processor,
-				MethodInvocation invocation, boolean isNewSpan, Span span, String log, boolean hasLog) {
+				MethodInvocation invocation, SleuthMethodDescriptor descriptor, boolean isNewSpan, Span span) {
 			this.actual = actual;
 			this.isNewSpan = isNewSpan;
 			this.span = span;
-			this.log = log;
-			this.hasLog = hasLog;
+			this.log = descriptor.log;
+			this.hasLog = descriptor.hasLog;
 			this.processor = processor;
 			this.context = ReactorSleuth
 					.wrapContext(actual.currentContext().put(Span.class, span).put(TraceContext.class, span.context()));
 			this.tracer = processor.tracer();
-			processor.before(invocation, this.span, this.log, this.hasLog);
+			processor.before(invocation, descriptor, this.span);
 		}
 
 		@Override
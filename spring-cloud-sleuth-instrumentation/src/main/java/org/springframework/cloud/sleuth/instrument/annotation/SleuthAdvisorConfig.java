@@ -181,13 +181,23 @@ class SleuthInterceptor implements IntroductionInterceptor, BeanFactoryAware {
 		if (method == null) {
 			return invocation.proceed();
 		}
+		SleuthMethodInvocationProcessor processor = methodInvocationProcessor();
+		if (processor instanceof AbstractSleuthMethodInvocationProcessor
+				&& !((AbstractSleuthMethodInvocationProcessor) processor).isProcessOverridden()) {
+			AbstractSleuthMethodInvocationProcessor sleuthProcessor = (AbstractSleuthMethodInvocationProcessor) processor;
+			SleuthMethodDescriptor descriptor = sleuthProcessor.descriptor(invocation);
+			if (!descriptor.isAnnotated()) {
+				return invocation.proceed();
+			}
+			return sleuthProcessor.proceed(invocation, descriptor);
+		}
 		Method mostSpecificMethod = AopUtils.getMostSpecificMethod(method, invocation.getThis().getClass());
 		NewSpan newSpan = SleuthAnnotationUtils.findAnnotation(mostSpecificMethod, NewSpan.class);
 		ContinueSpan continueSpan = SleuthAnnotationUtils.findAnnotation(mostSpecificMethod, ContinueSpan.class);
 		if (newSpan == null && continueSpan == null) {
 			return invocation.proceed();
 		}
-		return methodInvocationProcessor().process(invocation, newSpan, continueSpan);
+		return processor.process(invocation, newSpan, continueSpan);
 	}
 
 	private SleuthMethodInvocationProcessor methodInvocationProcessor() {
@@ -19,8 +19,7 @@ package org.springframework.cloud.sleuth.instrument.annotation;
 import org.springframework.cloud.sleuth.annotation.SpanTag;
 
 /**
- * A container class that holds information about the parameter of the annotated method
- * argument.
+ * A container class that holds information about the annotated parameter of a method.
  *
  * @author Christian Schwerdtfeger
  * @since 1.2.0
@@ -31,12 +30,9 @@ class SleuthAnnotatedParameter {
 
 	final SpanTag annotation;
 
-	final Object argument;
-
-	SleuthAnnotatedParameter(int parameterIndex, SpanTag annotation, Object argument) {
+	SleuthAnnotatedParameter(int parameterIndex, SpanTag annotation) {
 		this.parameterIndex = parameterIndex;
 		this.annotation = annotation;
-		this.argument = argument;
 	}
 
 }
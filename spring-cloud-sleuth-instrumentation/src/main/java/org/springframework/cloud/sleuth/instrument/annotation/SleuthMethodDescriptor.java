@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.annotation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cloud.sleuth.annotation.ContinueSpan;
+import org.springframework.cloud.sleuth.annotation.NewSpan;
+import org.springframework.cloud.sleuth.annotation.TagValueExpressionResolver;
+import org.springframework.cloud.sleuth.annotation.TagValueResolver;
+import org.springframework.cloud.sleuth.internal.SpanNameUtil;
+import org.springframework.util.StringUtils;
+
+/**
+ * Immutable, precomputed Sleuth annotation metadata of a method invoked on a given target
+ * class. Built once per method, so that the invocation path does neither reflection nor
+ * bean lookups.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+final class SleuthMethodDescriptor {
+
+	private static final TagParameter[] NO_TAG_PARAMETERS = new TagParameter[0];
+
+	final NewSpan newSpan;
+
+	final ContinueSpan continueSpan;
+
+	final String spanName;
+
+	final String log;
+
+	final boolean hasLog;
+
+	final String className;
+
+	final String methodName;
+
+	final TagParameter[] tagParameters;
+
+	private SleuthMethodDescriptor(NewSpan newSpan, ContinueSpan continueSpan, String className, String methodName,
+			TagParameter[] tagParameters) {
+		this.newSpan = newSpan;
+		this.continueSpan = continueSpan;
+		String name = newSpan == null || !StringUtils.hasLength(newSpan.name()) ? methodName : newSpan.name();
+		this.spanName = SpanNameUtil.toLowerHyphen(name);
+		this.log = continueSpan != null ? continueSpan.log() : "";
+		this.hasLog = StringUtils.hasText(this.log);
+		this.className = className;
+		this.methodName = methodName;
+		this.tagParameters = tagParameters;
+	}
+
+	static SleuthMethodDescriptor of(Method method, Class<?> targetClass, SpanTagAnnotationHandler handler) {
+		Method mostSpecificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+		NewSpan newSpan = SleuthAnnotationUtils.findAnnotation(mostSpecificMethod, NewSpan.class);
+		ContinueSpan continueSpan = SleuthAnnotationUtils.findAnnotation(mostSpecificMethod, ContinueSpan.class);
+		TagParameter[] tagParameters = NO_TAG_PARAMETERS;
+		if (newSpan != null || continueSpan != null) {
+			List<TagParameter> parameters = handler.tagParameters(method, targetClass);
+			tagParameters = parameters.toArray(NO_TAG_PARAMETERS);
+		}
+		return new SleuthMethodDescriptor(newSpan, continueSpan, targetClass.getSimpleName(), method.getName(),
+				tagParameters);
+	}
+
+	boolean isAnnotated() {
+		return this.newSpan != null || this.continueSpan != null;
+	}
+
+	/**
+	 * @param newSpan new span annotation to use
+	 * @param continueSpan continue span annotation to use
+	 * @return this descriptor if the annotations are the same, or a copy with the given
+	 * annotations
+	 */
+	SleuthMethodDescriptor withAnnotations(NewSpan newSpan, ContinueSpan continueSpan) {
+		if (this.newSpan == newSpan && this.continueSpan == continueSpan) {
+			return this;
+		}
+		return new SleuthMethodDescriptor(newSpan, continueSpan, this.className, this.methodName, this.tagParameters);
+	}
+
+	/**
+	 * A parameter annotated with
+	 * {@link org.springframework.cloud.sleuth.annotation.SpanTag} with its tag key and an
+	 * already resolved value resolver.
+	 */
+	static final class TagParameter {
+
+		final int parameterIndex;
+
+		final String key;
+
+		private final TagValueResolver resolver;
+
+		private final String expression;
+
+		private final TagValueExpressionResolver expressionResolver;
+
+		private TagParameter(int parameterIndex, String key, TagValueResolver resolver, String expression,
+				TagValueExpressionResolver expressionResolver) {
+			this.parameterIndex = parameterIndex;
+			this.key = key;
+			this.resolver = resolver;
+			this.expression = expression;
+			this.expressionResolver = expressionResolver;
+		}
+
+		static TagParameter resolver(int parameterIndex, String key, TagValueResolver resolver) {
+			return new TagParameter(parameterIndex, key, resolver, null, null);
+		}
+
+		static TagParameter expression(int parameterIndex, String key, String expression,
+				TagValueExpressionResolver expressionResolver) {
+			return new TagParameter(parameterIndex, key, null, expression, expressionResolver);
+		}
+
+		static TagParameter toStringValue(int parameterIndex, String key) {
+			return new TagParameter(parameterIndex, key, null, null, null);
+		}
+
+		String resolve(Object argument) {
+			String value = null;
+			if (this.resolver != null) {
+				value = this.resolver.resolve(argument);
+			}
+			else if (this.expressionResolver != null) {
+				value = this.expressionResolver.resolve(this.expression, argument);
+			}
+			else if (argument != null) {
+				value = argument.toString();
+			}
+			return value == null ? "" : value;
+		}
+
+	}
+
+}
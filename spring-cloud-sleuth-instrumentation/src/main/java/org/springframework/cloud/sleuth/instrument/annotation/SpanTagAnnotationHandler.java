@@ -17,6 +17,7 @@
 package org.springframework.cloud.sleuth.instrument.annotation;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -30,7 +31,6 @@ import org.springframework.cloud.sleuth.SpanCustomizer;
 import org.springframework.cloud.sleuth.annotation.NoOpTagValueResolver;
 import org.springframework.cloud.sleuth.annotation.SpanTag;
 import org.springframework.cloud.sleuth.annotation.TagValueExpressionResolver;
-import org.springframework.cloud.sleuth.annotation.TagValueResolver;
 import org.springframework.util.StringUtils;
 
 /**
@@ -40,7 +40,8 @@ import org.springframework.util.StringUtils;
  * one set of tracing information.
  *
  * This information is then used to add proper tags to the span from the method arguments
- * that are annotated with {@link SpanTag}.
+ * that are annotated with {@link SpanTag}. The annotated parameters are resolved once per
+ * method and stored in its {@link SleuthMethodDescriptor}.
  *
  * @author Christian Schwerdtfeger
  * @since 1.2.0
@@ -57,30 +58,61 @@ class SpanTagAnnotationHandler {
 		this.beanFactory = beanFactory;
 	}
 
-	void addAnnotatedParameters(MethodInvocation pjp) {
+	void addAnnotatedParameters(MethodInvocation pjp, SleuthMethodDescriptor descriptor) {
+		Object[] arguments = pjp.getArguments();
+		for (SleuthMethodDescriptor.TagParameter parameter : descriptor.tagParameters) {
+			span().tag(parameter.key, parameter.resolve(arguments[parameter.parameterIndex]));
+		}
+	}
+
+	/**
+	 * Finds all parameters annotated with {@link SpanTag} for the given method, its most
+	 * specific implementation and the interfaces implemented by the target class, and
+	 * resolves their tag keys and value resolvers.
+	 * @param method invoked method
+	 * @param targetClass class of the invoked object
+	 * @return tag parameters of the method
+	 */
+	List<SleuthMethodDescriptor.TagParameter> tagParameters(Method method, Class<?> targetClass) {
+		List<SleuthMethodDescriptor.TagParameter> tagParameters = new ArrayList<>();
 		try {
-			Method method = pjp.getMethod();
-			Method mostSpecificMethod = AopUtils.getMostSpecificMethod(method, pjp.getThis().getClass());
+			Method mostSpecificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
 			List<SleuthAnnotatedParameter> annotatedParameters = SleuthAnnotationUtils
-					.findAnnotatedParameters(mostSpecificMethod, pjp.getArguments());
-			getAnnotationsFromInterfaces(pjp, mostSpecificMethod, annotatedParameters);
-			mergeAnnotatedMethodsIfNecessary(pjp, method, mostSpecificMethod, annotatedParameters);
-			addAnnotatedArguments(annotatedParameters);
+					.findAnnotatedParameters(mostSpecificMethod);
+			getAnnotationsFromInterfaces(targetClass, mostSpecificMethod, annotatedParameters);
+			mergeAnnotatedMethodsIfNecessary(method, mostSpecificMethod, annotatedParameters);
+			for (SleuthAnnotatedParameter container : annotatedParameters) {
+				tagParameters.add(tagParameter(container));
+			}
 		}
 		catch (SecurityException ex) {
 			log.error("Exception occurred while trying to add annotated parameters", ex);
 		}
+		return tagParameters;
+	}
+
+	private SleuthMethodDescriptor.TagParameter tagParameter(SleuthAnnotatedParameter container) {
+		SpanTag annotation = container.annotation;
+		if (annotation.resolver() != NoOpTagValueResolver.class) {
+			return SleuthMethodDescriptor.TagParameter.resolver(container.parameterIndex, resolveTagKey(container),
+					this.beanFactory.getBean(annotation.resolver()));
+		}
+		else if (StringUtils.hasText(annotation.expression())) {
+			return SleuthMethodDescriptor.TagParameter.expression(container.parameterIndex, resolveTagKey(container),
+					annotation.expression(), this.beanFactory.getBean(TagValueExpressionResolver.class));
+		}
+		return SleuthMethodDescriptor.TagParameter.toStringValue(container.parameterIndex, resolveTagKey(container));
 	}
 
-	private void getAnnotationsFromInterfaces(MethodInvocation pjp, Method mostSpecificMethod,
+	private void getAnnotationsFromInterfaces(Class<?> targetClass, Method mostSpecificMethod,
 			List<SleuthAnnotatedParameter> annotatedParameters) {
-		Class<?>[] implementedInterfaces = pjp.getThis().getClass().getInterfaces();
+		Class<?>[] implementedInterfaces = targetClass.getInterfaces();
 		if (implementedInterfaces.length > 0) {
 			for (Class<?> implementedInterface : implementedInterfaces) {
 				for (Method methodFromInterface : implementedInterface.getMethods()) {
 					if (methodsAreTheSame(mostSpecificMethod, methodFromInterface)) {
 						List<SleuthAnnotatedParameter> annotatedParametersForActualMethod = SleuthAnnotationUtils
-								.findAnnotatedParameters(methodFromInterface, pjp.getArguments());
+								.findAnnotatedParameters(methodFromInterface);
 						mergeAnnotatedParameters(annotatedParameters, annotatedParametersForActualMethod);
 					}
 				}
@@ -93,13 +125,13 @@ class SpanTagAnnotationHandler {
 				&& Arrays.equals(method1.getParameterTypes(), mostSpecificMethod.getParameterTypes());
 	}
 
-	private void mergeAnnotatedMethodsIfNecessary(MethodInvocation pjp, Method method, Method mostSpecificMethod,
+	private void mergeAnnotatedMethodsIfNecessary(Method method, Method mostSpecificMethod,
 			List<SleuthAnnotatedParameter> annotatedParameters) {
 		// that can happen if we have an abstraction and a concrete class that is
 		// annotated with @NewSpan annotation
 		if (!method.equals(mostSpecificMethod)) {
 			List<SleuthAnnotatedParameter> annotatedParametersForActualMethod = SleuthAnnotationUtils
-					.findAnnotatedParameters(method, pjp.getArguments());
+					.findAnnotatedParameters(method);
 			mergeAnnotatedParameters(annotatedParameters, annotatedParametersForActualMethod);
 		}
 	}
@@ -121,14 +153,6 @@ class SpanTagAnnotationHandler {
 		}
 	}
 
-	private void addAnnotatedArguments(List<SleuthAnnotatedParameter> toBeAdded) {
-		for (SleuthAnnotatedParameter container : toBeAdded) {
-			String tagValue = resolveTagValue(container.annotation, container.argument);
-			String tagKey = resolveTagKey(container);
-			span().tag(tagKey, tagValue);
-		}
-	}
-
 	private SpanCustomizer span() {
 		if (this.spanCustomizer == null) {
 			this.spanCustomizer = this.beanFactory.getBean(SpanCustomizer.class);
@@ -141,20 +165,4 @@ class SpanTagAnnotationHandler {
 				: container.annotation.key();
 	}
 
-	String resolveTagValue(SpanTag annotation, Object argument) {
-		String value = null;
-		if (annotation.resolver() != NoOpTagValueResolver.class) {
-			TagValueResolver tagValueResolver = this.beanFactory.getBean(annotation.resolver());
-			value = tagValueResolver.resolve(argument);
-		}
-		else if (StringUtils.hasText(annotation.expression())) {
-			value = this.beanFactory.getBean(TagValueExpressionResolver.class).resolve(annotation.expression(),
-					argument);
-		}
-		else if (argument != null) {
-			value = argument.toString();
-		}
-		return value == null ? "" : value;
-	}
-
 }
@@ -16,12 +16,19 @@
 
 package org.springframework.cloud.sleuth.instrument.annotation;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.cloud.sleuth.annotation.TagValueExpressionResolver;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 
@@ -29,6 +36,12 @@ import org.springframework.expression.spel.support.SimpleEvaluationContext;
  * Uses SPEL to evaluate the expression. If an exception is thrown will return the
  * {@code toString()} of the parameter.
  *
+ * Parsed expressions are cached by their text in a bounded cache. The cache is cleared
+ * once it's full, so that expressions that are resolved often get cached again. Cached
+ * expressions are compiled by the SPEL compiler in {@link SpelCompilerMode#MIXED} mode,
+ * so that the same expression can be safely evaluated against parameters of different
+ * types.
+ *
  * @author Marcin Grzejszczak
  * @since 1.2.0
  */
@@ -36,13 +49,38 @@ public class SpelTagValueExpressionResolver implements TagValueExpressionResolve
 
 	private static final Log log = LogFactory.getLog(SpelTagValueExpressionResolver.class);
 
+	/**
+	 * Default maximum number of cached expressions.
+	 */
+	public static final int DEFAULT_MAX_CACHE_SIZE = 256;
+
+	private final ExpressionParser expressionParser;
+
+	private final EvaluationContext evaluationContext = SimpleEvaluationContext.forReadOnlyDataBinding().build();
+
+	private final Map<String, Expression> cache = new ConcurrentHashMap<>();
+
+	private final int maxCacheSize;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	public SpelTagValueExpressionResolver() {
+		this(DEFAULT_MAX_CACHE_SIZE);
+	}
+
+	public SpelTagValueExpressionResolver(int maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+		this.expressionParser = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED,
+				SpelTagValueExpressionResolver.class.getClassLoader()));
+	}
+
 	@Override
 	public String resolve(String expression, Object parameter) {
 		try {
-			SimpleEvaluationContext context = SimpleEvaluationContext.forReadOnlyDataBinding().build();
-			ExpressionParser expressionParser = new SpelExpressionParser();
-			Expression expressionToEvaluate = expressionParser.parseExpression(expression);
-			return expressionToEvaluate.getValue(context, parameter, String.class);
+			Expression expressionToEvaluate = expression(expression);
+			return expressionToEvaluate.getValue(this.evaluationContext, parameter, String.class);
 		}
 		catch (Exception ex) {
 			log.error("Exception occurred while tying to evaluate the SPEL expression [" + expression + "]", ex);
@@ -50,4 +88,42 @@ public class SpelTagValueExpressionResolver implements TagValueExpressionResolve
 		return parameter.toString();
 	}
 
+	private Expression expression(String expression) {
+		Expression cached = this.cache.get(expression);
+		if (cached != null) {
+			this.hits.increment();
+			return cached;
+		}
+		this.misses.increment();
+		Expression parsed = this.expressionParser.parseExpression(expression);
+		if (this.maxCacheSize > 0) {
+			if (this.cache.size() >= this.maxCacheSize) {
+				this.cache.clear();
+			}
+			this.cache.putIfAbsent(expression, parsed);
+		}
+		return parsed;
+	}
+
+	/**
+	 * @return number of expression lookups served from the cache
+	 */
+	public long getCacheHits() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * @return number of expression lookups that required parsing
+	 */
+	public long getCacheMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * @return number of currently cached expressions
+	 */
+	public int getCacheSize() {
+		return this.cache.size();
+	}
+
 }
@@ -19,13 +19,16 @@ package org.springframework.cloud.sleuth.instrument.async;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -38,9 +41,11 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.aop.framework.AopConfigException;
 import org.springframework.aop.framework.ProxyFactoryBean;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils;
 
 /**
@@ -55,10 +60,26 @@ public class ExecutorInstrumentor {
 
 	private final Supplier<List<String>> ignoredBeans;
 
+	private final Supplier<List<String>> propagationOnlyBeans;
+
 	private final BeanFactory beanFactory;
 
 	public ExecutorInstrumentor(Supplier<List<String>> ignoredBeans, BeanFactory beanFactory) {
+		this(ignoredBeans, Collections::emptyList, beanFactory);
+	}
+
+	/**
+	 * @param ignoredBeans names of the executors that shouldn't be instrumented
+	 * @param propagationOnlyBeans names of the executors whose tasks should only run in
+	 * the scope of the span that was current when they were submitted, without a span of
+	 * their own
+	 * @param beanFactory bean factory
+	 * @since 3.1.2
+	 */
+	public ExecutorInstrumentor(Supplier<List<String>> ignoredBeans, Supplier<List<String>> propagationOnlyBeans,
+			BeanFactory beanFactory) {
 		this.ignoredBeans = ignoredBeans;
+		this.propagationOnlyBeans = propagationOnlyBeans;
 		this.beanFactory = beanFactory;
 	}
 
@@ -67,13 +88,17 @@ public class ExecutorInstrumentor {
 	 * @return {@code true} if bean is applicable for instrumentation
 	 */
 	public static boolean isApplicableForInstrumentation(Object bean) {
+		if (VirtualThreads.isVirtualThreadFactory(bean)) {
+			return true;
+		}
 		return bean instanceof Executor && !(bean instanceof LazyTraceThreadPoolTaskExecutor
 				|| bean instanceof TraceableScheduledExecutorService || bean instanceof TraceableExecutorService
 				|| bean instanceof LazyTraceAsyncTaskExecutor || bean instanceof LazyTraceExecutor);
 	}
 
 	/**
-	 * Wraps an {@link Executor} bean in its trace representation.
+	 * Wraps an {@link Executor} bean or a {@link ThreadFactory} of virtual threads in its
+	 * trace representation.
 	 * @param bean a bean (might be of {@link Executor} type
 	 * @param beanName name of the bean
 	 * @return wrapped bean or just bean if not {@link Executor} or already instrumented
@@ -91,6 +116,22 @@ public class ExecutorInstrumentor {
 				log.info("Not instrumenting bean " + beanName);
 			}
 		}
+		else if (VirtualThreads.isThreadPerTaskExecutor(bean)) {
+			if (isProxyNeeded(beanName)) {
+				return wrapThreadPerTaskExecutor(bean, beanName);
+			}
+			else {
+				log.info("Not instrumenting bean " + beanName);
+			}
+		}
+		else if (VirtualThreads.isVirtualThreadFactory(bean)) {
+			if (isProxyNeeded(beanName)) {
+				return LazyTraceThreadFactory.wrap(this.beanFactory, (ThreadFactory) bean);
+			}
+			else {
+				log.info("Not instrumenting bean " + beanName);
+			}
+		}
 		else if (bean instanceof ScheduledExecutorService) {
 			if (isProxyNeeded(beanName)) {
 				return wrapScheduledExecutorService(bean, beanName);
@@ -127,14 +168,16 @@ public class ExecutorInstrumentor {
 		boolean classFinal = Modifier.isFinal(bean.getClass().getModifiers());
 		boolean cglibProxy = !methodFinal && !classFinal;
 		try {
-			return createProxy(bean, cglibProxy, new ExecutorMethodInterceptor<>(executor, this.beanFactory, beanName));
+			return createProxy(bean, cglibProxy,
+					new ExecutorMethodInterceptor<>(executor, this.beanFactory, beanName, isPropagationOnly(beanName)));
 		}
 		catch (AopConfigException ex) {
 			if (cglibProxy) {
 				if (log.isDebugEnabled()) {
 					log.debug("Exception occurred while trying to create a proxy, falling back to JDK proxy", ex);
 				}
-				return createProxy(bean, false, new ExecutorMethodInterceptor<>(executor, this.beanFactory, beanName));
+				return createProxy(bean, false, new ExecutorMethodInterceptor<>(executor, this.beanFactory, beanName,
+						isPropagationOnly(beanName)));
 			}
 			throw ex;
 		}
@@ -164,6 +207,13 @@ public class ExecutorInstrumentor {
 		return createScheduledExecutorServiceProxy(bean, cglibProxy, executor, beanName);
 	}
 
+	// the JDK executor is final and exposes nothing but the ExecutorService interface,
+	// so a proxy would only add a reflective call to each task of a short-lived thread
+	private Object wrapThreadPerTaskExecutor(Object bean, String beanName) {
+		return TraceableExecutorService.wrap(this.beanFactory, (ExecutorService) bean, beanName,
+				isPropagationOnly(beanName));
+	}
+
 	private Object wrapAsyncTaskExecutor(Object bean, String beanName) {
 		AsyncTaskExecutor executor = (AsyncTaskExecutor) bean;
 		boolean classFinal = Modifier.isFinal(bean.getClass().getModifiers());
@@ -176,13 +226,18 @@ public class ExecutorInstrumentor {
 		return !this.ignoredBeans.get().contains(beanName);
 	}
 
+	boolean isPropagationOnly(String beanName) {
+		return this.propagationOnlyBeans.get().contains(beanName);
+	}
+
 	Object createThreadPoolTaskExecutorProxy(Object bean, boolean cglibProxy, ThreadPoolTaskExecutor executor,
 			String beanName) {
 		if (!cglibProxy) {
-			return LazyTraceThreadPoolTaskExecutor.wrap(this.beanFactory, executor, beanName);
+			return LazyTraceThreadPoolTaskExecutor.wrap(this.beanFactory, executor, beanName,
+					isPropagationOnly(beanName));
 		}
-		return getProxiedObject(bean, beanName, true, executor,
-				() -> LazyTraceThreadPoolTaskExecutor.wrap(this.beanFactory, executor, beanName));
+		return getProxiedObject(bean, beanName, true, executor, () -> LazyTraceThreadPoolTaskExecutor
+				.wrap(this.beanFactory, executor, beanName, isPropagationOnly(beanName)));
 	}
 
 	Supplier<Executor> createThreadPoolTaskSchedulerProxy(ThreadPoolTaskScheduler executor, String beanName) {
@@ -197,16 +252,17 @@ public class ExecutorInstrumentor {
 	Object createExecutorServiceProxy(Object bean, boolean cglibProxy, ExecutorService executor, String beanName) {
 		return getProxiedObject(bean, beanName, cglibProxy, executor, () -> {
 			if (executor instanceof ScheduledExecutorService) {
-				return TraceableScheduledExecutorService.wrap(this.beanFactory, executor, beanName);
+				return TraceableScheduledExecutorService.wrap(this.beanFactory, executor, beanName,
+						isPropagationOnly(beanName));
 			}
-			return TraceableExecutorService.wrap(this.beanFactory, executor, beanName);
+			return TraceableExecutorService.wrap(this.beanFactory, executor, beanName, isPropagationOnly(beanName));
 		});
 	}
 
 	Object createScheduledExecutorServiceProxy(Object bean, boolean cglibProxy, ScheduledExecutorService executor,
 			String beanName) {
-		return getProxiedObject(bean, beanName, cglibProxy, executor,
-				() -> TraceableScheduledExecutorService.wrap(this.beanFactory, executor, beanName));
+		return getProxiedObject(bean, beanName, cglibProxy, executor, () -> TraceableScheduledExecutorService
+				.wrap(this.beanFactory, executor, beanName, isPropagationOnly(beanName)));
 	}
 
 	Object createAsyncTaskExecutorProxy(Object bean, boolean cglibProxy, AsyncTaskExecutor executor, String beanName) {
@@ -319,12 +375,21 @@ class ExecutorMethodInterceptor<T extends Executor> implements MethodInterceptor
 
 	private final String beanName;
 
+	private final boolean propagationOnly;
+
 	private static final Map<Executor, Executor> CACHE = new ConcurrentHashMap<>();
 
+	private static final Map<MethodClassKey, Optional<Method>> METHODS = new ConcurrentReferenceHashMap<>();
+
 	ExecutorMethodInterceptor(T delegate, BeanFactory beanFactory, String beanName) {
+		this(delegate, beanFactory, beanName, false);
+	}
+
+	ExecutorMethodInterceptor(T delegate, BeanFactory beanFactory, String beanName, boolean propagationOnly) {
 		this.delegate = delegate;
 		this.beanFactory = beanFactory;
 		this.beanName = beanName;
+		this.propagationOnly = propagationOnly;
 	}
 
 	@Override
@@ -344,15 +409,19 @@ class ExecutorMethodInterceptor<T extends Executor> implements MethodInterceptor
 		return invocation.proceed();
 	}
 
+	// each submitted task goes through here, so the lookup is done once per method
 	private Method getMethod(MethodInvocation invocation, Object object) {
 		Method method = invocation.getMethod();
-		return ReflectionUtils.findMethod(object.getClass(), method.getName(), method.getParameterTypes());
+		return METHODS
+				.computeIfAbsent(new MethodClassKey(method, object.getClass()), key -> Optional.ofNullable(
+						ReflectionUtils.findMethod(object.getClass(), method.getName(), method.getParameterTypes())))
+				.orElse(null);
 	}
 
 	@SuppressWarnings("unchecked")
 	T executor(BeanFactory beanFactory, T executor, String beanName) {
 		return executorFromCache(beanFactory, executor, beanName,
-				e -> (T) LazyTraceExecutor.wrap(beanFactory, e, beanName));
+				e -> (T) LazyTraceExecutor.wrap(beanFactory, e, beanName, this.propagationOnly));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -50,20 +50,33 @@ public class LazyTraceExecutor implements Executor {
 
 	private final String beanName;
 
+	private final boolean propagationOnly;
+
 	private Tracer tracer;
 
 	private SpanNamer spanNamer;
 
 	public LazyTraceExecutor(BeanFactory beanFactory, Executor delegate) {
-		this.beanFactory = beanFactory;
-		this.delegate = delegate;
-		this.beanName = null;
+		this(beanFactory, delegate, null);
 	}
 
 	public LazyTraceExecutor(BeanFactory beanFactory, Executor delegate, String beanName) {
+		this(beanFactory, delegate, beanName, false);
+	}
+
+	/**
+	 * @param beanFactory bean factory
+	 * @param delegate delegate to wrap
+	 * @param beanName bean name
+	 * @param propagationOnly whether the tasks should only run in the scope of the span
+	 * that was current when they were submitted, without a span of their own
+	 * @since 3.1.2
+	 */
+	public LazyTraceExecutor(BeanFactory beanFactory, Executor delegate, String beanName, boolean propagationOnly) {
 		this.beanFactory = beanFactory;
 		this.delegate = delegate;
 		this.beanName = beanName;
+		this.propagationOnly = propagationOnly;
 	}
 
 	/**
@@ -77,6 +90,22 @@ public class LazyTraceExecutor implements Executor {
 		return CACHE.computeIfAbsent(delegate, e -> new LazyTraceExecutor(beanFactory, delegate, beanName));
 	}
 
+	/**
+	 * Wraps the Executor in a trace instance.
+	 * @param beanFactory bean factory
+	 * @param delegate delegate to wrap
+	 * @param beanName bean name
+	 * @param propagationOnly whether the tasks should only run in the scope of the span
+	 * that was current when they were submitted, without a span of their own
+	 * @return traced instance
+	 * @since 3.1.2
+	 */
+	public static LazyTraceExecutor wrap(BeanFactory beanFactory, @NonNull Executor delegate, String beanName,
+			boolean propagationOnly) {
+		return CACHE.computeIfAbsent(delegate,
+				e -> new LazyTraceExecutor(beanFactory, delegate, beanName, propagationOnly));
+	}
+
 	/**
 	 * Wraps the Executor in a trace instance.
 	 * @param beanFactory bean factory
@@ -102,7 +131,8 @@ public class LazyTraceExecutor implements Executor {
 				return;
 			}
 		}
-		this.delegate.execute(new TraceRunnable(this.tracer, spanNamer(), command, this.beanName));
+		this.delegate.execute(this.propagationOnly ? TraceRunnable.propagating(this.tracer, command)
+				: new TraceRunnable(this.tracer, spanNamer(), command, this.beanName));
 	}
 
 	// due to some race conditions trace keys might not be ready yet
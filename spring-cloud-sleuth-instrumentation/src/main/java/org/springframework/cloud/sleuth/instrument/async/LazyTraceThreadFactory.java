@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.async;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.internal.ContextUtil;
+import org.springframework.lang.NonNull;
+
+/**
+ * {@link ThreadFactory} that runs each new thread in the scope of the span that was
+ * current when the thread was created. Meant for factories that create a thread per task,
+ * such as the ones of virtual threads, where the thread is created by the code that
+ * submits the task. No span is created.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+public class LazyTraceThreadFactory implements ThreadFactory {
+
+	private static final Map<ThreadFactory, LazyTraceThreadFactory> CACHE = new ConcurrentHashMap<>();
+
+	private final BeanFactory beanFactory;
+
+	private final ThreadFactory delegate;
+
+	private Tracer tracer;
+
+	public LazyTraceThreadFactory(BeanFactory beanFactory, ThreadFactory delegate) {
+		this.beanFactory = beanFactory;
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Wraps the ThreadFactory in a trace instance.
+	 * @param beanFactory bean factory
+	 * @param delegate delegate to wrap
+	 * @return traced instance
+	 */
+	public static LazyTraceThreadFactory wrap(BeanFactory beanFactory, @NonNull ThreadFactory delegate) {
+		return CACHE.computeIfAbsent(delegate, e -> new LazyTraceThreadFactory(beanFactory, delegate));
+	}
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+		if (runnable instanceof TraceRunnable || ContextUtil.isContextUnusable(this.beanFactory)) {
+			return this.delegate.newThread(runnable);
+		}
+		if (this.tracer == null) {
+			try {
+				this.tracer = this.beanFactory.getBean(Tracer.class);
+			}
+			catch (NoSuchBeanDefinitionException e) {
+				return this.delegate.newThread(runnable);
+			}
+		}
+		return this.delegate.newThread(TraceRunnable.propagating(this.tracer, runnable));
+	}
+
+}
@@ -57,20 +57,34 @@ public class LazyTraceThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 
 	private final String beanName;
 
+	private final boolean propagationOnly;
+
 	private Tracer tracer;
 
 	private SpanNamer spanNamer;
 
 	public LazyTraceThreadPoolTaskExecutor(BeanFactory beanFactory, ThreadPoolTaskExecutor delegate) {
-		this.beanFactory = beanFactory;
-		this.delegate = delegate;
-		this.beanName = null;
+		this(beanFactory, delegate, null);
 	}
 
 	public LazyTraceThreadPoolTaskExecutor(BeanFactory beanFactory, ThreadPoolTaskExecutor delegate, String beanName) {
+		this(beanFactory, delegate, beanName, false);
+	}
+
+	/**
+	 * @param beanFactory bean factory
+	 * @param delegate delegate to wrap
+	 * @param beanName bean name
+	 * @param propagationOnly whether the tasks should only run in the scope of the span
+	 * that was current when they were submitted, without a span of their own
+	 * @since 3.1.2
+	 */
+	public LazyTraceThreadPoolTaskExecutor(BeanFactory beanFactory, ThreadPoolTaskExecutor delegate, String beanName,
+			boolean propagationOnly) {
 		this.beanFactory = beanFactory;
 		this.delegate = delegate;
 		this.beanName = beanName;
+		this.propagationOnly = propagationOnly;
 	}
 
 	/**
@@ -86,6 +100,22 @@ public class LazyTraceThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 				e -> new LazyTraceThreadPoolTaskExecutor(beanFactory, delegate, beanName));
 	}
 
+	/**
+	 * Wraps the Executor in a trace instance.
+	 * @param beanFactory bean factory
+	 * @param delegate delegate to wrap
+	 * @param beanName bean name
+	 * @param propagationOnly whether the tasks should only run in the scope of the span
+	 * that was current when they were submitted, without a span of their own
+	 * @return traced instance
+	 * @since 3.1.2
+	 */
+	public static LazyTraceThreadPoolTaskExecutor wrap(BeanFactory beanFactory,
+			@NonNull ThreadPoolTaskExecutor delegate, String beanName, boolean propagationOnly) {
+		return CACHE.computeIfAbsent(delegate,
+				e -> new LazyTraceThreadPoolTaskExecutor(beanFactory, delegate, beanName, propagationOnly));
+	}
+
 	/**
 	 * Wraps the Executor in a trace instance.
 	 * @param beanFactory bean factory
@@ -204,7 +234,10 @@ public class LazyTraceThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 		if (runnable instanceof TraceRunnable) {
 			return runnable;
 		}
-		return ContextUtil.isContextUnusable(this.beanFactory) ? runnable
+		if (ContextUtil.isContextUnusable(this.beanFactory)) {
+			return runnable;
+		}
+		return this.propagationOnly ? TraceRunnable.propagating(tracer(), runnable)
 				: new TraceRunnable(tracer(), spanNamer(), runnable, this.beanName);
 	}
 
@@ -212,7 +245,10 @@ public class LazyTraceThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 		if (callable instanceof TraceCallable) {
 			return callable;
 		}
-		return ContextUtil.isContextUnusable(this.beanFactory) ? callable
+		if (ContextUtil.isContextUnusable(this.beanFactory)) {
+			return callable;
+		}
+		return this.propagationOnly ? TraceCallable.propagating(tracer(), callable)
 				: new TraceCallable<>(tracer(), spanNamer(), callable, this.beanName);
 	}
 
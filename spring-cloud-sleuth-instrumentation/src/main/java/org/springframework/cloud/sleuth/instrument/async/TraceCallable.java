@@ -48,19 +48,44 @@ public class TraceCallable<V> implements Callable<V> {
 
 	private final String spanName;
 
+	private final boolean propagationOnly;
+
 	public TraceCallable(Tracer tracer, SpanNamer spanNamer, Callable<V> delegate) {
 		this(tracer, spanNamer, delegate, null);
 	}
 
 	public TraceCallable(Tracer tracer, SpanNamer spanNamer, Callable<V> delegate, String name) {
+		this(tracer, delegate, name != null ? name : spanNamer.name(delegate, DEFAULT_SPAN_NAME), false);
+	}
+
+	private TraceCallable(Tracer tracer, Callable<V> delegate, String spanName, boolean propagationOnly) {
 		this.tracer = tracer;
 		this.delegate = delegate;
 		this.parent = tracer.currentSpan();
-		this.spanName = name != null ? name : spanNamer.name(delegate, DEFAULT_SPAN_NAME);
+		this.spanName = spanName;
+		this.propagationOnly = propagationOnly;
+	}
+
+	/**
+	 * Wraps the callable so that it runs in the scope of the current span, without a span
+	 * of its own.
+	 * @param tracer tracer
+	 * @param delegate callable to wrap
+	 * @param <V> return type from callable
+	 * @return wrapped callable
+	 * @since 3.1.2
+	 */
+	public static <V> TraceCallable<V> propagating(Tracer tracer, Callable<V> delegate) {
+		return new TraceCallable<>(tracer, delegate, null, true);
 	}
 
 	@Override
 	public V call() throws Exception {
+		if (this.propagationOnly) {
+			try (Tracer.SpanInScope ws = this.tracer.withSpan(this.parent)) {
+				return this.delegate.call();
+			}
+		}
 		Span childSpan = SleuthAsyncSpan.ASYNC_CALLABLE_SPAN.wrap(this.tracer.nextSpan(this.parent))
 				.name(this.spanName);
 		try (Tracer.SpanInScope ws = this.tracer.withSpan(childSpan.start())) {
@@ -45,19 +45,44 @@ public class TraceRunnable implements Runnable {
 
 	private final String spanName;
 
+	private final boolean propagationOnly;
+
 	public TraceRunnable(Tracer tracer, SpanNamer spanNamer, Runnable delegate) {
 		this(tracer, spanNamer, delegate, null);
 	}
 
 	public TraceRunnable(Tracer tracer, SpanNamer spanNamer, Runnable delegate, String name) {
+		this(tracer, delegate, name != null ? name : spanNamer.name(delegate, DEFAULT_SPAN_NAME), false);
+	}
+
+	private TraceRunnable(Tracer tracer, Runnable delegate, String spanName, boolean propagationOnly) {
 		this.tracer = tracer;
 		this.delegate = delegate;
 		this.parent = tracer.currentSpan();
-		this.spanName = name != null ? name : spanNamer.name(delegate, DEFAULT_SPAN_NAME);
+		this.spanName = spanName;
+		this.propagationOnly = propagationOnly;
+	}
+
+	/**
+	 * Wraps the runnable so that it runs in the scope of the current span, without a span
+	 * of its own.
+	 * @param tracer tracer
+	 * @param delegate runnable to wrap
+	 * @return wrapped runnable
+	 * @since 3.1.2
+	 */
+	public static TraceRunnable propagating(Tracer tracer, Runnable delegate) {
+		return new TraceRunnable(tracer, delegate, null, true);
 	}
 
 	@Override
 	public void run() {
+		if (this.propagationOnly) {
+			try (Tracer.SpanInScope ws = this.tracer.withSpan(this.parent)) {
+				this.delegate.run();
+			}
+			return;
+		}
 		Span childSpan = SleuthAsyncSpan.ASYNC_RUNNABLE_SPAN.wrap(this.tracer.nextSpan(this.parent))
 				.name(this.spanName);
 		try (Tracer.SpanInScope ws = this.tracer.withSpan(childSpan.start())) {
@@ -48,6 +48,8 @@ public class TraceableExecutorService implements ExecutorService {
 
 	final String spanName;
 
+	final boolean propagationOnly;
+
 	Tracer tracer;
 
 	SpanNamer spanNamer;
@@ -59,9 +61,23 @@ public class TraceableExecutorService implements ExecutorService {
 	}
 
 	public TraceableExecutorService(BeanFactory beanFactory, final ExecutorService delegate, String spanName) {
+		this(beanFactory, delegate, spanName, false);
+	}
+
+	/**
+	 * @param beanFactory bean factory
+	 * @param delegate delegate to wrap
+	 * @param spanName name of the spans of the tasks
+	 * @param propagationOnly whether the tasks should only run in the scope of the span
+	 * that was current when they were submitted, without a span of their own
+	 * @since 3.1.2
+	 */
+	public TraceableExecutorService(BeanFactory beanFactory, final ExecutorService delegate, String spanName,
+			boolean propagationOnly) {
 		this.delegate = delegate;
 		this.beanFactory = beanFactory;
 		this.spanName = spanName;
+		this.propagationOnly = propagationOnly;
 	}
 
 	/**
@@ -75,6 +91,22 @@ public class TraceableExecutorService implements ExecutorService {
 		return CACHE.computeIfAbsent(delegate, e -> new TraceableExecutorService(beanFactory, delegate, beanName));
 	}
 
+	/**
+	 * Wraps the Executor in a trace instance.
+	 * @param beanFactory bean factory
+	 * @param delegate delegate to wrap
+	 * @param beanName bean name
+	 * @param propagationOnly whether the tasks should only run in the scope of the span
+	 * that was current when they were submitted, without a span of their own
+	 * @return traced instance
+	 * @since 3.1.2
+	 */
+	public static TraceableExecutorService wrap(BeanFactory beanFactory, ExecutorService delegate, String beanName,
+			boolean propagationOnly) {
+		return CACHE.computeIfAbsent(delegate,
+				e -> new TraceableExecutorService(beanFactory, delegate, beanName, propagationOnly));
+	}
+
 	/**
 	 * Wraps the Executor in a trace instance.
 	 * @param beanFactory bean factory
@@ -87,8 +119,7 @@ public class TraceableExecutorService implements ExecutorService {
 
 	@Override
 	public void execute(Runnable command) {
-		this.delegate.execute(ContextUtil.isContextUnusable(this.beanFactory) ? command
-				: new TraceRunnable(tracer(), spanNamer(), command, this.spanName));
+		this.delegate.execute(ContextUtil.isContextUnusable(this.beanFactory) ? command : traceRunnable(command));
 	}
 
 	@Override
@@ -118,20 +149,18 @@ public class TraceableExecutorService implements ExecutorService {
 
 	@Override
 	public <T> Future<T> submit(Callable<T> task) {
-		return this.delegate.submit(ContextUtil.isContextUnusable(this.beanFactory) ? task
-				: new TraceCallable<>(tracer(), spanNamer(), task, this.spanName));
+		return this.delegate.submit(ContextUtil.isContextUnusable(this.beanFactory) ? task : traceCallable(task));
 	}
 
 	@Override
 	public <T> Future<T> submit(Runnable task, T result) {
-		return this.delegate.submit(ContextUtil.isContextUnusable(this.beanFactory) ? task
-				: new TraceRunnable(tracer(), spanNamer(), task, this.spanName), result);
+		return this.delegate.submit(ContextUtil.isContextUnusable(this.beanFactory) ? task : traceRunnable(task),
+				result);
 	}
 
 	@Override
 	public Future<?> submit(Runnable task) {
-		return this.delegate.submit(ContextUtil.isContextUnusable(this.beanFactory) ? task
-				: new TraceRunnable(tracer(), spanNamer(), task, this.spanName));
+		return this.delegate.submit(ContextUtil.isContextUnusable(this.beanFactory) ? task : traceRunnable(task));
 	}
 
 	@Override
@@ -164,12 +193,22 @@ public class TraceableExecutorService implements ExecutorService {
 		List<Callable<T>> ts = new ArrayList<>();
 		for (Callable<T> task : tasks) {
 			if (!(task instanceof TraceCallable)) {
-				ts.add(new TraceCallable<>(tracer(), spanNamer(), task, this.spanName));
+				ts.add(traceCallable(task));
 			}
 		}
 		return ts;
 	}
 
+	TraceRunnable traceRunnable(Runnable task) {
+		return this.propagationOnly ? TraceRunnable.propagating(tracer(), task)
+				: new TraceRunnable(tracer(), spanNamer(), task, this.spanName);
+	}
+
+	<T> TraceCallable<T> traceCallable(Callable<T> task) {
+		return this.propagationOnly ? TraceCallable.propagating(tracer(), task)
+				: new TraceCallable<>(tracer(), spanNamer(), task, this.spanName);
+	}
+
 	Tracer tracer() {
 		if (this.tracer == null && this.beanFactory != null) {
 			this.tracer = this.beanFactory.getBean(Tracer.class);
@@ -46,6 +46,19 @@ public class TraceableScheduledExecutorService extends TraceableExecutorService
 		super(beanFactory, delegate, beanName);
 	}
 
+	/**
+	 * @param beanFactory bean factory
+	 * @param delegate delegate to wrap
+	 * @param beanName bean name
+	 * @param propagationOnly whether the tasks should only run in the scope of the span
+	 * that was current when they were submitted, without a span of their own
+	 * @since 3.1.2
+	 */
+	public TraceableScheduledExecutorService(BeanFactory beanFactory, final ExecutorService delegate, String beanName,
+			boolean propagationOnly) {
+		super(beanFactory, delegate, beanName, propagationOnly);
+	}
+
 	/**
 	 * Wraps the Executor in a trace instance.
 	 * @param beanFactory bean factory
@@ -59,6 +72,22 @@ public class TraceableScheduledExecutorService extends TraceableExecutorService
 				e -> new TraceableScheduledExecutorService(beanFactory, delegate, beanName));
 	}
 
+	/**
+	 * Wraps the Executor in a trace instance.
+	 * @param beanFactory bean factory
+	 * @param delegate delegate to wrap
+	 * @param beanName bean name
+	 * @param propagationOnly whether the tasks should only run in the scope of the span
+	 * that was current when they were submitted, without a span of their own
+	 * @return traced instance
+	 * @since 3.1.2
+	 */
+	public static TraceableScheduledExecutorService wrap(BeanFactory beanFactory, ExecutorService delegate,
+			String beanName, boolean propagationOnly) {
+		return CACHE.computeIfAbsent(delegate,
+				e -> new TraceableScheduledExecutorService(beanFactory, delegate, beanName, propagationOnly));
+	}
+
 	/**
 	 * Wraps the Executor in a trace instance.
 	 * @param beanFactory bean factory
@@ -75,32 +104,28 @@ public class TraceableScheduledExecutorService extends TraceableExecutorService
 
 	@Override
 	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-		return getScheduledExecutorService().schedule(ContextUtil.isContextUnusable(this.beanFactory) ? command
-				: new TraceRunnable(tracer(), spanNamer(), command, this.spanName), delay, unit);
+		return getScheduledExecutorService().schedule(
+				ContextUtil.isContextUnusable(this.beanFactory) ? command : traceRunnable(command), delay, unit);
 	}
 
 	@Override
 	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-		return getScheduledExecutorService().schedule(ContextUtil.isContextUnusable(this.beanFactory) ? callable
-				: new TraceCallable<>(tracer(), spanNamer(), callable, this.spanName), delay, unit);
+		return getScheduledExecutorService().schedule(
+				ContextUtil.isContextUnusable(this.beanFactory) ? callable : traceCallable(callable), delay, unit);
 	}
 
 	@Override
 	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-		return getScheduledExecutorService()
-				.scheduleAtFixedRate(
-						ContextUtil.isContextUnusable(this.beanFactory) ? command
-								: new TraceRunnable(tracer(), spanNamer(), command, this.spanName),
-						initialDelay, period, unit);
+		return getScheduledExecutorService().scheduleAtFixedRate(
+				ContextUtil.isContextUnusable(this.beanFactory) ? command : traceRunnable(command), initialDelay,
+				period, unit);
 	}
 
 	@Override
 	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-		return getScheduledExecutorService()
-				.scheduleWithFixedDelay(
-						ContextUtil.isContextUnusable(this.beanFactory) ? command
-								: new TraceRunnable(tracer(), spanNamer(), command, this.spanName),
-						initialDelay, delay, unit);
+		return getScheduledExecutorService().scheduleWithFixedDelay(
+				ContextUtil.isContextUnusable(this.beanFactory) ? command : traceRunnable(command), initialDelay, delay,
+				unit);
 	}
 
 }
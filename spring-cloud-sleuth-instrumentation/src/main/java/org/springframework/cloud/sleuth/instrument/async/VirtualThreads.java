@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.async;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Recognizes the JDK types that start a new thread per task, such as the executors
+ * returned by {@code Executors.newVirtualThreadPerTaskExecutor()} and the factories
+ * returned by {@code Thread.ofVirtual().factory()}. The types are matched by name, since
+ * they're only available on JDK 21+ and aren't public.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+final class VirtualThreads {
+
+	private static final String THREAD_PER_TASK_EXECUTOR = "java.util.concurrent.ThreadPerTaskExecutor";
+
+	private static final String VIRTUAL_THREAD_FACTORY = "java.lang.ThreadBuilders$VirtualThreadFactory";
+
+	private VirtualThreads() {
+		throw new IllegalStateException("Can't instantiate a utility class");
+	}
+
+	/**
+	 * @param bean bean to check
+	 * @return {@code true} if the bean is an executor that starts a new thread per task
+	 */
+	static boolean isThreadPerTaskExecutor(Object bean) {
+		return THREAD_PER_TASK_EXECUTOR.equals(bean.getClass().getName());
+	}
+
+	/**
+	 * @param bean bean to check
+	 * @return {@code true} if the bean is a {@link ThreadFactory} of virtual threads
+	 */
+	static boolean isVirtualThreadFactory(Object bean) {
+		return bean instanceof ThreadFactory && VIRTUAL_THREAD_FACTORY.equals(bean.getClass().getName());
+	}
+
+}
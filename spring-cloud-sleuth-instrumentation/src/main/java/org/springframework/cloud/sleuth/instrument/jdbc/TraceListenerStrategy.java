@@ -20,6 +20,7 @@ import java.net.URI;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -54,6 +55,10 @@ import org.springframework.util.StringUtils;
  * Tracking covers such cases as long as resources are closed in the same thread they were
  * opened.
  *
+ * Open connections are kept in a single concurrent map. The statements and result sets of
+ * a connection are kept in small arrays guarded by the connection state itself, since a
+ * connection typically has only a few of them open at a time.
+ *
  * Partially taken from
  * https://github.com/openzipkin/brave/blob/v5.6.4/instrumentation/p6spy/src/main/java/brave/p6spy/TracingJdbcEventListener.java
  * and
@@ -74,10 +79,19 @@ class TraceListenerStrategy<CON, STMT, RS> {
 
 	private static final SpanNameProvider SPAN_NAME_PROVIDER = new SpanNameProvider();
 
-	private final Map<CON, ConnectionInfo> openConnections = new ConcurrentHashMap<>();
+	/**
+	 * Maximum number of URLs for which the remote address and service name are cached.
+	 * The cache is cleared when it gets full.
+	 */
+	static final int MAX_CACHED_URLS = 256;
+
+	private final Map<CON, ConnectionInfo> openConnections = new ConcurrentHashMap<>(256);
 
 	private final ThreadLocal<ConnectionInfo> currentConnection = new ThreadLocal<>();
 
+	// remote service name and address parsed once per connection URL
+	private final Map<String, UrlInfo> urlInfos = new ConcurrentHashMap<>();
+
 	private final Tracer tracer;
 
 	private final List<TraceType> traceTypes;
@@ -132,7 +146,10 @@ class TraceListenerStrategy<CON, STMT, RS> {
 			parseAndSetServerIpAndPort(connectionInfo, connection, dataSourceName);
 			if (connectionSpan != null) {
 				connectionSpan.getSpan().remoteServiceName(connectionInfo.remoteServiceName);
-				connectionSpan.getSpan().remoteIpAndPort(connectionInfo.url.getHost(), connectionInfo.url.getPort());
+				if (connectionInfo.url != null) {
+					connectionSpan.getSpan().remoteIpAndPort(connectionInfo.url.getHost(),
+							connectionInfo.url.getPort());
+				}
 			}
 		}
 		else if (t != null) {
@@ -191,8 +208,7 @@ class TraceListenerStrategy<CON, STMT, RS> {
 						+ tracer.currentSpan() + "]");
 			}
 		}
-		StatementInfo statementInfo = new StatementInfo(spanAndScope);
-		connectionInfo.nestedStatements.put(statementKey, statementInfo);
+		connectionInfo.putStatement(statementKey, spanAndScope);
 	}
 
 	void addQueryRowCount(CON connectionKey, STMT statementKey, int rowCount) {
@@ -206,8 +222,7 @@ class TraceListenerStrategy<CON, STMT, RS> {
 			}
 			return;
 		}
-		StatementInfo statementInfo = connectionInfo.nestedStatements.get(statementKey);
-		SpanAndScope statementSpan = statementInfo.span;
+		SpanAndScope statementSpan = connectionInfo.statementSpan(statementKey);
 		if (statementSpan != null) {
 			AssertingSpan.of(SleuthJdbcSpan.JDBC_QUERY_SPAN, statementSpan.getSpan())
 					.tag(SleuthJdbcSpan.QueryTags.ROW_COUNT, String.valueOf(rowCount));
@@ -227,8 +242,7 @@ class TraceListenerStrategy<CON, STMT, RS> {
 			}
 			return;
 		}
-		StatementInfo statementInfo = connectionInfo.nestedStatements.get(statementKey);
-		SpanAndScope statementSpan = statementInfo.span;
+		SpanAndScope statementSpan = connectionInfo.statementSpan(statementKey);
 		if (statementSpan != null) {
 			AssertingSpan.of(SleuthJdbcSpan.JDBC_QUERY_SPAN, statementSpan.getSpan())
 					.tag(SleuthJdbcSpan.QueryTags.QUERY, sql).name(SPAN_NAME_PROVIDER.getSpanNameFor(sql));
@@ -261,7 +275,7 @@ class TraceListenerStrategy<CON, STMT, RS> {
 			}
 			return;
 		}
-		if (connectionInfo.nestedResultSetSpans.containsKey(resultSetKey)) {
+		if (connectionInfo.hasResultSet(resultSetKey)) {
 			if (log.isTraceEnabled()) {
 				log.trace("ResultSet span is already created");
 			}
@@ -282,15 +296,11 @@ class TraceListenerStrategy<CON, STMT, RS> {
 			log.trace("Started client result set span [" + resultSetSpan + "] - current span is ["
 					+ tracer.currentSpan() + "]");
 		}
-		connectionInfo.nestedResultSetSpans.put(resultSetKey, spanAndScope);
-		StatementInfo statementInfo = connectionInfo.nestedStatements.get(statementKey);
-		// StatementInfo may be null when Statement is proxied and instance returned from
-		// ResultSet is different from instance returned in query method
+		// Statement may not be tracked when Statement is proxied and instance returned
+		// from ResultSet is different from instance returned in query method
 		// in this case if Statement is closed before ResultSet span won't be finished
 		// immediately, but when Connection is closed
-		if (statementInfo != null) {
-			statementInfo.nestedResultSetSpans.put(resultSetKey, spanAndScope);
-		}
+		connectionInfo.putResultSet(resultSetKey, statementKey, spanAndScope);
 	}
 
 	void afterStatementClose(CON connectionKey, STMT statementKey) {
@@ -302,20 +312,16 @@ class TraceListenerStrategy<CON, STMT, RS> {
 		if (connectionInfo == null) {
 			return;
 		}
-		StatementInfo statementInfo = connectionInfo.nestedStatements.remove(statementKey);
-		if (statementInfo != null) {
-			statementInfo.nestedResultSetSpans.forEach((resultSetKey, span) -> {
-				connectionInfo.nestedResultSetSpans.remove(resultSetKey);
-				if (log.isTraceEnabled()) {
-					log.trace("Closing span after statement close [" + span.getSpan() + "] - current span is ["
-							+ tracer.currentSpan() + "]");
-				}
-				span.close();
-				if (log.isTraceEnabled()) {
-					log.trace("Current span [" + tracer.currentSpan() + "]");
-				}
-			});
-			statementInfo.nestedResultSetSpans.clear();
+		SpanAndScope[] resultSetSpans = connectionInfo.removeStatement(statementKey);
+		for (SpanAndScope span : resultSetSpans) {
+			if (log.isTraceEnabled()) {
+				log.trace("Closing span after statement close [" + span.getSpan() + "] - current span is ["
+						+ tracer.currentSpan() + "]");
+			}
+			span.close();
+			if (log.isTraceEnabled()) {
+				log.trace("Current span [" + tracer.currentSpan() + "]");
+			}
 		}
 	}
 
@@ -328,7 +334,7 @@ class TraceListenerStrategy<CON, STMT, RS> {
 		if (connectionInfo == null) {
 			return;
 		}
-		SpanAndScope resultSetSpan = connectionInfo.nestedResultSetSpans.remove(resultSetKey);
+		SpanAndScope resultSetSpan = connectionInfo.removeResultSet(resultSetKey);
 		// ResultSet span may be null if Statement or ResultSet were already closed
 		if (resultSetSpan == null) {
 			return;
@@ -403,13 +409,7 @@ class TraceListenerStrategy<CON, STMT, RS> {
 			// connection is already closed
 			return;
 		}
-		connectionInfo.nestedResultSetSpans.values().forEach(SpanAndScope::close);
-		connectionInfo.nestedStatements.values().forEach(statementInfo -> {
-			SpanAndScope statementSpan = statementInfo.span;
-			if (statementSpan != null) {
-				statementSpan.close();
-			}
-		});
+		connectionInfo.closeAll();
 		if (log.isTraceEnabled()) {
 			log.trace("Current span after closing statements [" + tracer.currentSpan() + "]");
 		}
@@ -434,69 +434,268 @@ class TraceListenerStrategy<CON, STMT, RS> {
 	 * {@code
 	 * jdbc:mysql://localhost:5555/mydatabase}.
 	 *
+	 * The URL is read from the connection metadata on each checkout, so that data sources
+	 * routing to several databases or changing their URL are reported with the current
+	 * one, but it's parsed once per URL. The catalog, used as the remote service name
+	 * when the URL doesn't set one, is cached along with the parsed URL: it's the catalog
+	 * of the first connection to that URL, a connection that switches to another catalog
+	 * keeps the cached name.
+	 *
 	 * Taken from Brave.
 	 */
 	private void parseAndSetServerIpAndPort(ConnectionInfo connectionInfo, Connection connection,
 			String dataSourceName) {
-		URI url = null;
-		String remoteServiceName = "";
+		UrlInfo urlInfo = urlInfo(connection);
+		connectionInfo.url = urlInfo.url;
+		if (StringUtils.hasText(urlInfo.remoteServiceName)) {
+			connectionInfo.remoteServiceName = urlInfo.remoteServiceName;
+		}
+		else {
+			connectionInfo.remoteServiceName = dataSourceName;
+		}
+	}
+
+	private UrlInfo urlInfo(Connection connection) {
+		String urlAsString;
 		try {
-			String urlAsString = connection.getMetaData().getURL().substring(5); // strip
-																					// "jdbc:"
-			url = URI.create(urlAsString.replace(" ", "")); // Remove all white space
-															// according to RFC 2396;
-			Matcher matcher = URL_SERVICE_NAME_FINDER.matcher(url.toString());
-			if (matcher.find() && matcher.groupCount() == 1) {
-				String parsedServiceName = matcher.group(1);
-				if (parsedServiceName != null && !parsedServiceName.isEmpty()) {
-					remoteServiceName = parsedServiceName;
-				}
-			}
-			if (!StringUtils.hasText(remoteServiceName)) {
-				String databaseName = connection.getCatalog();
-				if (databaseName != null && !databaseName.isEmpty()) {
-					remoteServiceName = databaseName;
-				}
-			}
+			urlAsString = connection.getMetaData().getURL();
 		}
 		catch (Exception e) {
 			// remote address is optional
+			return UrlInfo.EMPTY;
 		}
-		connectionInfo.url = url;
-		if (StringUtils.hasText(remoteServiceName)) {
-			connectionInfo.remoteServiceName = remoteServiceName;
+		if (urlAsString == null) {
+			return UrlInfo.EMPTY;
 		}
-		else {
-			connectionInfo.remoteServiceName = dataSourceName;
+		UrlInfo urlInfo = this.urlInfos.get(urlAsString);
+		if (urlInfo != null) {
+			return urlInfo;
 		}
+		urlInfo = UrlInfo.parse(urlAsString, connection);
+		if (urlInfo.cacheable) {
+			if (this.urlInfos.size() >= MAX_CACHED_URLS) {
+				this.urlInfos.clear();
+			}
+			this.urlInfos.putIfAbsent(urlAsString, urlInfo);
+		}
+		return urlInfo;
 	}
 
-	private final class ConnectionInfo {
+	/**
+	 * Remote address and service name parsed from a JDBC URL.
+	 */
+	private static final class UrlInfo {
+
+		static final UrlInfo EMPTY = new UrlInfo(null, "", false);
 
-		final SpanAndScope span;
+		@Nullable
+		final URI url;
+
+		final String remoteServiceName;
+
+		final boolean cacheable;
+
+		private UrlInfo(@Nullable URI url, String remoteServiceName, boolean cacheable) {
+			this.url = url;
+			this.remoteServiceName = remoteServiceName;
+			this.cacheable = cacheable;
+		}
+
+		static UrlInfo parse(String urlAsString, Connection connection) {
+			URI url = null;
+			String remoteServiceName = "";
+			try {
+				// strip "jdbc:" and remove all white space according to RFC 2396
+				url = URI.create(urlAsString.substring(5).replace(" ", ""));
+				Matcher matcher = URL_SERVICE_NAME_FINDER.matcher(url.toString());
+				if (matcher.find() && matcher.groupCount() == 1) {
+					String parsedServiceName = matcher.group(1);
+					if (parsedServiceName != null && !parsedServiceName.isEmpty()) {
+						remoteServiceName = parsedServiceName;
+					}
+				}
+			}
+			catch (Exception e) {
+				// remote address is optional, an unparsable URL stays unparsable
+				return new UrlInfo(url, remoteServiceName, true);
+			}
+			if (!StringUtils.hasText(remoteServiceName)) {
+				try {
+					String databaseName = connection.getCatalog();
+					if (databaseName != null && !databaseName.isEmpty()) {
+						remoteServiceName = databaseName;
+					}
+				}
+				catch (Exception e) {
+					// might succeed for the next connection
+					return new UrlInfo(url, remoteServiceName, false);
+				}
+			}
+			return new UrlInfo(url, remoteServiceName, true);
+		}
+
+	}
 
-		final Map<STMT, StatementInfo> nestedStatements = new ConcurrentHashMap<>();
+	/**
+	 * State of an open connection. Statements and result sets are kept in parallel arrays
+	 * that are scanned linearly, which is cheaper than hashing for the few resources a
+	 * connection has open at a time.
+	 */
+	private static final class ConnectionInfo {
+
+		private static final int INITIAL_CAPACITY = 4;
 
-		final Map<RS, SpanAndScope> nestedResultSetSpans = new ConcurrentHashMap<>();
+		private static final SpanAndScope[] NO_SPANS = new SpanAndScope[0];
+
+		final SpanAndScope span;
 
 		URI url;
 
 		String remoteServiceName;
 
+		private Object[] statementKeys = new Object[INITIAL_CAPACITY];
+
+		private SpanAndScope[] statementSpans = new SpanAndScope[INITIAL_CAPACITY];
+
+		private int statementCount;
+
+		private Object[] resultSetKeys = new Object[INITIAL_CAPACITY];
+
+		// key of the statement owning the result set or null if it's not tracked
+		private Object[] resultSetStatementKeys = new Object[INITIAL_CAPACITY];
+
+		private SpanAndScope[] resultSetSpans = new SpanAndScope[INITIAL_CAPACITY];
+
+		private int resultSetCount;
+
 		ConnectionInfo(@Nullable SpanAndScope span) {
 			this.span = span;
 		}
 
-	}
+		synchronized void putStatement(Object statementKey, @Nullable SpanAndScope span) {
+			int index = indexOf(this.statementKeys, this.statementCount, statementKey);
+			if (index == -1) {
+				if (this.statementCount == this.statementKeys.length) {
+					this.statementKeys = Arrays.copyOf(this.statementKeys, this.statementCount * 2);
+					this.statementSpans = Arrays.copyOf(this.statementSpans, this.statementCount * 2);
+				}
+				index = this.statementCount++;
+				this.statementKeys[index] = statementKey;
+			}
+			else {
+				// the result sets of the replaced statement are only closed with the
+				// connection
+				for (int i = 0; i < this.resultSetCount; i++) {
+					if (statementKey.equals(this.resultSetStatementKeys[i])) {
+						this.resultSetStatementKeys[i] = null;
+					}
+				}
+			}
+			this.statementSpans[index] = span;
+		}
 
-	private final class StatementInfo {
+		@Nullable
+		synchronized SpanAndScope statementSpan(Object statementKey) {
+			int index = indexOf(this.statementKeys, this.statementCount, statementKey);
+			return index != -1 ? this.statementSpans[index] : null;
+		}
 
-		final SpanAndScope span;
+		/**
+		 * Stops tracking the statement and its result sets.
+		 * @return spans of the result sets of the statement
+		 */
+		synchronized SpanAndScope[] removeStatement(Object statementKey) {
+			int index = indexOf(this.statementKeys, this.statementCount, statementKey);
+			if (index == -1) {
+				return NO_SPANS;
+			}
+			this.statementCount = remove(index, this.statementCount, this.statementKeys, this.statementSpans);
+			SpanAndScope[] spans = NO_SPANS;
+			for (int i = this.resultSetCount - 1; i >= 0; i--) {
+				if (statementKey.equals(this.resultSetStatementKeys[i])) {
+					spans = Arrays.copyOf(spans, spans.length + 1);
+					spans[spans.length - 1] = this.resultSetSpans[i];
+					this.resultSetCount = remove(i, this.resultSetCount, this.resultSetKeys,
+							this.resultSetStatementKeys, this.resultSetSpans);
+				}
+			}
+			return spans;
+		}
 
-		final Map<RS, SpanAndScope> nestedResultSetSpans = new ConcurrentHashMap<>();
+		synchronized boolean hasResultSet(Object resultSetKey) {
+			return indexOf(this.resultSetKeys, this.resultSetCount, resultSetKey) != -1;
+		}
 
-		StatementInfo(SpanAndScope span) {
-			this.span = span;
+		synchronized void putResultSet(Object resultSetKey, @Nullable Object statementKey, SpanAndScope span) {
+			int index = indexOf(this.resultSetKeys, this.resultSetCount, resultSetKey);
+			if (index == -1) {
+				if (this.resultSetCount == this.resultSetKeys.length) {
+					int capacity = this.resultSetCount * 2;
+					this.resultSetKeys = Arrays.copyOf(this.resultSetKeys, capacity);
+					this.resultSetStatementKeys = Arrays.copyOf(this.resultSetStatementKeys, capacity);
+					this.resultSetSpans = Arrays.copyOf(this.resultSetSpans, capacity);
+				}
+				index = this.resultSetCount++;
+				this.resultSetKeys[index] = resultSetKey;
+			}
+			boolean tracked = statementKey != null
+					&& indexOf(this.statementKeys, this.statementCount, statementKey) != -1;
+			this.resultSetStatementKeys[index] = tracked ? statementKey : null;
+			this.resultSetSpans[index] = span;
+		}
+
+		@Nullable
+		synchronized SpanAndScope removeResultSet(Object resultSetKey) {
+			int index = indexOf(this.resultSetKeys, this.resultSetCount, resultSetKey);
+			if (index == -1) {
+				return null;
+			}
+			SpanAndScope span = this.resultSetSpans[index];
+			this.resultSetCount = remove(index, this.resultSetCount, this.resultSetKeys, this.resultSetStatementKeys,
+					this.resultSetSpans);
+			return span;
+		}
+
+		/**
+		 * Closes the spans of all result sets and statements that are still tracked.
+		 */
+		synchronized void closeAll() {
+			for (int i = 0; i < this.resultSetCount; i++) {
+				this.resultSetSpans[i].close();
+			}
+			for (int i = 0; i < this.statementCount; i++) {
+				if (this.statementSpans[i] != null) {
+					this.statementSpans[i].close();
+				}
+			}
+		}
+
+		private static int indexOf(Object[] keys, int count, Object key) {
+			for (int i = 0; i < count; i++) {
+				if (keys[i] == key) {
+					return i;
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				if (key.equals(keys[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Removes the entry at the given index from all arrays by moving the last entry
+		 * in its place.
+		 * @return new number of entries
+		 */
+		private static int remove(int index, int count, Object[]... arrays) {
+			int last = count - 1;
+			for (Object[] array : arrays) {
+				array[index] = array[last];
+				array[last] = null;
+			}
+			return last;
 		}
 
 	}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.kafka;
+
+/**
+ * Defines which spans a {@link TracingKafkaConsumer} creates for polled records.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+public enum KafkaConsumerSpanMode {
+
+	/**
+	 * A span per record, continuing the trace from the record headers.
+	 */
+	RECORD,
+
+	/**
+	 * A single span per poll. Only the headers of the first records are read by the
+	 * consumer, the span starts a new trace unless all records come from the same trace.
+	 */
+	POLL,
+
+	/**
+	 * A span per partition of a poll. Only the headers of the first records are read by
+	 * the consumer, the span starts a new trace unless all records come from the same
+	 * trace.
+	 */
+	PARTITION
+
+}
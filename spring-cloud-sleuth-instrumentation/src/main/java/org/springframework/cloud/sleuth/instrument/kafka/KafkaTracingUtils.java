@@ -16,34 +16,57 @@
 
 package org.springframework.cloud.sleuth.instrument.kafka;
 
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
 import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.TraceContext;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.docs.AssertingSpanBuilder;
 import org.springframework.cloud.sleuth.propagation.Propagator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 final class KafkaTracingUtils {
 
 	private static final Log log = LogFactory.getLog(KafkaTracingUtils.class);
 
+	/**
+	 * Maximum number of records of a batch span whose parent span is read.
+	 */
+	static final int MAX_BATCH_PARENTS = 10;
+
+	/**
+	 * Parent contexts extracted from the record headers, shared by the consumer and the
+	 * listener instrumentation so that the headers of a record are parsed once. Records
+	 * don't override {@code equals}, so they are compared by identity, and they are
+	 * weakly referenced so that the contexts go away with the records.
+	 */
+	private static final Map<ConsumerRecord<?, ?>, TraceContext> PARENT_CONTEXTS = new ConcurrentReferenceHashMap<>(256,
+			ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
 	private KafkaTracingUtils() {
 	}
 
 	static <K, V> void buildAndFinishSpan(SleuthKafkaSpan sleuthKafkaSpan, ConsumerRecord<K, V> consumerRecord,
-			Propagator propagator, Propagator.Getter<ConsumerRecord<?, ?>> extractor) {
-		Span span = buildSpan(sleuthKafkaSpan, consumerRecord, propagator, extractor);
+			Tracer tracer, Propagator propagator, Propagator.Getter<ConsumerRecord<?, ?>> extractor) {
+		Span span = buildSpan(sleuthKafkaSpan, consumerRecord, tracer, propagator, extractor);
 		if (log.isDebugEnabled()) {
 			log.debug("Extracted span from event headers " + span);
 		}
 		span.end();
 	}
 
-	static <K, V> Span buildSpan(SleuthKafkaSpan sleuthKafkaSpan, ConsumerRecord<K, V> consumerRecord,
+	static <K, V> Span buildSpan(SleuthKafkaSpan sleuthKafkaSpan, ConsumerRecord<K, V> consumerRecord, Tracer tracer,
 			Propagator propagator, Propagator.Getter<ConsumerRecord<?, ?>> extractor) {
 		// @formatter:off
-		Span.Builder spanBuilder = AssertingSpanBuilder.of(sleuthKafkaSpan, propagator.extract(consumerRecord, extractor).kind(Span.Kind.CONSUMER))
+		Span.Builder spanBuilder = AssertingSpanBuilder.of(sleuthKafkaSpan, childOf(consumerRecord, tracer, propagator, extractor).kind(Span.Kind.CONSUMER))
 				.name(sleuthKafkaSpan.getName())
 				.tag(SleuthKafkaSpan.ConsumerTags.TOPIC, consumerRecord.topic())
 				.tag(SleuthKafkaSpan.ConsumerTags.OFFSET, Long.toString(consumerRecord.offset()))
@@ -52,4 +75,96 @@ final class KafkaTracingUtils {
 		return spanBuilder.start();
 	}
 
+	private static Span.Builder childOf(ConsumerRecord<?, ?> consumerRecord, Tracer tracer, Propagator propagator,
+			Propagator.Getter<ConsumerRecord<?, ?>> extractor) {
+		TraceContext parent = parentContext(consumerRecord, propagator, extractor);
+		if (parent != null) {
+			return tracer.spanBuilder().setParent(parent);
+		}
+		return propagator.extract(consumerRecord, extractor);
+	}
+
+	/**
+	 * Context of the span that sent the record, extracted from its headers on the first
+	 * call only.
+	 * @param consumerRecord record
+	 * @param propagator propagator
+	 * @param extractor record headers getter
+	 * @return parent context or {@code null} if the record doesn't contain one or the
+	 * propagator can't extract it without creating a span
+	 */
+	@Nullable
+	static TraceContext parentContext(ConsumerRecord<?, ?> consumerRecord, Propagator propagator,
+			Propagator.Getter<ConsumerRecord<?, ?>> extractor) {
+		TraceContext context = PARENT_CONTEXTS.get(consumerRecord);
+		if (context == null) {
+			context = propagator.extractContext(consumerRecord, extractor);
+			if (context != null) {
+				PARENT_CONTEXTS.put(consumerRecord, context);
+			}
+		}
+		return context;
+	}
+
+	/**
+	 * Builds and finishes a single span for many records. The parent spans of at most
+	 * {@link #MAX_BATCH_PARENTS} records are read from their headers, without creating
+	 * spans, and listed in a tag. The headers of the other records are read only if a
+	 * listener asks for their context. The span continues the trace of the records only
+	 * when all of them were read and come from the same trace, it's the root of a new
+	 * trace otherwise.
+	 * @param tracer tracer
+	 * @param propagator propagator
+	 * @param extractor record headers getter
+	 * @param records records of the span
+	 * @param topic topic of all records or {@code null} if they come from many topics
+	 * @param partition partition of all records or {@code null} if they come from many
+	 * partitions
+	 * @param recordCount number of records
+	 */
+	static void buildAndFinishBatchSpan(Tracer tracer, Propagator propagator,
+			Propagator.Getter<ConsumerRecord<?, ?>> extractor, Iterable<? extends ConsumerRecord<?, ?>> records,
+			String topic, Integer partition, int recordCount) {
+		Set<String> parentSpans = new LinkedHashSet<>();
+		Set<String> traceIds = new HashSet<>();
+		TraceContext firstParent = null;
+		boolean allParented = true;
+		int read = 0;
+		for (ConsumerRecord<?, ?> record : records) {
+			if (read++ == MAX_BATCH_PARENTS) {
+				break;
+			}
+			TraceContext parent = parentContext(record, propagator, extractor);
+			if (parent == null) {
+				allParented = false;
+				continue;
+			}
+			if (firstParent == null) {
+				firstParent = parent;
+			}
+			traceIds.add(parent.traceId());
+			parentSpans.add(parent.traceId() + "/" + parent.spanId());
+		}
+		boolean singleTrace = recordCount <= MAX_BATCH_PARENTS && allParented && traceIds.size() == 1;
+		Span.Builder builder = singleTrace ? tracer.spanBuilder().setParent(firstParent) : tracer.spanBuilder();
+		AssertingSpanBuilder spanBuilder = AssertingSpanBuilder
+				.of(SleuthKafkaSpan.KAFKA_CONSUMER_BATCH_SPAN, builder.kind(Span.Kind.CONSUMER))
+				.name(SleuthKafkaSpan.KAFKA_CONSUMER_BATCH_SPAN.getName())
+				.tag(SleuthKafkaSpan.BatchTags.RECORD_COUNT, Integer.toString(recordCount));
+		if (topic != null) {
+			spanBuilder.tag(SleuthKafkaSpan.BatchTags.TOPIC, topic);
+		}
+		if (partition != null) {
+			spanBuilder.tag(SleuthKafkaSpan.BatchTags.PARTITION, Integer.toString(partition));
+		}
+		if (!parentSpans.isEmpty()) {
+			spanBuilder.tag(SleuthKafkaSpan.BatchTags.PARENT_SPANS, String.join(",", parentSpans));
+		}
+		Span span = spanBuilder.start();
+		if (log.isDebugEnabled()) {
+			log.debug("Created span for a batch of " + recordCount + " records " + span);
+		}
+		span.end();
+	}
+
 }
@@ -41,6 +41,28 @@ enum SleuthKafkaSpan implements DocumentedSpan {
 		}
 	},
 
+	/**
+	 * Span created on the Kafka consumer side for all records of a poll or of a partition
+	 * of a poll. It continues the trace of its records only when all of them come from
+	 * the same trace, otherwise the link to the producers is only kept in a tag.
+	 */
+	KAFKA_CONSUMER_BATCH_SPAN {
+		@Override
+		public String getName() {
+			return "kafka.consume-batch";
+		}
+
+		@Override
+		public TagKey[] getTagKeys() {
+			return BatchTags.values();
+		}
+
+		@Override
+		public String prefix() {
+			return "kafka.";
+		}
+	},
+
 	/**
 	 * Span created on the Kafka consumer side when using a MessageListener.
 	 */
@@ -115,6 +137,51 @@ enum SleuthKafkaSpan implements DocumentedSpan {
 
 	}
 
+	enum BatchTags implements TagKey {
+
+		/**
+		 * Name of the Kafka topic, set when all records come from a single topic.
+		 */
+		TOPIC {
+			@Override
+			public String getKey() {
+				return "kafka.topic";
+			}
+		},
+
+		/**
+		 * Kafka partition number, set when the span covers a single partition.
+		 */
+		PARTITION {
+			@Override
+			public String getKey() {
+				return "kafka.partition";
+			}
+		},
+
+		/**
+		 * Number of records.
+		 */
+		RECORD_COUNT {
+			@Override
+			public String getKey() {
+				return "kafka.record-count";
+			}
+		},
+
+		/**
+		 * Comma separated trace and span ids, as traceId/spanId, of the spans that sent
+		 * at most the first 10 records.
+		 */
+		PARENT_SPANS {
+			@Override
+			public String getKey() {
+				return "kafka.parent-spans";
+			}
+		}
+
+	}
+
 	enum ProducerTags implements TagKey {
 
 		/**
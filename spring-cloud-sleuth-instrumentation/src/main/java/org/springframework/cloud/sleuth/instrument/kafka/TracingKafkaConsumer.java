@@ -39,6 +39,7 @@ import org.apache.kafka.common.TopicPartition;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.propagation.Propagator;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.ResolvableType;
@@ -48,6 +49,16 @@ import org.springframework.core.ResolvableType;
  * {@link Span.Kind#CONSUMER} span for each record received. This span will be a child
  * span of the one extracted from the record headers.
  *
+ * With {@link KafkaConsumerSpanMode#POLL} or {@link KafkaConsumerSpanMode#PARTITION} a
+ * single span is created for all records of a poll or of each partition of a poll
+ * instead. Only the headers of the first records are read, to tag the span with their
+ * parent spans, the headers of the other records are read when a listener asks for their
+ * context. Such a span breaks the link between the producers and the consumer: it starts
+ * a new trace unless all its records come from the same trace.
+ *
+ * The context extracted from the headers of a record is kept as long as the record is
+ * referenced, so that the listener instrumentation doesn't parse them again.
+ *
  * @author Anders Clausen
  * @author Flaviu Muresan
  * @since 3.1.0
@@ -60,11 +71,33 @@ public class TracingKafkaConsumer<K, V> implements Consumer<K, V> {
 
 	private Propagator propagator;
 
+	private final KafkaConsumerSpanMode spanMode;
+
 	private Propagator.Getter<ConsumerRecord<?, ?>> extractor;
 
+	private Tracer tracer;
+
 	public TracingKafkaConsumer(Consumer<K, V> consumer, BeanFactory beanFactory) {
+		this(consumer, beanFactory, KafkaConsumerSpanMode.RECORD);
+	}
+
+	/**
+	 * @param consumer consumer to decorate
+	 * @param beanFactory bean factory
+	 * @param spanMode which spans to create for polled records
+	 * @since 3.1.2
+	 */
+	public TracingKafkaConsumer(Consumer<K, V> consumer, BeanFactory beanFactory, KafkaConsumerSpanMode spanMode) {
 		this.delegate = consumer;
 		this.beanFactory = beanFactory;
+		this.spanMode = spanMode;
+	}
+
+	private Tracer tracer() {
+		if (this.tracer == null) {
+			this.tracer = this.beanFactory.getBean(Tracer.class);
+		}
+		return this.tracer;
 	}
 
 	private Propagator propagator() {
@@ -129,23 +162,50 @@ public class TracingKafkaConsumer<K, V> implements Consumer<K, V> {
 	@Override
 	public ConsumerRecords<K, V> poll(long l) {
 		ConsumerRecords<K, V> consumerRecords = this.delegate.poll(l);
-		for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
-			KafkaTracingUtils.buildAndFinishSpan(SleuthKafkaSpan.KAFKA_CONSUMER_SPAN, consumerRecord, propagator(),
-					extractor());
-		}
+		trace(consumerRecords);
 		return consumerRecords;
 	}
 
 	@Override
 	public ConsumerRecords<K, V> poll(Duration duration) {
 		ConsumerRecords<K, V> consumerRecords = this.delegate.poll(duration);
-		for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
-			KafkaTracingUtils.buildAndFinishSpan(SleuthKafkaSpan.KAFKA_CONSUMER_SPAN, consumerRecord, propagator(),
-					extractor());
-		}
+		trace(consumerRecords);
 		return consumerRecords;
 	}
 
+	private void trace(ConsumerRecords<K, V> consumerRecords) {
+		if (consumerRecords.isEmpty()) {
+			return;
+		}
+		switch (this.spanMode) {
+		case POLL:
+			Set<TopicPartition> partitions = consumerRecords.partitions();
+			TopicPartition first = partitions.iterator().next();
+			String topic = first.topic();
+			for (TopicPartition partition : partitions) {
+				if (!topic.equals(partition.topic())) {
+					topic = null;
+					break;
+				}
+			}
+			KafkaTracingUtils.buildAndFinishBatchSpan(tracer(), propagator(), extractor(), consumerRecords, topic,
+					partitions.size() == 1 ? first.partition() : null, consumerRecords.count());
+			break;
+		case PARTITION:
+			for (TopicPartition partition : consumerRecords.partitions()) {
+				List<ConsumerRecord<K, V>> records = consumerRecords.records(partition);
+				KafkaTracingUtils.buildAndFinishBatchSpan(tracer(), propagator(), extractor(), records,
+						partition.topic(), partition.partition(), records.size());
+			}
+			break;
+		default:
+			for (ConsumerRecord<K, V> consumerRecord : consumerRecords) {
+				KafkaTracingUtils.buildAndFinishSpan(SleuthKafkaSpan.KAFKA_CONSUMER_SPAN, consumerRecord, tracer(),
+						propagator(), extractor());
+			}
+		}
+	}
+
 	@Override
 	public void commitSync() {
 		this.delegate.commitSync();
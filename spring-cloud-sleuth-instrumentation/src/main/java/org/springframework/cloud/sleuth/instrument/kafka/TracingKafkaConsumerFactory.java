@@ -36,14 +36,26 @@ public class TracingKafkaConsumerFactory extends ConsumerFactory {
 
 	private final BeanFactory beanFactory;
 
+	private final KafkaConsumerSpanMode spanMode;
+
 	public TracingKafkaConsumerFactory(BeanFactory beanFactory) {
+		this(beanFactory, KafkaConsumerSpanMode.RECORD);
+	}
+
+	/**
+	 * @param beanFactory bean factory
+	 * @param spanMode which spans the created consumers create for polled records
+	 * @since 3.1.2
+	 */
+	public TracingKafkaConsumerFactory(BeanFactory beanFactory, KafkaConsumerSpanMode spanMode) {
 		super();
 		this.beanFactory = beanFactory;
+		this.spanMode = spanMode;
 	}
 
 	@Override
 	public <K, V> Consumer<K, V> createConsumer(ReceiverOptions<K, V> receiverOptions) {
-		return new TracingKafkaConsumer<>(super.createConsumer(receiverOptions), beanFactory);
+		return new TracingKafkaConsumer<>(super.createConsumer(receiverOptions), this.beanFactory, this.spanMode);
 	}
 
 }
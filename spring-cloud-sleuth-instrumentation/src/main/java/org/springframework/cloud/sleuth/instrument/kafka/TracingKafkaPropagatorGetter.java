@@ -16,9 +16,6 @@
 
 package org.springframework.cloud.sleuth.instrument.kafka;
 
-import java.util.Iterator;
-import java.util.Optional;
-
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
 
@@ -36,9 +33,14 @@ public class TracingKafkaPropagatorGetter implements Propagator.Getter<ConsumerR
 
 	@Override
 	public String get(ConsumerRecord<?, ?> carrier, String key) {
-		return Optional.ofNullable(carrier).map(ConsumerRecord::headers).map(headers -> headers.headers(key))
-				.map(Iterable::iterator).filter(Iterator::hasNext).map(Iterator::next).map(Header::value)
-				.map(String::new).orElse(null);
+		if (carrier == null || carrier.headers() == null) {
+			return null;
+		}
+		for (Header header : carrier.headers().headers(key)) {
+			byte[] value = header.value();
+			return value != null ? new String(value) : null;
+		}
+		return null;
 	}
 
 }
@@ -58,7 +58,7 @@ class TracingMessageListenerMethodInterceptor<T extends MessageListener> impleme
 			log.debug("Wrapping onMessage call");
 		}
 		Span span = KafkaTracingUtils.buildSpan(SleuthKafkaSpan.KAFKA_ON_MESSAGE_SPAN, (ConsumerRecord<?, ?>) record,
-				this.propagator, this.extractor);
+				this.tracer, this.propagator, this.extractor);
 		try (Tracer.SpanInScope ws = this.tracer.withSpan(span)) {
 			return invocation.proceed();
 		}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.messaging;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanAndScope;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.messaging.Message;
+
+/**
+ * Keeps the spans that {@link TracingChannelInterceptor} starts until the message they
+ * were started for is sent, received or handled. A span is carried by the message when
+ * its headers were built by the interceptor, so that it can be retrieved on any thread.
+ * Otherwise, or when another interceptor has replaced the message in the meantime, the
+ * innermost span put in scope on the current thread is retrieved instead.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+final class MessageSpans {
+
+	private static final LogAccessor log = new LogAccessor(MessageSpans.class);
+
+	private final ThreadLocal<MessageSpan> innermost = new ThreadLocal<>();
+
+	private final Tracer tracer;
+
+	MessageSpans(Tracer tracer) {
+		this.tracer = tracer;
+	}
+
+	/**
+	 * Puts the span in scope on the current thread.
+	 * @param span span to put in scope
+	 * @return span and its scope, to be attached to a message
+	 */
+	MessageSpan putInScope(Span span) {
+		// scopes of spans removed on another thread are closed here at the latest
+		MessageSpan previous = closeRemovedScopes();
+		MessageSpan messageSpan = new MessageSpan(span, this.tracer.withSpan(span), previous);
+		this.innermost.set(messageSpan);
+		return messageSpan;
+	}
+
+	/**
+	 * Attaches the span to the message, on top of the spans already attached to it. A
+	 * message whose headers were not built by the interceptor can't carry it.
+	 * @param message message the span was put in scope for
+	 * @param messageSpan span and its scope
+	 */
+	void attach(Message<?> message, MessageSpan messageSpan) {
+		SpanCarryingMessageHeaderAccessor.SpanCarrier carrier = SpanCarryingMessageHeaderAccessor.carrier(message);
+		if (carrier == null) {
+			return;
+		}
+		synchronized (carrier) {
+			messageSpan.previousInMessage = carrier.messageSpan;
+			carrier.messageSpan = messageSpan;
+		}
+	}
+
+	/**
+	 * Removes the span that was last attached to the message.
+	 * @param message message the span was put in scope for
+	 * @return span and its scope or {@code null} if there's none
+	 */
+	MessageSpan remove(Message<?> message) {
+		SpanCarryingMessageHeaderAccessor.SpanCarrier carrier = SpanCarryingMessageHeaderAccessor.carrier(message);
+		if (carrier != null) {
+			synchronized (carrier) {
+				MessageSpan messageSpan = markRemoved(notRemoved(carrier.messageSpan, false));
+				carrier.messageSpan = notRemoved(carrier.messageSpan, false);
+				if (messageSpan != null) {
+					return messageSpan;
+				}
+			}
+		}
+		MessageSpan innermost = markRemoved(notRemoved(this.innermost.get(), true));
+		log.debug(
+				() -> "No span was attached to the message, took the innermost span of the thread [" + innermost + "]");
+		return innermost;
+	}
+
+	/**
+	 * Closes the scope of the span if it was opened on the current thread. A scope can't
+	 * be closed from another thread, it's closed the next time the thread that opened it
+	 * puts a span in scope or closes one.
+	 * @param messageSpan span and its scope
+	 */
+	void closeScope(MessageSpan messageSpan) {
+		if (messageSpan.thread != Thread.currentThread()) {
+			log.debug(() -> "Span " + messageSpan + " was put in scope on another thread, will not close the scope");
+			return;
+		}
+		messageSpan.closeScope();
+		MessageSpan innermost = closeRemovedScopes();
+		if (innermost == null) {
+			this.innermost.remove();
+		}
+		else {
+			this.innermost.set(innermost);
+		}
+	}
+
+	private MessageSpan closeRemovedScopes() {
+		MessageSpan current = this.innermost.get();
+		while (current != null && current.removed) {
+			current.closeScope();
+			current = current.previousInThread;
+		}
+		return current;
+	}
+
+	private static MessageSpan markRemoved(MessageSpan messageSpan) {
+		if (messageSpan != null) {
+			messageSpan.removed = true;
+		}
+		return messageSpan;
+	}
+
+	private static MessageSpan notRemoved(MessageSpan messageSpan, boolean inThread) {
+		MessageSpan current = messageSpan;
+		while (current != null && current.removed) {
+			current = inThread ? current.previousInThread : current.previousInMessage;
+		}
+		return current;
+	}
+
+	/**
+	 * Span and its scope, with the spans that were put in scope before it on the same
+	 * thread and for the same message.
+	 */
+	static final class MessageSpan extends SpanAndScope {
+
+		private final Thread thread = Thread.currentThread();
+
+		private final MessageSpan previousInThread;
+
+		private MessageSpan previousInMessage;
+
+		private volatile boolean removed;
+
+		// only accessed by the thread that opened the scope
+		private boolean scopeClosed;
+
+		private MessageSpan(Span span, Tracer.SpanInScope scope, MessageSpan previousInThread) {
+			super(span, scope);
+			this.previousInThread = previousInThread;
+		}
+
+		private void closeScope() {
+			if (!this.scopeClosed) {
+				this.scopeClosed = true;
+				getScope().close();
+			}
+		}
+
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.sleuth.instrument.messaging;
 
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -26,6 +27,7 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.messaging.Message;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * Messaging helpers to manually parse and inject spans. We're treating message headers as
@@ -48,10 +50,18 @@ public final class MessagingSleuthOperators {
 
 	private static final Log log = LogFactory.getLog(MessagingSleuthOperators.class);
 
+	// tracing beans resolved once per bean factory instead of on each call
+	private static final Map<BeanFactory, TraceMessageHandler> TRACE_MESSAGE_HANDLERS = new ConcurrentReferenceHashMap<>(
+			16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
 	private MessagingSleuthOperators() {
 		throw new IllegalStateException("You can't instantiate a utility class");
 	}
 
+	private static TraceMessageHandler traceMessageHandler(BeanFactory beanFactory) {
+		return TRACE_MESSAGE_HANDLERS.computeIfAbsent(beanFactory, TraceMessageHandler::forNonSpringIntegration);
+	}
+
 	/**
 	 * Executes a span wrapped operation for an input message.
 	 * @param beanFactory - bean factory
@@ -63,7 +73,7 @@ public final class MessagingSleuthOperators {
 	 */
 	public static <T> Message<T> forInputMessage(BeanFactory beanFactory, Message<T> message,
 			Consumer<Message<T>> withSpanInScope) {
-		TraceMessageHandler traceMessageHandler = TraceMessageHandler.forNonSpringIntegration(beanFactory);
+		TraceMessageHandler traceMessageHandler = traceMessageHandler(beanFactory);
 		MessageAndSpans wrappedInputMessage = traceMessageHandler.wrapInputMessage(message, "");
 		if (log.isDebugEnabled()) {
 			log.debug("Wrapped input msg " + wrappedInputMessage);
@@ -90,7 +100,7 @@ public final class MessagingSleuthOperators {
 	 * @return message with tracer context
 	 */
 	public static <T> Message<T> forInputMessage(BeanFactory beanFactory, Message<T> message) {
-		TraceMessageHandler traceMessageHandler = TraceMessageHandler.forNonSpringIntegration(beanFactory);
+		TraceMessageHandler traceMessageHandler = traceMessageHandler(beanFactory);
 		MessageAndSpans wrappedInputMessage = traceMessageHandler.wrapInputMessage(message, "");
 		if (log.isDebugEnabled()) {
 			log.debug("Wrapped input msg " + wrappedInputMessage);
@@ -117,7 +127,7 @@ public final class MessagingSleuthOperators {
 	 * @return span retrieved from message or {@code null} if there was no span
 	 */
 	public static <T> Span spanFromMessage(BeanFactory beanFactory, Message<T> message) {
-		TraceMessageHandler traceMessageHandler = TraceMessageHandler.forNonSpringIntegration(beanFactory);
+		TraceMessageHandler traceMessageHandler = traceMessageHandler(beanFactory);
 		return spanFromMessage(traceMessageHandler, message);
 	}
 
@@ -139,7 +149,7 @@ public final class MessagingSleuthOperators {
 	 */
 	public static <T> void withSpanInScope(BeanFactory beanFactory, Message<T> message,
 			Consumer<Message<T>> withSpanInScope) {
-		TraceMessageHandler traceMessageHandler = TraceMessageHandler.forNonSpringIntegration(beanFactory);
+		TraceMessageHandler traceMessageHandler = traceMessageHandler(beanFactory);
 		Span span = spanFromMessage(traceMessageHandler, message);
 		try (Tracer.SpanInScope ws = traceMessageHandler.tracer.withSpan(span)) {
 			withSpanInScope.accept(message);
@@ -157,7 +167,7 @@ public final class MessagingSleuthOperators {
 	 */
 	public static <T> Message<T> withSpanInScope(BeanFactory beanFactory, Message<T> message,
 			Function<Message<T>, Message<T>> withSpanInScope) {
-		TraceMessageHandler traceMessageHandler = TraceMessageHandler.forNonSpringIntegration(beanFactory);
+		TraceMessageHandler traceMessageHandler = traceMessageHandler(beanFactory);
 		Span span = spanFromMessage(traceMessageHandler, message);
 		try (Tracer.SpanInScope ws = traceMessageHandler.tracer.withSpan(span)) {
 			return withSpanInScope.apply(message);
@@ -205,7 +215,7 @@ public final class MessagingSleuthOperators {
 	 */
 	public static <T> Message<T> handleOutputMessage(BeanFactory beanFactory, Message<T> message,
 			Consumer<Span> spanCustomizer, Throwable throwable) {
-		TraceMessageHandler traceMessageHandler = TraceMessageHandler.forNonSpringIntegration(beanFactory);
+		TraceMessageHandler traceMessageHandler = traceMessageHandler(beanFactory);
 		Span span = traceMessageHandler.parentSpan(message);
 		span = span != null ? span : traceMessageHandler.consumerSpan(message);
 		if (span == null) {
@@ -229,7 +239,7 @@ public final class MessagingSleuthOperators {
 	 * @return instrumented message
 	 */
 	public static <T> Message<T> afterMessageHandled(BeanFactory beanFactory, Message<T> message, Throwable ex) {
-		TraceMessageHandler traceMessageHandler = TraceMessageHandler.forNonSpringIntegration(beanFactory);
+		TraceMessageHandler traceMessageHandler = traceMessageHandler(beanFactory);
 		Span span = traceMessageHandler.spanFromMessage(message);
 		traceMessageHandler.afterMessageHandled(span, ex);
 		return message;
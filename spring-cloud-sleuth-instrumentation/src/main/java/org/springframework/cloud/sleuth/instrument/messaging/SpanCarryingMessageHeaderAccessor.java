@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.messaging;
+
+import java.util.Map;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+/**
+ * Mutable copy of plain message headers. A message can be rebuilt out of its headers with
+ * a new id and timestamp just like {@link MessageHeaders#MessageHeaders(Map)} would
+ * generate. The message that is rebuilt carries the spans that were started for it,
+ * without exposing this accessor.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+final class SpanCarryingMessageHeaderAccessor extends MessageHeaderAccessor {
+
+	final SpanCarrier carrier = new SpanCarrier();
+
+	SpanCarryingMessageHeaderAccessor(Message<?> message) {
+		super(message);
+	}
+
+	MessageHeaders toImmutableMessageHeaders() {
+		return new SpanCarryingMessageHeaders(getMessageHeaders(), this.carrier);
+	}
+
+	/**
+	 * Returns the carrier of the spans of a message built by the interceptor.
+	 * @param message message
+	 * @return carrier or {@code null} if the message was not built by the interceptor
+	 */
+	static SpanCarrier carrier(Message<?> message) {
+		MessageHeaders headers = message.getHeaders();
+		if (headers instanceof SpanCarryingMessageHeaders) {
+			return ((SpanCarryingMessageHeaders) headers).carrier;
+		}
+		SpanCarryingMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message,
+				SpanCarryingMessageHeaderAccessor.class);
+		return accessor != null ? accessor.carrier : null;
+	}
+
+	/**
+	 * Last span attached to a message, guarded by the carrier.
+	 */
+	static final class SpanCarrier {
+
+		MessageSpans.MessageSpan messageSpan;
+
+	}
+
+	private static final class SpanCarryingMessageHeaders extends MessageHeaders {
+
+		private final transient SpanCarrier carrier;
+
+		private SpanCarryingMessageHeaders(Map<String, Object> headers, SpanCarrier carrier) {
+			super(headers, null, null);
+			this.carrier = carrier;
+		}
+
+	}
+
+}
@@ -22,8 +22,6 @@ import java.util.function.Function;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.cloud.sleuth.Span;
-import org.springframework.cloud.sleuth.SpanAndScope;
-import org.springframework.cloud.sleuth.ThreadLocalSpan;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.propagation.Propagator;
 import org.springframework.context.ApplicationContext;
@@ -90,7 +88,7 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 	private static final Class<?> directWithAttributesChannelClass = ClassUtils.isPresent(STREAM_DIRECT_CHANNEL, null)
 			? ClassUtils.resolveClassName(STREAM_DIRECT_CHANNEL, null) : null;
 
-	private final ThreadLocalSpan threadLocalSpan;
+	private final MessageSpans messageSpans;
 
 	private final Tracer tracer;
 
@@ -115,7 +113,7 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 		this.extractor = getter;
 		this.remoteServiceNameMapper = remoteServiceNameMapper;
 		this.messageSpanCustomizer = messageSpanCustomizer;
-		this.threadLocalSpan = new ThreadLocalSpan(tracer);
+		this.messageSpans = new MessageSpans(tracer);
 	}
 
 	@Override
@@ -138,19 +136,23 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 				.remoteServiceName(toRemoteServiceName(headers, remoteServiceNameMapper, applicationContext));
 		Span span = spanBuilder.start();
 		log.debug(() -> "Extracted result from headers " + span);
-		setSpanInScope(span);
+		MessageSpans.MessageSpan messageSpan = setSpanInScope(span);
 		this.propagator.inject(span.context(), headers, this.injector);
 		log.debug(() -> "Created a new span in pre send " + span);
 		Message<?> outputMessage = outputMessage(message, retrievedMessage, headers);
+		this.messageSpans.attach(outputMessage, messageSpan);
 		if (isDirectChannel(channel)) {
-			beforeHandle(outputMessage, channel, null);
+			// the handler runs on this thread, the headers of the output message are
+			// left as they are
+			this.messageSpans.attach(outputMessage, handleSpan(outputMessage, channel, headers));
 		}
 		return outputMessage;
 	}
 
-	private void setSpanInScope(Span span) {
-		this.threadLocalSpan.set(span);
+	private MessageSpans.MessageSpan setSpanInScope(Span span) {
+		MessageSpans.MessageSpan messageSpan = this.messageSpans.putInScope(span);
 		log.debug(() -> "Put span in scope " + span);
+		return messageSpan;
 	}
 
 	private static String toRemoteServiceName(MessageHeaderAccessor headers,
@@ -177,19 +179,53 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 		return REMOTE_SERVICE_NAME;
 	}
 
+	/**
+	 * Writes the tracing headers into the message itself when its headers were left
+	 * mutable. Otherwise the message is rebuilt once, reusing the headers that the span
+	 * was injected into. As if they were copied onto the original headers, the tracing
+	 * headers of the original message that were not injected again are kept.
+	 */
 	private Message<?> outputMessage(Message<?> originalMessage, Message<?> retrievedMessage,
 			MessageHeaderAccessor additionalHeaders) {
+		if (originalMessage == retrievedMessage && !(originalMessage instanceof ErrorMessage)) {
+			if (isWebSockets(additionalHeaders)) {
+				keepNotInjectedHeaders(retrievedMessage, additionalHeaders);
+				return new GenericMessage<>(retrievedMessage.getPayload(), additionalHeaders.getMessageHeaders());
+			}
+			if (isOwnMutableAccessor(retrievedMessage, additionalHeaders)) {
+				return retrievedMessage;
+			}
+			keepNotInjectedHeaders(retrievedMessage, additionalHeaders);
+			return new GenericMessage<>(retrievedMessage.getPayload(), immutableMessageHeaders(additionalHeaders));
+		}
 		MessageHeaderAccessor headers = mutableHeaderAccessor(originalMessage);
 		if (originalMessage instanceof ErrorMessage) {
 			ErrorMessage errorMessage = (ErrorMessage) originalMessage;
 			headers.copyHeaders(MessageHeaderPropagatorSetter.propagationHeaders(additionalHeaders.getMessageHeaders(),
 					this.propagator.fields()));
-			return new ErrorMessage(errorMessage.getPayload(), isWebSockets(headers) ? headers.getMessageHeaders()
-					: new MessageHeaders(headers.getMessageHeaders()), errorMessage.getOriginalMessage());
+			return new ErrorMessage(errorMessage.getPayload(),
+					isWebSockets(headers) ? headers.getMessageHeaders() : immutableMessageHeaders(headers),
+					errorMessage.getOriginalMessage());
 		}
 		headers.copyHeaders(additionalHeaders.getMessageHeaders());
 		return new GenericMessage<>(retrievedMessage.getPayload(),
-				isWebSockets(headers) ? headers.getMessageHeaders() : new MessageHeaders(headers.getMessageHeaders()));
+				isWebSockets(headers) ? headers.getMessageHeaders() : immutableMessageHeaders(headers));
+	}
+
+	private static MessageHeaders immutableMessageHeaders(MessageHeaderAccessor headers) {
+		if (headers instanceof SpanCarryingMessageHeaderAccessor) {
+			return ((SpanCarryingMessageHeaderAccessor) headers).toImmutableMessageHeaders();
+		}
+		return new MessageHeaders(headers.getMessageHeaders());
+	}
+
+	private void keepNotInjectedHeaders(Message<?> message, MessageHeaderAccessor headers) {
+		for (String field : this.propagator.fields()) {
+			Object value = message.getHeaders().get(field);
+			if (value != null && headers.getHeader(field) == null) {
+				headers.setHeader(field, value);
+			}
+		}
 	}
 
 	private static boolean isWebSockets(MessageHeaderAccessor headerAccessor) {
@@ -210,7 +246,7 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 			afterMessageHandled(message, channel, null, ex);
 		}
 		log.debug(() -> "Will finish the current span after completion " + this.tracer.currentSpan());
-		finishSpan(ex);
+		finishSpan(message, ex);
 	}
 
 	/**
@@ -224,17 +260,22 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 		Span result = this.propagator.extract(headers, this.extractor).start();
 		log.debug(() -> "Extracted result from headers " + result);
 		Span span = consumerSpanReceive(message, channel, headers, result);
-		setSpanInScope(span);
+		MessageSpans.MessageSpan messageSpan = setSpanInScope(span);
 		log.debug(() -> "Created a new span that will be injected in the headers " + span);
 		this.propagator.inject(span.context(), headers, this.injector);
 		log.debug(() -> "Created a new span in post receive " + span);
 		headers.setImmutable();
+		Message<?> outputMessage;
 		if (message instanceof ErrorMessage) {
 			ErrorMessage errorMessage = (ErrorMessage) message;
-			return new ErrorMessage(errorMessage.getPayload(), headers.getMessageHeaders(),
+			outputMessage = new ErrorMessage(errorMessage.getPayload(), headers.getMessageHeaders(),
 					errorMessage.getOriginalMessage());
 		}
-		return new GenericMessage<>(message.getPayload(), headers.getMessageHeaders());
+		else {
+			outputMessage = new GenericMessage<>(message.getPayload(), headers.getMessageHeaders());
+		}
+		this.messageSpans.attach(outputMessage, messageSpan);
+		return outputMessage;
 	}
 
 	private Span consumerSpanReceive(Message<?> message, MessageChannel channel, MessageHeaderAccessor headers,
@@ -250,7 +291,7 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 	@Override
 	public void afterReceiveCompletion(Message<?> message, MessageChannel channel, Exception ex) {
 		log.debug(() -> "Will finish the current span after receive completion " + this.tracer.currentSpan());
-		finishSpan(ex);
+		finishSpan(message, ex);
 	}
 
 	/**
@@ -261,26 +302,36 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 	public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
 		MessageHeaderAccessor headers = mutableHeaderAccessor(message);
 		log.debug(() -> "Received a message in before handle " + message);
-		Span consumerSpan = consumerSpan(message, channel, headers);
-		// create and scope a span for the message processor
-		Span handle = this.tracer.nextSpan(consumerSpan);
-		handle = this.messageSpanCustomizer.customizeHandle(handle, message, channel).start();
-		if (log.isDebugEnabled()) {
-			log.debug("Created consumer span " + handle);
-		}
-		setSpanInScope(handle);
+		MessageSpans.MessageSpan handle = handleSpan(message, channel, headers);
 		// remove any trace headers, but don't re-inject as we are synchronously
 		// processing the
 		// message and can rely on scoping to access this span later.
 		MessageHeaderPropagatorSetter.removeAnyTraceHeaders(headers, this.propagator.fields());
 		if (log.isDebugEnabled()) {
-			log.debug("Created a new span in before handle " + handle);
+			log.debug("Created a new span in before handle " + handle.getSpan());
 		}
+		Message<?> outputMessage;
 		if (message instanceof ErrorMessage) {
-			return new ErrorMessage((Throwable) message.getPayload(), headers.getMessageHeaders());
+			outputMessage = new ErrorMessage((Throwable) message.getPayload(), headers.getMessageHeaders());
 		}
-		headers.setImmutable();
-		return new GenericMessage<>(message.getPayload(), headers.getMessageHeaders());
+		else {
+			headers.setImmutable();
+			outputMessage = new GenericMessage<>(message.getPayload(), headers.getMessageHeaders());
+		}
+		this.messageSpans.attach(outputMessage, handle);
+		return outputMessage;
+	}
+
+	private MessageSpans.MessageSpan handleSpan(Message<?> message, MessageChannel channel,
+			MessageHeaderAccessor headers) {
+		Span consumerSpan = consumerSpan(message, channel, headers);
+		// create and scope a span for the message processor
+		Span handle = this.tracer.nextSpan(consumerSpan);
+		handle = this.messageSpanCustomizer.customizeHandle(handle, message, channel).start();
+		if (log.isDebugEnabled()) {
+			log.debug("Created consumer span " + handle);
+		}
+		return setSpanInScope(handle);
 	}
 
 	private Span consumerSpan(Message<?> message, MessageChannel channel, MessageHeaderAccessor headers) {
@@ -300,38 +351,31 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 	@Override
 	public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
 		log.debug(() -> "Will finish the current span after message handled " + this.tracer.currentSpan());
-		finishSpan(ex);
+		finishSpan(message, ex);
 	}
 
-	void finishSpan(Exception error) {
-		SpanAndScope spanAndScope = getSpanFromThreadLocal();
-		if (spanAndScope == null) {
+	void finishSpan(Message<?> message, Exception error) {
+		MessageSpans.MessageSpan messageSpan = message != null ? this.messageSpans.remove(message) : null;
+		log.debug(() -> "Took span [" + messageSpan + "] of the message");
+		if (messageSpan == null) {
 			return;
 		}
-		Span span = spanAndScope.getSpan();
-		Tracer.SpanInScope scope = spanAndScope.getScope();
+		Span span = messageSpan.getSpan();
 		if (span.isNoop()) {
 			log.debug(() -> "Span " + span + " is noop - will stop the scope");
-			scope.close();
+			this.messageSpans.closeScope(messageSpan);
 			return;
 		}
 		if (error != null) { // an error occurred, adding error to span
-			String message = error.getMessage();
-			if (message == null) {
-				message = error.getClass().getSimpleName();
+			String errorMessage = error.getMessage();
+			if (errorMessage == null) {
+				errorMessage = error.getClass().getSimpleName();
 			}
-			span.tag("error", message);
+			span.tag("error", errorMessage);
 		}
 		log.debug(() -> "Will finish the and its corresponding scope " + span);
 		span.end();
-		scope.close();
-	}
-
-	private SpanAndScope getSpanFromThreadLocal() {
-		SpanAndScope span = this.threadLocalSpan.get();
-		log.debug(() -> "Took span [" + span + "] from thread local");
-		this.threadLocalSpan.remove();
-		return span;
+		this.messageSpans.closeScope(messageSpan);
 	}
 
 	private static MessageHeaderAccessor mutableHeaderAccessor(Message<?> message) {
@@ -339,11 +383,19 @@ public final class TracingChannelInterceptor implements ExecutorChannelIntercept
 		if (accessor != null && accessor.isMutable()) {
 			return accessor;
 		}
-		MessageHeaderAccessor headers = MessageHeaderAccessor.getMutableAccessor(message);
+		MessageHeaderAccessor headers = accessor == null || accessor.getClass() == MessageHeaderAccessor.class
+				|| accessor instanceof SpanCarryingMessageHeaderAccessor
+						? new SpanCarryingMessageHeaderAccessor(message)
+						: MessageHeaderAccessor.getMutableAccessor(message);
 		headers.setLeaveMutable(true);
 		return headers;
 	}
 
+	private static boolean isOwnMutableAccessor(Message<?> message, MessageHeaderAccessor accessor) {
+		return accessor.isMutable()
+				&& MessageHeaderAccessor.getAccessor(message, MessageHeaderAccessor.class) == accessor;
+	}
+
 	private static Message<?> getMessage(Message<?> message) {
 		Object payload = message.getPayload();
 		if (payload instanceof MessagingException) {
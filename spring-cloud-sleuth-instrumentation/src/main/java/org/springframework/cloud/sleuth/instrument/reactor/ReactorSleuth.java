@@ -136,8 +136,10 @@ public abstract class ReactorSleuth {
 	static <O> BiFunction<Publisher, ? super CoreSubscriber<? super O>, ? extends CoreSubscriber<? super O>> liftFunction(
 			ConfigurableApplicationContext springContext, LazyBean<CurrentTraceContext> lazyCurrentTraceContext,
 			LazyBean<Tracer> lazyTracer) {
+		SpringContextState springContextState = SpringContextState.of(springContext);
+		ReactorTracingBeans.Lazy lazyBeans = new ReactorTracingBeans.Lazy(lazyTracer, lazyCurrentTraceContext);
 		return (p, sub) -> {
-			if (!springContext.isActive() || !springContext.isRunning()) {
+			if (!springContextState.isRunning()) {
 				if (log.isTraceEnabled()) {
 					String message = "Spring Context [" + springContext
 							+ "] is not yet refreshed. This is unexpected. Reactor Context is [" + context(sub)
@@ -179,7 +181,7 @@ public abstract class ReactorSleuth {
 				}
 			}
 
-			context = contextWithBeans(context, lazyTracer, lazyCurrentTraceContext);
+			context = lazyBeans.getOrError().putIn(context);
 			if (log.isTraceEnabled()) {
 				log.trace("Spring context [" + springContext + "], Reactor context [" + context + "], name ["
 						+ name(sub) + "]");
@@ -194,17 +196,6 @@ public abstract class ReactorSleuth {
 		};
 	}
 
-	private static <T> Context contextWithBeans(Context context, LazyBean<Tracer> tracer,
-			LazyBean<CurrentTraceContext> currentTraceContext) {
-		if (!context.hasKey(Tracer.class)) {
-			context = context.put(Tracer.class, tracer.getOrError());
-		}
-		if (!context.hasKey(CurrentTraceContext.class)) {
-			context = context.put(CurrentTraceContext.class, currentTraceContext.getOrError());
-		}
-		return context;
-	}
-
 	/**
 	 * Creates a context with beans in it.
 	 * @param springContext spring context
@@ -221,13 +212,16 @@ public abstract class ReactorSleuth {
 		LazyBean<CurrentTraceContext> lazyCurrentTraceContext = LazyBean.create(springContext,
 				CurrentTraceContext.class);
 
+		SpringContextState springContextState = SpringContextState.of(springContext);
+		ReactorTracingBeans.Lazy lazyBeans = new ReactorTracingBeans.Lazy(lazyTracer, lazyCurrentTraceContext);
+
 		return Operators.liftPublisher(p -> {
 			// We don't scope scalar results as they happen in an instant. This prevents
 			// excessive overhead when using Flux/Mono #just, #empty, #error, etc.
-			return !(p instanceof Fuseable.ScalarCallable) && springContext.isActive();
+			return !(p instanceof Fuseable.ScalarCallable) && springContextState.isActive();
 		}, (p, sub) -> {
 			Context ctxBefore = context(sub);
-			Context context = contextWithBeans(ctxBefore, lazyTracer, lazyCurrentTraceContext);
+			Context context = lazyBeans.getOrError().putIn(ctxBefore);
 			if (context == ctxBefore) {
 				return sub;
 			}
@@ -248,6 +242,7 @@ public abstract class ReactorSleuth {
 		LazyBean<CurrentTraceContext> lazyCurrentTraceContext = LazyBean.create(springContext,
 				CurrentTraceContext.class);
 		LazyBean<Tracer> lazyTracer = LazyBean.create(springContext, Tracer.class);
+		SpringContextState springContextState = SpringContextState.of(springContext);
 
 		BiFunction<Publisher, ? super CoreSubscriber<? super T>, ? extends CoreSubscriber<? super T>> scopePassingSpanSubscriber = liftFunction(
 				springContext, lazyCurrentTraceContext, lazyTracer);
@@ -270,7 +265,7 @@ public abstract class ReactorSleuth {
 			if (ReactorHooksHelper.isTraceContextPropagator(p)) {
 				return false;
 			}
-			boolean addContext = !(p instanceof Fuseable.ScalarCallable) && springContext.isActive();
+			boolean addContext = !(p instanceof Fuseable.ScalarCallable) && springContextState.isActive();
 			if (addContext) {
 				CurrentTraceContext currentTraceContext = lazyCurrentTraceContext.get();
 				if (currentTraceContext != null) {
@@ -312,8 +307,9 @@ public abstract class ReactorSleuth {
 			ConfigurableApplicationContext springContext) {
 		LazyBean<CurrentTraceContext> lazyCurrentTraceContext = LazyBean.create(springContext,
 				CurrentTraceContext.class);
+		SpringContextState springContextState = SpringContextState.of(springContext);
 		return delegate -> {
-			if (springContext.isActive()) {
+			if (springContextState.isActive()) {
 				final CurrentTraceContext currentTraceContext = lazyCurrentTraceContext.get();
 				if (currentTraceContext == null) {
 					return delegate;
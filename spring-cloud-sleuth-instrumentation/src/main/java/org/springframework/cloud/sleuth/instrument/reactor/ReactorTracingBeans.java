@@ -0,0 +1,140 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.internal.LazyBean;
+import org.springframework.lang.Nullable;
+
+/**
+ * Immutable holder of the tracing beans that is stored in the Reactor {@link Context}
+ * under a single key. One instance is built per Reactor operator and shared by all the
+ * subscribers it decorates, and it's put in the context once instead of on each
+ * subscription.
+ * <p>
+ * The {@link Tracer} and {@link CurrentTraceContext} are still put in the context under
+ * their own classes, together with the holder, so that existing
+ * {@code context.get(Tracer.class)} calls keep working.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+public final class ReactorTracingBeans {
+
+	private final Tracer tracer;
+
+	private final CurrentTraceContext currentTraceContext;
+
+	// entries put in the Reactor context at once, built once per holder
+	private final Context entries;
+
+	private ReactorTracingBeans(Tracer tracer, CurrentTraceContext currentTraceContext) {
+		this.tracer = tracer;
+		this.currentTraceContext = currentTraceContext;
+		this.entries = Context.of(ReactorTracingBeans.class, this, Tracer.class, tracer, CurrentTraceContext.class,
+				currentTraceContext);
+	}
+
+	/**
+	 * @param tracer tracer
+	 * @param currentTraceContext current trace context
+	 * @return holder of the given beans
+	 */
+	public static ReactorTracingBeans of(Tracer tracer, CurrentTraceContext currentTraceContext) {
+		return new ReactorTracingBeans(tracer, currentTraceContext);
+	}
+
+	/**
+	 * Retrieves the tracing beans from the Reactor context. Contexts that contain the
+	 * {@link Tracer} and {@link CurrentTraceContext} under their own classes are
+	 * supported too.
+	 * @param context Reactor context
+	 * @return tracing beans or {@code null} if the context doesn't contain them
+	 */
+	@Nullable
+	public static ReactorTracingBeans fromContext(ContextView context) {
+		ReactorTracingBeans beans = context.getOrDefault(ReactorTracingBeans.class, null);
+		if (beans != null) {
+			return beans;
+		}
+		Tracer tracer = context.getOrDefault(Tracer.class, null);
+		CurrentTraceContext currentTraceContext = context.getOrDefault(CurrentTraceContext.class, null);
+		if (tracer == null || currentTraceContext == null) {
+			return null;
+		}
+		return new ReactorTracingBeans(tracer, currentTraceContext);
+	}
+
+	/**
+	 * @return tracer
+	 */
+	public Tracer tracer() {
+		return this.tracer;
+	}
+
+	/**
+	 * @return current trace context
+	 */
+	public CurrentTraceContext currentTraceContext() {
+		return this.currentTraceContext;
+	}
+
+	/**
+	 * Puts the tracing beans in the Reactor context, unless they are already there.
+	 * @param context Reactor context
+	 * @return context with the tracing beans
+	 */
+	Context putIn(Context context) {
+		if (context.hasKey(ReactorTracingBeans.class)) {
+			return context;
+		}
+		return context.putAll(this.entries);
+	}
+
+	/**
+	 * Builds the holder once both beans can be retrieved from the Spring context.
+	 */
+	static final class Lazy {
+
+		private final LazyBean<Tracer> tracer;
+
+		private final LazyBean<CurrentTraceContext> currentTraceContext;
+
+		private ReactorTracingBeans value;
+
+		Lazy(LazyBean<Tracer> tracer, LazyBean<CurrentTraceContext> currentTraceContext) {
+			this.tracer = tracer;
+			this.currentTraceContext = currentTraceContext;
+		}
+
+		ReactorTracingBeans getOrError() {
+			ReactorTracingBeans beans = this.value;
+			if (beans != null) {
+				return beans;
+			}
+			beans = new ReactorTracingBeans(this.tracer.getOrError(), this.currentTraceContext.getOrError());
+			this.value = beans;
+			return beans;
+		}
+
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import java.util.Map;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.ContextStartedEvent;
+import org.springframework.context.event.ContextStoppedEvent;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Cached state of a Spring context, as seen by the Reactor hooks. The hooks run on every
+ * operator assembly and every scheduled task, where calling
+ * {@link ConfigurableApplicationContext#isRunning()} (which goes through the lifecycle
+ * processor) or {@link ConfigurableApplicationContext#isActive()} is too expensive. The
+ * state is read from the context once and then kept up to date from the context events.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+public final class SpringContextState {
+
+	// the state doesn't reference its context, so that the context can be collected
+	private static final Map<ConfigurableApplicationContext, SpringContextState> STATES = new ConcurrentReferenceHashMap<>(
+			16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+	private volatile boolean active;
+
+	private volatile boolean running;
+
+	private SpringContextState(boolean active, boolean running) {
+		this.active = active;
+		this.running = running;
+	}
+
+	/**
+	 * Returns the state of the given context. The first access reads the state from the
+	 * context and registers a listener that keeps it up to date.
+	 * @param springContext Spring context
+	 * @return state of the context
+	 */
+	public static SpringContextState of(ConfigurableApplicationContext springContext) {
+		return STATES.computeIfAbsent(springContext, context -> {
+			boolean active = context.isActive();
+			SpringContextState state = new SpringContextState(active, active && context.isRunning());
+			context.addApplicationListener(new StateUpdatingListener(context, state));
+			return state;
+		});
+	}
+
+	/**
+	 * @return {@code true} when the context is active, as per
+	 * {@link ConfigurableApplicationContext#isActive()}
+	 */
+	public boolean isActive() {
+		return this.active;
+	}
+
+	/**
+	 * @return {@code true} when the context is active and running, as per
+	 * {@link ConfigurableApplicationContext#isActive()} and
+	 * {@link ConfigurableApplicationContext#isRunning()}
+	 */
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	@Override
+	public String toString() {
+		return "SpringContextState{active=" + this.active + ", running=" + this.running + '}';
+	}
+
+	private static final class StateUpdatingListener implements ApplicationListener<ApplicationContextEvent> {
+
+		private final ConfigurableApplicationContext springContext;
+
+		private final SpringContextState state;
+
+		StateUpdatingListener(ConfigurableApplicationContext springContext, SpringContextState state) {
+			this.springContext = springContext;
+			this.state = state;
+		}
+
+		@Override
+		public void onApplicationEvent(ApplicationContextEvent event) {
+			// events of child contexts are published to their parents as well
+			if (event.getApplicationContext() != this.springContext) {
+				return;
+			}
+			if (event instanceof ContextRefreshedEvent) {
+				this.state.active = true;
+				this.state.running = true;
+			}
+			else if (event instanceof ContextStartedEvent) {
+				this.state.running = this.state.active;
+			}
+			else if (event instanceof ContextStoppedEvent) {
+				this.state.running = false;
+			}
+			else if (event instanceof ContextClosedEvent) {
+				this.state.running = false;
+				this.state.active = false;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Matches request paths against a skip {@link Pattern} with the same decisions as
+ * {@code pattern.matcher(path).matches()}, but without running the regular expression for
+ * the common shapes of skip patterns.
+ *
+ * The top level alternatives of the pattern are compiled as follows:
+ * <ul>
+ * <li>plain literals (e.g. {@code /hystrix\.stream}) are looked up in a hash set</li>
+ * <li>literal prefixes (e.g. {@code /swagger.*}) are matched with a prefix trie</li>
+ * <li>literal suffixes (e.g. {@code .*\.png}) are matched with a suffix trie</li>
+ * <li>all other alternatives are combined into a single regular expression, whose
+ * decisions for recently seen paths are kept in a bounded cache</li>
+ * </ul>
+ *
+ * Patterns with flags or constructs that could change the meaning of the alternatives
+ * (inline flags, quotations) are matched with the original regular expression only.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+public final class SkipPatternMatcher {
+
+	private static final int CACHE_SIZE = 1024;
+
+	private final Set<String> literals;
+
+	private final PathTrie prefixes;
+
+	private final PathTrie suffixes;
+
+	@Nullable
+	private final Pattern remaining;
+
+	@Nullable
+	private final Decision[] decisions;
+
+	private SkipPatternMatcher(Set<String> literals, PathTrie prefixes, PathTrie suffixes,
+			@Nullable Pattern remaining) {
+		this.literals = literals;
+		this.prefixes = prefixes;
+		this.suffixes = suffixes;
+		this.remaining = remaining;
+		this.decisions = remaining != null ? new Decision[CACHE_SIZE] : null;
+	}
+
+	/**
+	 * Compiles the given skip pattern.
+	 * @param pattern skip pattern
+	 * @return matcher for the pattern
+	 */
+	public static SkipPatternMatcher compile(Pattern pattern) {
+		List<String> alternatives = pattern.flags() == 0 ? alternatives(pattern.pattern()) : null;
+		if (alternatives == null) {
+			return new SkipPatternMatcher(new HashSet<>(), new PathTrie(), new PathTrie(), pattern);
+		}
+		Set<String> literals = new HashSet<>();
+		PathTrie prefixes = new PathTrie();
+		PathTrie suffixes = new PathTrie();
+		List<String> remaining = new ArrayList<>();
+		for (String alternative : alternatives) {
+			StringBuilder literal = new StringBuilder();
+			int end = literal(alternative, 0, literal);
+			if (end == alternative.length()) {
+				literals.add(literal.toString());
+			}
+			else if (end == alternative.length() - 2 && alternative.endsWith(".*")) {
+				prefixes.add(literal);
+			}
+			else if (alternative.startsWith(".*") && literal(alternative, 2, clear(literal)) == alternative.length()) {
+				suffixes.add(literal.reverse());
+			}
+			else {
+				remaining.add(alternative);
+			}
+		}
+		Pattern remainingPattern = remaining.isEmpty() ? null : Pattern.compile(String.join("|", remaining));
+		return new SkipPatternMatcher(literals, prefixes, suffixes, remainingPattern);
+	}
+
+	/**
+	 * @param path request path
+	 * @return {@code true} if the whole path matches the skip pattern
+	 */
+	public boolean matches(String path) {
+		if (this.literals.contains(path)) {
+			return true;
+		}
+		int firstLineTerminator = -1;
+		int lastLineTerminator = -1;
+		for (int i = 0; i < path.length(); i++) {
+			if (isLineTerminator(path.charAt(i))) {
+				if (firstLineTerminator == -1) {
+					firstLineTerminator = i;
+				}
+				lastLineTerminator = i;
+			}
+		}
+		// ".*" doesn't match line terminators, so the part of the path that is not
+		// covered by the literal must not contain any
+		if (this.prefixes.matchesPrefix(path, lastLineTerminator)
+				|| this.suffixes.matchesSuffix(path, firstLineTerminator)) {
+			return true;
+		}
+		return this.remaining != null && matchesRemaining(path);
+	}
+
+	private boolean matchesRemaining(String path) {
+		Decision[] decisions = this.decisions;
+		int hash = path.hashCode();
+		int index = (hash ^ (hash >>> 16)) & (decisions.length - 1);
+		Decision decision = decisions[index];
+		if (decision != null && decision.path.equals(path)) {
+			return decision.matches;
+		}
+		boolean matches = this.remaining.matcher(path).matches();
+		decisions[index] = new Decision(path, matches);
+		return matches;
+	}
+
+	/**
+	 * Splits the pattern into its top level alternatives.
+	 * @return alternatives or {@code null} if the pattern can't be safely split
+	 */
+	@Nullable
+	private static List<String> alternatives(String pattern) {
+		List<String> alternatives = new ArrayList<>();
+		int groups = 0;
+		int classes = 0;
+		int start = 0;
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c == '\\') {
+				if (i + 1 < pattern.length() && (pattern.charAt(i + 1) == 'Q' || pattern.charAt(i + 1) == 'E')) {
+					return null;
+				}
+				i++;
+			}
+			else if (c == '[') {
+				classes++;
+			}
+			else if (c == ']' && classes > 0) {
+				classes--;
+			}
+			else if (classes == 0) {
+				if (c == '(') {
+					if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '?'
+							&& (i + 2 >= pattern.length() || pattern.charAt(i + 2) != ':')) {
+						// inline flags, lookarounds and named groups
+						return null;
+					}
+					groups++;
+				}
+				else if (c == ')') {
+					groups--;
+				}
+				else if (c == '|' && groups == 0) {
+					alternatives.add(pattern.substring(start, i));
+					start = i + 1;
+				}
+			}
+		}
+		alternatives.add(pattern.substring(start));
+		return alternatives;
+	}
+
+	/**
+	 * Reads the literal part of the alternative starting at the given index.
+	 * @return index of the first character that is not part of the literal
+	 */
+	private static int literal(String alternative, int from, StringBuilder literal) {
+		int i = from;
+		while (i < alternative.length()) {
+			char c = alternative.charAt(i);
+			if (c == '\\') {
+				if (i + 1 >= alternative.length() || Character.isLetterOrDigit(alternative.charAt(i + 1))) {
+					return i;
+				}
+				literal.append(alternative.charAt(i + 1));
+				i += 2;
+			}
+			else if (".[]{}()*+?^$|".indexOf(c) >= 0) {
+				return i;
+			}
+			else {
+				literal.append(c);
+				i++;
+			}
+		}
+		return i;
+	}
+
+	private static StringBuilder clear(StringBuilder builder) {
+		builder.setLength(0);
+		return builder;
+	}
+
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+	}
+
+	private static final class Decision {
+
+		final String path;
+
+		final boolean matches;
+
+		Decision(String path, boolean matches) {
+			this.path = path;
+			this.matches = matches;
+		}
+
+	}
+
+	/**
+	 * Character trie of literal prefixes (or reversed suffixes).
+	 */
+	private static final class PathTrie {
+
+		private final Node root = new Node();
+
+		void add(CharSequence literal) {
+			Node node = this.root;
+			for (int i = 0; i < literal.length(); i++) {
+				node = node.child(literal.charAt(i), true);
+			}
+			node.terminal = true;
+		}
+
+		boolean matchesPrefix(String path, int lastLineTerminator) {
+			Node node = this.root;
+			for (int i = 0; node != null; i++) {
+				if (node.terminal && lastLineTerminator < i) {
+					return true;
+				}
+				if (i == path.length()) {
+					return false;
+				}
+				node = node.child(path.charAt(i), false);
+			}
+			return false;
+		}
+
+		boolean matchesSuffix(String path, int firstLineTerminator) {
+			Node node = this.root;
+			int length = path.length();
+			for (int i = 0; node != null; i++) {
+				if (node.terminal && (firstLineTerminator == -1 || firstLineTerminator >= length - i)) {
+					return true;
+				}
+				if (i == length) {
+					return false;
+				}
+				node = node.child(path.charAt(length - 1 - i), false);
+			}
+			return false;
+		}
+
+	}
+
+	private static final class Node {
+
+		private char[] keys = new char[0];
+
+		private Node[] children = new Node[0];
+
+		boolean terminal;
+
+		@Nullable
+		Node child(char c, boolean create) {
+			int index = Arrays.binarySearch(this.keys, c);
+			if (index >= 0) {
+				return this.children[index];
+			}
+			if (!create) {
+				return null;
+			}
+			int insertion = -index - 1;
+			char[] keys = new char[this.keys.length + 1];
+			Node[] children = new Node[this.children.length + 1];
+			System.arraycopy(this.keys, 0, keys, 0, insertion);
+			System.arraycopy(this.children, 0, children, 0, insertion);
+			System.arraycopy(this.keys, insertion, keys, insertion + 1, this.keys.length - insertion);
+			System.arraycopy(this.children, insertion, children, insertion + 1, this.children.length - insertion);
+			Node child = new Node();
+			keys[insertion] = c;
+			children[insertion] = child;
+			this.keys = keys;
+			this.children = children;
+			return child;
+		}
+
+	}
+
+}
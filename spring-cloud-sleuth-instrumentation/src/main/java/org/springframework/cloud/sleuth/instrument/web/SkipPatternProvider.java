@@ -28,4 +28,14 @@ public interface SkipPatternProvider {
 
 	Pattern skipPattern();
 
+	/**
+	 * Returns the matcher used to evaluate the skip pattern against request paths. By
+	 * default compiles {@link #skipPattern()} to a {@link SkipPatternMatcher}.
+	 * @return skip pattern matcher
+	 * @since 3.1.2
+	 */
+	default SkipPatternMatcher skipPatternMatcher() {
+		return SkipPatternMatcher.compile(skipPattern());
+	}
+
 }
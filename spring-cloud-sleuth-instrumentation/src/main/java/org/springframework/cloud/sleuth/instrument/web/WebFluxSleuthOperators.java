@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.sleuth.instrument.web;
 
+import java.util.NoSuchElementException;
 import java.util.concurrent.Callable;
 import java.util.function.Consumer;
 
@@ -30,6 +31,7 @@ import org.springframework.cloud.sleuth.CurrentTraceContext;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.TraceContext;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.instrument.reactor.ReactorTracingBeans;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
@@ -104,9 +106,9 @@ public final class WebFluxSleuthOperators {
 	 * @param runnable - lambda to execute within the tracing context
 	 */
 	public static void withSpanInScope(ContextView context, Runnable runnable) {
-		CurrentTraceContext currentTraceContext = context.get(CurrentTraceContext.class);
-		TraceContext traceContext = traceContextOrNew(context);
-		try (CurrentTraceContext.Scope scope = currentTraceContext.maybeScope(traceContext)) {
+		ReactorTracingBeans beans = tracingBeans(context);
+		TraceContext traceContext = traceContextOrNew(context, beans);
+		try (CurrentTraceContext.Scope scope = beans.currentTraceContext().maybeScope(traceContext)) {
 			runnable.run();
 		}
 	}
@@ -130,20 +132,28 @@ public final class WebFluxSleuthOperators {
 	 * @return value from the callable
 	 */
 	public static <T> T withSpanInScope(ContextView context, Callable<T> callable) {
-		CurrentTraceContext currentTraceContext = context.get(CurrentTraceContext.class);
-		TraceContext traceContext = traceContextOrNew(context);
-		return withContext(callable, currentTraceContext, traceContext);
+		ReactorTracingBeans beans = tracingBeans(context);
+		TraceContext traceContext = traceContextOrNew(context, beans);
+		return withContext(callable, beans.currentTraceContext(), traceContext);
+	}
+
+	private static ReactorTracingBeans tracingBeans(ContextView context) {
+		ReactorTracingBeans beans = ReactorTracingBeans.fromContext(context);
+		if (beans == null) {
+			throw new NoSuchElementException("Context does not contain the tracing beans");
+		}
+		return beans;
 	}
 
-	private static TraceContext traceContextOrNew(ContextView context) {
-		Tracer tracer = context.get(Tracer.class);
-		if (!context.hasKey(TraceContext.class)) {
+	private static TraceContext traceContextOrNew(ContextView context, ReactorTracingBeans beans) {
+		TraceContext traceContext = context.getOrDefault(TraceContext.class, null);
+		if (traceContext == null) {
 			if (log.isDebugEnabled()) {
 				log.debug("No trace context found, will create a new span");
 			}
-			return tracer.nextSpan().context();
+			return beans.tracer().nextSpan().context();
 		}
-		return context.get(TraceContext.class);
+		return traceContext;
 	}
 
 	/**
@@ -17,10 +17,13 @@
 package org.springframework.cloud.sleuth.internal;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 
 import org.springframework.cloud.sleuth.SpanName;
 import org.springframework.cloud.sleuth.SpanNamer;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Default implementation of SpanNamer that tries to get the span name as follows:
@@ -41,29 +44,67 @@ import org.springframework.core.annotation.AnnotationUtils;
  */
 public class DefaultSpanNamer implements SpanNamer {
 
+	// a task is typically an instance of one of a few classes, so what makes up its name
+	// is resolved once per class
+	private static final Map<Class<?>, ClassSpanName> CACHE = new ConcurrentReferenceHashMap<>(64,
+			ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
 	private static boolean isDefaultToString(Object delegate, String spanName) {
 		if (delegate instanceof Method) {
 			return delegate.toString().equals(spanName);
 		}
-		return (delegate.getClass().getName() + "@" + Integer.toHexString(delegate.hashCode())).equals(spanName);
+		String className = delegate.getClass().getName();
+		// avoids building the default toString for names that can't be equal to it
+		if (spanName.length() <= className.length() || spanName.charAt(className.length()) != '@'
+				|| !spanName.startsWith(className)) {
+			return false;
+		}
+		String hashCode = Integer.toHexString(delegate.hashCode());
+		return spanName.length() == className.length() + 1 + hashCode.length() && spanName.endsWith(hashCode);
 	}
 
 	@Override
 	public String name(Object object, String defaultValue) {
-		SpanName annotation = annotation(object);
-		String spanName = annotation != null ? annotation.value() : object.toString();
+		if (object instanceof Method) {
+			SpanName annotation = AnnotationUtils.findAnnotation((Method) object, SpanName.class);
+			String spanName = annotation != null ? annotation.value() : object.toString();
+			return isDefaultToString(object, spanName) ? defaultValue : spanName;
+		}
+		ClassSpanName classSpanName = CACHE.computeIfAbsent(object.getClass(), ClassSpanName::of);
+		if (classSpanName.annotatedName != null) {
+			return classSpanName.annotatedName;
+		}
 		// If there is no overridden toString method we'll put a constant value
-		if (isDefaultToString(object, spanName)) {
+		if (!classSpanName.overridesToString) {
 			return defaultValue;
 		}
-		return spanName;
+		String spanName = object.toString();
+		return isDefaultToString(object, spanName) ? defaultValue : spanName;
 	}
 
-	private SpanName annotation(Object o) {
-		if (o instanceof Method) {
-			return AnnotationUtils.findAnnotation((Method) o, SpanName.class);
+	/**
+	 * What the span name of the instances of a class is made of.
+	 */
+	private static final class ClassSpanName {
+
+		private final String annotatedName;
+
+		private final boolean overridesToString;
+
+		private ClassSpanName(String annotatedName, boolean overridesToString) {
+			this.annotatedName = annotatedName;
+			this.overridesToString = overridesToString;
 		}
-		return AnnotationUtils.findAnnotation(o.getClass(), SpanName.class);
+
+		private static ClassSpanName of(Class<?> clazz) {
+			SpanName annotation = AnnotationUtils.findAnnotation(clazz, SpanName.class);
+			if (annotation != null) {
+				return new ClassSpanName(annotation.value(), true);
+			}
+			Method toString = ReflectionUtils.findMethod(clazz, "toString");
+			return new ClassSpanName(null, toString == null || toString.getDeclaringClass() != Object.class);
+		}
+
 	}
 
 }
@@ -96,8 +96,10 @@ public final class EncodingUtils {
 	 * Returns the {@code long} value whose base16 representation is stored in the first
 	 * 16 chars of {@code chars} starting from the {@code offset}.
 	 * @param chars the base16 representation of the {@code long}.
+	 * @param offset the starting offset in the {@code CharSequence}.
+	 * @return long value from string
 	 */
-	static long longFromBase16String(CharSequence chars, int offset) {
+	public static long longFromBase16String(CharSequence chars, int offset) {
 		Assert.isTrue(chars.length() >= offset + LONG_BASE16, "chars too small");
 		return (decodeByte(chars.charAt(offset), chars.charAt(offset + 1)) & 0xFFL) << 56
 				| (decodeByte(chars.charAt(offset + 2), chars.charAt(offset + 3)) & 0xFFL) << 48
@@ -124,8 +126,13 @@ public final class EncodingUtils {
 	}
 
 	private static byte decodeByte(char hi, char lo) {
-		Assert.isTrue(lo < ASCII_CHARACTERS && DECODING[lo] != -1, "invalid character " + lo);
-		Assert.isTrue(hi < ASCII_CHARACTERS && DECODING[hi] != -1, "invalid character " + hi);
+		// the message is built only on failure
+		if (lo >= ASCII_CHARACTERS || DECODING[lo] == -1) {
+			throw new IllegalArgumentException("invalid character " + lo);
+		}
+		if (hi >= ASCII_CHARACTERS || DECODING[hi] == -1) {
+			throw new IllegalArgumentException("invalid character " + hi);
+		}
 		int decoded = DECODING[hi] << 4 | DECODING[lo];
 		return (byte) decoded;
 	}
@@ -136,7 +143,21 @@ public final class EncodingUtils {
 	 * @return {@code true} if valid base16 string
 	 */
 	public static boolean isValidBase16String(CharSequence value) {
-		for (int i = 0; i < value.length(); i++) {
+		return isValidBase16String(value, 0, value.length());
+	}
+
+	/**
+	 * Checks if the given region of the string is valid base16.
+	 * @param value to check
+	 * @param offset the starting offset in the {@code CharSequence}
+	 * @param length number of characters to check
+	 * @return {@code true} if the region is a valid base16 string
+	 */
+	public static boolean isValidBase16String(CharSequence value, int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > value.length()) {
+			return false;
+		}
+		for (int i = offset; i < offset + length; i++) {
 			char b = value.charAt(i);
 			// 48..57 && 97..102 are valid
 			if (!isDigit(b) && !isLowercaseHexCharacter(b)) {
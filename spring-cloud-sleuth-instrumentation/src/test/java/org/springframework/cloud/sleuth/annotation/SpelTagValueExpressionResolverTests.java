@@ -47,12 +47,63 @@ public class SpelTagValueExpressionResolverTests {
 		then(resolved).isEqualTo("BAR");
 	}
 
+	@Test
+	public void should_cache_parsed_expressions() throws Exception {
+		SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver();
+		MyObject myObject = new MyObject();
+		myObject.name = "hello";
+
+		then(resolver.resolve("name + ' world'", myObject)).isEqualTo("hello world");
+		then(resolver.resolve("name + ' world'", myObject)).isEqualTo("hello world");
+		then(resolver.resolve("name + ' world'", new OtherObject())).isEqualTo("other world");
+
+		then(resolver.getCacheMisses()).isEqualTo(1);
+		then(resolver.getCacheHits()).isEqualTo(2);
+		then(resolver.getCacheSize()).isEqualTo(1);
+	}
+
+	@Test
+	public void should_clear_the_cache_when_full() throws Exception {
+		SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver(2);
+		MyObject myObject = new MyObject();
+		myObject.name = "hello";
+
+		then(resolver.resolve("name", myObject)).isEqualTo("hello");
+		then(resolver.resolve("name + '!'", myObject)).isEqualTo("hello!");
+		then(resolver.resolve("name + ' world'", myObject)).isEqualTo("hello world");
+		then(resolver.resolve("name + ' world'", myObject)).isEqualTo("hello world");
+		then(resolver.resolve("name", myObject)).isEqualTo("hello");
+
+		then(resolver.getCacheMisses()).isEqualTo(4);
+		then(resolver.getCacheHits()).isEqualTo(1);
+		then(resolver.getCacheSize()).isEqualTo(2);
+	}
+
+	@Test
+	public void should_not_cache_expressions_when_max_cache_size_is_zero() throws Exception {
+		SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver(0);
+		MyObject myObject = new MyObject();
+		myObject.name = "hello";
+
+		then(resolver.resolve("name", myObject)).isEqualTo("hello");
+		then(resolver.resolve("name", myObject)).isEqualTo("hello");
+
+		then(resolver.getCacheMisses()).isEqualTo(2);
+		then(resolver.getCacheSize()).isZero();
+	}
+
 	public static class MyObject {
 
 		public String name;
 
 	}
 
+	public static class OtherObject {
+
+		public String name = "other";
+
+	}
+
 }
 
 class Foo {
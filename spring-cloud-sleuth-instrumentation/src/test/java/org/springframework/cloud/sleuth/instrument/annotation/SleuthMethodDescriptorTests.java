@@ -0,0 +1,201 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.annotation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanCustomizer;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.annotation.ContinueSpan;
+import org.springframework.cloud.sleuth.annotation.NewSpan;
+import org.springframework.cloud.sleuth.annotation.NewSpanParser;
+import org.springframework.cloud.sleuth.annotation.SleuthMethodInvocationProcessor;
+import org.springframework.cloud.sleuth.annotation.SpanTag;
+import org.springframework.cloud.sleuth.annotation.TagValueResolver;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class SleuthMethodDescriptorTests {
+
+	Span span = Mockito.mock(Span.class, Mockito.RETURNS_SELF);
+
+	Tracer tracer = Mockito.mock(Tracer.class);
+
+	SpanCustomizer spanCustomizer = Mockito.mock(SpanCustomizer.class);
+
+	NewSpanParser newSpanParser = new DefaultSpanCreator();
+
+	DefaultListableBeanFactory beanFactory;
+
+	@BeforeEach
+	void setup() {
+		BDDMockito.given(this.tracer.nextSpan()).willReturn(this.span);
+		BDDMockito.given(this.tracer.withSpan(BDDMockito.any())).willReturn(Mockito.mock(Tracer.SpanInScope.class));
+		this.beanFactory = Mockito.spy(new DefaultListableBeanFactory());
+		this.beanFactory.registerSingleton("tracer", this.tracer);
+		this.beanFactory.registerSingleton("spanCustomizer", this.spanCustomizer);
+		this.beanFactory.registerSingleton("upperCaseTagValueResolver", new UpperCaseTagValueResolver());
+	}
+
+	@Test
+	void should_compute_descriptor_once_per_method_and_target_class() throws Exception {
+		NonReactorSleuthMethodInvocationProcessor processor = processor(
+				new NonReactorSleuthMethodInvocationProcessor());
+		MethodInvocation greet = invocation(new ServiceImpl());
+		MethodInvocation otherGreet = invocation(new ServiceImpl());
+		MethodInvocation greetOnOtherClass = invocation(new OtherServiceImpl());
+
+		SleuthMethodDescriptor descriptor = processor.descriptor(greet);
+
+		then(processor.descriptor(otherGreet)).isSameAs(descriptor);
+		then(processor.descriptor(greetOnOtherClass)).isNotSameAs(descriptor);
+		then(processor.descriptor(greetOnOtherClass).className).isEqualTo("OtherServiceImpl");
+	}
+
+	@Test
+	void should_inherit_annotations_from_interfaces() throws Exception {
+		NonReactorSleuthMethodInvocationProcessor processor = processor(
+				new NonReactorSleuthMethodInvocationProcessor());
+
+		SleuthMethodDescriptor descriptor = processor.descriptor(invocation(new ServiceImpl()));
+
+		then(descriptor.isAnnotated()).isTrue();
+		then(descriptor.spanName).isEqualTo("greet-someone");
+		then(descriptor.tagParameters).hasSize(1);
+		then(descriptor.tagParameters[0].key).isEqualTo("name");
+		then(descriptor.tagParameters[0].resolve("marcin")).isEqualTo("MARCIN");
+	}
+
+	@Test
+	void should_resolve_tag_value_resolver_beans_once() {
+		Service service = proxy(new ServiceImpl(), new NonReactorSleuthMethodInvocationProcessor());
+
+		service.greet("marcin");
+		service.greet("adrian");
+
+		Mockito.verify(this.beanFactory, Mockito.times(1)).getBean(UpperCaseTagValueResolver.class);
+		Mockito.verify(this.spanCustomizer).tag("name", "MARCIN");
+		Mockito.verify(this.spanCustomizer).tag("name", "ADRIAN");
+	}
+
+	@Test
+	void should_call_custom_new_span_parser() {
+		AtomicInteger parsed = new AtomicInteger();
+		this.newSpanParser = (invocation, newSpan, span) -> {
+			parsed.incrementAndGet();
+			span.name("custom");
+		};
+		Service service = proxy(new ServiceImpl(), new NonReactorSleuthMethodInvocationProcessor());
+
+		service.greet("marcin");
+
+		then(parsed).hasValue(1);
+		Mockito.verify(this.span).name("custom");
+	}
+
+	@Test
+	void should_call_process_when_overridden() {
+		AtomicInteger processed = new AtomicInteger();
+		NonReactorSleuthMethodInvocationProcessor processor = new NonReactorSleuthMethodInvocationProcessor() {
+			@Override
+			public Object process(MethodInvocation invocation, NewSpan newSpan, ContinueSpan continueSpan)
+					throws Throwable {
+				processed.incrementAndGet();
+				return super.process(invocation, newSpan, continueSpan);
+			}
+		};
+		Service service = proxy(new ServiceImpl(), processor);
+
+		then(service.greet("marcin")).isEqualTo("Hello marcin");
+
+		then(processor.isProcessOverridden()).isTrue();
+		then(processed).hasValue(1);
+	}
+
+	@Test
+	void should_not_call_process_of_built_in_processor() {
+		then(new NonReactorSleuthMethodInvocationProcessor().isProcessOverridden()).isFalse();
+		then(new ReactorSleuthMethodInvocationProcessor().isProcessOverridden()).isFalse();
+	}
+
+	private Service proxy(Service target, SleuthMethodInvocationProcessor processor) {
+		this.beanFactory.registerSingleton("newSpanParser", this.newSpanParser);
+		this.beanFactory.registerSingleton("processor", processor(processor));
+		SleuthInterceptor interceptor = new SleuthInterceptor();
+		interceptor.setBeanFactory(this.beanFactory);
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addAdvisor(new DefaultPointcutAdvisor(interceptor));
+		return (Service) proxyFactory.getProxy();
+	}
+
+	private static MethodInvocation invocation(Service target) throws NoSuchMethodException {
+		MethodInvocation invocation = Mockito.mock(MethodInvocation.class);
+		BDDMockito.given(invocation.getMethod()).willReturn(Service.class.getMethod("greet", String.class));
+		BDDMockito.given(invocation.getThis()).willReturn(target);
+		return invocation;
+	}
+
+	private <T extends SleuthMethodInvocationProcessor> T processor(T processor) {
+		((AbstractSleuthMethodInvocationProcessor) processor).setBeanFactory(this.beanFactory);
+		return processor;
+	}
+
+	interface Service {
+
+		@NewSpan("greetSomeone")
+		String greet(@SpanTag(key = "name", resolver = UpperCaseTagValueResolver.class) String name);
+
+	}
+
+	static class ServiceImpl implements Service {
+
+		@Override
+		public String greet(String name) {
+			return "Hello " + name;
+		}
+
+	}
+
+	static class OtherServiceImpl implements Service {
+
+		@Override
+		public String greet(String name) {
+			return "Hi " + name;
+		}
+
+	}
+
+	static class UpperCaseTagValueResolver implements TagValueResolver {
+
+		@Override
+		public String resolve(Object parameter) {
+			return parameter.toString().toUpperCase();
+		}
+
+	}
+
+}
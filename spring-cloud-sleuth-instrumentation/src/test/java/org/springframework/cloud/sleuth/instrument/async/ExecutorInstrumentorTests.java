@@ -35,6 +35,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.aopalliance.aop.Advice;
 import org.assertj.core.api.BDDAssertions;
 import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledForJreRange;
 import org.junit.jupiter.api.condition.JRE;
@@ -381,6 +382,55 @@ public class ExecutorInstrumentorTests {
 		BDDAssertions.then(isProxyNeeded).isTrue();
 	}
 
+	@Test
+	public void should_only_propagate_context_for_listed_beans() throws Exception {
+		ExecutorInstrumentor instrumentor = new ExecutorInstrumentor(Collections::emptyList,
+				() -> Collections.singletonList("fooExecutor"), beanFactory);
+
+		BDDAssertions.then(instrumentor.isPropagationOnly("fooExecutor")).isTrue();
+		BDDAssertions.then(instrumentor.isPropagationOnly("barExecutor")).isFalse();
+	}
+
+	@Test
+	public void should_wrap_virtual_thread_per_task_executor_without_proxy() throws Exception {
+		ExecutorService executor = (ExecutorService) virtualThreads(Executors.class, "newVirtualThreadPerTaskExecutor");
+
+		Object o = new ExecutorInstrumentor(Collections::emptyList, beanFactory).instrument(executor, "fooExecutor");
+
+		BDDAssertions.then(o).isInstanceOf(TraceableExecutorService.class);
+		BDDAssertions.then(AopUtils.isAopProxy(o)).isFalse();
+		executor.shutdown();
+	}
+
+	@Test
+	public void should_wrap_virtual_thread_factory() throws Exception {
+		Object builder = virtualThreads(Thread.class, "ofVirtual");
+		Object threadFactory = builder.getClass().getMethod("factory").invoke(builder);
+
+		BDDAssertions.then(ExecutorInstrumentor.isApplicableForInstrumentation(threadFactory)).isTrue();
+		Object o = new ExecutorInstrumentor(Collections::emptyList, beanFactory).instrument(threadFactory,
+				"fooThreadFactory");
+
+		BDDAssertions.then(o).isInstanceOf(LazyTraceThreadFactory.class);
+	}
+
+	@Test
+	public void should_not_wrap_platform_thread_factory() {
+		BDDAssertions.then(ExecutorInstrumentor.isApplicableForInstrumentation(Executors.defaultThreadFactory()))
+				.isFalse();
+	}
+
+	private static Object virtualThreads(Class<?> type, String method) {
+		try {
+			return type.getMethod(method).invoke(null);
+		}
+		catch (Exception ex) {
+			// virtual threads are not available or are a preview feature of this JDK
+			Assumptions.assumeTrue(false, "virtual threads are not available");
+			return null;
+		}
+	}
+
 	@Test
 	public void should_not_create_proxy() throws Exception {
 		Object o = new ExecutorInstrumentor(() -> Collections.singletonList("fooExecutor"), beanFactory)
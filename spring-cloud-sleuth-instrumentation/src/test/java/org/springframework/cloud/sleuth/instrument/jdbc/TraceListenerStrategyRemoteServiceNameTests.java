@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.jdbc;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+class TraceListenerStrategyRemoteServiceNameTests {
+
+	Tracer tracer = Mockito.mock(Tracer.class);
+
+	Span.Builder spanBuilder = Mockito.mock(Span.Builder.class, Answers.RETURNS_SELF);
+
+	Span span = Mockito.mock(Span.class);
+
+	Connection connection = Mockito.mock(Connection.class);
+
+	DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+
+	TraceListenerStrategy<Object, Object, Object> strategy = new TraceListenerStrategy<>(this.tracer,
+			Collections.singletonList(TraceType.CONNECTION), Collections.emptyList());
+
+	@BeforeEach
+	void setup() throws SQLException {
+		BDDMockito.given(this.tracer.spanBuilder()).willReturn(this.spanBuilder);
+		BDDMockito.given(this.spanBuilder.start()).willReturn(this.span);
+		BDDMockito.given(this.connection.getMetaData()).willReturn(this.metaData);
+		BDDMockito.given(this.metaData.getURL()).willReturn("jdbc:h2:mem:testdb");
+		BDDMockito.given(this.connection.getCatalog()).willReturn("TESTDB");
+	}
+
+	@Test
+	void should_parse_the_url_once_per_url() throws SQLException {
+		checkOut(Mockito.mock(DataSource.class), 2);
+		checkOut(Mockito.mock(DataSource.class), 2);
+
+		then(this.connection).should(times(4)).getMetaData();
+		then(this.connection).should(times(1)).getCatalog();
+		then(this.span).should(times(4)).remoteServiceName("TESTDB");
+	}
+
+	@Test
+	void should_parse_the_url_once_per_url_without_data_source() throws SQLException {
+		checkOut(null, 3);
+
+		then(this.connection).should(times(3)).getMetaData();
+		then(this.connection).should(times(1)).getCatalog();
+		then(this.span).should(times(3)).remoteServiceName("TESTDB");
+	}
+
+	@Test
+	void should_report_the_new_url_when_the_url_of_the_data_source_changes() throws SQLException {
+		DataSource dataSource = Mockito.mock(DataSource.class);
+		BDDMockito.given(this.metaData.getURL()).willReturn("jdbc:mysql://first:3306/db?sleuthServiceName=first");
+		checkOut(dataSource, 2);
+
+		BDDMockito.given(this.metaData.getURL()).willReturn("jdbc:mysql://second:3307/db?sleuthServiceName=second");
+		checkOut(dataSource, 1);
+
+		then(this.span).should(times(2)).remoteIpAndPort("first", 3306);
+		then(this.span).should(times(2)).remoteServiceName("first");
+		then(this.span).should().remoteIpAndPort("second", 3307);
+		then(this.span).should().remoteServiceName("second");
+	}
+
+	@Test
+	void should_keep_parsing_urls_once_the_cache_is_full() throws SQLException {
+		for (int i = 0; i <= TraceListenerStrategy.MAX_CACHED_URLS; i++) {
+			BDDMockito.given(this.metaData.getURL()).willReturn("jdbc:h2:mem:testdb" + i);
+			checkOut(null, 1);
+		}
+		BDDMockito.given(this.metaData.getURL()).willReturn("jdbc:h2:mem:cached");
+
+		checkOut(null, 3);
+
+		then(this.connection).should(times(TraceListenerStrategy.MAX_CACHED_URLS + 2)).getCatalog();
+	}
+
+	private void checkOut(DataSource dataSource, int times) {
+		for (int i = 0; i < times; i++) {
+			Object connectionKey = new Object();
+			this.strategy.beforeGetConnection(connectionKey, dataSource, "dataSource");
+			this.strategy.afterGetConnection(connectionKey, this.connection, "dataSource", null);
+			this.strategy.afterConnectionClose(connectionKey, null);
+		}
+	}
+
+}
@@ -18,11 +18,14 @@ package org.springframework.cloud.sleuth.instrument.kafka;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.aopalliance.intercept.MethodInvocation;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
@@ -37,9 +40,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.TraceContext;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.propagation.Propagator;
+import org.springframework.kafka.listener.MessageListener;
 
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
 public class TracingKafkaConsumerTest {
@@ -53,6 +63,15 @@ public class TracingKafkaConsumerTest {
 	@Mock
 	Propagator.Getter<ConsumerRecord<?, ?>> extractor;
 
+	@Mock
+	Tracer tracer;
+
+	@Mock(answer = Answers.RETURNS_SELF)
+	Span.Builder spanBuilder;
+
+	@Mock
+	Span span;
+
 	@Test
 	void should_delegate_poll_calls() {
 		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
@@ -61,6 +80,7 @@ public class TracingKafkaConsumerTest {
 		map.put(new TopicPartition("topic", 0), Collections.singletonList(record));
 		ConsumerRecords<String, String> records = new ConsumerRecords<>(map);
 		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(records);
+		givenSpanBuilder();
 		TracingKafkaConsumer<String, String> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer,
 				beanFactory());
 
@@ -69,10 +89,194 @@ public class TracingKafkaConsumerTest {
 		Mockito.verify(kafkaConsumer).poll(eq(pollTimeout));
 	}
 
+	@Test
+	void should_create_a_span_per_record_with_the_extracted_parent() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(twoPartitions());
+		givenSpanBuilder();
+		TraceContext parent = context("a", "1");
+		givenParents(parent);
+		TracingKafkaConsumer<String, String> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer,
+				beanFactory());
+
+		tracingKafkaConsumer.poll(pollTimeout);
+
+		then(this.spanBuilder).should(times(3)).setParent(parent);
+		then(this.spanBuilder).should(times(3)).name("kafka.consume");
+		then(this.span).should(times(3)).end();
+		then(this.propagator).should(never()).extract(BDDMockito.any(), BDDMockito.any());
+	}
+
+	@Test
+	void should_fall_back_to_the_propagator_when_the_parent_context_is_not_extracted() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		ConsumerRecord<String, String> record = new ConsumerRecord<>("topic", 0, 1, "test-key", "test-value");
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(new ConsumerRecords<>(
+				Collections.singletonMap(new TopicPartition("topic", 0), Collections.singletonList(record))));
+		BDDMockito.given(this.propagator.extractContext(BDDMockito.eq(record), BDDMockito.any())).willReturn(null);
+		BDDMockito.given(this.propagator.extract(BDDMockito.eq(record), BDDMockito.any())).willReturn(this.spanBuilder);
+		BDDMockito.given(this.spanBuilder.start()).willReturn(this.span);
+		TracingKafkaConsumer<String, String> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer,
+				beanFactory());
+
+		tracingKafkaConsumer.poll(pollTimeout);
+
+		then(this.spanBuilder).should().name("kafka.consume");
+		then(this.span).should().end();
+		then(this.tracer).should(never()).spanBuilder();
+	}
+
+	@Test
+	void should_extract_the_parent_context_once_for_the_consumer_and_the_listener() throws Throwable {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		ConsumerRecord<String, String> record = new ConsumerRecord<>("topic", 0, 1, "test-key", "test-value");
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(new ConsumerRecords<>(
+				Collections.singletonMap(new TopicPartition("topic", 0), Collections.singletonList(record))));
+		givenSpanBuilder();
+		TraceContext parent = context("a", "1");
+		givenParents(parent);
+		TracingKafkaConsumer<String, String> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer,
+				beanFactory());
+		MethodInvocation invocation = Mockito.mock(MethodInvocation.class);
+		BDDMockito.given(invocation.getMethod()).willReturn(MessageListener.class.getMethod("onMessage", Object.class));
+		BDDMockito.given(invocation.getArguments()).willReturn(new Object[] { record });
+
+		tracingKafkaConsumer.poll(pollTimeout);
+		new TracingMessageListenerMethodInterceptor<>(this.tracer, this.propagator, this.extractor).invoke(invocation);
+
+		then(this.propagator).should(times(1)).extractContext(BDDMockito.eq(record), BDDMockito.any());
+		then(this.spanBuilder).should(times(2)).setParent(parent);
+		then(this.spanBuilder).should().name("kafka.consume");
+		then(this.spanBuilder).should().name("kafka.on-message");
+		then(invocation).should().proceed();
+	}
+
+	@Test
+	void should_create_a_single_span_per_poll_tagged_with_the_parent_spans() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(twoPartitions());
+		givenSpanBuilder();
+		givenParents(context("a", "1"), context("b", "2"), context("a", "1"));
+		TracingKafkaConsumer<String, String> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer,
+				beanFactory(), KafkaConsumerSpanMode.POLL);
+
+		tracingKafkaConsumer.poll(pollTimeout);
+
+		then(this.spanBuilder).should().kind(Span.Kind.CONSUMER);
+		then(this.spanBuilder).should().name("kafka.consume-batch");
+		then(this.spanBuilder).should().tag("kafka.record-count", "3");
+		then(this.spanBuilder).should().tag("kafka.topic", "topic");
+		then(this.spanBuilder).should().tag("kafka.parent-spans", "a/1,b/2");
+		then(this.spanBuilder).should(never()).tag(eq("kafka.partition"), BDDMockito.anyString());
+		then(this.spanBuilder).should(never()).setParent(BDDMockito.any());
+		then(this.span).should(times(1)).end();
+		then(this.propagator).should(never()).extract(BDDMockito.any(), BDDMockito.any());
+	}
+
+	@Test
+	void should_create_a_span_per_partition() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(twoPartitions());
+		givenSpanBuilder();
+		BDDMockito.given(this.propagator.extractContext(BDDMockito.any(), BDDMockito.any())).willReturn(null);
+		TracingKafkaConsumer<String, String> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer,
+				beanFactory(), KafkaConsumerSpanMode.PARTITION);
+
+		tracingKafkaConsumer.poll(pollTimeout);
+
+		then(this.spanBuilder).should().tag("kafka.partition", "0");
+		then(this.spanBuilder).should().tag("kafka.record-count", "2");
+		then(this.spanBuilder).should().tag("kafka.partition", "1");
+		then(this.spanBuilder).should().tag("kafka.record-count", "1");
+		then(this.spanBuilder).should(never()).tag(eq("kafka.parent-spans"), BDDMockito.anyString());
+		then(this.span).should(times(2)).end();
+	}
+
+	@Test
+	void should_continue_the_trace_of_batches_from_a_single_trace() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(twoPartitions());
+		givenSpanBuilder();
+		TraceContext first = context("a", "1");
+		givenParents(first, context("a", "2"), context("a", "1"));
+		TracingKafkaConsumer<String, String> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer,
+				beanFactory(), KafkaConsumerSpanMode.POLL);
+
+		tracingKafkaConsumer.poll(pollTimeout);
+
+		then(this.spanBuilder).should().setParent(first);
+		then(this.spanBuilder).should().name("kafka.consume-batch");
+		then(this.spanBuilder).should().tag("kafka.parent-spans", "a/1,a/2");
+		then(this.span).should(times(1)).end();
+	}
+
+	@Test
+	void should_read_the_parent_spans_of_at_most_ten_records() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		List<ConsumerRecord<String, String>> partition = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			partition.add(new ConsumerRecord<>("topic", 0, i, "test-key", "test-value"));
+		}
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout))
+				.willReturn(new ConsumerRecords<>(Collections.singletonMap(new TopicPartition("topic", 0), partition)));
+		givenSpanBuilder();
+		givenParents(context("a", "1"));
+		TracingKafkaConsumer<String, String> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer,
+				beanFactory(), KafkaConsumerSpanMode.POLL);
+
+		tracingKafkaConsumer.poll(pollTimeout);
+
+		then(this.propagator).should(times(10)).extractContext(BDDMockito.any(), BDDMockito.any());
+		then(this.propagator).should(never()).extract(BDDMockito.any(), BDDMockito.any());
+		then(this.spanBuilder).should().tag("kafka.parent-spans", "a/1");
+		then(this.spanBuilder).should(never()).setParent(BDDMockito.any());
+		then(this.span).should(times(1)).end();
+	}
+
+	@Test
+	void should_not_create_batch_spans_for_empty_polls() {
+		Duration pollTimeout = Duration.of(5, ChronoUnit.SECONDS);
+		BDDMockito.given(kafkaConsumer.poll(pollTimeout)).willReturn(ConsumerRecords.empty());
+		TracingKafkaConsumer<String, String> tracingKafkaConsumer = new TracingKafkaConsumer<>(kafkaConsumer,
+				beanFactory(), KafkaConsumerSpanMode.POLL);
+
+		tracingKafkaConsumer.poll(pollTimeout);
+
+		Mockito.verifyNoInteractions(this.tracer);
+	}
+
+	private ConsumerRecords<String, String> twoPartitions() {
+		Map<TopicPartition, List<ConsumerRecord<String, String>>> map = new HashMap<>();
+		map.put(new TopicPartition("topic", 0),
+				Arrays.asList(new ConsumerRecord<>("topic", 0, 1, "test-key", "test-value"),
+						new ConsumerRecord<>("topic", 0, 2, "test-key", "test-value")));
+		map.put(new TopicPartition("topic", 1),
+				Collections.singletonList(new ConsumerRecord<>("topic", 1, 1, "test-key", "test-value")));
+		return new ConsumerRecords<>(map);
+	}
+
+	private void givenParents(TraceContext context, TraceContext... contexts) {
+		BDDMockito.given(this.propagator.extractContext(BDDMockito.any(), BDDMockito.any())).willReturn(context,
+				contexts);
+	}
+
+	private static TraceContext context(String traceId, String spanId) {
+		TraceContext context = Mockito.mock(TraceContext.class);
+		BDDMockito.lenient().when(context.traceId()).thenReturn(traceId);
+		BDDMockito.lenient().when(context.spanId()).thenReturn(spanId);
+		return context;
+	}
+
+	private void givenSpanBuilder() {
+		BDDMockito.given(this.tracer.spanBuilder()).willReturn(this.spanBuilder);
+		BDDMockito.given(this.spanBuilder.start()).willReturn(this.span);
+	}
+
 	private BeanFactory beanFactory() {
 		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
 		beanFactory.addBean("propagator", this.propagator);
 		beanFactory.addBean("extractor", this.extractor);
+		beanFactory.addBean("tracer", this.tracer);
 		return beanFactory;
 	}
 
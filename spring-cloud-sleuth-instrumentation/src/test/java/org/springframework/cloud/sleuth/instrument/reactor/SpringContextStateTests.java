@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class SpringContextStateTests {
+
+	@Test
+	void should_follow_the_lifecycle_of_the_context() {
+		GenericApplicationContext springContext = new GenericApplicationContext();
+		SpringContextState state = SpringContextState.of(springContext);
+		then(state.isActive()).isFalse();
+		then(state.isRunning()).isFalse();
+
+		springContext.refresh();
+		then(state.isActive()).isTrue();
+		then(state.isRunning()).isTrue();
+
+		springContext.stop();
+		then(state.isActive()).isTrue();
+		then(state.isRunning()).isFalse();
+
+		springContext.start();
+		then(state.isRunning()).isTrue();
+
+		springContext.close();
+		then(state.isActive()).isFalse();
+		then(state.isRunning()).isFalse();
+	}
+
+	@Test
+	void should_read_the_state_of_an_already_refreshed_context() {
+		GenericApplicationContext springContext = new GenericApplicationContext();
+		springContext.refresh();
+
+		SpringContextState state = SpringContextState.of(springContext);
+
+		then(state.isActive()).isTrue();
+		then(state.isRunning()).isTrue();
+		then(SpringContextState.of(springContext)).isSameAs(state);
+		springContext.close();
+		then(state.isActive()).isFalse();
+	}
+
+	@Test
+	void should_ignore_events_of_child_contexts() {
+		GenericApplicationContext parent = new GenericApplicationContext();
+		parent.refresh();
+		SpringContextState state = SpringContextState.of(parent);
+		GenericApplicationContext child = new GenericApplicationContext(parent);
+		child.refresh();
+
+		child.close();
+
+		then(state.isActive()).isTrue();
+		then(state.isRunning()).isTrue();
+		parent.close();
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.web;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class SkipPatternMatcherTests {
+
+	static final String DEFAULT_SKIP_PATTERN = "/api-docs.*|/swagger.*|"
+			+ ".*\\.png|.*\\.css|.*\\.js|.*\\.html|/favicon.ico|/hystrix.stream";
+
+	static final String ACTUATOR_SKIP_PATTERN = "/context(/|/(actuator|actuator/.*|health|health/.*))?";
+
+	static final List<String> PATHS = Arrays.asList("", "/", "/api-docs", "/api-docs/v1", "/api-doc",
+			"/swagger-ui.html", "/swagger", "/foo/swagger", "/image.png", "/image.png/", "/imagepng", "/a.css", "/a.js",
+			"/a.json", "/index.html", "/favicon.ico", "/faviconXico", "/favicon.ico/", "/hystrix.stream",
+			"/hystrix_stream", "/context", "/context/", "/context/actuator", "/context/actuator/health",
+			"/context/health/liveness", "/context/info", "/swagger\n", "/swagger\nfoo", "\n/image.png", "/ima\rge.png",
+			"/api-docs\u2028", "/users/123", "/users/123/orders");
+
+	@Test
+	void should_match_default_skip_pattern_like_regex() {
+		thenMatchesLikeRegex(DEFAULT_SKIP_PATTERN);
+	}
+
+	@Test
+	void should_match_combined_skip_pattern_like_regex() {
+		thenMatchesLikeRegex(DEFAULT_SKIP_PATTERN + "|" + ACTUATOR_SKIP_PATTERN + "|/users/[0-9]+|.*");
+	}
+
+	@Test
+	void should_match_patterns_with_escapes_classes_and_groups_like_regex() {
+		thenMatchesLikeRegex("/a\\|b|[|/]health|(/api|/users)/.*|\\/users\\/123|/users/\\d+|.*\\.p.g|/swagger\\.*");
+		thenMatchesLikeRegex("(?i)/SWAGGER.*|/foo");
+		thenMatchesLikeRegex("\\Q/swagger\\E.*|/foo");
+		thenMatchesLikeRegex("/swagger.*?|/image.+|^/favicon.ico$|");
+	}
+
+	@Test
+	void should_match_patterns_with_flags_like_regex() {
+		Pattern pattern = Pattern.compile("/SWAGGER.*", Pattern.CASE_INSENSITIVE);
+		SkipPatternMatcher matcher = SkipPatternMatcher.compile(pattern);
+
+		for (String path : PATHS) {
+			then(matcher.matches(path)).as(path).isEqualTo(pattern.matcher(path).matches());
+		}
+	}
+
+	@Test
+	void should_return_cached_decisions_for_repeated_paths() {
+		Pattern pattern = Pattern.compile("/users/[0-9]+");
+		SkipPatternMatcher matcher = SkipPatternMatcher.compile(pattern);
+
+		for (int i = 0; i < 3; i++) {
+			then(matcher.matches("/users/123")).isTrue();
+			then(matcher.matches("/users/abc")).isFalse();
+		}
+	}
+
+	private void thenMatchesLikeRegex(String regex) {
+		Pattern pattern = Pattern.compile(regex);
+		SkipPatternMatcher matcher = SkipPatternMatcher.compile(pattern);
+
+		for (String path : PATHS) {
+			then(matcher.matches(path)).as("[%s] for pattern [%s]", path, regex)
+					.isEqualTo(pattern.matcher(path).matches());
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.sleuth.SpanName;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class DefaultSpanNamerTests {
+
+	DefaultSpanNamer spanNamer = new DefaultSpanNamer();
+
+	@Test
+	void should_use_default_name_for_lambdas_without_calling_to_string() {
+		Runnable lambda = () -> {
+		};
+
+		then(this.spanNamer.name(lambda, "async")).isEqualTo("async");
+		then(this.spanNamer.name(lambda, "async")).isEqualTo("async");
+	}
+
+	@Test
+	void should_take_name_from_annotation_of_the_class() {
+		then(this.spanNamer.name(new AnnotatedRunnable(), "async")).isEqualTo("annotated");
+		then(this.spanNamer.name(new AnnotatedRunnable(), "async")).isEqualTo("annotated");
+	}
+
+	@Test
+	void should_call_overridden_to_string_for_each_instance() {
+		AtomicInteger counter = new AtomicInteger();
+
+		then(this.spanNamer.name(new NamedRunnable("first", counter), "async")).isEqualTo("first");
+		then(this.spanNamer.name(new NamedRunnable("second", counter), "async")).isEqualTo("second");
+		then(counter).hasValue(2);
+	}
+
+	@Test
+	void should_use_default_name_when_overridden_to_string_returns_the_default_one() {
+		Runnable runnable = new SuperToStringRunnable();
+
+		then(this.spanNamer.name(runnable, "async")).isEqualTo("async");
+	}
+
+	@Test
+	void should_take_name_from_annotation_of_the_method() throws Exception {
+		then(this.spanNamer.name(AnnotatedMethod.class.getMethod("annotated"), "async")).isEqualTo("method");
+		then(this.spanNamer.name(AnnotatedMethod.class.getMethod("notAnnotated"), "async")).isEqualTo("async");
+	}
+
+	@SpanName("annotated")
+	static class AnnotatedRunnable implements Runnable {
+
+		@Override
+		public void run() {
+
+		}
+
+	}
+
+	static class NamedRunnable implements Runnable {
+
+		private final String name;
+
+		private final AtomicInteger counter;
+
+		NamedRunnable(String name, AtomicInteger counter) {
+			this.name = name;
+			this.counter = counter;
+		}
+
+		@Override
+		public void run() {
+
+		}
+
+		@Override
+		public String toString() {
+			this.counter.incrementAndGet();
+			return this.name;
+		}
+
+	}
+
+	static class SuperToStringRunnable implements Runnable {
+
+		@Override
+		public void run() {
+
+		}
+
+		@Override
+		public String toString() {
+			return super.toString();
+		}
+
+	}
+
+	static class AnnotatedMethod {
+
+		@SpanName("method")
+		public void annotated() {
+
+		}
+
+		public void notAnnotated() {
+
+		}
+
+	}
+
+}
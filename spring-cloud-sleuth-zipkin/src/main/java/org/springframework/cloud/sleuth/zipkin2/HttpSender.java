@@ -17,8 +17,11 @@
 package org.springframework.cloud.sleuth.zipkin2;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 import zipkin2.Call;
 import zipkin2.Callback;
@@ -55,8 +58,16 @@ abstract class HttpSender extends Sender {
 	 */
 	transient boolean closeCalled;
 
+	final Semaphore inFlightRequests;
+
 	HttpSender(ZipkinHttpClientSender sender, String baseUrl, String apiPath, BytesEncoder<Span> encoder) {
+		this(sender, baseUrl, apiPath, encoder, Integer.MAX_VALUE);
+	}
+
+	HttpSender(ZipkinHttpClientSender sender, String baseUrl, String apiPath, BytesEncoder<Span> encoder,
+			int maxInFlightRequests) {
 		this.sender = sender;
+		this.inFlightRequests = new Semaphore(maxInFlightRequests);
 		this.encoding = encoder.encoding();
 		if (encoder.equals(JSON_V2)) {
 			this.mediaType = MediaType.APPLICATION_JSON;
@@ -111,7 +122,7 @@ abstract class HttpSender extends Sender {
 		if (this.closeCalled) {
 			throw new IllegalStateException("close");
 		}
-		return new HttpPostCall(this.messageEncoder.encode(encodedSpans));
+		return new HttpPostCall(encodedSpans);
 	}
 
 	/**
@@ -137,34 +148,87 @@ abstract class HttpSender extends Sender {
 		this.sender.call(this.url, this.mediaType, json);
 	}
 
+	/**
+	 * Sends the spans as a single message. Senders that can write straight into the
+	 * request body should override this method.
+	 * @param encodedSpans encoded spans
+	 */
+	void post(List<byte[]> encodedSpans) {
+		post(this.messageEncoder.encode(encodedSpans));
+	}
+
+	/**
+	 * Sends the spans as a single message and notifies the callback once the request is
+	 * done.
+	 * @param encodedSpans encoded spans
+	 * @param callback callback to notify when the request is done
+	 */
+	void post(List<byte[]> encodedSpans, Callback<Void> callback) {
+		this.sender.call(this.url, this.mediaType, this.messageEncoder.encode(encodedSpans), callback);
+	}
+
 	class HttpPostCall extends Call.Base<Void> {
 
-		private final byte[] message;
+		private final List<byte[]> encodedSpans;
 
-		HttpPostCall(byte[] message) {
-			this.message = message;
+		HttpPostCall(List<byte[]> encodedSpans) {
+			this.encodedSpans = encodedSpans;
 		}
 
+		/**
+		 * Waits for a free in-flight request slot, so that the caller (e.g. the
+		 * {@link zipkin2.reporter.AsyncReporter}) is slowed down instead of flooding
+		 * Zipkin.
+		 */
 		@Override
 		protected Void doExecute() throws IOException {
-			post(this.message);
+			try {
+				inFlightRequests.acquire();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting to send spans");
+			}
+			try {
+				post(this.encodedSpans);
+			}
+			finally {
+				inFlightRequests.release();
+			}
 			return null;
 		}
 
+		/**
+		 * Drops the message if all in-flight request slots are taken. The callback is
+		 * notified once Zipkin responded. Dropped and failed messages are only reported
+		 * to the callback, the caller decides whether to count them.
+		 */
 		@Override
 		protected void doEnqueue(Callback<Void> callback) {
-			try {
-				post(this.message);
-				callback.onSuccess(null);
-			}
-			catch (RuntimeException | Error e) {
+			if (!inFlightRequests.tryAcquire()) {
+				RejectedExecutionException e = new RejectedExecutionException(
+						"Too many in-flight requests to Zipkin, dropping the message");
 				callback.onError(e);
+				return;
 			}
+			post(this.encodedSpans, new Callback<Void>() {
+				@Override
+				public void onSuccess(Void value) {
+					inFlightRequests.release();
+					callback.onSuccess(value);
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					inFlightRequests.release();
+					callback.onError(t);
+				}
+			});
 		}
 
 		@Override
 		public Call<Void> clone() {
-			return new HttpPostCall(this.message);
+			return new HttpPostCall(this.encodedSpans);
 		}
 
 	}
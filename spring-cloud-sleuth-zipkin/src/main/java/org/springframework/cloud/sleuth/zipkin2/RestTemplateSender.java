@@ -17,15 +17,19 @@
 package org.springframework.cloud.sleuth.zipkin2;
 
 import java.net.URI;
+import java.util.List;
 
+import zipkin2.Callback;
 import zipkin2.Span;
 import zipkin2.codec.BytesEncoder;
 import zipkin2.reporter.Sender;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -35,6 +39,10 @@ import org.springframework.web.client.RestTemplate;
  */
 public class RestTemplateSender extends HttpSender {
 
+	private final RestTemplate restTemplate;
+
+	private final SpansMessageWriter messageWriter;
+
 	@Deprecated
 	public RestTemplateSender(RestTemplate restTemplate, String baseUrl, BytesEncoder<Span> encoder) {
 		this(restTemplate, baseUrl, "", encoder);
@@ -42,6 +50,41 @@ public class RestTemplateSender extends HttpSender {
 
 	public RestTemplateSender(RestTemplate restTemplate, String baseUrl, String apiPath, BytesEncoder<Span> encoder) {
 		super((url, mediaType, bytes) -> post(url, mediaType, bytes, restTemplate), baseUrl, apiPath, encoder);
+		this.restTemplate = restTemplate;
+		this.messageWriter = SpansMessageWriter.of(this.encoding, null);
+	}
+
+	/**
+	 * @param restTemplate rest template
+	 * @param baseUrl Zipkin base URL
+	 * @param apiPath Zipkin API path
+	 * @param encoder span encoder
+	 * @param maxInFlightRequests maximum number of requests that are sent at the same
+	 * time
+	 * @since 3.1.2
+	 */
+	public RestTemplateSender(RestTemplate restTemplate, String baseUrl, String apiPath, BytesEncoder<Span> encoder,
+			int maxInFlightRequests) {
+		this(restTemplate, baseUrl, apiPath, encoder, maxInFlightRequests, null);
+	}
+
+	/**
+	 * @param restTemplate rest template
+	 * @param baseUrl Zipkin base URL
+	 * @param apiPath Zipkin API path
+	 * @param encoder span encoder
+	 * @param maxInFlightRequests maximum number of requests that are sent at the same
+	 * time
+	 * @param compression compression of the spans written to the request body or
+	 * {@code null} if the {@link RestTemplate} takes care of it
+	 * @since 3.1.2
+	 */
+	public RestTemplateSender(RestTemplate restTemplate, String baseUrl, String apiPath, BytesEncoder<Span> encoder,
+			int maxInFlightRequests, @Nullable ZipkinProperties.Compression compression) {
+		super((url, mediaType, bytes) -> post(url, mediaType, bytes, restTemplate), baseUrl, apiPath, encoder,
+				maxInFlightRequests);
+		this.restTemplate = restTemplate;
+		this.messageWriter = SpansMessageWriter.of(this.encoding, compression);
 	}
 
 	private static void post(String url, MediaType mediaType, byte[] json, RestTemplate restTemplate) {
@@ -51,6 +94,51 @@ public class RestTemplateSender extends HttpSender {
 		restTemplate.exchange(requestEntity, String.class);
 	}
 
+	/**
+	 * Writes the spans straight into the request body, instead of concatenating them into
+	 * an array first.
+	 */
+	@Override
+	void post(List<byte[]> encodedSpans) {
+		String contentEncoding = this.messageWriter.contentEncoding();
+		this.restTemplate.execute(URI.create(this.url), HttpMethod.POST, request -> {
+			request.getHeaders().setContentType(this.mediaType);
+			if (contentEncoding != null) {
+				request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+			}
+			this.messageWriter.write(encodedSpans, request.getBody());
+		}, null);
+	}
+
+	@Override
+	void post(List<byte[]> encodedSpans, Callback<Void> callback) {
+		try {
+			post(encodedSpans);
+		}
+		catch (RuntimeException | Error e) {
+			callback.onError(e);
+			return;
+		}
+		callback.onSuccess(null);
+	}
+
+	/**
+	 * Also destroys the {@link RestTemplate} if it holds resources, such as the pool of
+	 * connections of a {@link ZipkinRestTemplateWrapper}.
+	 */
+	@Override
+	public void close() {
+		super.close();
+		if (this.restTemplate instanceof DisposableBean) {
+			try {
+				((DisposableBean) this.restTemplate).destroy();
+			}
+			catch (Exception e) {
+				throw new IllegalStateException("Failed to destroy the RestTemplate", e);
+			}
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "RestTemplateSender{" + url + "}";
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin2;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import zipkin2.codec.Encoding;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Writes the encoded spans as a single message straight into the body of an HTTP request,
+ * compressing it on the fly if necessary. Neither the message, nor its compressed form is
+ * ever copied into an intermediate array.
+ *
+ * @author Marcin Grzejszczak
+ * @since 3.1.2
+ */
+final class SpansMessageWriter {
+
+	private static final String ZSTD_OUTPUT_STREAM = "com.github.luben.zstd.ZstdOutputStream";
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Encoding encoding;
+
+	private final Compressor compressor;
+
+	private SpansMessageWriter(Encoding encoding, Compressor compressor) {
+		this.encoding = encoding;
+		this.compressor = compressor;
+	}
+
+	/**
+	 * @param encoding encoding of the spans
+	 * @param compression compression settings or {@code null} if the message shouldn't be
+	 * compressed
+	 * @return writer of the messages
+	 * @throws IllegalStateException if ZSTD compression is set and {@code zstd-jni} isn't
+	 * on the classpath
+	 */
+	static SpansMessageWriter of(Encoding encoding, @Nullable ZipkinProperties.Compression compression) {
+		if (encoding != Encoding.JSON && encoding != Encoding.PROTO3) {
+			throw new UnsupportedOperationException("Unsupported encoding: " + encoding.name());
+		}
+		if (compression == null || !compression.isEnabled()) {
+			return new SpansMessageWriter(encoding, null);
+		}
+		if (compression.getType() == ZipkinProperties.Compression.Type.ZSTD) {
+			return new SpansMessageWriter(encoding, ZstdCompressor.create(compression.getLevel()));
+		}
+		return new SpansMessageWriter(encoding, new GzipCompressor(
+				compression.getLevel() != null ? compression.getLevel() : Deflater.DEFAULT_COMPRESSION));
+	}
+
+	/**
+	 * @return value of the {@code Content-Encoding} header or {@code null} if the message
+	 * isn't compressed
+	 */
+	@Nullable
+	String contentEncoding() {
+		return this.compressor != null ? this.compressor.contentEncoding() : null;
+	}
+
+	/**
+	 * Writes the spans as a single message. The given stream is left open.
+	 * @param encodedSpans encoded spans
+	 * @param body stream to write the message to
+	 * @throws IOException when writing to the stream fails
+	 */
+	void write(List<byte[]> encodedSpans, OutputStream body) throws IOException {
+		if (this.compressor == null) {
+			writeMessage(encodedSpans, body);
+			return;
+		}
+		try (OutputStream compressed = this.compressor.compress(StreamUtils.nonClosing(body))) {
+			writeMessage(encodedSpans, compressed);
+		}
+	}
+
+	private void writeMessage(List<byte[]> encodedSpans, OutputStream out) throws IOException {
+		if (this.encoding == Encoding.PROTO3) {
+			// PROTO3 spans are already length-prefixed list entries
+			for (byte[] span : encodedSpans) {
+				out.write(span);
+			}
+			return;
+		}
+		out.write('[');
+		for (int i = 0, length = encodedSpans.size(); i < length; i++) {
+			if (i > 0) {
+				out.write(',');
+			}
+			out.write(encodedSpans.get(i));
+		}
+		out.write(']');
+	}
+
+	private interface Compressor {
+
+		String contentEncoding();
+
+		OutputStream compress(OutputStream out) throws IOException;
+
+	}
+
+	private static final class GzipCompressor implements Compressor {
+
+		private final int level;
+
+		private GzipCompressor(int level) {
+			this.level = level;
+		}
+
+		@Override
+		public String contentEncoding() {
+			return "gzip";
+		}
+
+		@Override
+		public OutputStream compress(OutputStream out) throws IOException {
+			return new GZIPOutputStream(out, BUFFER_SIZE) {
+				{
+					this.def.setLevel(GzipCompressor.this.level);
+				}
+			};
+		}
+
+	}
+
+	/**
+	 * Uses {@code zstd-jni} via reflection, so that it doesn't become a required
+	 * dependency.
+	 */
+	private static final class ZstdCompressor implements Compressor {
+
+		private static final int DEFAULT_LEVEL = 3;
+
+		private final Constructor<?> constructor;
+
+		private final int level;
+
+		private ZstdCompressor(Constructor<?> constructor, int level) {
+			this.constructor = constructor;
+			this.level = level;
+		}
+
+		private static ZstdCompressor create(@Nullable Integer level) {
+			ClassLoader classLoader = SpansMessageWriter.class.getClassLoader();
+			if (!ClassUtils.isPresent(ZSTD_OUTPUT_STREAM, classLoader)) {
+				throw new IllegalStateException(
+						"ZSTD compression of spans requires com.github.luben:zstd-jni on the classpath");
+			}
+			try {
+				Constructor<?> constructor = ClassUtils.forName(ZSTD_OUTPUT_STREAM, classLoader)
+						.getConstructor(OutputStream.class, int.class);
+				return new ZstdCompressor(constructor, level != null ? level : DEFAULT_LEVEL);
+			}
+			catch (ClassNotFoundException | NoSuchMethodException e) {
+				throw new IllegalStateException("Unsupported version of com.github.luben:zstd-jni", e);
+			}
+		}
+
+		@Override
+		public String contentEncoding() {
+			return "zstd";
+		}
+
+		@Override
+		public OutputStream compress(OutputStream out) throws IOException {
+			try {
+				return (OutputStream) this.constructor.newInstance(out, this.level);
+			}
+			catch (InvocationTargetException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IOException("Failed to create the ZSTD output stream", e.getCause());
+			}
+			catch (InstantiationException | IllegalAccessException e) {
+				throw new IOException("Failed to create the ZSTD output stream", e);
+			}
+		}
+
+	}
+
+}
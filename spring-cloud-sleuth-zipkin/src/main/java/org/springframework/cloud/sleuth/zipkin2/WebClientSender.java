@@ -17,28 +17,46 @@
 package org.springframework.cloud.sleuth.zipkin2;
 
 import java.net.URI;
+import java.time.Duration;
 
+import reactor.core.publisher.Mono;
+import zipkin2.Callback;
 import zipkin2.Span;
 import zipkin2.codec.BytesEncoder;
 import zipkin2.reporter.Sender;
 
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClient;
 
 /**
- * {@link Sender} that uses {@link WebClient} to send spans to Zipkin.
+ * {@link Sender} that uses {@link WebClient} to send spans to Zipkin. Executed calls wait
+ * for the response of Zipkin, enqueued calls notify their callback once Zipkin responded.
  *
  * @since 3.1.0
  */
 public class WebClientSender extends HttpSender {
 
+	private static final long DEFAULT_TIMEOUT = 10_000L;
+
 	public WebClientSender(WebClient webClient, String baseUrl, String apiPath, BytesEncoder<Span> encoder) {
-		super((url, mediaType, bytes) -> post(url, mediaType, bytes, webClient), baseUrl, apiPath, encoder);
+		this(webClient, baseUrl, apiPath, encoder, DEFAULT_TIMEOUT, Integer.MAX_VALUE);
 	}
 
-	private static void post(String url, MediaType mediaType, byte[] json, WebClient webClient) {
-		webClient.post().uri(URI.create(url)).accept(mediaType).contentType(mediaType).bodyValue(json).retrieve()
-				.toBodilessEntity().subscribe();
+	/**
+	 * @param webClient web client
+	 * @param baseUrl Zipkin base URL
+	 * @param apiPath Zipkin API path
+	 * @param encoder span encoder
+	 * @param timeout timeout in milliseconds of a single request
+	 * @param maxInFlightRequests maximum number of requests that are sent at the same
+	 * time
+	 * @since 3.1.2
+	 */
+	public WebClientSender(WebClient webClient, String baseUrl, String apiPath, BytesEncoder<Span> encoder,
+			long timeout, int maxInFlightRequests) {
+		super(new WebClientHttpClientSender(webClient, Duration.ofMillis(timeout)), baseUrl, apiPath, encoder,
+				maxInFlightRequests);
 	}
 
 	@Override
@@ -46,4 +64,33 @@ public class WebClientSender extends HttpSender {
 		return "WebClientSender{" + url + "}";
 	}
 
+	private static final class WebClientHttpClientSender implements ZipkinHttpClientSender {
+
+		private final WebClient webClient;
+
+		private final Duration timeout;
+
+		private WebClientHttpClientSender(WebClient webClient, Duration timeout) {
+			this.webClient = webClient;
+			this.timeout = timeout;
+		}
+
+		@Override
+		public void call(String url, MediaType mediaType, byte[] payload) {
+			post(url, mediaType, payload).block();
+		}
+
+		@Override
+		public void call(String url, MediaType mediaType, byte[] payload, Callback<Void> callback) {
+			post(url, mediaType, payload).subscribe(response -> {
+			}, callback::onError, () -> callback.onSuccess(null));
+		}
+
+		private Mono<ResponseEntity<Void>> post(String url, MediaType mediaType, byte[] payload) {
+			return Mono.defer(() -> this.webClient.post().uri(URI.create(url)).accept(mediaType).contentType(mediaType)
+					.bodyValue(payload).retrieve().toBodilessEntity()).timeout(this.timeout);
+		}
+
+	}
+
 }
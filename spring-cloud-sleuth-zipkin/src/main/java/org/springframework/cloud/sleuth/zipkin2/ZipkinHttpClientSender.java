@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.sleuth.zipkin2;
 
+import zipkin2.Callback;
+
 import org.springframework.http.MediaType;
 
 /**
@@ -34,4 +36,23 @@ interface ZipkinHttpClientSender {
 	 */
 	void call(String url, MediaType mediaType, byte[] payload);
 
+	/**
+	 * Sends spans to Zipkin via an HTTP Client and notifies the callback once the request
+	 * is done. Blocks until the request is done, unless the HTTP client is non-blocking.
+	 * @param url Zipkin URL
+	 * @param mediaType HTTP message media type
+	 * @param payload payload to send
+	 * @param callback callback to notify when the request is done
+	 */
+	default void call(String url, MediaType mediaType, byte[] payload, Callback<Void> callback) {
+		try {
+			call(url, mediaType, payload);
+		}
+		catch (RuntimeException | Error e) {
+			callback.onError(e);
+			return;
+		}
+		callback.onSuccess(null);
+	}
+
 }
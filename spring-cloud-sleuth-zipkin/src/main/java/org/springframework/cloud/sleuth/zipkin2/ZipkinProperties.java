@@ -60,6 +60,37 @@ public class ZipkinProperties {
 	 */
 	private int messageTimeout = 1;
 
+	/**
+	 * Maximum size in bytes of a message with spans sent to Zipkin. Defaults to the
+	 * maximum size supported by the sender.
+	 */
+	private Integer messageMaxBytes;
+
+	/**
+	 * Maximum number of spans that are queued before they are sent to Zipkin. Further
+	 * spans are dropped.
+	 */
+	private int queuedMaxSpans = 1000;
+
+	/**
+	 * Maximum size in bytes of the spans that are queued before they are sent to Zipkin.
+	 * Further spans are dropped. Defaults to 1% of the heap.
+	 */
+	private Integer queuedMaxBytes;
+
+	/**
+	 * Timeout in seconds for sending the pending spans to Zipkin when the reporter is
+	 * closed.
+	 */
+	private int closeTimeout = 1;
+
+	/**
+	 * Number of threads that send spans to Zipkin. With more than one thread, the spans
+	 * are split by their trace id into queues of their own and the queue limits are
+	 * divided among them.
+	 */
+	private int flushThreads = 1;
+
 	/**
 	 * Encoding type of spans sent to Zipkin. Set to {@link SpanBytesEncoder#JSON_V1} if
 	 * your server is not recent.
@@ -71,6 +102,11 @@ public class ZipkinProperties {
 	 */
 	private Compression compression = new Compression();
 
+	/**
+	 * Configuration related to the HTTP connections used to send spans to Zipkin.
+	 */
+	private Http http = new Http();
+
 	private Service service = new Service();
 
 	private Locator locator = new Locator();
@@ -123,6 +159,46 @@ public class ZipkinProperties {
 		this.messageTimeout = messageTimeout;
 	}
 
+	public Integer getMessageMaxBytes() {
+		return this.messageMaxBytes;
+	}
+
+	public void setMessageMaxBytes(Integer messageMaxBytes) {
+		this.messageMaxBytes = messageMaxBytes;
+	}
+
+	public int getQueuedMaxSpans() {
+		return this.queuedMaxSpans;
+	}
+
+	public void setQueuedMaxSpans(int queuedMaxSpans) {
+		this.queuedMaxSpans = queuedMaxSpans;
+	}
+
+	public Integer getQueuedMaxBytes() {
+		return this.queuedMaxBytes;
+	}
+
+	public void setQueuedMaxBytes(Integer queuedMaxBytes) {
+		this.queuedMaxBytes = queuedMaxBytes;
+	}
+
+	public int getCloseTimeout() {
+		return this.closeTimeout;
+	}
+
+	public void setCloseTimeout(int closeTimeout) {
+		this.closeTimeout = closeTimeout;
+	}
+
+	public int getFlushThreads() {
+		return this.flushThreads;
+	}
+
+	public void setFlushThreads(int flushThreads) {
+		this.flushThreads = flushThreads;
+	}
+
 	public Compression getCompression() {
 		return this.compression;
 	}
@@ -131,6 +207,14 @@ public class ZipkinProperties {
 		this.compression = compression;
 	}
 
+	public Http getHttp() {
+		return this.http;
+	}
+
+	public void setHttp(Http http) {
+		this.http = http;
+	}
+
 	public Service getService() {
 		return this.service;
 	}
@@ -152,6 +236,19 @@ public class ZipkinProperties {
 
 		private boolean enabled = false;
 
+		/**
+		 * Compression algorithm used for the spans sent via HTTP. ZSTD requires
+		 * {@code com.github.luben:zstd-jni} on the classpath and a Zipkin collector that
+		 * accepts it.
+		 */
+		private Type type = Type.GZIP;
+
+		/**
+		 * Compression level. Defaults to the default level of the chosen algorithm (6 for
+		 * GZIP, 3 for ZSTD). Lower levels trade the size of the payload for CPU.
+		 */
+		private Integer level;
+
 		public boolean isEnabled() {
 			return this.enabled;
 		}
@@ -160,6 +257,39 @@ public class ZipkinProperties {
 			this.enabled = enabled;
 		}
 
+		public Type getType() {
+			return this.type;
+		}
+
+		public void setType(Type type) {
+			this.type = type;
+		}
+
+		public Integer getLevel() {
+			return this.level;
+		}
+
+		public void setLevel(Integer level) {
+			this.level = level;
+		}
+
+		/**
+		 * Compression algorithms.
+		 */
+		public enum Type {
+
+			/**
+			 * GZIP compression ({@code Content-Encoding: gzip}).
+			 */
+			GZIP,
+
+			/**
+			 * Zstandard compression ({@code Content-Encoding: zstd}).
+			 */
+			ZSTD
+
+		}
+
 	}
 
 	/**
@@ -184,6 +314,98 @@ public class ZipkinProperties {
 
 	}
 
+	/**
+	 * HTTP sender properties.
+	 */
+	public static class Http {
+
+		/**
+		 * Timeout in milliseconds for establishing a connection to Zipkin.
+		 */
+		private int connectTimeout = 500;
+
+		/**
+		 * Timeout in milliseconds for reading the response of Zipkin.
+		 */
+		private int readTimeout = 500;
+
+		/**
+		 * Type of the HTTP client used by the {@code RestTemplate} based sender. The
+		 * pooled client keeps the connections to Zipkin alive and requires Apache
+		 * HttpClient on the classpath.
+		 */
+		private ClientType clientType = ClientType.SIMPLE;
+
+		/**
+		 * Maximum number of kept alive connections to Zipkin. Used by the pooled client.
+		 */
+		private int maxConnections = 5;
+
+		/**
+		 * Maximum number of requests with spans that can be sent to Zipkin at the same
+		 * time. Further requests wait for a slot, or are dropped if they were enqueued.
+		 */
+		private int maxInFlightRequests = 5;
+
+		public int getConnectTimeout() {
+			return this.connectTimeout;
+		}
+
+		public void setConnectTimeout(int connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public int getReadTimeout() {
+			return this.readTimeout;
+		}
+
+		public void setReadTimeout(int readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
+		public ClientType getClientType() {
+			return this.clientType;
+		}
+
+		public void setClientType(ClientType clientType) {
+			this.clientType = clientType;
+		}
+
+		public int getMaxConnections() {
+			return this.maxConnections;
+		}
+
+		public void setMaxConnections(int maxConnections) {
+			this.maxConnections = maxConnections;
+		}
+
+		public int getMaxInFlightRequests() {
+			return this.maxInFlightRequests;
+		}
+
+		public void setMaxInFlightRequests(int maxInFlightRequests) {
+			this.maxInFlightRequests = maxInFlightRequests;
+		}
+
+		/**
+		 * HTTP client types.
+		 */
+		public enum ClientType {
+
+			/**
+			 * {@link java.net.HttpURLConnection} based client.
+			 */
+			SIMPLE,
+
+			/**
+			 * Apache HttpClient with a bounded pool of kept alive connections.
+			 */
+			POOLED
+
+		}
+
+	}
+
 	/**
 	 * Configuration related to locating of the host name from service discovery. This
 	 * property is NOT related to finding Zipkin via Service Disovery. To do so use the
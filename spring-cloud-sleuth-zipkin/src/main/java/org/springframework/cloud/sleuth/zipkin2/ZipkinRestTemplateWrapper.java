@@ -21,10 +21,15 @@ import java.net.URISyntaxException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
@@ -35,32 +40,59 @@ import org.springframework.web.client.RestTemplate;
  * {@link URI} from the properties is taken. Otherwise service discovery is pinged for
  * current Zipkin address.
  *
+ * Connections to Zipkin are kept alive in a bounded pool when the pooled client type is
+ * set, until this template is destroyed. Request bodies are streamed to Zipkin instead of
+ * being buffered, unless an interceptor is registered.
+ *
  * @author Marcin Grzejszczak
  * @since 3.0.0
  */
-public class ZipkinRestTemplateWrapper extends RestTemplate {
+public class ZipkinRestTemplateWrapper extends RestTemplate implements DisposableBean {
 
 	private static final Log log = LogFactory.getLog(ZipkinRestTemplateWrapper.class);
 
-	private static final int DEFAULT_TIMEOUT = 500;
+	private static final boolean HTTP_COMPONENTS_PRESENT = ClassUtils.isPresent(
+			"org.apache.http.impl.client.HttpClientBuilder", ZipkinRestTemplateWrapper.class.getClassLoader());
 
 	private final ZipkinProperties zipkinProperties;
 
 	private final ZipkinUrlExtractor extractor;
 
+	private final ClientHttpRequestFactory clientHttpRequestFactory;
+
 	public ZipkinRestTemplateWrapper(ZipkinProperties zipkinProperties, ZipkinUrlExtractor extractor) {
 		this.zipkinProperties = zipkinProperties;
 		this.extractor = extractor;
-		setRequestFactory(clientHttpRequestFactory());
+		this.clientHttpRequestFactory = clientHttpRequestFactory();
+		setRequestFactory(this.clientHttpRequestFactory);
 	}
 
 	private ClientHttpRequestFactory clientHttpRequestFactory() {
+		ZipkinProperties.Http http = this.zipkinProperties.getHttp();
+		if (http.getClientType() == ZipkinProperties.Http.ClientType.POOLED) {
+			if (HTTP_COMPONENTS_PRESENT) {
+				return PooledClientHttpRequestFactory.create(http);
+			}
+			log.warn("Apache HttpClient is not on the classpath, the connections to Zipkin will not be pooled");
+		}
 		SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-		factory.setReadTimeout(DEFAULT_TIMEOUT);
-		factory.setConnectTimeout(DEFAULT_TIMEOUT);
+		factory.setBufferRequestBody(false);
+		factory.setReadTimeout(http.getReadTimeout());
+		factory.setConnectTimeout(http.getConnectTimeout());
 		return factory;
 	}
 
+	/**
+	 * Closes the pool of connections to Zipkin, if there's one.
+	 * @throws Exception when the pool can't be closed
+	 */
+	@Override
+	public void destroy() throws Exception {
+		if (this.clientHttpRequestFactory instanceof DisposableBean) {
+			((DisposableBean) this.clientHttpRequestFactory).destroy();
+		}
+	}
+
 	@Override
 	protected <T> T doExecute(URI originalUrl, HttpMethod method, RequestCallback requestCallback,
 			ResponseExtractor<T> responseExtractor) throws RestClientException {
@@ -84,4 +116,23 @@ public class ZipkinRestTemplateWrapper extends RestTemplate {
 		}
 	}
 
+	/**
+	 * Keeps the connections to Zipkin alive in a bounded pool. A separate class, so that
+	 * Apache HttpClient is loaded only when it's on the classpath.
+	 */
+	private static final class PooledClientHttpRequestFactory {
+
+		private static ClientHttpRequestFactory create(ZipkinProperties.Http http) {
+			HttpClient httpClient = HttpClientBuilder.create().useSystemProperties()
+					.setMaxConnTotal(http.getMaxConnections()).setMaxConnPerRoute(http.getMaxConnections())
+					.disableCookieManagement().build();
+			HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+			factory.setBufferRequestBody(false);
+			factory.setReadTimeout(http.getReadTimeout());
+			factory.setConnectTimeout(http.getConnectTimeout());
+			return factory;
+		}
+
+	}
+
 }
@@ -17,6 +17,8 @@
 package org.springframework.cloud.sleuth.zipkin2;
 
 import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
@@ -26,6 +28,7 @@ import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import zipkin2.Call;
+import zipkin2.Callback;
 import zipkin2.Endpoint;
 import zipkin2.Span;
 import zipkin2.codec.Encoding;
@@ -35,6 +38,8 @@ import zipkin2.reporter.brave.AsyncZipkinSpanHandler;
 
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.BDDAssertions.then;
 import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
 
 abstract class AbstractSenderTest {
@@ -95,6 +100,26 @@ abstract class AbstractSenderTest {
 		assertThat(request.getBody().readByteArray()).containsExactly(SpanBytesEncoder.PROTO3.encode(SPAN));
 	}
 
+	@Test
+	public void executeFailsWhenZipkinFails() {
+		this.server.enqueue(new MockResponse().setResponseCode(500));
+
+		assertThatThrownBy(() -> send(SPAN).execute()).isInstanceOf(RuntimeException.class);
+	}
+
+	@Test
+	public void enqueueNotifiesCallbackOnceZipkinResponded() throws Exception {
+		this.server.enqueue(new MockResponse().setResponseCode(500));
+		this.server.enqueue(new MockResponse());
+		BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+
+		send(SPAN).enqueue(callback(results));
+		then(results.poll(5, TimeUnit.SECONDS)).isInstanceOf(Throwable.class);
+
+		send(SPAN).enqueue(callback(results));
+		then(results.poll(5, TimeUnit.SECONDS)).isEqualTo("success");
+	}
+
 	@Test
 	public void testWhereApiIsSetNonEmpty() {
 		final String mockedApiPath = "/test/v2";
@@ -123,6 +148,20 @@ abstract class AbstractSenderTest {
 		assertThat(this.sender).hasToString(expectedToString());
 	}
 
+	static Callback<Void> callback(BlockingQueue<Object> results) {
+		return new Callback<Void>() {
+			@Override
+			public void onSuccess(Void value) {
+				results.add("success");
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				results.add(t);
+			}
+		};
+	}
+
 	Call<Void> send(Span... spans) {
 		SpanBytesEncoder bytesEncoder = this.sender.encoding() == Encoding.JSON ? SpanBytesEncoder.JSON_V2
 				: SpanBytesEncoder.PROTO3;
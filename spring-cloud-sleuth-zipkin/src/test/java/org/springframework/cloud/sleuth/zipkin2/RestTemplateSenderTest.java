@@ -16,15 +16,106 @@
 
 package org.springframework.cloud.sleuth.zipkin2;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import com.github.luben.zstd.ZstdInputStream;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.junit.jupiter.api.Test;
 import zipkin2.reporter.Sender;
 
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
 import static zipkin2.codec.SpanBytesEncoder.PROTO3;
 
 class RestTemplateSenderTest extends AbstractSenderTest {
 
+	@Test
+	void gzipsSpansWhileWritingThemToTheRequestBody() throws Exception {
+		this.server.enqueue(new MockResponse());
+		this.sender = compressingSender(ZipkinProperties.Compression.Type.GZIP, 1);
+
+		send(SPAN, SPAN).execute();
+
+		RecordedRequest request = this.server.takeRequest();
+		then(request.getHeader("Content-Encoding")).isEqualTo("gzip");
+		then(decompress(new GZIPInputStream(request.getBody().inputStream()))).isEqualTo(expectedMessage());
+	}
+
+	@Test
+	void compressesSpansWithZstd() throws Exception {
+		this.server.enqueue(new MockResponse());
+		this.sender = compressingSender(ZipkinProperties.Compression.Type.ZSTD, null);
+
+		send(SPAN, SPAN).execute();
+
+		RecordedRequest request = this.server.takeRequest();
+		then(request.getHeader("Content-Encoding")).isEqualTo("zstd");
+		then(decompress(new ZstdInputStream(request.getBody().inputStream()))).isEqualTo(expectedMessage());
+	}
+
+	@Test
+	void doesNotCompressSpansTwiceWithTheDefaultCustomizer() throws Exception {
+		this.server.enqueue(new MockResponse());
+		ZipkinProperties zipkinProperties = new ZipkinProperties();
+		zipkinProperties.getCompression().setEnabled(true);
+		RestTemplate restTemplate = new DefaultZipkinRestTemplateCustomizer(zipkinProperties)
+				.customizeTemplate(new RestTemplate());
+		this.sender = new RestTemplateSender(restTemplate, this.endpoint, null, JSON_V2, 1,
+				zipkinProperties.getCompression());
+
+		send(SPAN, SPAN).execute();
+
+		RecordedRequest request = this.server.takeRequest();
+		then(request.getHeaders().values("Content-Encoding")).containsExactly("gzip");
+		then(decompress(new GZIPInputStream(request.getBody().inputStream()))).isEqualTo(expectedMessage());
+	}
+
+	@Test
+	void closesThePooledConnectionsOfTheRestTemplate() throws Exception {
+		ZipkinProperties zipkinProperties = new ZipkinProperties();
+		zipkinProperties.getHttp().setClientType(ZipkinProperties.Http.ClientType.POOLED);
+		ZipkinRestTemplateWrapper restTemplate = new ZipkinRestTemplateWrapper(zipkinProperties,
+				new CachingZipkinUrlExtractor(new StaticInstanceZipkinLoadBalancer(zipkinProperties)));
+		HttpClient httpClient = ((HttpComponentsClientHttpRequestFactory) restTemplate.getRequestFactory())
+				.getHttpClient();
+		this.sender = new RestTemplateSender(restTemplate, this.endpoint, null, JSON_V2, 1);
+
+		this.sender.close();
+
+		thenThrownBy(() -> httpClient.execute(new HttpGet(this.endpoint))).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("shut down");
+	}
+
+	private Sender compressingSender(ZipkinProperties.Compression.Type type, Integer level) {
+		ZipkinProperties.Compression compression = new ZipkinProperties.Compression();
+		compression.setEnabled(true);
+		compression.setType(type);
+		compression.setLevel(level);
+		return new RestTemplateSender(new RestTemplate(), this.endpoint, null, JSON_V2, 1, compression);
+	}
+
+	private String expectedMessage() {
+		String span = new String(JSON_V2.encode(SPAN), StandardCharsets.UTF_8);
+		return "[" + span + "," + span + "]";
+	}
+
+	private static String decompress(InputStream stream) throws IOException {
+		try (InputStream decompressed = stream) {
+			return StreamUtils.copyToString(decompressed, StandardCharsets.UTF_8);
+		}
+	}
+
 	@Override
 	Sender jsonSender() {
 		return new RestTemplateSender(new RestTemplate(), this.endpoint, null, JSON_V2);
@@ -16,11 +16,19 @@
 
 package org.springframework.cloud.sleuth.zipkin2;
 
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import org.junit.jupiter.api.Test;
 import zipkin2.reporter.Sender;
 
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import static org.assertj.core.api.BDDAssertions.then;
 import static zipkin2.codec.SpanBytesEncoder.JSON_V2;
 import static zipkin2.codec.SpanBytesEncoder.PROTO3;
 
@@ -57,4 +65,19 @@ class WebClientSenderTests extends AbstractSenderTest {
 		return "WebClientSender{" + this.endpoint + mockedApiPath + "}";
 	}
 
+	@Test
+	void dropsEnqueuedMessagesWhenTooManyRequestsAreInFlight() throws Exception {
+		this.server.enqueue(new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS));
+		this.sender = new WebClientSender(WebClient.builder().clientConnector(new ReactorClientHttpConnector()).build(),
+				this.endpoint, null, JSON_V2, 5_000L, 1);
+		BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+
+		send(SPAN).enqueue(callback(results));
+		send(SPAN).enqueue(callback(results));
+
+		then(results.poll(5, TimeUnit.SECONDS)).isInstanceOf(RejectedExecutionException.class);
+		then(results.poll(5, TimeUnit.SECONDS)).isEqualTo("success");
+		then(this.server.getRequestCount()).isEqualTo(1);
+	}
+
 }
@@ -29,6 +29,8 @@ import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -97,6 +99,27 @@ public class ZipkinRestTemplateSenderConfigurationTest {
 		assertThat(uri.toString()).isEqualTo(URI.create(zipkinProperties.getBaseUrl()).toString());
 	}
 
+	@Test
+	public void shouldNotPoolConnectionsByDefault() {
+		ZipkinProperties zipkinProperties = new ZipkinProperties();
+
+		ZipkinRestTemplateWrapper restTemplate = new ZipkinRestTemplateWrapper(zipkinProperties,
+				new CachingZipkinUrlExtractor(new StaticInstanceZipkinLoadBalancer(zipkinProperties)));
+
+		assertThat(restTemplate.getRequestFactory()).isInstanceOf(SimpleClientHttpRequestFactory.class);
+	}
+
+	@Test
+	public void shouldPoolConnectionsWhenPooledClientTypeIsSet() {
+		ZipkinProperties zipkinProperties = new ZipkinProperties();
+		zipkinProperties.getHttp().setClientType(ZipkinProperties.Http.ClientType.POOLED);
+
+		ZipkinRestTemplateWrapper restTemplate = new ZipkinRestTemplateWrapper(zipkinProperties,
+				new CachingZipkinUrlExtractor(new StaticInstanceZipkinLoadBalancer(zipkinProperties)));
+
+		assertThat(restTemplate.getRequestFactory()).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(LoadBalancerClient.class)
 	static class MyDiscoveryClientZipkinUrlExtractorConfiguration {
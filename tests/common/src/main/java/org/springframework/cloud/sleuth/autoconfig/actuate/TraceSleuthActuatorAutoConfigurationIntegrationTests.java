@@ -16,7 +16,7 @@
 
 package org.springframework.cloud.sleuth.autoconfig.actuate;
 
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,6 +39,8 @@ import static org.assertj.core.api.BDDAssertions.then;
 import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -84,6 +86,22 @@ public abstract class TraceSleuthActuatorAutoConfigurationIntegrationTests {
 		traces(MediaType.APPLICATION_JSON, zipkinJsonBody());
 	}
 
+	@Test
+	void tracesZipkinPage() throws Exception {
+		await().untilAsserted(() -> then(bufferedSpans()).hasSize(3));
+
+		this.mockMvc
+				.perform(get("/actuator/traces").param("since", "0").param("limit", "2")
+						.accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().string(allOf(startsWith("{\"spans\":["), containsString("\"name\":\"third\""),
+						containsString("\"name\":\"second\""), endsWith("],\"next\":2}"))));
+
+		this.mockMvc.perform(get("/actuator/traces").param("since", "2").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().string(allOf(containsString("\"name\":\"first\""), endsWith("],\"next\":3}"))));
+	}
+
 	protected void tracesSnapshot(MediaType contentType, ResultMatcher resultMatcher) throws Exception {
 		await().untilAsserted(() -> then(bufferedSpans()).isNotEmpty());
 
@@ -107,8 +125,8 @@ public abstract class TraceSleuthActuatorAutoConfigurationIntegrationTests {
 				containsString("\"name\":\"third\"")));
 	}
 
-	protected ConcurrentLinkedQueue<FinishedSpan> bufferedSpans() {
-		return this.bufferingSpanReporter.spans;
+	protected List<FinishedSpan> bufferedSpans() {
+		return this.bufferingSpanReporter.getFinishedSpans();
 	}
 
 	@Configuration(proxyBeanMethods = false)
@@ -137,6 +137,26 @@ public abstract class ZipkinAutoConfigurationTests {
 		});
 	}
 
+	@Test
+	void shardsReporterWhenMultipleFlushThreadsAreSet() throws Exception {
+		zipkinRunner().withPropertyValues("spring.zipkin.base-url=" + this.server.url("/").toString(),
+				"spring.zipkin.flush-threads=2", "spring.zipkin.queued-max-spans=100",
+				"spring.zipkin.queued-max-bytes=100000").run(context -> {
+					AsyncReporter<?> reporter = context.getBean(ZipkinAutoConfiguration.REPORTER_BEAN_NAME,
+							AsyncReporter.class);
+					then(reporter).isInstanceOf(ShardedAsyncReporter.class);
+
+					context.getBean(Tracer.class).nextSpan().name("foo").start().end();
+					reporter.flush();
+
+					Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+						RecordedRequest request = this.server.takeRequest(1, TimeUnit.SECONDS);
+						then(request).isNotNull();
+						then(request.getBody().readUtf8()).contains("\"name\":\"foo\"");
+					});
+				});
+	}
+
 	protected ApplicationContextRunner zipkinRunner() {
 		return new ApplicationContextRunner()
 				.withConfiguration(AutoConfigurations.of(ZipkinAutoConfiguration.class, tracerZipkinConfiguration(),
@@ -16,7 +16,6 @@
 
 package org.springframework.cloud.sleuth.instrument.annotation;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -33,7 +32,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.fail;
 
 @ContextConfiguration(classes = NullSpanTagAnnotationHandlerTests.TestConfiguration.class)
 public abstract class NullSpanTagAnnotationHandlerTests {
@@ -54,42 +52,30 @@ public abstract class NullSpanTagAnnotationHandlerTests {
 	@Test
 	public void shouldUseEmptyStringWheCustomTagValueResolverReturnsNull()
 			throws NoSuchMethodException, SecurityException {
-		Method method = AnnotationMockClass.class.getMethod("getAnnotationForTagValueResolver", String.class);
-		Annotation annotation = method.getParameterAnnotations()[0][0];
-		if (annotation instanceof SpanTag) {
-			String resolvedValue = this.handler.resolveTagValue((SpanTag) annotation, "test");
-			assertThat(resolvedValue).isEqualTo("");
-		}
-		else {
-			fail("Annotation was not SleuthSpanTag");
-		}
+		String resolvedValue = resolveTagValue("getAnnotationForTagValueResolver", String.class, "test");
+
+		assertThat(resolvedValue).isEqualTo("");
 	}
 
 	@Test
 	public void shouldUseEmptyStringWhenTagValueExpressionReturnNull() throws NoSuchMethodException, SecurityException {
-		Method method = AnnotationMockClass.class.getMethod("getAnnotationForTagValueExpression", String.class);
-		Annotation annotation = method.getParameterAnnotations()[0][0];
-		if (annotation instanceof SpanTag) {
-			String resolvedValue = this.handler.resolveTagValue((SpanTag) annotation, "test");
+		String resolvedValue = resolveTagValue("getAnnotationForTagValueExpression", String.class, "test");
 
-			assertThat(resolvedValue).isEqualTo("");
-		}
-		else {
-			fail("Annotation was not SleuthSpanTag");
-		}
+		assertThat(resolvedValue).isEqualTo("");
 	}
 
 	@Test
 	public void shouldUseEmptyStringWhenArgumentIsNull() throws NoSuchMethodException, SecurityException {
-		Method method = AnnotationMockClass.class.getMethod("getAnnotationForArgumentToString", Long.class);
-		Annotation annotation = method.getParameterAnnotations()[0][0];
-		if (annotation instanceof SpanTag) {
-			String resolvedValue = this.handler.resolveTagValue((SpanTag) annotation, null);
-			assertThat(resolvedValue).isEqualTo("");
-		}
-		else {
-			fail("Annotation was not SleuthSpanTag");
-		}
+		String resolvedValue = resolveTagValue("getAnnotationForArgumentToString", Long.class, null);
+
+		assertThat(resolvedValue).isEqualTo("");
+	}
+
+	private String resolveTagValue(String methodName, Class<?> parameterType, Object argument)
+			throws NoSuchMethodException {
+		Method method = AnnotationMockClass.class.getMethod(methodName, parameterType);
+		SleuthMethodDescriptor descriptor = SleuthMethodDescriptor.of(method, AnnotationMockClass.class, this.handler);
+		return descriptor.tagParameters[0].resolve(argument);
 	}
 
 	@Configuration(proxyBeanMethods = false)
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.async;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.assertj.core.api.BDDAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.internal.SleuthContextListenerAccessor;
+import org.springframework.cloud.sleuth.test.TestTracingAwareSupplier;
+
+@ExtendWith(MockitoExtension.class)
+public abstract class LazyTraceThreadFactoryTests implements TestTracingAwareSupplier {
+
+	@Mock(lenient = true)
+	BeanFactory beanFactory;
+
+	Tracer tracer = tracerTest().tracing().tracer();
+
+	@Test
+	public void should_run_thread_in_scope_of_span_that_was_current_when_thread_was_created() throws Exception {
+		ThreadFactory threadFactory = new LazyTraceThreadFactory(beanFactory(true), Executors.defaultThreadFactory());
+		AtomicReference<Span> spanInThread = new AtomicReference<>();
+		Span span = this.tracer.nextSpan().name("parent").start();
+		Thread thread;
+		try (Tracer.SpanInScope ws = this.tracer.withSpan(span)) {
+			thread = threadFactory.newThread(() -> spanInThread.set(this.tracer.currentSpan()));
+		}
+		finally {
+			span.end();
+		}
+
+		thread.start();
+		thread.join();
+
+		BDDAssertions.then(spanInThread.get()).isNotNull();
+		BDDAssertions.then(spanInThread.get().context().spanId()).isEqualTo(span.context().spanId());
+		BDDAssertions.then(tracerTest().handler().reportedSpans()).hasSize(1);
+	}
+
+	@Test
+	public void should_not_wrap_thread_when_context_not_ready() throws Exception {
+		ThreadFactory threadFactory = new LazyTraceThreadFactory(beanFactory(false), Executors.defaultThreadFactory());
+		AtomicReference<Span> spanInThread = new AtomicReference<>();
+		Span span = this.tracer.nextSpan().name("parent").start();
+		Thread thread;
+		try (Tracer.SpanInScope ws = this.tracer.withSpan(span)) {
+			thread = threadFactory.newThread(() -> spanInThread.set(this.tracer.currentSpan()));
+		}
+		finally {
+			span.end();
+		}
+
+		thread.start();
+		thread.join();
+
+		BDDAssertions.then(spanInThread.get()).isNull();
+	}
+
+	BeanFactory beanFactory(boolean refreshed) {
+		BDDMockito.given(this.beanFactory.getBean(Tracer.class)).willReturn(this.tracer);
+		SleuthContextListenerAccessor.set(this.beanFactory, refreshed);
+		return this.beanFactory;
+	}
+
+}
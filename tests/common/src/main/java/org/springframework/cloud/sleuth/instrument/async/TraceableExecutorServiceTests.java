@@ -98,6 +98,24 @@ public abstract class TraceableExecutorServiceTests implements TestTracingAwareS
 				.hasSize(TOTAL_THREADS);
 	}
 
+	@Test
+	public void should_only_propagate_the_parent_span_when_executor_service_is_propagation_only() throws Exception {
+		this.traceManagerableExecutorService = new TraceableExecutorService(beanFactory(true), this.executorService,
+				"foo", true);
+		ScopedSpan span = this.tracer.startScopedSpan("http:PARENT");
+		try {
+			CompletableFuture.allOf(runnablesExecutedViaTraceManagerableExecutorService()).get();
+		}
+		finally {
+			span.end();
+		}
+
+		BDDAssertions.then(this.spanVerifyingRunnable.traceIds).hasSize(TOTAL_THREADS)
+				.containsOnly(span.context().traceId());
+		BDDAssertions.then(this.spanVerifyingRunnable.spanIds).hasSize(TOTAL_THREADS)
+				.containsOnly(span.context().spanId());
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void should_wrap_methods_in_trace_representation_only_for_non_tracing_callables() throws Exception {
@@ -27,7 +27,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatcher;
 import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -51,11 +50,12 @@ public abstract class TraceableScheduledExecutorServiceTest implements TestTraci
 	@Mock
 	ScheduledExecutorService scheduledExecutorService;
 
-	@InjectMocks
 	TraceableScheduledExecutorService traceableScheduledExecutorService;
 
 	@BeforeEach
 	public void setup() {
+		this.traceableScheduledExecutorService = new TraceableScheduledExecutorService(this.beanFactory,
+				this.scheduledExecutorService);
 		beanFactory();
 	}
 
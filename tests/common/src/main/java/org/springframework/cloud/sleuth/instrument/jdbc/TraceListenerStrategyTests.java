@@ -399,6 +399,22 @@ abstract class TraceListenerStrategyTests {
 		});
 	}
 
+	@Test
+	void testShouldSetRemoteServiceNameForEachCheckedOutConnection() {
+		parentContextRunner().run(context -> {
+			DataSource dataSource = context.getBean(DataSource.class);
+			TestSpanHandler spanReporter = context.getBean(TestSpanHandler.class);
+
+			for (int i = 0; i < 3; i++) {
+				Connection connection = dataSource.getConnection();
+				connection.close();
+			}
+
+			assertThat(spanReporter.reportedSpans()).hasSize(3).extracting(FinishedSpan::getRemoteServiceName)
+					.containsOnly("TESTDB-BAZ");
+		});
+	}
+
 	@Test
 	void testShouldNotFailWhenClosedInReversedOrder() {
 		parentContextRunner().run(context -> {
@@ -16,10 +16,16 @@
 
 package org.springframework.cloud.sleuth.instrument.messaging;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 import org.assertj.core.api.BDDAssertions;
@@ -45,6 +51,7 @@ import org.springframework.messaging.support.ErrorMessage;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.messaging.support.ExecutorSubscribableChannel;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.StringUtils;
 
@@ -118,6 +125,150 @@ public abstract class TracingChannelInterceptorTest implements TestTracingAwareS
 		assertThat(this.spans).hasSize(1).extracting(FinishedSpan::getKind).containsExactly(Span.Kind.PRODUCER);
 	}
 
+	@Test
+	public void injectsProducerSpanIntoMutableHeaders() {
+		MessageHeaderAccessor accessor = new MessageHeaderAccessor();
+		accessor.setLeaveMutable(true);
+		Message<?> message = MessageBuilder.createMessage("foo", accessor.getMessageHeaders());
+
+		Message<?> sent = this.interceptor.preSend(message, this.channel);
+		this.interceptor.afterSendCompletion(sent, this.channel, true, null);
+
+		assertThat(sent).isSameAs(message);
+		assertThat(message.getHeaders()).containsKey("b3");
+		assertThat(this.spans).hasSize(1).extracting(FinishedSpan::getKind).containsExactly(Span.Kind.PRODUCER);
+	}
+
+	@Test
+	public void rebuildsImmutableMessageWithNewIdAndTimestamp() {
+		Message<?> message = MessageBuilder.withPayload("foo").build();
+
+		Message<?> sent = this.interceptor.preSend(message, this.channel);
+		this.interceptor.afterSendCompletion(sent, this.channel, true, null);
+
+		assertThat(sent).isNotSameAs(message);
+		assertThat(sent.getHeaders()).containsKey("b3").doesNotContainEntry(MessageHeaders.ID,
+				message.getHeaders().getId());
+		assertThat(sent.getHeaders().getTimestamp()).isNotNull();
+		assertThat(message.getHeaders()).doesNotContainKey("b3");
+	}
+
+	@Test
+	public void finishesProducerSpanWhenSendCompletesOnAnotherThread() throws Exception {
+		Message<?> sent = this.interceptor.preSend(MessageBuilder.withPayload("foo").build(), this.channel);
+
+		runInNewThread(() -> this.interceptor.afterSendCompletion(sent, this.channel, true, null));
+
+		assertThat(this.spans).hasSize(1).extracting(FinishedSpan::getKind).containsExactly(Span.Kind.PRODUCER);
+		// the scope left open on this thread is closed by its next send
+		Message<?> next = this.interceptor.preSend(MessageBuilder.withPayload("bar").build(), this.channel);
+		this.interceptor.afterSendCompletion(next, this.channel, true, null);
+		assertThat(this.spans).hasSize(2);
+		assertThat(tracerTest().tracing().tracer().currentSpan()).isNull();
+	}
+
+	@Test
+	public void producerSpanIsInScopeDuringSend() {
+		AtomicReference<Span> spanDuringSend = new AtomicReference<>();
+		this.channel.addInterceptor(producerSideOnly(this.interceptor));
+		this.channel.addInterceptor(new ChannelInterceptor() {
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				spanDuringSend.set(tracerTest().tracing().tracer().currentSpan());
+				return message;
+			}
+		});
+
+		this.channel.send(MessageBuilder.withPayload("foo").build());
+
+		assertThat(spanDuringSend.get()).isNotNull();
+		assertThat(this.spans).hasSize(1).extracting(FinishedSpan::getSpanId)
+				.containsExactly(spanDuringSend.get().context().spanId());
+		assertThat(tracerTest().tracing().tracer().currentSpan()).isNull();
+	}
+
+	@Test
+	public void finishesProducerSpanWhenMessageIsReplacedByAnotherInterceptor() {
+		this.channel.addInterceptor(producerSideOnly(this.interceptor));
+		this.channel.addInterceptor(new ChannelInterceptor() {
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				return MessageBuilder.fromMessage(message).setHeader("foo", "bar").build();
+			}
+		});
+
+		this.channel.send(MessageBuilder.withPayload("foo").build());
+
+		assertThat(this.channel.receive().getHeaders()).containsKeys("b3", "foo");
+		assertThat(this.spans).hasSize(1).extracting(FinishedSpan::getKind).containsExactly(Span.Kind.PRODUCER);
+		assertThat(tracerTest().tracing().tracer().currentSpan()).isNull();
+	}
+
+	@Test
+	public void finishesProducerSpanOfErrorMessageWhenSendCompletesOnAnotherThread() throws Exception {
+		Message<?> sent = this.interceptor.preSend(new ErrorMessage(new RuntimeException("foo")), this.channel);
+
+		runInNewThread(() -> this.interceptor.afterSendCompletion(sent, this.channel, true, null));
+
+		assertThat(sent).isInstanceOf(ErrorMessage.class);
+		assertThat(this.spans).hasSize(1).extracting(FinishedSpan::getKind).containsExactly(Span.Kind.PRODUCER);
+		Message<?> next = this.interceptor.preSend(MessageBuilder.withPayload("bar").build(), this.channel);
+		this.interceptor.afterSendCompletion(next, this.channel, true, null);
+		assertThat(tracerTest().tracing().tracer().currentSpan()).isNull();
+	}
+
+	@Test
+	public void doesNotKeepMessagesWhoseSendNeverCompletes() throws Exception {
+		AtomicReference<WeakReference<Message<?>>> reference = new AtomicReference<>();
+		// the scope opened by the send dies with the thread
+		runInNewThread(() -> reference.set(preSendMutableMessage()));
+		WeakReference<Message<?>> sent = reference.get();
+
+		for (int i = 0; i < 100 && sent.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertThat(sent.get()).isNull();
+	}
+
+	private WeakReference<Message<?>> preSendMutableMessage() {
+		MessageHeaderAccessor accessor = new MessageHeaderAccessor();
+		accessor.setLeaveMutable(true);
+		// the message keeps its own headers, it can't carry the span
+		Message<?> sent = this.interceptor.preSend(MessageBuilder.createMessage("foo", accessor.getMessageHeaders()),
+				this.channel);
+		return new WeakReference<>(sent);
+	}
+
+	@Test
+	public void integrated_sendAndAsyncSubscriber() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(executor);
+			channel.addInterceptor(this.interceptor);
+			CountDownLatch handled = new CountDownLatch(1);
+			channel.subscribe(msg -> handled.countDown());
+
+			channel.send(MessageBuilder.withPayload("foo").build());
+
+			assertThat(handled.await(5, TimeUnit.SECONDS)).isTrue();
+			executor.submit(() -> assertThat(tracerTest().tracing().tracer().currentSpan()).isNull()).get();
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertThat(this.spans).extracting(FinishedSpan::getKind).containsExactlyInAnyOrder(Span.Kind.PRODUCER,
+				Span.Kind.CONSUMER, null);
+		assertThat(tracerTest().tracing().tracer().currentSpan()).isNull();
+	}
+
+	private static void runInNewThread(Runnable runnable) throws InterruptedException {
+		Thread thread = new Thread(runnable);
+		thread.start();
+		thread.join();
+	}
+
 	@Test
 	public void injectsProducerAndConsumerSpan() {
 		this.directChannel.addInterceptor(this.interceptor);
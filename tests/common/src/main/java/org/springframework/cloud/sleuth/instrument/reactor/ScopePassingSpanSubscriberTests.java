@@ -23,6 +23,7 @@ import org.assertj.core.presentation.StandardRepresentation;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
@@ -32,9 +33,11 @@ import reactor.core.publisher.Hooks;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.context.Context;
+import reactor.util.context.ContextView;
 
 import org.springframework.cloud.sleuth.CurrentTraceContext;
 import org.springframework.cloud.sleuth.TraceContext;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -234,4 +237,26 @@ public abstract class ScopePassingSpanSubscriberTests {
 		}
 	}
 
+	@Test
+	public void should_put_tracing_beans_in_context_under_single_key_and_their_own_classes() {
+		Tracer tracer = Mockito.mock(Tracer.class);
+		springContext.registerBean(CurrentTraceContext.class, this::currentTraceContext);
+		springContext.registerBean(Tracer.class, () -> tracer);
+		springContext.refresh();
+
+		Function<? super Publisher<ContextView>, ? extends Publisher<ContextView>> transformer = scopePassingSpanOperator(
+				this.springContext);
+
+		try (CurrentTraceContext.Scope ws = currentTraceContext().newScope(context())) {
+			ContextView context = Mono.from(transformer.apply(Mono.deferContextual(Mono::just))).block();
+
+			then(context.get(Tracer.class)).isSameAs(tracer);
+			then(context.get(CurrentTraceContext.class)).isSameAs(currentTraceContext());
+			ReactorTracingBeans beans = context.get(ReactorTracingBeans.class);
+			then(beans.tracer()).isSameAs(tracer);
+			then(beans.currentTraceContext()).isSameAs(currentTraceContext());
+			then(context.get(TraceContext.class)).isEqualTo(context());
+		}
+	}
+
 }